@@ -0,0 +1,464 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import static io.confluent.ksql.util.LimitedProxyBuilder.anyParams;
+import static io.confluent.ksql.util.LimitedProxyBuilder.methodParams;
+import static io.confluent.ksql.util.LimitedProxyBuilder.noParams;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.avro.random.generator.Generator;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.KsqlExecutionContext.ExecuteResult;
+import io.confluent.ksql.datagen.RowGenerator;
+import io.confluent.ksql.ServiceInfo;
+import io.confluent.ksql.engine.KsqlEngine;
+import io.confluent.ksql.function.InternalFunctionRegistry;
+import io.confluent.ksql.function.MutableFunctionRegistry;
+import io.confluent.ksql.function.UdfLoader;
+import io.confluent.ksql.logging.processing.ProcessingLogContext;
+import io.confluent.ksql.metastore.model.DataSource;
+import io.confluent.ksql.metastore.model.DataSource.DataSourceType;
+import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
+import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
+import io.confluent.ksql.schema.ksql.Field;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import io.confluent.ksql.serde.Format;
+import io.confluent.ksql.serde.FormatInfo;
+import io.confluent.ksql.serde.GenericRowSerDe;
+import io.confluent.ksql.services.KafkaTopicClient;
+import io.confluent.ksql.services.SandboxedServiceContext;
+import io.confluent.ksql.services.ServiceContext;
+import io.confluent.ksql.statement.ConfiguredStatement;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.LimitedProxyBuilder;
+import io.confluent.ksql.util.Pair;
+import io.confluent.ksql.util.PersistentQueryMetadata;
+import io.confluent.ksql.util.SchemaUtil;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.processor.StateStore;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.WindowStore;
+import org.apache.kafka.streams.test.ConsumerRecordFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *  Runs JMH benchmarks of whole KSQL queries, from input bytes to output bytes.
+ *  Each query is built by the engine, as it would be on a server, and driven through a
+ *  {@link TopologyTestDriver}, so no Kafka cluster is needed and the results are not skewed by
+ *  network or broker performance.
+ *  See `ksql-benchmark/README.md` for more info, including how to run the benchmarks.
+ */
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(1)
+@Fork(3)
+public class QueryBenchmark {
+
+  private static final Path SCHEMA_DIR = Paths.get("schemas");
+  private static final String SCHEMA_FILE_SUFFIX = ".avro";
+  private static final String SOURCE_TOPIC = "source";
+  private static final String OTHER_TOPIC = "other_source";
+  private static final String SOURCE_TABLE_TOPIC = "source_table";
+
+  // the key field of each schema:
+  private static final Map<String, String> SCHEMA_KEYS = ImmutableMap.of(
+      "impressions", "userid"
+  );
+
+  private static final int NUM_RECORDS = 10_000;
+
+  // how often, in records, state store sizes are sampled:
+  private static final long STORE_SAMPLE_MASK = 0xFFFF;
+
+  /**
+   * The built in shapes of query benchmarked. {@code %1$s} in each statement is replaced with the
+   * name of the source's key field.
+   *
+   * <p>Each shape reads from the sources every benchmark creates: {@code SOURCE_STREAM} and
+   * {@code OTHER_STREAM}, two streams of the generated records, and {@code SOURCE_TABLE}, a table
+   * of them.
+   */
+  public enum QueryShape {
+    FILTER(
+        "CREATE STREAM OUTPUT AS SELECT * FROM SOURCE_STREAM WHERE %1$s LIKE '%%1';"),
+    PROJECT(
+        "CREATE STREAM OUTPUT AS SELECT %1$s, UCASE(%1$s) AS UPPER_KEY, LEN(%1$s) AS KEY_LEN "
+            + "FROM SOURCE_STREAM;"),
+    AGGREGATE(
+        "CREATE TABLE OUTPUT AS SELECT %1$s, COUNT(*) AS CNT FROM SOURCE_STREAM GROUP BY %1$s;"),
+    WINDOWED_AGGREGATE(
+        "CREATE TABLE OUTPUT AS SELECT %1$s, COUNT(*) AS CNT FROM SOURCE_STREAM "
+            + "WINDOW TUMBLING (SIZE 1 MINUTE) GROUP BY %1$s;"),
+    STREAM_TABLE_JOIN(
+        "CREATE STREAM OUTPUT AS SELECT S.*, T.%1$s AS T_KEY FROM SOURCE_STREAM S "
+            + "JOIN SOURCE_TABLE T ON S.%1$s = T.%1$s;"),
+    STREAM_STREAM_JOIN(
+        "CREATE STREAM OUTPUT AS SELECT S.*, O.%1$s AS O_KEY FROM SOURCE_STREAM S "
+            + "JOIN OTHER_STREAM O WITHIN 1 SECOND ON S.%1$s = O.%1$s;");
+
+    private final String statement;
+
+    QueryShape(final String statement) {
+      this.statement = statement;
+    }
+
+    String statement(final String keyField) {
+      return String.format(statement, keyField);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class QueryState {
+
+    /**
+     * Either the name of a {@link QueryShape}, or the path of a file of statements to benchmark
+     * instead. The last persistent query the statements start is benchmarked.
+     */
+    @Param({
+        "FILTER",
+        "PROJECT",
+        "AGGREGATE",
+        "WINDOWED_AGGREGATE",
+        "STREAM_TABLE_JOIN",
+        "STREAM_STREAM_JOIN"
+    })
+    public String query;
+
+    @Param({"impressions"})
+    public String schemaName;
+
+    private final ConsumerRecordFactory<byte[], byte[]> recordFactory =
+        new ConsumerRecordFactory<>(new ByteArraySerializer(), new ByteArraySerializer());
+
+    private byte[][] keys;
+    private byte[][] values;
+    private List<String> inputTopics;
+    private String outputTopic;
+    private ServiceContext serviceContext;
+    private KsqlEngine engine;
+    private TopologyTestDriver driver;
+    private long processed;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+      final Generator generator = new Generator(getSchemaStream(), new Random(0));
+      final String key = SCHEMA_KEYS.get(schemaName);
+      final RowGenerator rowGenerator = new RowGenerator(generator, key);
+
+      generateRecords(rowGenerator);
+
+      final KsqlConfig ksqlConfig = new KsqlConfig(ImmutableMap.<String, Object>builder()
+          .put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:0")
+          .put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest")
+          .put(StreamsConfig.CACHE_MAX_BYTES_BUFFERING_CONFIG, 0)
+          .put(StreamsConfig.STATE_DIR_CONFIG,
+              Files.createTempDirectory("ksql-benchmark").toString())
+          .put(KsqlConfig.KSQL_SERVICE_ID_CONFIG, "benchmark")
+          .put(StreamsConfig.TOPOLOGY_OPTIMIZATION, "all")
+          .build()
+      );
+
+      serviceContext = offlineServiceContext();
+      serviceContext.getTopicClient().createTopic(SOURCE_TOPIC, 1, (short) 1);
+      serviceContext.getTopicClient().createTopic(OTHER_TOPIC, 1, (short) 1);
+      serviceContext.getTopicClient().createTopic(SOURCE_TABLE_TOPIC, 1, (short) 1);
+
+      final MutableFunctionRegistry functionRegistry = new InternalFunctionRegistry();
+      UdfLoader.newInstance(ksqlConfig, functionRegistry, ".").load();
+
+      engine = new KsqlEngine(
+          serviceContext,
+          ProcessingLogContext.create(),
+          functionRegistry,
+          ServiceInfo.create(ksqlConfig)
+      );
+
+      final String columns = rowGenerator.schema().valueFields().stream()
+          .map(QueryState::columnDefinition)
+          .collect(Collectors.joining(", "));
+
+      final String keyField = key.toUpperCase();
+
+      final String sql = sourceStatement("STREAM", "SOURCE_STREAM", SOURCE_TOPIC, columns, keyField)
+          + sourceStatement("STREAM", "OTHER_STREAM", OTHER_TOPIC, columns, keyField)
+          + sourceStatement("TABLE", "SOURCE_TABLE", SOURCE_TABLE_TOPIC, columns, keyField)
+          + statements(keyField);
+
+      final PersistentQueryMetadata persistentQuery = execute(sql, ksqlConfig);
+
+      // Tables are written first, so that each stream record can join the table record:
+      inputTopics = persistentQuery.getSourceNames().stream()
+          .map(name -> engine.getMetaStore().getSource(name))
+          .sorted(Comparator.comparing(QueryState::isStream))
+          .map(DataSource::getKafkaTopicName)
+          .collect(Collectors.toList());
+
+      outputTopic = engine.getMetaStore()
+          .getSource(persistentQuery.getSinkName())
+          .getKafkaTopicName();
+
+      final Properties streamsProperties = new Properties();
+      streamsProperties.putAll(persistentQuery.getStreamsProperties());
+      driver = new TopologyTestDriver(persistentQuery.getTopology(), streamsProperties, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      if (driver != null) {
+        driver.close();
+      }
+      if (engine != null) {
+        engine.close();
+      }
+      if (serviceContext != null) {
+        serviceContext.close();
+      }
+    }
+
+    /**
+     * Pipe the next record through the query, with a timestamp one millisecond after the last,
+     * and drain the query's output.
+     *
+     * @return the number of output records.
+     */
+    int processNext() {
+      final int idx = (int) (processed % NUM_RECORDS);
+      final long timestamp = processed++;
+
+      for (final String topic : inputTopics) {
+        driver.pipeInput(recordFactory.create(topic, keys[idx], values[idx], timestamp));
+      }
+
+      int outputs = 0;
+      ProducerRecord<byte[], byte[]> output = driver.readOutput(outputTopic);
+      while (output != null) {
+        outputs++;
+        output = driver.readOutput(outputTopic);
+      }
+      return outputs;
+    }
+
+    /**
+     * @return the number of entries across all of the query's state stores. Key-value store
+     *         sizes are the store's estimate.
+     */
+    long stateStoreEntries() {
+      long entries = 0;
+      for (final StateStore store : driver.getAllStateStores().values()) {
+        if (store instanceof KeyValueStore) {
+          entries += ((KeyValueStore<?, ?>) store).approximateNumEntries();
+        } else if (store instanceof WindowStore) {
+          try (KeyValueIterator<?, ?> it = ((WindowStore<?, ?>) store).all()) {
+            while (it.hasNext()) {
+              it.next();
+              entries++;
+            }
+          }
+        }
+      }
+      return entries;
+    }
+
+    long processed() {
+      return processed;
+    }
+
+    private void generateRecords(final RowGenerator rowGenerator) {
+      final Serializer<String> keySerializer = new StringSerializer();
+      final Serializer<GenericRow> valueSerializer = GenericRowSerDe.from(
+          FormatInfo.of(Format.JSON, Optional.empty()),
+          PersistenceSchema.from(rowGenerator.schema().valueSchema(), false),
+          new KsqlConfig(Collections.emptyMap()),
+          () -> null,
+          "benchmark",
+          ProcessingLogContext.create()
+      ).serializer();
+
+      keys = new byte[NUM_RECORDS][];
+      values = new byte[NUM_RECORDS][];
+      for (int i = 0; i < NUM_RECORDS; i++) {
+        final Pair<Struct, GenericRow> row = rowGenerator.generateRow();
+        keys[i] = keySerializer.serialize(
+            SOURCE_TOPIC, row.getLeft().getString(SchemaUtil.ROWKEY_NAME));
+        values[i] = valueSerializer.serialize(SOURCE_TOPIC, row.getRight());
+      }
+    }
+
+    private String statements(final String keyField) throws IOException {
+      final Optional<QueryShape> shape = Arrays.stream(QueryShape.values())
+          .filter(s -> s.name().equals(query))
+          .findFirst();
+
+      if (shape.isPresent()) {
+        return shape.get().statement(keyField);
+      }
+
+      return new String(Files.readAllBytes(Paths.get(query)), StandardCharsets.UTF_8);
+    }
+
+    private PersistentQueryMetadata execute(final String sql, final KsqlConfig ksqlConfig) {
+      PersistentQueryMetadata query = null;
+      for (final ParsedStatement parsed : engine.parse(sql)) {
+        final PreparedStatement<?> prepared = engine.prepare(parsed);
+        final ExecuteResult result = engine.execute(
+            ConfiguredStatement.of(prepared, Collections.emptyMap(), ksqlConfig));
+
+        if (result.getQuery().isPresent()) {
+          query = (PersistentQueryMetadata) result.getQuery().get();
+        }
+      }
+
+      if (query == null) {
+        throw new KsqlException("No persistent query built from: " + sql);
+      }
+      return query;
+    }
+
+    /**
+     * The engine only checks that source topics exist, so the topics are created in a sandbox
+     * over a topic client that knows of no others, and no Kafka cluster is needed.
+     */
+    private static ServiceContext offlineServiceContext() {
+      final KafkaTopicClient noTopics = LimitedProxyBuilder.forClass(KafkaTopicClient.class)
+          .swallow("isTopicExists", methodParams(String.class), false)
+          .swallow("validateCreateTopic", anyParams())
+          .swallow("describeTopics", methodParams(Collection.class), Collections.emptyMap())
+          .build();
+
+      final ServiceContext offline = LimitedProxyBuilder.forClass(ServiceContext.class)
+          .swallow("getTopicClient", noParams(), noTopics)
+          .swallow("getSchemaRegistryClient", noParams(), new MockSchemaRegistryClient())
+          .build();
+
+      return SandboxedServiceContext.create(offline);
+    }
+
+    private InputStream getSchemaStream() {
+      return QueryBenchmark.class.getClassLoader().getResourceAsStream(
+          SCHEMA_DIR.resolve(schemaName + SCHEMA_FILE_SUFFIX).toString());
+    }
+
+    private static boolean isStream(final DataSource<?> source) {
+      return source.getDataSourceType() != DataSourceType.KTABLE;
+    }
+
+    private static String columnDefinition(final Field field) {
+      return field.name().toUpperCase() + " " + field.type();
+    }
+
+    private static String sourceStatement(
+        final String type,
+        final String name,
+        final String topic,
+        final String columns,
+        final String keyField
+    ) {
+      return "CREATE " + type + " " + name + " (" + columns + ") "
+          + "WITH (kafka_topic='" + topic + "', value_format='JSON', key='" + keyField + "');";
+    }
+  }
+
+  /**
+   * Reported alongside throughput, as JMH does not otherwise report state growth.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class StateStoreCounters {
+
+    public long stateStoreEntries;
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public int throughput(final QueryState state, final StateStoreCounters counters) {
+    final int outputs = state.processNext();
+    if ((state.processed() & STORE_SAMPLE_MASK) == 0) {
+      counters.stateStoreEntries = state.stateStoreEntries();
+    }
+    return outputs;
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SampleTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int latency(final QueryState state) {
+    return state.processNext();
+  }
+
+  /**
+   * @param args optional paths of files of statements to benchmark, instead of the built in
+   *             {@link QueryShape}s.
+   */
+  public static void main(final String[] args) throws RunnerException {
+    final ChainedOptionsBuilder opt = new OptionsBuilder()
+        .include(QueryBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class);
+
+    if (args.length > 0) {
+      opt.param("query", args);
+    }
+
+    new Runner(opt.build()).run();
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+import io.confluent.ksql.benchmark.QueryBenchmark.QueryShape;
+import io.confluent.ksql.benchmark.QueryBenchmark.QueryState;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(Parameterized.class)
+public class QueryBenchmarkTest {
+
+  private static final int RECORDS = 1_000;
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private final QueryShape queryShape;
+
+  private QueryState queryState;
+
+  public QueryBenchmarkTest(final QueryShape queryShape) {
+    this.queryShape = queryShape;
+  }
+
+  @Parameterized.Parameters(name = "{0}")
+  public static Iterable<Object[]> data() {
+    return Arrays.stream(QueryShape.values())
+        .map(shape -> new Object[]{shape})
+        .collect(Collectors.toList());
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    queryState = new QueryState();
+    queryState.query = queryShape.name();
+    queryState.schemaName = "impressions";
+  }
+
+  @After
+  public void tearDown() {
+    queryState.tearDown();
+  }
+
+  @Test
+  public void shouldProduceOutput() throws Exception {
+    // Given:
+    queryState.setUp();
+
+    // When:
+    int outputs = 0;
+    for (int i = 0; i < RECORDS; i++) {
+      outputs += queryState.processNext();
+    }
+
+    // Then:
+    assertThat(outputs, is(greaterThan(0)));
+  }
+
+  @Test
+  public void shouldCountStateStoreEntries() throws Exception {
+    // Given:
+    queryState.setUp();
+
+    // When:
+    for (int i = 0; i < RECORDS; i++) {
+      queryState.processNext();
+    }
+
+    // Then:
+    final boolean stateful = queryShape != QueryShape.FILTER && queryShape != QueryShape.PROJECT;
+    assertThat(queryState.stateStoreEntries() > 0, is(stateful));
+  }
+
+  @Test
+  public void shouldLoadStatementsFromFile() throws Exception {
+    // Given:
+    final File statements = folder.newFile("query.sql");
+    Files.write(
+        statements.toPath(),
+        queryShape.statement("USERID").getBytes(StandardCharsets.UTF_8));
+
+    queryState.query = statements.getPath();
+    queryState.setUp();
+
+    // When:
+    int outputs = 0;
+    for (int i = 0; i < RECORDS; i++) {
+      outputs += queryState.processNext();
+    }
+
+    // Then:
+    assertThat(outputs, is(greaterThan(0)));
+  }
+}
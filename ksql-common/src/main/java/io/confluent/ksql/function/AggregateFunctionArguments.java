@@ -42,6 +42,10 @@ public class AggregateFunctionArguments {
     return args.get(i);
   }
 
+  public int argCount() {
+    return args.size();
+  }
+
   public void ensureArgCount(final int expectedCount, final String functionName) {
     if (args.size() != expectedCount) {
       throw new KsqlException(
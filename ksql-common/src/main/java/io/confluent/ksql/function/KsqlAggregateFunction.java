@@ -17,6 +17,7 @@ package io.confluent.ksql.function;
 
 import io.confluent.ksql.schema.ksql.types.SqlType;
 import java.util.List;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.Struct;
@@ -33,6 +34,23 @@ public interface KsqlAggregateFunction<V, A> extends IndexedFunction {
 
   Schema getReturnType();
 
+  /**
+   * The type of the aggregate held in the state store, which defaults to the return type.
+   *
+   * <p>Functions whose aggregate is not their result, e.g. a sketch from which the result is
+   * estimated, return a different type and convert it using the {@link #getResultMapper()}.
+   */
+  default Schema getAggregateType() {
+    return getReturnType();
+  }
+
+  /**
+   * @return the mapper from the aggregate to the result of the function.
+   */
+  default Function<A, ?> getResultMapper() {
+    return Function.identity();
+  }
+
   SqlType returnType();
 
   boolean hasSameArgTypes(List<Schema> argTypeList);
@@ -80,6 +80,24 @@ public class ProcessingLogConfig extends AbstractConfig {
   private static final String INCLUDE_ROWS_DOC =
       "Toggles whether or not the processing log should include rows in log messages";
 
+  public static final String RATE_LIMIT = propertyName("rate.limit.messages.per.second");
+  private static final int RATE_LIMIT_DEFAULT = 0;
+  private static final String RATE_LIMIT_DOC =
+      "The maximum number of messages per second each processing logger writes to the "
+          + "processing log. Each query has its own loggers, e.g. one for deserialization "
+          + "errors and one for errors evaluating its projection, so a storm of errors in one "
+          + "place does not starve the others. Messages over the limit are dropped, counted, "
+          + "and periodically summarized. Zero or less means no limit.";
+
+  public static final String RATE_LIMIT_SUMMARY_INTERVAL_MS =
+      propertyName("rate.limit.summary.interval.ms");
+  private static final long RATE_LIMIT_SUMMARY_INTERVAL_MS_DEFAULT = 60_000L;
+  private static final String RATE_LIMIT_SUMMARY_INTERVAL_MS_DOC = String.format(
+      "If \"%s\" is set, the minimum interval between summaries of the messages a logger has "
+          + "dropped. Each summary logs the count of dropped messages and writes the last "
+          + "dropped message to the processing log as an example.",
+      RATE_LIMIT);
+
   private static final ConfigDef CONFIG_DEF = new ConfigDef()
       .define(
           STREAM_AUTO_CREATE,
@@ -123,6 +141,20 @@ public class ProcessingLogConfig extends AbstractConfig {
           false,
           Importance.HIGH,
           INCLUDE_ROWS_DOC
+      )
+      .define(
+          RATE_LIMIT,
+          Type.INT,
+          RATE_LIMIT_DEFAULT,
+          Importance.LOW,
+          RATE_LIMIT_DOC
+      )
+      .define(
+          RATE_LIMIT_SUMMARY_INTERVAL_MS,
+          Type.LONG,
+          RATE_LIMIT_SUMMARY_INTERVAL_MS_DEFAULT,
+          Importance.LOW,
+          RATE_LIMIT_SUMMARY_INTERVAL_MS_DOC
       );
 
   public ProcessingLogConfig(final Map<?, ?> properties) {
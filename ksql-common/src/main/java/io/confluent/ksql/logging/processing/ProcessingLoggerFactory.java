@@ -29,4 +29,15 @@ public interface ProcessingLoggerFactory {
    * @return A collection of all loggers that have been created by the factory
    */
   Collection<String> getLoggers();
+
+  /**
+   * Close the loggers of a query once the query has been closed.
+   *
+   * <p>Loggers belong to a query if their name is the query id, or starts with it followed by
+   * a {@code '.'}.
+   *
+   * @param queryId the id of the closed query.
+   */
+  default void closeQueryLoggers(final String queryId) {
+  }
 }
@@ -15,15 +15,32 @@
 
 package io.confluent.ksql.logging.processing;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.confluent.common.logging.StructuredLogger;
 import io.confluent.common.logging.StructuredLoggerFactory;
+import io.confluent.ksql.metrics.MetricCollectors;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
+import org.apache.kafka.common.utils.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class ProcessingLoggerFactoryImpl implements ProcessingLoggerFactory {
+  private static final Logger LOG = LoggerFactory.getLogger(ProcessingLoggerFactoryImpl.class);
+
   private final ProcessingLogConfig config;
   private final StructuredLoggerFactory innerFactory;
   private final BiFunction<ProcessingLogConfig, StructuredLogger, ProcessingLogger> loggerFactory;
+  // One per name, so that loggers of the same name share their limit and metrics:
+  private final Map<String, RateLimitedProcessingLogger> rateLimitedLoggers =
+      new ConcurrentHashMap<>();
+  private ScheduledExecutorService flusher;
 
   ProcessingLoggerFactoryImpl(
       final ProcessingLogConfig config,
@@ -43,11 +60,73 @@ public class ProcessingLoggerFactoryImpl implements ProcessingLoggerFactory {
 
   @Override
   public ProcessingLogger getLogger(final String name) {
-    return loggerFactory.apply(config, innerFactory.getLogger(name));
+    final int rateLimit = config.getInt(ProcessingLogConfig.RATE_LIMIT);
+    if (rateLimit <= 0) {
+      return loggerFactory.apply(config, innerFactory.getLogger(name));
+    }
+
+    final long summaryIntervalMs =
+        config.getLong(ProcessingLogConfig.RATE_LIMIT_SUMMARY_INTERVAL_MS);
+
+    final RateLimitedProcessingLogger rateLimited = rateLimitedLoggers.computeIfAbsent(
+        name,
+        n -> new RateLimitedProcessingLogger(
+            n,
+            loggerFactory.apply(config, innerFactory.getLogger(n)),
+            rateLimit,
+            summaryIntervalMs,
+            MetricCollectors.getMetrics(),
+            Time.SYSTEM
+        )
+    );
+
+    startFlusher(summaryIntervalMs);
+    return rateLimited;
+  }
+
+  @Override
+  public void closeQueryLoggers(final String queryId) {
+    final Iterator<RateLimitedProcessingLogger> it = rateLimitedLoggers.values().iterator();
+    while (it.hasNext()) {
+      final RateLimitedProcessingLogger logger = it.next();
+      if (logger.getName().equals(queryId) || logger.getName().startsWith(queryId + ".")) {
+        it.remove();
+        logger.close();
+      }
+    }
   }
 
   @Override
   public Collection<String> getLoggers() {
     return innerFactory.getLoggers();
   }
+
+  // Summarizes dropped messages even once a query stops logging errors:
+  private synchronized void startFlusher(final long summaryIntervalMs) {
+    if (flusher != null) {
+      return;
+    }
+
+    flusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+        .setNameFormat("ksql-processing-log-flusher")
+        .setDaemon(true)
+        .build());
+
+    flusher.scheduleAtFixedRate(
+        this::flushRateLimitedLoggers,
+        summaryIntervalMs,
+        summaryIntervalMs,
+        TimeUnit.MILLISECONDS
+    );
+  }
+
+  private void flushRateLimitedLoggers() {
+    for (final RateLimitedProcessingLogger logger : rateLimitedLoggers.values()) {
+      try {
+        logger.flush();
+      } catch (final Exception e) {
+        LOG.warn("Failed to flush processing logger " + logger.getName(), e);
+      }
+    }
+  }
 }
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.logging.processing;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.function.Function;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.CumulativeSum;
+import org.apache.kafka.common.metrics.stats.Rate;
+import org.apache.kafka.common.utils.Time;
+import org.apache.kafka.connect.data.SchemaAndValue;
+import org.apache.kafka.connect.data.Struct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A processing logger that limits the rate at which messages are written to the log.
+ *
+ * <p>Uses a token bucket that holds up to one second's worth of messages, so short bursts are
+ * logged in full. Messages over the limit are dropped without being built. Dropped messages are
+ * counted in the {@value #SUPPRESSED_TOTAL} and {@value #SUPPRESSED_RATE} metrics, and every
+ * {@link ProcessingLogConfig#RATE_LIMIT_SUMMARY_INTERVAL_MS} the count is logged and the last
+ * dropped message is written to the processing log as an example. The example's error message
+ * is prefixed with the count, so it can be told apart from messages that were not dropped.
+ *
+ * <p>A summary is written either by the next message after the interval has passed, or by
+ * {@link #flush()}, which is called periodically, so that a burst of errors that then stops is
+ * still summarized. Any remaining summary is written on {@link #close()}.
+ */
+final class RateLimitedProcessingLogger implements ProcessingLogger, AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RateLimitedProcessingLogger.class);
+
+  static final String METRIC_GROUP = "ksql-processing-log";
+  static final String SUPPRESSED_TOTAL = "suppressed-messages-total";
+  static final String SUPPRESSED_RATE = "suppressed-messages-rate";
+  static final String SUMMARY_PREFIX = "[%d similar messages were dropped by the rate limit] ";
+
+  private static final Map<String, String> ERROR_MESSAGE_FIELDS = ImmutableMap.of(
+      ProcessingLogMessageSchema.DESERIALIZATION_ERROR,
+      ProcessingLogMessageSchema.DESERIALIZATION_ERROR_FIELD_MESSAGE,
+      ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR,
+      ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR_FIELD_MESSAGE,
+      ProcessingLogMessageSchema.PRODUCTION_ERROR,
+      ProcessingLogMessageSchema.PRODUCTION_ERROR_FIELD_MESSAGE
+  );
+
+  private final String name;
+  private final ProcessingLogger delegate;
+  private final Metrics metrics;
+  private final Time time;
+  private final int messagesPerSecond;
+  private final long summaryIntervalMs;
+  private final String sensorName;
+
+  private double tokens;
+  private long lastRefillMs;
+  private long suppressed;
+  private long suppressedSinceMs;
+  private Function<ProcessingLogConfig, SchemaAndValue> lastSuppressed;
+  private Sensor suppressedSensor;
+
+  RateLimitedProcessingLogger(
+      final String name,
+      final ProcessingLogger delegate,
+      final int messagesPerSecond,
+      final long summaryIntervalMs,
+      final Metrics metrics,
+      final Time time
+  ) {
+    if (messagesPerSecond <= 0) {
+      throw new IllegalArgumentException("messagesPerSecond must be positive");
+    }
+
+    this.name = requireNonNull(name, "name");
+    this.delegate = requireNonNull(delegate, "delegate");
+    this.metrics = requireNonNull(metrics, "metrics");
+    this.time = requireNonNull(time, "time");
+    this.messagesPerSecond = messagesPerSecond;
+    this.summaryIntervalMs = summaryIntervalMs;
+    this.sensorName = METRIC_GROUP + "-suppressed-" + name;
+    this.tokens = messagesPerSecond;
+    this.lastRefillMs = time.milliseconds();
+  }
+
+  String getName() {
+    return name;
+  }
+
+  @Override
+  public void error(final Function<ProcessingLogConfig, SchemaAndValue> msgFactory) {
+    final boolean permitted;
+    final Summary summary;
+
+    synchronized (this) {
+      final long nowMs = time.milliseconds();
+
+      permitted = tryAcquire(nowMs);
+      if (!permitted) {
+        if (suppressed == 0) {
+          suppressedSinceMs = nowMs;
+        }
+        suppressed++;
+        lastSuppressed = msgFactory;
+      }
+
+      summary = takeSummary(nowMs, false);
+    }
+
+    if (permitted) {
+      delegate.error(msgFactory);
+    } else {
+      suppressedSensor().record();
+    }
+
+    write(summary);
+  }
+
+  /**
+   * Write the summary of dropped messages, if one is due.
+   */
+  void flush() {
+    final Summary summary;
+    synchronized (this) {
+      summary = takeSummary(time.milliseconds(), false);
+    }
+    write(summary);
+  }
+
+  /**
+   * Write the summary of any dropped messages and remove the logger's metrics.
+   */
+  @Override
+  public void close() {
+    final Summary summary;
+    synchronized (this) {
+      summary = takeSummary(time.milliseconds(), true);
+      if (suppressedSensor != null) {
+        metrics.removeSensor(sensorName);
+        suppressedSensor = null;
+      }
+    }
+    write(summary);
+  }
+
+  private Summary takeSummary(final long nowMs, final boolean force) {
+    if (suppressed == 0 || (!force && nowMs - suppressedSinceMs < summaryIntervalMs)) {
+      return null;
+    }
+
+    final Summary summary = new Summary(suppressed, nowMs - suppressedSinceMs, lastSuppressed);
+    suppressed = 0;
+    lastSuppressed = null;
+    return summary;
+  }
+
+  private void write(final Summary summary) {
+    if (summary == null) {
+      return;
+    }
+
+    LOG.warn("Processing logger {} dropped {} messages in the last {}ms, as they exceeded "
+            + "the limit of {} messages per second. The last dropped message has been "
+            + "written to the processing log.",
+        name, summary.count, summary.durationMs, messagesPerSecond);
+
+    delegate.error(asSummary(summary.lastSuppressed, summary.count));
+  }
+
+  private static Function<ProcessingLogConfig, SchemaAndValue> asSummary(
+      final Function<ProcessingLogConfig, SchemaAndValue> msgFactory,
+      final long count
+  ) {
+    return config -> {
+      final SchemaAndValue msg = msgFactory.apply(config);
+      if (msg != null && msg.value() instanceof Struct) {
+        markSummary((Struct) msg.value(), count);
+      }
+      return msg;
+    };
+  }
+
+  private static void markSummary(final Struct record, final long count) {
+    ERROR_MESSAGE_FIELDS.forEach((type, messageField) -> {
+      if (record.schema().field(type) == null) {
+        return;
+      }
+
+      final Struct error = record.getStruct(type);
+      if (error != null) {
+        error.put(messageField, String.format(SUMMARY_PREFIX, count)
+            + error.getString(messageField));
+      }
+    });
+  }
+
+  private boolean tryAcquire(final long nowMs) {
+    if (nowMs > lastRefillMs) {
+      tokens = Math.min(
+          messagesPerSecond,
+          tokens + (nowMs - lastRefillMs) * messagesPerSecond / 1000.0
+      );
+      lastRefillMs = nowMs;
+    }
+
+    if (tokens < 1) {
+      return false;
+    }
+
+    tokens--;
+    return true;
+  }
+
+  private synchronized Sensor suppressedSensor() {
+    if (suppressedSensor == null) {
+      final Map<String, String> tags = ImmutableMap.of("logger", name);
+      final MetricName total = metrics.metricName(SUPPRESSED_TOTAL, METRIC_GROUP,
+          "The total number of messages dropped by the processing logger", tags);
+      final MetricName rate = metrics.metricName(SUPPRESSED_RATE, METRIC_GROUP,
+          "The number of messages per second dropped by the processing logger", tags);
+
+      // Each factory has one logger per name, but loggers of other factories may share the sensor:
+      suppressedSensor = metrics.sensor(sensorName);
+      if (metrics.metric(total) == null) {
+        suppressedSensor.add(total, new CumulativeSum());
+      }
+      if (metrics.metric(rate) == null) {
+        suppressedSensor.add(rate, new Rate());
+      }
+    }
+    return suppressedSensor;
+  }
+
+  private static final class Summary {
+
+    private final long count;
+    private final long durationMs;
+    private final Function<ProcessingLogConfig, SchemaAndValue> lastSuppressed;
+
+    Summary(
+        final long count,
+        final long durationMs,
+        final Function<ProcessingLogConfig, SchemaAndValue> lastSuppressed
+    ) {
+      this.count = count;
+      this.durationMs = durationMs;
+      this.lastSuppressed = lastSuppressed;
+    }
+  }
+}
@@ -16,10 +16,14 @@
 package io.confluent.ksql.properties.with;
 
 import io.confluent.ksql.configdef.ConfigValidators;
+import io.confluent.ksql.serde.Delimiter;
 import io.confluent.ksql.serde.Format;
+import io.confluent.ksql.serde.Quote;
+import io.confluent.ksql.util.KsqlException;
 import org.apache.kafka.common.config.ConfigDef;
 import org.apache.kafka.common.config.ConfigDef.Importance;
 import org.apache.kafka.common.config.ConfigDef.NonEmptyString;
+import org.apache.kafka.common.config.ConfigException;
 
 /**
  * Common 'With Clause' properties
@@ -39,6 +43,8 @@ public final class CommonCreateConfigs {
   public static final String VALUE_AVRO_SCHEMA_FULL_NAME = "VALUE_AVRO_SCHEMA_FULL_NAME";
   public static final String VALUE_FORMAT_PROPERTY = "VALUE_FORMAT";
   public static final String WRAP_SINGLE_VALUE = "WRAP_SINGLE_VALUE";
+  public static final String VALUE_DELIMITER_PROPERTY = "VALUE_DELIMITER";
+  public static final String VALUE_QUOTE_PROPERTY = "VALUE_QUOTE";
 
   static void addToConfigDef(
       final ConfigDef configDef,
@@ -117,7 +123,47 @@ public final class CommonCreateConfigs {
             ConfigDef.Type.STRING,
             null,
             Importance.LOW,
-            "The fully qualified name of the Avro schema to use");
+            "The fully qualified name of the Avro schema to use")
+        .define(
+            VALUE_DELIMITER_PROPERTY,
+            ConfigDef.Type.STRING,
+            null,
+            CommonCreateConfigs::validateDelimiter,
+            Importance.LOW,
+            "The delimiter to use when VALUE_FORMAT='DELIMITED'. Supports single "
+                + "character delimiters, or TAB or SPACE. Defaults to ','.")
+        .define(
+            VALUE_QUOTE_PROPERTY,
+            ConfigDef.Type.STRING,
+            null,
+            CommonCreateConfigs::validateQuote,
+            Importance.LOW,
+            "The character that encloses fields containing the delimiter when "
+                + "VALUE_FORMAT='DELIMITED'. Supports single characters. Defaults to '\"'.");
+  }
+
+  private static void validateDelimiter(final String name, final Object value) {
+    if (value == null) {
+      return;
+    }
+
+    try {
+      Delimiter.parse(value.toString());
+    } catch (final KsqlException e) {
+      throw new ConfigException(name, value, e.getMessage());
+    }
+  }
+
+  private static void validateQuote(final String name, final Object value) {
+    if (value == null) {
+      return;
+    }
+
+    try {
+      Quote.parse(value.toString());
+    } catch (final KsqlException e) {
+      throw new ConfigException(name, value, e.getMessage());
+    }
   }
 
   private CommonCreateConfigs() {
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.errorprone.annotations.Immutable;
+import io.confluent.ksql.util.KsqlException;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The character that separates the fields of a {@link Format#DELIMITED} value.
+ *
+ * <p>Delimiters must be single ASCII characters, so that delimited values can be split without
+ * first decoding them. Characters that are hard to express in a WITH clause can be supplied by
+ * name, e.g. {@code TAB}.
+ */
+@Immutable
+public final class Delimiter {
+
+  private static final Map<String, Character> NAMED_DELIMITERS = ImmutableMap.of(
+      "TAB", '\t',
+      "SPACE", ' '
+  );
+
+  private static final Delimiter DEFAULT = new Delimiter(',');
+
+  private final char delimiter;
+
+  public static Delimiter defaultDelimiter() {
+    return DEFAULT;
+  }
+
+  public static Delimiter of(final char delimiter) {
+    return new Delimiter(delimiter);
+  }
+
+  /**
+   * Parse a delimiter from either a single character or the name of a delimiter.
+   *
+   * @param value the value to parse.
+   * @return the delimiter.
+   */
+  public static Delimiter parse(final String value) {
+    Objects.requireNonNull(value, "value");
+
+    final Character named = NAMED_DELIMITERS.get(value.toUpperCase());
+    if (named != null) {
+      return new Delimiter(named);
+    }
+
+    if (value.length() != 1) {
+      throw new KsqlException("Invalid delimiter '" + value + "'. "
+          + "Delimiter must be a single character or one of " + NAMED_DELIMITERS.keySet());
+    }
+
+    return new Delimiter(value.charAt(0));
+  }
+
+  private Delimiter(final char delimiter) {
+    this.delimiter = delimiter;
+
+    if (delimiter > 0x7F) {
+      throw new KsqlException("Invalid delimiter '" + delimiter + "'. "
+          + "Delimiter must be an ASCII character.");
+    }
+
+    if (delimiter == '"' || delimiter == '\r' || delimiter == '\n') {
+      throw new KsqlException("Invalid delimiter. "
+          + "Delimiter can not be a quote or line break character.");
+    }
+  }
+
+  public char getDelimiter() {
+    return delimiter;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final Delimiter that = (Delimiter) o;
+    return delimiter == that.delimiter;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(delimiter);
+  }
+
+  @Override
+  public String toString() {
+    return String.valueOf(delimiter);
+  }
+}
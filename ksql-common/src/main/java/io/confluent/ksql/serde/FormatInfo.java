@@ -28,6 +28,8 @@ public final class FormatInfo {
 
   private final Format format;
   private final Optional<String> avroFullSchemaName;
+  private final Optional<Delimiter> delimiter;
+  private final Optional<Quote> quote;
 
   public static FormatInfo of(final Format format) {
     return FormatInfo.of(format, Optional.empty());
@@ -37,20 +39,54 @@ public final class FormatInfo {
       final Format format,
       final Optional<String> avroFullSchemaName
   ) {
-    return new FormatInfo(format, avroFullSchemaName);
+    return FormatInfo.of(format, avroFullSchemaName, Optional.empty());
+  }
+
+  public static FormatInfo of(
+      final Format format,
+      final Optional<String> avroFullSchemaName,
+      final Optional<Delimiter> delimiter
+  ) {
+    return FormatInfo.of(format, avroFullSchemaName, delimiter, Optional.empty());
+  }
+
+  public static FormatInfo of(
+      final Format format,
+      final Optional<String> avroFullSchemaName,
+      final Optional<Delimiter> delimiter,
+      final Optional<Quote> quote
+  ) {
+    return new FormatInfo(format, avroFullSchemaName, delimiter, quote);
   }
 
   private FormatInfo(
       final Format format,
-      final Optional<String> avroFullSchemaName
+      final Optional<String> avroFullSchemaName,
+      final Optional<Delimiter> delimiter,
+      final Optional<Quote> quote
   ) {
     this.format = Objects.requireNonNull(format, "format");
     this.avroFullSchemaName = Objects.requireNonNull(avroFullSchemaName, "avroFullSchemaName");
+    this.delimiter = Objects.requireNonNull(delimiter, "delimiter");
+    this.quote = Objects.requireNonNull(quote, "quote");
 
     if (format != Format.AVRO && avroFullSchemaName.isPresent()) {
       throw new KsqlException("Full schema name only supported with AVRO format");
     }
 
+    if (format != Format.DELIMITED && delimiter.isPresent()) {
+      throw new KsqlException("Delimiter only supported with DELIMITED format");
+    }
+
+    if (format != Format.DELIMITED && quote.isPresent()) {
+      throw new KsqlException("Quote only supported with DELIMITED format");
+    }
+
+    if (quote.isPresent() && quote.get().getQuote()
+        == delimiter.orElse(Delimiter.defaultDelimiter()).getDelimiter()) {
+      throw new KsqlException("Quote can not be the same character as the delimiter");
+    }
+
     if (avroFullSchemaName.map(name -> name.trim().isEmpty()).orElse(false)) {
       throw new KsqlException("Schema name can not be empty");
     }
@@ -64,6 +100,14 @@ public final class FormatInfo {
     return avroFullSchemaName;
   }
 
+  public Optional<Delimiter> getDelimiter() {
+    return delimiter;
+  }
+
+  public Optional<Quote> getQuote() {
+    return quote;
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (this == o) {
@@ -74,12 +118,14 @@ public final class FormatInfo {
     }
     final FormatInfo that = (FormatInfo) o;
     return format == that.format
-        && Objects.equals(avroFullSchemaName, that.avroFullSchemaName);
+        && Objects.equals(avroFullSchemaName, that.avroFullSchemaName)
+        && Objects.equals(delimiter, that.delimiter)
+        && Objects.equals(quote, that.quote);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(format, avroFullSchemaName);
+    return Objects.hash(format, avroFullSchemaName, delimiter, quote);
   }
 
   @Override
@@ -87,6 +133,8 @@ public final class FormatInfo {
     return "FormatInfo{"
         + "format=" + format
         + ", avroFullSchemaName=" + avroFullSchemaName
+        + ", delimiter=" + delimiter
+        + ", quote=" + quote
         + '}';
   }
 }
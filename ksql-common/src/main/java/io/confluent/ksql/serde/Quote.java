@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde;
+
+import com.google.errorprone.annotations.Immutable;
+import io.confluent.ksql.util.KsqlException;
+import java.util.Objects;
+
+/**
+ * The character that encloses fields of a {@link Format#DELIMITED} value that contain the
+ * delimiter, a line break or the quote itself.
+ *
+ * <p>Like {@link Delimiter}s, quotes must be single ASCII characters, so that delimited values can
+ * be split without first decoding them.
+ */
+@Immutable
+public final class Quote {
+
+  private static final Quote DEFAULT = new Quote('"');
+
+  private final char quote;
+
+  public static Quote defaultQuote() {
+    return DEFAULT;
+  }
+
+  public static Quote of(final char quote) {
+    return new Quote(quote);
+  }
+
+  /**
+   * Parse a quote from a single character.
+   *
+   * @param value the value to parse.
+   * @return the quote.
+   */
+  public static Quote parse(final String value) {
+    Objects.requireNonNull(value, "value");
+
+    if (value.length() != 1) {
+      throw new KsqlException("Invalid quote '" + value + "'. "
+          + "Quote must be a single character.");
+    }
+
+    return new Quote(value.charAt(0));
+  }
+
+  private Quote(final char quote) {
+    this.quote = quote;
+
+    if (quote > 0x7F) {
+      throw new KsqlException("Invalid quote '" + quote + "'. "
+          + "Quote must be an ASCII character.");
+    }
+
+    if (quote == '\r' || quote == '\n') {
+      throw new KsqlException("Invalid quote. Quote can not be a line break character.");
+    }
+  }
+
+  public char getQuote() {
+    return quote;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final Quote that = (Quote) o;
+    return quote == that.quote;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(quote);
+  }
+
+  @Override
+  public String toString() {
+    return String.valueOf(quote);
+  }
+}
@@ -136,6 +136,65 @@ public class KsqlConfig extends AbstractConfig {
       + "in interactive mode. Once this limit is reached, any further persistent queries will not "
       + "be accepted.";
 
+  public static final String KSQL_ACTIVE_PERSISTENT_STREAM_THREAD_LIMIT_CONFIG =
+      "ksql.query.persistent.stream.threads.limit";
+  private static final String KSQL_ACTIVE_PERSISTENT_STREAM_THREAD_LIMIT_DOC =
+      "An upper limit on the total number of stream threads, i.e. the sum of each query's "
+      + "'num.stream.threads', that the active, persistent queries on a server may use. "
+      + "Once this limit is reached, any further persistent queries will not be accepted.";
+
+  public static final String KSQL_ACTIVE_TRANSIENT_QUERY_LIMIT_CONFIG =
+      "ksql.query.transient.active.limit";
+  private static final String KSQL_ACTIVE_TRANSIENT_QUERY_LIMIT_DOC =
+      "An upper limit on the number of transient, i.e. push, queries that may be running on a "
+      + "server at a time. Once this limit is reached, any further transient queries will be "
+      + "rejected until running ones are closed. This stops ad-hoc queries from starving the "
+      + "persistent queries on the server of resources.";
+
+  public static final String KSQL_ROCKSDB_TOTAL_MEMORY_BYTES_CONFIG =
+      "ksql.rocksdb.total.memory.bytes";
+  private static final String KSQL_ROCKSDB_TOTAL_MEMORY_BYTES_DOC =
+      "The total off-heap memory, in bytes, that the RocksDB state stores of all queries on a "
+      + "server may use for their block caches and memtables. When set, all state stores share a "
+      + "single block cache of this size, which memtables are also charged to. Zero, the default, "
+      + "leaves each state store to size its own cache and memtables, so that memory use grows "
+      + "with the number of stores. Ignored if 'ksql.streams.rocksdb.config.setter' "
+      + "is set.";
+
+  public static final String KSQL_ROCKSDB_WRITE_BUFFER_RATIO_CONFIG =
+      "ksql.rocksdb.write.buffer.ratio";
+  private static final String KSQL_ROCKSDB_WRITE_BUFFER_RATIO_DOC =
+      "The fraction of '" + KSQL_ROCKSDB_TOTAL_MEMORY_BYTES_CONFIG + "' that memtables may use "
+      + "before they are flushed.";
+
+  public static final String KSQL_ROCKSDB_CACHE_INDEX_AND_FILTER_BLOCKS_CONFIG =
+      "ksql.rocksdb.cache.index.and.filter.blocks";
+  private static final String KSQL_ROCKSDB_CACHE_INDEX_AND_FILTER_BLOCKS_DOC =
+      "When '" + KSQL_ROCKSDB_TOTAL_MEMORY_BYTES_CONFIG + "' is set, whether index and filter "
+      + "blocks are also held in, and so bounded by, the shared block cache. They are given high "
+      + "priority in the cache, and the top level index is pinned. Otherwise, they are held "
+      + "outside of the cache and grow with the amount of data in each store.";
+
+  public static final String KSQL_SUPPRESS_BUFFER_SIZE_BYTES_CONFIG =
+      "ksql.suppress.buffer.size.bytes";
+  private static final long KSQL_SUPPRESS_BUFFER_SIZE_BYTES_DEFAULT = 100L * 1024 * 1024;
+  private static final String KSQL_SUPPRESS_BUFFER_SIZE_BYTES_DOC =
+      "The maximum number of bytes each query with 'EMIT FINAL' may use to buffer the results "
+      + "of windows that are yet to close. If the buffer fills, the query is shut down rather "
+      + "than emitting intermediate results. A negative value leaves the buffer unbounded.";
+
+  public static final String KSQL_HOPPING_WINDOW_PANES_ENABLE_CONFIG =
+      "ksql.hopping.window.panes.enable";
+  private static final String KSQL_HOPPING_WINDOW_PANES_ENABLE_DOC =
+      "Whether aggregations over overlapping hopping windows are computed in non-overlapping "
+      + "panes, so that each record updates a single pane rather than every window it falls "
+      + "in. Window results are assembled by merging the panes each window covers. Results "
+      + "computed this way can not be queried by pull queries, and queries with 'EMIT FINAL' "
+      + "are not affected. Windows whose panes would cost more than 256 merges per record, "
+      + "i.e. where the number of windows per record times the number of panes per window "
+      + "exceeds 256, are aggregated directly. The setting of a query is fixed when it is "
+      + "first started, so changing it does not affect existing queries.";
+
   public static final String KSQL_USE_NAMED_INTERNAL_TOPICS = "ksql.named.internal.topics";
   private static final String KSQL_USE_NAMED_INTERNAL_TOPICS_DOC = "";
   public static final String KSQL_USE_NAMED_INTERNAL_TOPICS_ON = "on";
@@ -149,9 +208,94 @@ public class KsqlConfig extends AbstractConfig {
 
   public static final String KSQL_USE_LEGACY_KEY_FIELD = "ksql.query.fields.key.legacy";
 
+  public static final String KSQL_JOIN_PRUNE_COLUMNS = "ksql.query.join.columns.prune";
+  private static final String KSQL_JOIN_PRUNE_COLUMNS_DOC =
+      "Determines if stream sides of a join are projected down to only the columns used by the "
+      + "rest of the query before the join, reducing the size of join state stores and "
+      + "repartition topics. This setting is automatically disabled for persistent queries "
+      + "started by older versions of KSQL. This setting should not be set manually.";
+
+  public static final String KSQL_SUPPRESS_REPEATED_HAVING_TOMBSTONES =
+      "ksql.query.having.tombstones.suppress";
+  private static final String KSQL_SUPPRESS_REPEATED_HAVING_TOMBSTONES_DOC =
+      "Determines if a HAVING clause over aggregates that are not collections only deletes a key "
+      + "from the sink once it stops matching, rather than sending a tombstone for every update "
+      + "to a key that does not match. This setting is automatically disabled for persistent "
+      + "queries started by older versions of KSQL. This setting should not be set manually.";
+
+  public static final String KSQL_UNDOABLE_TABLE_AGGREGATES =
+      "ksql.query.table.aggregates.undoable";
+  private static final String KSQL_UNDOABLE_TABLE_AGGREGATES_DOC =
+      "Determines if aggregations of tables hold MIN, MAX, TOPK, COLLECT_LIST and COLLECT_SET as "
+      + "a count of each distinct value, so that values removed from the table are undone in "
+      + "logarithmic time, and so that MIN, MAX, TOPK and COLLECT_SET can be applied to tables. "
+      + "This setting is automatically disabled for persistent queries started by older versions "
+      + "of KSQL. This setting should not be set manually.";
+
+  public static final String KSQL_SHARED_PERSISTENT_SOURCES_ENABLE_CONFIG =
+      "ksql.query.persistent.shared.sources.enable";
+  private static final String KSQL_SHARED_PERSISTENT_SOURCES_ENABLE_DOC =
+      "When enabled, persistent queries that only filter and project a single stream into a "
+      + "stream, and which read from the latest offset, share one Kafka Streams application per "
+      + "source stream. Rows are consumed and deserialized once and then passed to each query, "
+      + "which writes its own sink topic. Queries can still be terminated individually. "
+      + "The shared application resumes from its committed offsets when the server restarts. "
+      + "Once every query sharing a source has been terminated, its offsets are deleted, so a "
+      + "query later started on the source reads from the latest offset, as an unshared query "
+      + "would. A row that a query fails to serialize is written to the processing log and "
+      + "skipped by that query only. This setting is automatically disabled for persistent "
+      + "queries started before it was enabled.";
+
   public static final String KSQL_WRAP_SINGLE_VALUES =
       "ksql.persistence.wrap.single.values";
 
+  public static final String KSQL_PULL_QUERIES_ENABLE_CONFIG = "ksql.query.pull.enable";
+  private static final String KSQL_PULL_QUERIES_ENABLE_DOC =
+      "When enabled, a SELECT * query against a table built by an aggregation, with a WHERE "
+      + "clause that only restricts ROWKEY to a single value, and for windowed tables the "
+      + "WINDOWSTART bounds, is answered from the state store of the persistent query that "
+      + "materializes the table, rather than by starting a new streaming query. Tables built "
+      + "with EMIT FINAL are not materialized, as their state stores hold intermediate results.";
+
+  public static final String KSQL_PULL_QUERIES_SKIP_FORWARDING_CONFIG =
+      "ksql.query.pull.skip.forwarding";
+  private static final String KSQL_PULL_QUERIES_SKIP_FORWARDING_DOC =
+      "Set on pull queries forwarded between servers, to ensure the receiving server does not "
+      + "forward the query again. This setting should not be set manually.";
+
+  public static final String KSQL_SHARED_TRANSIENT_SOURCES_ENABLE_CONFIG =
+      "ksql.query.transient.shared.sources.enable";
+  private static final String KSQL_SHARED_TRANSIENT_SOURCES_ENABLE_DOC =
+      "When enabled, transient queries that only filter and project a single stream, and which "
+      + "read from the latest offset, share one Kafka Streams application per source stream, "
+      + "rather than each starting their own. Rows are consumed and deserialized once and then "
+      + "passed to each running query. A query whose client does not read its results fast "
+      + "enough to keep up with the source fails with an error, rather than holding up the other "
+      + "queries.";
+
+  public static final String KSQL_PARSED_STATEMENT_CACHE_SIZE_CONFIG =
+      "ksql.parsed.statement.cache.size";
+  private static final String KSQL_PARSED_STATEMENT_CACHE_SIZE_DOC =
+      "The maximum number of distinct request texts whose parsed statements the server caches, "
+      + "so that clients repeatedly sending the same text, e.g. polling with LIST or DESCRIBE, "
+      + "or inserting with a parameterized INSERT INTO ... VALUES, do not pay to parse it each "
+      + "time. Zero disables the cache.";
+
+  public static final String KSQL_METADATA_CACHE_TTL_MS_CONFIG = "ksql.metadata.cache.ttl.ms";
+  private static final String KSQL_METADATA_CACHE_TTL_MS_DOC =
+      "How long the server serves the topic and consumer group metadata of the Kafka cluster "
+      + "used by commands such as SHOW TOPICS and DESCRIBE EXTENDED before refreshing it in the "
+      + "background. Metadata older than twice this is fetched afresh. Metadata is not cached "
+      + "when the security extension provides per-user clients. Zero disables the cache.";
+
+  public static final String KSQL_COMMAND_BATCH_ENABLE_CONFIG = "ksql.command.topic.batch.enable";
+  private static final String KSQL_COMMAND_BATCH_ENABLE_DOC =
+      "When enabled, the statements of a request that are distributed via the command topic are "
+      + "written to it as a batch, and the server waits once for the whole batch to be "
+      + "executed, rather than waiting for each statement in turn. The status of each statement "
+      + "is reported once the batch is done. Statements that read server state, e.g. DESCRIBE, "
+      + "first wait for the statements before them. Can be set per request.";
+
   public static final String KSQL_CUSTOM_METRICS_TAGS = "ksql.metrics.tags.custom";
   private static final String KSQL_CUSTOM_METRICS_TAGS_DOC =
       "A list of tags to be included with emitted JMX metrics, formatted as a string of key:value "
@@ -277,6 +421,51 @@ public class KsqlConfig extends AbstractConfig {
                   + "This setting is automatically applied for persistent queries started by "
                   + "older versions of KSQL. "
                   + "This setting should not be set manually."
+          ),
+          new CompatibilityBreakingConfigDef(
+              KSQL_JOIN_PRUNE_COLUMNS,
+              ConfigDef.Type.BOOLEAN,
+              false,
+              true,
+              ConfigDef.Importance.LOW,
+              Optional.empty(),
+              KSQL_JOIN_PRUNE_COLUMNS_DOC
+          ),
+          new CompatibilityBreakingConfigDef(
+              KSQL_UNDOABLE_TABLE_AGGREGATES,
+              ConfigDef.Type.BOOLEAN,
+              false,
+              true,
+              ConfigDef.Importance.LOW,
+              Optional.empty(),
+              KSQL_UNDOABLE_TABLE_AGGREGATES_DOC
+          ),
+          new CompatibilityBreakingConfigDef(
+              KSQL_SUPPRESS_REPEATED_HAVING_TOMBSTONES,
+              ConfigDef.Type.BOOLEAN,
+              false,
+              true,
+              ConfigDef.Importance.LOW,
+              Optional.empty(),
+              KSQL_SUPPRESS_REPEATED_HAVING_TOMBSTONES_DOC
+          ),
+          new CompatibilityBreakingConfigDef(
+              KSQL_SHARED_PERSISTENT_SOURCES_ENABLE_CONFIG,
+              ConfigDef.Type.BOOLEAN,
+              false,
+              false,
+              ConfigDef.Importance.LOW,
+              Optional.empty(),
+              KSQL_SHARED_PERSISTENT_SOURCES_ENABLE_DOC
+          ),
+          new CompatibilityBreakingConfigDef(
+              KSQL_HOPPING_WINDOW_PANES_ENABLE_CONFIG,
+              ConfigDef.Type.BOOLEAN,
+              false,
+              false,
+              ConfigDef.Importance.LOW,
+              Optional.empty(),
+              KSQL_HOPPING_WINDOW_PANES_ENABLE_DOC
           )
   );
 
@@ -534,6 +723,84 @@ public class KsqlConfig extends AbstractConfig {
                 + "e.g. '{\"FOO\": 10}." + System.lineSeparator()
                 + "Note: the DELIMITED format ignores this setting as it does not support the "
                 + "concept of a STRUCT, record or object."
+        ).define(
+            KSQL_PULL_QUERIES_ENABLE_CONFIG,
+            ConfigDef.Type.BOOLEAN,
+            false,
+            ConfigDef.Importance.LOW,
+            KSQL_PULL_QUERIES_ENABLE_DOC
+        ).define(
+            KSQL_PULL_QUERIES_SKIP_FORWARDING_CONFIG,
+            ConfigDef.Type.BOOLEAN,
+            false,
+            ConfigDef.Importance.LOW,
+            KSQL_PULL_QUERIES_SKIP_FORWARDING_DOC
+        ).define(
+            KSQL_SHARED_TRANSIENT_SOURCES_ENABLE_CONFIG,
+            ConfigDef.Type.BOOLEAN,
+            false,
+            ConfigDef.Importance.LOW,
+            KSQL_SHARED_TRANSIENT_SOURCES_ENABLE_DOC
+        ).define(
+            KSQL_COMMAND_BATCH_ENABLE_CONFIG,
+            ConfigDef.Type.BOOLEAN,
+            false,
+            ConfigDef.Importance.LOW,
+            KSQL_COMMAND_BATCH_ENABLE_DOC
+        ).define(
+            KSQL_PARSED_STATEMENT_CACHE_SIZE_CONFIG,
+            ConfigDef.Type.INT,
+            1000,
+            ConfigDef.Range.atLeast(0),
+            ConfigDef.Importance.LOW,
+            KSQL_PARSED_STATEMENT_CACHE_SIZE_DOC
+        ).define(
+            KSQL_METADATA_CACHE_TTL_MS_CONFIG,
+            ConfigDef.Type.LONG,
+            2000L,
+            ConfigDef.Range.atLeast(0),
+            ConfigDef.Importance.LOW,
+            KSQL_METADATA_CACHE_TTL_MS_DOC
+        ).define(
+            KSQL_ACTIVE_PERSISTENT_STREAM_THREAD_LIMIT_CONFIG,
+            ConfigDef.Type.INT,
+            Integer.MAX_VALUE,
+            ConfigDef.Range.atLeast(0),
+            ConfigDef.Importance.LOW,
+            KSQL_ACTIVE_PERSISTENT_STREAM_THREAD_LIMIT_DOC
+        ).define(
+            KSQL_ACTIVE_TRANSIENT_QUERY_LIMIT_CONFIG,
+            ConfigDef.Type.INT,
+            Integer.MAX_VALUE,
+            ConfigDef.Range.atLeast(0),
+            ConfigDef.Importance.LOW,
+            KSQL_ACTIVE_TRANSIENT_QUERY_LIMIT_DOC
+        ).define(
+            KSQL_ROCKSDB_TOTAL_MEMORY_BYTES_CONFIG,
+            ConfigDef.Type.LONG,
+            0L,
+            ConfigDef.Range.atLeast(0),
+            ConfigDef.Importance.MEDIUM,
+            KSQL_ROCKSDB_TOTAL_MEMORY_BYTES_DOC
+        ).define(
+            KSQL_ROCKSDB_WRITE_BUFFER_RATIO_CONFIG,
+            ConfigDef.Type.DOUBLE,
+            0.5,
+            ConfigDef.Range.between(0, 1),
+            ConfigDef.Importance.LOW,
+            KSQL_ROCKSDB_WRITE_BUFFER_RATIO_DOC
+        ).define(
+            KSQL_ROCKSDB_CACHE_INDEX_AND_FILTER_BLOCKS_CONFIG,
+            ConfigDef.Type.BOOLEAN,
+            false,
+            ConfigDef.Importance.LOW,
+            KSQL_ROCKSDB_CACHE_INDEX_AND_FILTER_BLOCKS_DOC
+        ).define(
+            KSQL_SUPPRESS_BUFFER_SIZE_BYTES_CONFIG,
+            ConfigDef.Type.LONG,
+            KSQL_SUPPRESS_BUFFER_SIZE_BYTES_DEFAULT,
+            ConfigDef.Importance.MEDIUM,
+            KSQL_SUPPRESS_BUFFER_SIZE_BYTES_DOC
         ).define(
             KSQL_CUSTOM_METRICS_TAGS,
             ConfigDef.Type.STRING,
@@ -770,6 +1037,39 @@ public class KsqlConfig extends AbstractConfig {
     return Collections.unmodifiableMap(allPropsCleaned);
   }
 
+  /**
+   * Get the values of the configs that can not be changed without changing the behaviour of
+   * existing queries, i.e. those that {@link #overrideBreakingConfigsWithOriginalValues} reads.
+   *
+   * <p>These are all that need persisting alongside a statement for it to be rebuilt in the same
+   * way later.
+   *
+   * @return the values of the compatibility breaking configs, obfuscated as by
+   *         {@link #getAllConfigPropsWithSecretsObfuscated}.
+   */
+  public Map<String, String> getCompatibilityBreakingConfigPropsWithSecretsObfuscated() {
+    return getCompatibilityBreakingProps(getAllConfigPropsWithSecretsObfuscated());
+  }
+
+  /**
+   * Get the subset of {@code props} that {@link #overrideBreakingConfigsWithOriginalValues} reads.
+   *
+   * @param props properties, as returned by {@link #getAllConfigPropsWithSecretsObfuscated}.
+   * @return the compatibility breaking properties within {@code props}.
+   */
+  public static Map<String, String> getCompatibilityBreakingProps(final Map<String, String> props) {
+    final Map<String, String> breakingProps = new HashMap<>();
+    COMPATIBLY_BREAKING_CONFIG_DEFS.stream()
+        .map(CompatibilityBreakingConfigDef::getName)
+        .filter(props::containsKey)
+        .forEach(k -> breakingProps.put(k, props.get(k)));
+    COMPATIBILITY_BREAKING_STREAMS_CONFIGS.stream()
+        .map(config -> KSQL_STREAMS_PREFIX + config.getName())
+        .filter(props::containsKey)
+        .forEach(k -> breakingProps.put(k, props.get(k)));
+    return Collections.unmodifiableMap(breakingProps);
+  }
+
   public KsqlConfig cloneWithPropertyOverwrite(final Map<String, Object> props) {
     final Map<String, Object> cloneProps = new HashMap<>(originals());
     cloneProps.putAll(props);
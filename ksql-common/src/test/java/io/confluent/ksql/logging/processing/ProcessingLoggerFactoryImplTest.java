@@ -16,9 +16,14 @@
 package io.confluent.ksql.logging.processing;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -27,6 +32,8 @@ import io.confluent.common.logging.StructuredLogger;
 import io.confluent.common.logging.StructuredLoggerFactory;
 import java.util.Collection;
 import java.util.function.BiFunction;
+import java.util.function.Function;
+import org.apache.kafka.connect.data.SchemaAndValue;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -45,6 +52,8 @@ public class ProcessingLoggerFactoryImplTest {
   private BiFunction<ProcessingLogConfig, StructuredLogger, ProcessingLogger> loggerFactory;
   @Mock
   private ProcessingLogger logger;
+  @Mock
+  private Function<ProcessingLogConfig, SchemaAndValue> msgFactory;
 
   private final Collection<String> loggers = ImmutableList.of("logger1", "logger2");
 
@@ -69,6 +78,71 @@ public class ProcessingLoggerFactoryImplTest {
     verify(loggerFactory).apply(config, innerLogger);
   }
 
+  @Test
+  public void shouldRateLimitLoggerIfConfigured() {
+    // Given:
+    when(config.getInt(ProcessingLogConfig.RATE_LIMIT)).thenReturn(10);
+    when(config.getLong(ProcessingLogConfig.RATE_LIMIT_SUMMARY_INTERVAL_MS)).thenReturn(1000L);
+
+    // When:
+    final ProcessingLogger logger = factory.getLogger("foo.bar");
+
+    // Then:
+    assertThat(logger, instanceOf(RateLimitedProcessingLogger.class));
+  }
+
+  @Test
+  public void shouldShareRateLimitedLoggerOfTheSameName() {
+    // Given:
+    when(config.getInt(ProcessingLogConfig.RATE_LIMIT)).thenReturn(1);
+    when(config.getLong(ProcessingLogConfig.RATE_LIMIT_SUMMARY_INTERVAL_MS)).thenReturn(60_000L);
+
+    final ProcessingLogger first = factory.getLogger("q1.Project");
+
+    // When:
+    final ProcessingLogger second = factory.getLogger("q1.Project");
+
+    // Then:
+    assertThat(second, is(sameInstance(first)));
+    verify(loggerFactory, times(1)).apply(config, innerLogger);
+  }
+
+  @Test
+  public void shouldCreateNewRateLimitedLoggerOnceClosed() {
+    // Given:
+    when(config.getInt(ProcessingLogConfig.RATE_LIMIT)).thenReturn(1);
+    when(config.getLong(ProcessingLogConfig.RATE_LIMIT_SUMMARY_INTERVAL_MS)).thenReturn(60_000L);
+
+    final ProcessingLogger closed = factory.getLogger("q1.Project");
+    factory.closeQueryLoggers("q1");
+
+    // When:
+    final ProcessingLogger logger = factory.getLogger("q1.Project");
+
+    // Then:
+    assertThat(logger, is(not(sameInstance(closed))));
+  }
+
+  @Test
+  public void shouldCloseRateLimitedLoggersOfClosedQuery() {
+    // Given:
+    when(config.getInt(ProcessingLogConfig.RATE_LIMIT)).thenReturn(1);
+    when(config.getLong(ProcessingLogConfig.RATE_LIMIT_SUMMARY_INTERVAL_MS)).thenReturn(60_000L);
+
+    final ProcessingLogger closed = factory.getLogger("q1.Project");
+    final ProcessingLogger other = factory.getLogger("q10.Project");
+    closed.error(msgFactory);
+    closed.error(msgFactory);
+    other.error(msgFactory);
+    other.error(msgFactory);
+
+    // When:
+    factory.closeQueryLoggers("q1");
+
+    // Then:
+    verify(logger, times(3)).error(any());
+  }
+
   @Test
   public void shouldGetLoggers() {
     // When:
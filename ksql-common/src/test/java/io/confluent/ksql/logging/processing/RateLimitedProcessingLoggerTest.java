@@ -0,0 +1,329 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.logging.processing;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.logging.processing.ProcessingLogMessageSchema.MessageType;
+import java.util.List;
+import java.util.function.Function;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.KafkaMetric;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.utils.Time;
+import org.apache.kafka.connect.data.SchemaAndValue;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RateLimitedProcessingLoggerTest {
+
+  private static final String LOGGER_NAME = "query.Project";
+  private static final int MESSAGES_PER_SECOND = 2;
+  private static final long SUMMARY_INTERVAL_MS = 10_000L;
+  private static final ProcessingLogConfig CONFIG = new ProcessingLogConfig(ImmutableMap.of());
+
+  @Mock
+  private ProcessingLogger delegate;
+  @Mock
+  private Time time;
+  @Mock
+  private Function<ProcessingLogConfig, SchemaAndValue> msgFactory;
+  @Mock
+  private Function<ProcessingLogConfig, SchemaAndValue> otherMsgFactory;
+  @Captor
+  private ArgumentCaptor<Function<ProcessingLogConfig, SchemaAndValue>> msgCaptor;
+
+  private Metrics metrics;
+  private RateLimitedProcessingLogger logger;
+
+  @Before
+  public void setUp() {
+    metrics = new Metrics();
+    when(time.milliseconds()).thenReturn(1_000L);
+
+    logger = new RateLimitedProcessingLogger(
+        LOGGER_NAME,
+        delegate,
+        MESSAGES_PER_SECOND,
+        SUMMARY_INTERVAL_MS,
+        metrics,
+        time
+    );
+  }
+
+  @After
+  public void tearDown() {
+    metrics.close();
+  }
+
+  @Test
+  public void shouldLogMessagesWithinLimit() {
+    // When:
+    logger.error(msgFactory);
+    logger.error(msgFactory);
+
+    // Then:
+    verify(delegate, times(2)).error(msgFactory);
+  }
+
+  @Test
+  public void shouldDropMessagesOverLimitWithoutBuildingThem() {
+    // Given:
+    logger.error(msgFactory);
+    logger.error(msgFactory);
+
+    // When:
+    logger.error(otherMsgFactory);
+
+    // Then:
+    verify(delegate, never()).error(otherMsgFactory);
+    verify(otherMsgFactory, never()).apply(any());
+  }
+
+  @Test
+  public void shouldLogAgainOnceTokensRefill() {
+    // Given:
+    logger.error(msgFactory);
+    logger.error(msgFactory);
+    logger.error(otherMsgFactory);
+
+    when(time.milliseconds()).thenReturn(1_500L);
+
+    // When:
+    logger.error(otherMsgFactory);
+
+    // Then:
+    verify(delegate).error(otherMsgFactory);
+  }
+
+  @Test
+  public void shouldNotAccumulateMoreThanOneSecondOfTokens() {
+    // Given:
+    when(time.milliseconds()).thenReturn(100_000L);
+
+    // When:
+    logger.error(msgFactory);
+    logger.error(msgFactory);
+    logger.error(otherMsgFactory);
+
+    // Then:
+    verify(delegate, times(2)).error(msgFactory);
+    verify(delegate, never()).error(otherMsgFactory);
+  }
+
+  @Test
+  public void shouldCountDroppedMessages() {
+    // Given:
+    logger.error(msgFactory);
+    logger.error(msgFactory);
+
+    // When:
+    logger.error(otherMsgFactory);
+    logger.error(otherMsgFactory);
+
+    // Then:
+    assertThat(suppressedTotal(), is(2.0));
+  }
+
+  @Test
+  public void shouldLogLastDroppedMessageOncePerSummaryInterval() {
+    // Given:
+    logger.error(msgFactory);
+    logger.error(msgFactory);
+    logger.error(msgFactory);
+    logger.error(otherMsgFactory);
+
+    when(otherMsgFactory.apply(CONFIG)).thenReturn(processingError("boom"));
+    when(time.milliseconds()).thenReturn(1_000L + SUMMARY_INTERVAL_MS);
+
+    // When:
+    logger.error(msgFactory);
+
+    // Then:
+    assertThat(errorMessage(lastLogged(4)), is(summaryOf(2) + "boom"));
+  }
+
+  @Test
+  public void shouldNotLogSummaryBeforeInterval() {
+    // Given:
+    logger.error(msgFactory);
+    logger.error(msgFactory);
+    logger.error(otherMsgFactory);
+
+    when(time.milliseconds()).thenReturn(SUMMARY_INTERVAL_MS);
+
+    // When:
+    logger.error(msgFactory);
+
+    // Then:
+    verify(delegate, never()).error(otherMsgFactory);
+    verify(delegate, times(3)).error(any());
+  }
+
+  @Test
+  public void shouldWriteDueSummaryOnFlush() {
+    // Given:
+    logger.error(msgFactory);
+    logger.error(msgFactory);
+    logger.error(otherMsgFactory);
+
+    when(otherMsgFactory.apply(CONFIG)).thenReturn(processingError("boom"));
+    when(time.milliseconds()).thenReturn(1_000L + SUMMARY_INTERVAL_MS);
+
+    // When:
+    logger.flush();
+
+    // Then:
+    assertThat(errorMessage(lastLogged(3)), is(summaryOf(1) + "boom"));
+  }
+
+  @Test
+  public void shouldNotWriteSummaryOnFlushBeforeInterval() {
+    // Given:
+    logger.error(msgFactory);
+    logger.error(msgFactory);
+    logger.error(otherMsgFactory);
+
+    // When:
+    logger.flush();
+
+    // Then:
+    verify(delegate, times(2)).error(any());
+  }
+
+  @Test
+  public void shouldWriteRemainingSummaryOnClose() {
+    // Given:
+    logger.error(msgFactory);
+    logger.error(msgFactory);
+    logger.error(otherMsgFactory);
+
+    when(otherMsgFactory.apply(CONFIG)).thenReturn(processingError("boom"));
+
+    // When:
+    logger.close();
+
+    // Then:
+    assertThat(errorMessage(lastLogged(3)), is(summaryOf(1) + "boom"));
+  }
+
+  @Test
+  public void shouldNotWriteSummaryOnCloseIfNothingDropped() {
+    // Given:
+    logger.error(msgFactory);
+
+    // When:
+    logger.close();
+
+    // Then:
+    verify(delegate, times(1)).error(any());
+  }
+
+  @Test
+  public void shouldRemoveMetricsOnClose() {
+    // Given:
+    logger.error(msgFactory);
+    logger.error(msgFactory);
+    logger.error(otherMsgFactory);
+
+    // When:
+    logger.close();
+
+    // Then:
+    assertThat(metrics.metric(suppressedTotalName()), is(nullValue()));
+  }
+
+  @Test
+  public void shouldShareMetricsWithLaterLoggerOfSameName() {
+    // Given:
+    logger.error(msgFactory);
+    logger.error(msgFactory);
+    logger.error(msgFactory);
+
+    final RateLimitedProcessingLogger other = new RateLimitedProcessingLogger(
+        LOGGER_NAME,
+        mock(ProcessingLogger.class),
+        1,
+        SUMMARY_INTERVAL_MS,
+        metrics,
+        time
+    );
+
+    // When:
+    other.error(msgFactory);
+    other.error(msgFactory);
+
+    // Then:
+    assertThat(suppressedTotal(), is(2.0));
+  }
+
+  private double suppressedTotal() {
+    final KafkaMetric metric = metrics.metric(suppressedTotalName());
+    return (Double) metric.metricValue();
+  }
+
+  private MetricName suppressedTotalName() {
+    return metrics.metricName(
+        RateLimitedProcessingLogger.SUPPRESSED_TOTAL,
+        RateLimitedProcessingLogger.METRIC_GROUP,
+        ImmutableMap.of("logger", LOGGER_NAME)
+    );
+  }
+
+  private SchemaAndValue lastLogged(final int expectedCalls) {
+    verify(delegate, times(expectedCalls)).error(msgCaptor.capture());
+    final List<Function<ProcessingLogConfig, SchemaAndValue>> logged = msgCaptor.getAllValues();
+    return logged.get(logged.size() - 1).apply(CONFIG);
+  }
+
+  private static String summaryOf(final long count) {
+    return String.format(RateLimitedProcessingLogger.SUMMARY_PREFIX, count);
+  }
+
+  private static SchemaAndValue processingError(final String errorMessage) {
+    final Struct error = new Struct(MessageType.RECORD_PROCESSING_ERROR.getSchema())
+        .put(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR_FIELD_MESSAGE, errorMessage);
+
+    final Struct record = new Struct(ProcessingLogMessageSchema.PROCESSING_LOG_SCHEMA)
+        .put(ProcessingLogMessageSchema.TYPE, MessageType.RECORD_PROCESSING_ERROR.getTypeId())
+        .put(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR, error);
+
+    return new SchemaAndValue(ProcessingLogMessageSchema.PROCESSING_LOG_SCHEMA, record);
+  }
+
+  private static String errorMessage(final SchemaAndValue msg) {
+    return ((Struct) msg.value())
+        .getStruct(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR)
+        .getString(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR_FIELD_MESSAGE);
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import com.google.common.testing.EqualsTester;
+import io.confluent.ksql.util.KsqlException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class DelimiterTest {
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  @Test
+  public void shouldImplementEquals() {
+    new EqualsTester()
+        .addEqualityGroup(Delimiter.of('|'), Delimiter.parse("|"))
+        .addEqualityGroup(Delimiter.of('\t'), Delimiter.parse("TAB"))
+        .addEqualityGroup(Delimiter.defaultDelimiter(), Delimiter.of(','))
+        .testEquals();
+  }
+
+  @Test
+  public void shouldParseSingleCharacter() {
+    assertThat(Delimiter.parse(";").getDelimiter(), is(';'));
+  }
+
+  @Test
+  public void shouldParseNamedDelimitersIgnoringCase() {
+    assertThat(Delimiter.parse("tab").getDelimiter(), is('\t'));
+    assertThat(Delimiter.parse("SPACE").getDelimiter(), is(' '));
+  }
+
+  @Test
+  public void shouldThrowOnMultipleCharacters() {
+    // Then:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("Delimiter must be a single character");
+
+    // When:
+    Delimiter.parse("||");
+  }
+
+  @Test
+  public void shouldThrowOnEmpty() {
+    // Then:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("Delimiter must be a single character");
+
+    // When:
+    Delimiter.parse("");
+  }
+
+  @Test
+  public void shouldThrowOnNonAscii() {
+    // Then:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("Delimiter must be an ASCII character");
+
+    // When:
+    Delimiter.parse("§");
+  }
+
+  @Test
+  public void shouldThrowOnQuote() {
+    // Then:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("Delimiter can not be a quote or line break character");
+
+    // When:
+    Delimiter.of('"');
+  }
+}
@@ -54,6 +54,17 @@ public class FormatInfoTest {
         .addEqualityGroup(
             FormatInfo.of(Format.JSON, Optional.empty())
         )
+        .addEqualityGroup(
+            FormatInfo.of(Format.DELIMITED, Optional.empty(), Optional.of(Delimiter.of('|'))),
+            FormatInfo.of(Format.DELIMITED, Optional.empty(), Optional.of(Delimiter.of('|')))
+        )
+        .addEqualityGroup(
+            FormatInfo.of(Format.DELIMITED, Optional.empty(), Optional.empty())
+        )
+        .addEqualityGroup(
+            FormatInfo.of(
+                Format.DELIMITED, Optional.empty(), Optional.empty(), Optional.of(Quote.of('\'')))
+        )
         .testEquals();
   }
 
@@ -80,6 +91,36 @@ public class FormatInfoTest {
     FormatInfo.of(Format.JSON, Optional.of("thing"));
   }
 
+  @Test
+  public void shouldThrowOnNonDelimitedWithDelimiter() {
+    // Then:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("Delimiter only supported with DELIMITED format");
+
+    // When:
+    FormatInfo.of(Format.JSON, Optional.empty(), Optional.of(Delimiter.of('|')));
+  }
+
+  @Test
+  public void shouldThrowOnNonDelimitedWithQuote() {
+    // Then:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("Quote only supported with DELIMITED format");
+
+    // When:
+    FormatInfo.of(Format.JSON, Optional.empty(), Optional.empty(), Optional.of(Quote.of('\'')));
+  }
+
+  @Test
+  public void shouldThrowIfQuoteIsDelimiter() {
+    // Then:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("Quote can not be the same character as the delimiter");
+
+    // When:
+    FormatInfo.of(Format.DELIMITED, Optional.empty(), Optional.empty(), Optional.of(Quote.of(',')));
+  }
+
   @Test
   public void shouldThrowOnEmptyAvroSchemaName() {
     // Then:
@@ -103,4 +144,23 @@ public class FormatInfoTest {
     assertThat(FormatInfo.of(AVRO, Optional.empty()).getAvroFullSchemaName(),
         is(Optional.empty()));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldGetDelimiter() {
+    assertThat(FormatInfo.of(Format.DELIMITED, Optional.empty(), Optional.of(Delimiter.of('|')))
+            .getDelimiter(),
+        is(Optional.of(Delimiter.of('|'))));
+
+    assertThat(FormatInfo.of(Format.DELIMITED).getDelimiter(), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldGetQuote() {
+    final FormatInfo info = FormatInfo.of(
+        Format.DELIMITED, Optional.empty(), Optional.empty(), Optional.of(Quote.of('\'')));
+
+    assertThat(info.getQuote(), is(Optional.of(Quote.of('\''))));
+
+    assertThat(FormatInfo.of(Format.DELIMITED).getQuote(), is(Optional.empty()));
+  }
+}
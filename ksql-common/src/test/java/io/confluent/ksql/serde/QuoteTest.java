@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import com.google.common.testing.EqualsTester;
+import io.confluent.ksql.util.KsqlException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class QuoteTest {
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  @Test
+  public void shouldImplementEquals() {
+    new EqualsTester()
+        .addEqualityGroup(Quote.of('\''), Quote.parse("'"))
+        .addEqualityGroup(Quote.defaultQuote(), Quote.of('"'))
+        .testEquals();
+  }
+
+  @Test
+  public void shouldParseSingleCharacter() {
+    assertThat(Quote.parse("'").getQuote(), is('\''));
+  }
+
+  @Test
+  public void shouldThrowOnMultipleCharacters() {
+    // Then:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("Quote must be a single character");
+
+    // When:
+    Quote.parse("''");
+  }
+
+  @Test
+  public void shouldThrowOnNonAscii() {
+    // Then:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("Quote must be an ASCII character");
+
+    // When:
+    Quote.parse("§");
+  }
+
+  @Test
+  public void shouldThrowOnLineBreak() {
+    // Then:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("Quote can not be a line break character");
+
+    // When:
+    Quote.of('\n');
+  }
+}
@@ -534,6 +534,50 @@ public class KsqlConfigTest {
     assertThat(result.get("some.random.property"), is(nullValue()));
   }
 
+  @Test
+  public void shouldListOnlyCompatibilityBreakingConfigs() {
+    // Given:
+    final KsqlConfig config = new KsqlConfig(ImmutableMap.of(
+        KsqlConfig.KSQL_PERSISTENT_QUERY_NAME_PREFIX_CONFIG, "not_the_default",
+        KsqlConfig.KSQL_ENABLE_UDFS, false
+    ));
+
+    // When:
+    final Map<String, String> result =
+        config.getCompatibilityBreakingConfigPropsWithSecretsObfuscated();
+
+    // Then:
+    assertThat(result,
+        hasEntry(KsqlConfig.KSQL_PERSISTENT_QUERY_NAME_PREFIX_CONFIG, "not_the_default"));
+    assertThat(result,
+        hasEntry(KsqlConfig.KSQL_STREAMS_PREFIX + StreamsConfig.TOPOLOGY_OPTIMIZATION,
+            StreamsConfig.OPTIMIZE));
+    assertThat(result, not(hasKey(KsqlConfig.KSQL_ENABLE_UDFS)));
+    assertThat(result, not(hasKey(KsqlConfig.KSQL_SERVICE_ID_CONFIG)));
+  }
+
+  @Test
+  public void shouldOverrideBreakingConfigsTheSameFromCompatibilityBreakingConfigsAlone() {
+    // Given:
+    final KsqlConfig originalConfig = new KsqlConfig(ImmutableMap.of(
+        KsqlConfig.KSQL_PERSISTENT_QUERY_NAME_PREFIX_CONFIG, "not_the_default",
+        KsqlConfig.KSQL_STREAMS_PREFIX + StreamsConfig.TOPOLOGY_OPTIMIZATION,
+        StreamsConfig.NO_OPTIMIZATION
+    ));
+    final KsqlConfig currentConfig = new KsqlConfig(Collections.emptyMap());
+
+    // When:
+    final KsqlConfig fromAll = currentConfig.overrideBreakingConfigsWithOriginalValues(
+        originalConfig.getAllConfigPropsWithSecretsObfuscated());
+    final KsqlConfig fromBreaking = currentConfig.overrideBreakingConfigsWithOriginalValues(
+        originalConfig.getCompatibilityBreakingConfigPropsWithSecretsObfuscated());
+
+    // Then:
+    assertThat(fromBreaking.values(), equalTo(fromAll.values()));
+    assertThat(fromBreaking.getKsqlStreamConfigProps(),
+        equalTo(fromAll.getKsqlStreamConfigProps()));
+  }
+
   @Test
   public void shouldDefaultOptimizationsToOn() {
     // When:
@@ -29,6 +29,7 @@ import io.confluent.ksql.metastore.model.KsqlStream;
 import io.confluent.ksql.metastore.model.KsqlTable;
 import io.confluent.ksql.metastore.model.KsqlTopic;
 import io.confluent.ksql.parser.properties.with.CreateSourceAsProperties;
+import io.confluent.ksql.parser.tree.ResultMaterialization;
 import io.confluent.ksql.parser.tree.WindowExpression;
 import io.confluent.ksql.parser.tree.WithinExpression;
 import io.confluent.ksql.planner.plan.JoinNode;
@@ -58,6 +59,7 @@ public class Analysis {
   private Optional<String> partitionBy = Optional.empty();
   private ImmutableSet<SerdeOption> serdeOptions = ImmutableSet.of();
   private Expression havingExpression = null;
+  private ResultMaterialization resultMaterialization = ResultMaterialization.CHANGES;
   private OptionalInt limitClause = OptionalInt.empty();
   private CreateSourceAsProperties withProperties = CreateSourceAsProperties.none();
 
@@ -122,6 +124,14 @@ public class Analysis {
     this.partitionBy = Optional.of(partitionBy);
   }
 
+  public ResultMaterialization getResultMaterialization() {
+    return resultMaterialization;
+  }
+
+  void setResultMaterialization(final ResultMaterialization resultMaterialization) {
+    this.resultMaterialization = resultMaterialization;
+  }
+
   public OptionalInt getLimitClause() {
     return limitClause;
   }
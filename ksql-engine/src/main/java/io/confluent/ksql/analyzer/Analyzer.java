@@ -41,6 +41,7 @@ import io.confluent.ksql.parser.tree.Join;
 import io.confluent.ksql.parser.tree.JoinOn;
 import io.confluent.ksql.parser.tree.KsqlWindowExpression;
 import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.parser.tree.ResultMaterialization;
 import io.confluent.ksql.parser.tree.Select;
 import io.confluent.ksql.parser.tree.SelectItem;
 import io.confluent.ksql.parser.tree.SingleColumn;
@@ -177,7 +178,9 @@ class Analyzer {
 
       final ValueFormat valueFormat = ValueFormat.of(FormatInfo.of(
           getValueFormat(sink),
-          sink.getProperties().getValueAvroSchemaName()
+          sink.getProperties().getValueAvroSchemaName(),
+          sink.getProperties().getValueDelimiter(),
+          sink.getProperties().getValueQuote()
       ));
 
       final KsqlTopic intoKsqlTopic = new KsqlTopic(
@@ -290,6 +293,7 @@ class Analyzer {
       node.getGroupBy().ifPresent(this::analyzeGroupBy);
       node.getWindow().ifPresent(this::analyzeWindowExpression);
       node.getHaving().ifPresent(this::analyzeHaving);
+      analyzeResultMaterialization(node);
       node.getLimit().ifPresent(analysis::setLimitClause);
 
       throwOnUnknownColumnReference();
@@ -297,6 +301,24 @@ class Analyzer {
       return null;
     }
 
+    private void analyzeResultMaterialization(final Query node) {
+      if (node.getResultMaterialization() == ResultMaterialization.FINAL
+          && (!node.getWindow().isPresent() || !node.getGroupBy().isPresent())) {
+        throw new KsqlException(
+            "EMIT FINAL is only supported for windowed aggregations.");
+      }
+
+      if (node.getResultMaterialization() == ResultMaterialization.FINAL
+          && !node.getWindow().get().getKsqlWindowExpression().getGracePeriod().isPresent()) {
+        throw new KsqlException(
+            "EMIT FINAL requires the window to have a GRACE PERIOD, "
+                + "as otherwise windows only close once the default grace period of 24 hours "
+                + "has passed.");
+      }
+
+      analysis.setResultMaterialization(node.getResultMaterialization());
+    }
+
     private void throwOnUnknownColumnReference() {
 
       final ExpressionAnalyzer expressionAnalyzer =
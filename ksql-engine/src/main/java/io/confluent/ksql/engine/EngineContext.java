@@ -20,6 +20,7 @@ import io.confluent.ksql.ddl.commands.CommandFactories;
 import io.confluent.ksql.ddl.commands.DdlCommand;
 import io.confluent.ksql.ddl.commands.DdlCommandExec;
 import io.confluent.ksql.ddl.commands.DdlCommandResult;
+import io.confluent.ksql.logging.processing.NoopProcessingLogContext;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.metastore.MutableMetaStore;
 import io.confluent.ksql.parser.DefaultKsqlParser;
@@ -27,6 +28,7 @@ import io.confluent.ksql.parser.KsqlParser;
 import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.parser.tree.ExecutableDdlStatement;
+import io.confluent.ksql.physical.SharedSources;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.services.SandboxedServiceContext;
 import io.confluent.ksql.services.ServiceContext;
@@ -58,6 +60,7 @@ final class EngineContext {
   private final KsqlParser parser = new DefaultKsqlParser();
   private final BiConsumer<ServiceContext, QueryMetadata> outerOnQueryCloseCallback;
   private final Map<QueryId, PersistentQueryMetadata> persistentQueries;
+  private final SharedSources sharedSources = new SharedSources();
 
   private EngineContext(
       final ServiceContext serviceContext,
@@ -94,9 +97,10 @@ final class EngineContext {
   }
 
   EngineContext createSandbox(final ServiceContext serviceContext) {
+    // Sandboxed queries are never run, so need not register loggers or their metrics:
     final EngineContext sandBox = EngineContext.create(
         SandboxedServiceContext.create(serviceContext),
-        processingLogContext,
+        NoopProcessingLogContext.INSTANCE,
         metaStore.copy(),
         queryIdGenerator.copy(),
         (sc, query) -> { /* No-op */ }
@@ -110,6 +114,14 @@ final class EngineContext {
     return sandBox;
   }
 
+  /**
+   * Called before the engine closes its queries on shut down, so that closing them keeps the
+   * committed offsets of any shared sources they run on.
+   */
+  void shutdown() {
+    sharedSources.shutdown();
+  }
+
   Optional<PersistentQueryMetadata> getPersistentQuery(final QueryId queryId) {
     return Optional.ofNullable(persistentQueries.get(queryId));
   }
@@ -146,7 +158,8 @@ final class EngineContext {
         serviceContext,
         processingLogContext,
         queryIdGenerator,
-        this::unregisterQuery);
+        this::unregisterQuery,
+        sharedSources);
   }
 
   String executeDdlStatement(
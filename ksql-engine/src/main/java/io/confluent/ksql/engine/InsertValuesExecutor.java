@@ -136,6 +136,12 @@ public class InsertValuesExecutor {
     throwIfDisabled(statement.getConfig());
 
     final InsertValues insertValues = statement.getStatement();
+    if (insertValues.hasParameters()) {
+      throw new KsqlException("Cannot insert values into stream/table: "
+          + insertValues.getTarget().getSuffix() + ", as the statement has parameters "
+          + "with no values. Supply the values for the parameters with the request.");
+    }
+
     final DataSource<?> dataSource = executionContext
         .getMetaStore()
         .getSource(insertValues.getTarget().getSuffix());
@@ -38,6 +38,7 @@ import io.confluent.ksql.statement.ConfiguredStatement;
 import io.confluent.ksql.util.PersistentQueryMetadata;
 import io.confluent.ksql.util.QueryIdGenerator;
 import io.confluent.ksql.util.QueryMetadata;
+import io.confluent.ksql.util.TransientQueryMetadata;
 import java.io.Closeable;
 import java.util.List;
 import java.util.Objects;
@@ -114,6 +115,12 @@ public class KsqlEngine implements KsqlExecutionContext, Closeable {
     return allLiveQueries.size();
   }
 
+  public int numberOfTransientQueries() {
+    return (int) allLiveQueries.stream()
+        .filter(query -> query instanceof TransientQueryMetadata)
+        .count();
+  }
+
   @Override
   public Optional<PersistentQueryMetadata> getPersistentQuery(final QueryId queryId) {
     return primaryContext.getPersistentQuery(queryId);
@@ -179,6 +186,7 @@ public class KsqlEngine implements KsqlExecutionContext, Closeable {
 
   @Override
   public void close() {
+    primaryContext.shutdown();
     allLiveQueries.forEach(QueryMetadata::close);
     engineMetrics.close();
     aggregateMetricsCollector.shutdown();
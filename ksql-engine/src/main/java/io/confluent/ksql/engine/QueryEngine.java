@@ -26,6 +26,7 @@ import io.confluent.ksql.parser.tree.QueryContainer;
 import io.confluent.ksql.parser.tree.Sink;
 import io.confluent.ksql.physical.KafkaStreamsBuilderImpl;
 import io.confluent.ksql.physical.PhysicalPlanBuilder;
+import io.confluent.ksql.physical.SharedSources;
 import io.confluent.ksql.planner.LogicalPlanNode;
 import io.confluent.ksql.planner.LogicalPlanner;
 import io.confluent.ksql.planner.plan.OutputNode;
@@ -55,12 +56,14 @@ class QueryEngine {
   private final ProcessingLogContext processingLogContext;
   private final Consumer<QueryMetadata> queryCloseCallback;
   private final QueryIdGenerator queryIdGenerator;
+  private final SharedSources sharedSources;
 
   QueryEngine(
       final ServiceContext serviceContext,
       final ProcessingLogContext processingLogContext,
       final QueryIdGenerator queryIdGenerator,
-      final Consumer<QueryMetadata> queryCloseCallback
+      final Consumer<QueryMetadata> queryCloseCallback,
+      final SharedSources sharedSources
   ) {
     this.serviceContext = Objects.requireNonNull(serviceContext, "serviceContext");
     this.processingLogContext = Objects.requireNonNull(
@@ -68,6 +71,7 @@ class QueryEngine {
         "processingLogContext");
     this.queryCloseCallback = Objects.requireNonNull(queryCloseCallback, "queryCloseCallback");
     this.queryIdGenerator = Objects.requireNonNull(queryIdGenerator, "queryIdGenerator");
+    this.sharedSources = Objects.requireNonNull(sharedSources, "sharedSources");
   }
 
   @SuppressWarnings("MethodMayBeStatic") // To allow action to be mocked.
@@ -121,7 +125,8 @@ class QueryEngine {
         metaStore,
         queryIdGenerator,
         new KafkaStreamsBuilderImpl(serviceContext.getKafkaClientSupplier()),
-        queryCloseCallback
+        queryCloseCallback,
+        sharedSources
     );
 
     return physicalPlanBuilder.buildPhysicalPlan(logicalPlanNode);
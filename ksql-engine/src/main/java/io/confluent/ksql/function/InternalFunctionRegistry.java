@@ -17,8 +17,11 @@ package io.confluent.ksql.function;
 
 import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.function.udaf.count.CountAggFunctionFactory;
+import io.confluent.ksql.function.udaf.countdistinct.CountDistinctAggFunctionFactory;
 import io.confluent.ksql.function.udaf.max.MaxAggFunctionFactory;
 import io.confluent.ksql.function.udaf.min.MinAggFunctionFactory;
+import io.confluent.ksql.function.udaf.percentile.PercentileApproxAggFunctionFactory;
+import io.confluent.ksql.function.udaf.percentile.PercentilesApproxAggFunctionFactory;
 import io.confluent.ksql.function.udaf.sum.SumAggFunctionFactory;
 import io.confluent.ksql.function.udaf.topk.TopKAggregateFunctionFactory;
 import io.confluent.ksql.function.udaf.topkdistinct.TopkDistinctAggFunctionFactory;
@@ -299,11 +302,15 @@ public class InternalFunctionRegistry implements MutableFunctionRegistry {
     private void addUdafFunctions() {
 
       functionRegistry.addAggregateFunctionFactory(new CountAggFunctionFactory());
+      functionRegistry.addAggregateFunctionFactory(new CountDistinctAggFunctionFactory());
       functionRegistry.addAggregateFunctionFactory(new SumAggFunctionFactory());
 
       functionRegistry.addAggregateFunctionFactory(new MaxAggFunctionFactory());
       functionRegistry.addAggregateFunctionFactory(new MinAggFunctionFactory());
 
+      functionRegistry.addAggregateFunctionFactory(new PercentileApproxAggFunctionFactory());
+      functionRegistry.addAggregateFunctionFactory(new PercentilesApproxAggFunctionFactory());
+
       functionRegistry.addAggregateFunctionFactory(new TopKAggregateFunctionFactory());
       functionRegistry.addAggregateFunctionFactory(new TopkDistinctAggFunctionFactory());
     }
@@ -19,6 +19,7 @@ import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.KsqlAggregateFunction;
 import io.confluent.ksql.function.UdafAggregator;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -42,22 +43,26 @@ public class KudafAggregator implements UdafAggregator {
   @SuppressWarnings("unchecked")
   @Override
   public GenericRow apply(final Struct k, final GenericRow rowValue, final GenericRow aggRowValue) {
+    // write into a copy of the previous aggregate row, as the previous row is forwarded along
+    // with the new one when the aggregate is filtered by a HAVING clause.
+    final GenericRow result = new GenericRow(new ArrayList<>(aggRowValue.getColumns()));
+
     // copy over group-by and aggregate parameter columns into the output row
     for (int idx = 0; idx < nonFuncColumnCount; idx++) {
-      aggRowValue.getColumns().set(idx, rowValue.getColumns().get(idx));
+      result.getColumns().set(idx, rowValue.getColumns().get(idx));
     }
 
     // compute the aggregation and write it into the output row. Its assumed that
     // the columns written by this statement do not overlap with those written by
     // the above statement.
     aggValToAggFunctionMap.forEach((key, value) ->
-        aggRowValue.getColumns().set(
+        result.getColumns().set(
             key,
             value.aggregate(
                 rowValue.getColumns().get(value.getArgIndexInValue()),
                 aggRowValue.getColumns().get(key))));
 
-    return aggRowValue;
+    return result;
   }
 
   @SuppressWarnings("unchecked")
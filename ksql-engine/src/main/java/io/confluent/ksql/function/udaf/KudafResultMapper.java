@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.apache.kafka.streams.kstream.ValueMapper;
+
+/**
+ * Maps the aggregates of functions whose aggregate type differs from their return type to the
+ * results of the functions.
+ */
+public final class KudafResultMapper implements ValueMapper<GenericRow, GenericRow> {
+
+  private final Map<Integer, Function<Object, ?>> resultMappers;
+
+  @SuppressWarnings("unchecked")
+  public KudafResultMapper(final Map<Integer, KsqlAggregateFunction> aggFunctionsByIndex) {
+    this.resultMappers = aggFunctionsByIndex.entrySet().stream()
+        .filter(e -> hasResultMapper(e.getValue()))
+        .collect(Collectors.toMap(
+            Map.Entry::getKey,
+            e -> (Function<Object, ?>) e.getValue().getResultMapper()));
+  }
+
+  /**
+   * @param function the aggregate function.
+   * @return true if the aggregate of the function must be mapped to its result.
+   */
+  public static boolean hasResultMapper(final KsqlAggregateFunction function) {
+    return !Objects.equals(function.getAggregateType(), function.getReturnType());
+  }
+
+  public boolean hasMappings() {
+    return !resultMappers.isEmpty();
+  }
+
+  @Override
+  public GenericRow apply(final GenericRow row) {
+    if (row == null) {
+      return null;
+    }
+
+    // Copy, as the row is the aggregate held in the state store:
+    final GenericRow result = new GenericRow(new ArrayList<>(row.getColumns()));
+
+    resultMappers.forEach((index, mapper) ->
+        result.getColumns().set(index, mapper.apply(row.getColumns().get(index))));
+
+    return result;
+  }
+}
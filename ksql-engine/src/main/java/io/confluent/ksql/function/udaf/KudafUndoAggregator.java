@@ -18,6 +18,7 @@ package io.confluent.ksql.function.udaf;
 import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.TableAggregationFunction;
+import java.util.ArrayList;
 import java.util.Map;
 import java.util.Objects;
 import org.apache.kafka.connect.data.Struct;
@@ -40,17 +41,20 @@ public class KudafUndoAggregator implements Aggregator<Struct, GenericRow, Gener
   @SuppressWarnings("unchecked")
   @Override
   public GenericRow apply(final Struct k, final GenericRow rowValue, final GenericRow aggRowValue) {
+    // As with KudafAggregator, the previous aggregate row is left unchanged:
+    final GenericRow result = new GenericRow(new ArrayList<>(aggRowValue.getColumns()));
+
     for (int idx = 0; idx < nonFuncColumnCount; idx++) {
-      aggRowValue.getColumns().set(idx, rowValue.getColumns().get(idx));
+      result.getColumns().set(idx, rowValue.getColumns().get(idx));
     }
 
     aggValToAggFunctionMap.forEach(
         (aggRowIndex, function) ->
-            aggRowValue.getColumns().set(
+            result.getColumns().set(
                 aggRowIndex,
                 function.undo(
                     rowValue.getColumns().get(function.getArgIndexInValue()),
                     aggRowValue.getColumns().get(aggRowIndex))));
-    return aggRowValue;
+    return result;
   }
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.countdistinct;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.function.AggregateFunctionFactory;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import java.util.List;
+import org.apache.kafka.connect.data.Schema;
+
+public class CountDistinctAggFunctionFactory extends AggregateFunctionFactory {
+  private static final String FUNCTION_NAME = "COUNT_DISTINCT";
+
+  public CountDistinctAggFunctionFactory() {
+    super(FUNCTION_NAME);
+  }
+
+  @Override
+  public KsqlAggregateFunction getProperAggregateFunction(final List<Schema> argTypeList) {
+    return new CountDistinctKudaf(
+        FUNCTION_NAME,
+        -1,
+        CountDistinctKudaf.DEFAULT_PRECISION,
+        argTypeList
+    );
+  }
+
+  @Override
+  public List<List<Schema>> supportedArgs() {
+    // anything is a supported type
+    return ImmutableList.of(ImmutableList.of());
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.countdistinct;
+
+import io.confluent.ksql.function.AggregateFunctionArguments;
+import io.confluent.ksql.function.BaseAggregateFunction;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.util.KsqlException;
+import java.util.List;
+import java.util.function.Function;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.kstream.Merger;
+
+/**
+ * Estimates the number of distinct values, using a {@link HyperLogLog} sketch as the aggregate.
+ */
+public class CountDistinctKudaf extends BaseAggregateFunction<Object, String> {
+
+  static final int DEFAULT_PRECISION = 12;
+
+  private final int precision;
+
+  CountDistinctKudaf(
+      final String functionName,
+      final int argIndexInValue,
+      final int precision,
+      final List<Schema> argumentTypes
+  ) {
+    super(
+        functionName,
+        argIndexInValue,
+        () -> HyperLogLog.empty(precision),
+        Schema.OPTIONAL_INT64_SCHEMA,
+        argumentTypes,
+        "Estimates the number of distinct values of a column, per key, using a HyperLogLog "
+            + "sketch. An optional second argument sets the precision of the sketch, between "
+            + HyperLogLog.MIN_PRECISION + " and " + HyperLogLog.MAX_PRECISION + ", default "
+            + DEFAULT_PRECISION + ". The sketch holds 2^precision bytes per key and has a "
+            + "standard error of 1.04/sqrt(2^precision)."
+    );
+    this.precision = precision;
+
+    // Validate the precision up front, rather than on the first aggregation:
+    HyperLogLog.empty(precision);
+  }
+
+  @Override
+  public Schema getAggregateType() {
+    return Schema.OPTIONAL_STRING_SCHEMA;
+  }
+
+  @Override
+  public Function<String, Long> getResultMapper() {
+    return HyperLogLog::estimate;
+  }
+
+  @Override
+  public String aggregate(final Object currentValue, final String aggregateValue) {
+    if (currentValue == null) {
+      return aggregateValue;
+    }
+    return HyperLogLog.add(aggregateValue, HyperLogLog.hash(currentValue));
+  }
+
+  @Override
+  public Merger<Struct, String> getMerger() {
+    return (aggKey, aggOne, aggTwo) -> HyperLogLog.merge(aggOne, aggTwo);
+  }
+
+  @Override
+  public KsqlAggregateFunction<Object, String> getInstance(
+      final AggregateFunctionArguments aggregateFunctionArguments) {
+    final int precision;
+    if (aggregateFunctionArguments.argCount() == 1) {
+      precision = DEFAULT_PRECISION;
+    } else {
+      aggregateFunctionArguments.ensureArgCount(2, functionName);
+      try {
+        precision = Integer.parseInt(aggregateFunctionArguments.arg(1));
+      } catch (final NumberFormatException e) {
+        throw new KsqlException(functionName + " precision must be an integer literal, got: "
+            + aggregateFunctionArguments.arg(1));
+      }
+    }
+
+    return new CountDistinctKudaf(
+        functionName,
+        aggregateFunctionArguments.udafIndex(),
+        precision,
+        getArguments()
+    );
+  }
+
+  int getPrecision() {
+    return precision;
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.countdistinct;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import io.confluent.ksql.util.KsqlException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A HyperLogLog sketch, used to estimate the number of distinct values in a set.
+ *
+ * <p>The sketch is held as a string with one character per register, each character being the
+ * base 64 digit of the register's value. With {@code 2^precision} registers of six bits, the
+ * string is the base 64 encoding of the packed registers, without the cost of packing them, and
+ * a single register can be read or written without decoding the others.
+ *
+ * <p>The relative standard error of the estimate is {@code 1.04 / sqrt(2^precision)}.
+ */
+final class HyperLogLog {
+
+  static final int MIN_PRECISION = 4;
+  static final int MAX_PRECISION = 16;
+
+  private static final String DIGITS =
+      "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+
+  private static final int[] DIGIT_VALUES = new int[128];
+
+  private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+  static {
+    Arrays.fill(DIGIT_VALUES, -1);
+    for (int i = 0; i < DIGITS.length(); i++) {
+      DIGIT_VALUES[DIGITS.charAt(i)] = i;
+    }
+  }
+
+  private HyperLogLog() {
+  }
+
+  /**
+   * @param precision the number of bits of the hash used to select the register.
+   * @return an empty sketch with {@code 2^precision} registers.
+   */
+  static String empty(final int precision) {
+    if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+      throw new KsqlException("HyperLogLog precision must be between "
+          + MIN_PRECISION + " and " + MAX_PRECISION + ", got: " + precision);
+    }
+
+    final char[] registers = new char[1 << precision];
+    Arrays.fill(registers, DIGITS.charAt(0));
+    return new String(registers);
+  }
+
+  /**
+   * @param value the value to hash, which must not be null.
+   * @return the 64 bit hash of the value.
+   */
+  static long hash(final Object value) {
+    if (value instanceof Long || value instanceof Integer) {
+      return HASH_FUNCTION.hashLong(((Number) value).longValue()).asLong();
+    }
+
+    if (value instanceof Double) {
+      return HASH_FUNCTION.hashLong(Double.doubleToLongBits((Double) value)).asLong();
+    }
+
+    return HASH_FUNCTION.hashString(value.toString(), StandardCharsets.UTF_8).asLong();
+  }
+
+  /**
+   * Adds a hashed value to the sketch.
+   *
+   * @param sketch the sketch.
+   * @param hash the hash of the value.
+   * @return the updated sketch, which is the same instance if no register changed.
+   */
+  static String add(final String sketch, final long hash) {
+    final int precision = precisionOf(sketch);
+    final int index = (int) (hash >>> (Long.SIZE - precision));
+    final int rank = Math.min(
+        Long.numberOfLeadingZeros(hash << precision) + 1,
+        Long.SIZE - precision + 1);
+
+    if (rank <= valueOf(sketch.charAt(index))) {
+      return sketch;
+    }
+
+    final char[] registers = sketch.toCharArray();
+    registers[index] = DIGITS.charAt(rank);
+    return new String(registers);
+  }
+
+  /**
+   * Merges two sketches of the same precision, by taking the maximum value of each register.
+   *
+   * @return the sketch of the union of the two sets.
+   */
+  static String merge(final String sketch1, final String sketch2) {
+    if (sketch1.length() != sketch2.length()) {
+      throw new KsqlException("Can not merge HyperLogLog sketches of different precision: "
+          + precisionOf(sketch1) + " and " + precisionOf(sketch2));
+    }
+
+    final char[] registers = sketch1.toCharArray();
+    for (int i = 0; i < registers.length; i++) {
+      if (valueOf(sketch2.charAt(i)) > valueOf(registers[i])) {
+        registers[i] = sketch2.charAt(i);
+      }
+    }
+    return new String(registers);
+  }
+
+  /**
+   * @param sketch the sketch.
+   * @return the estimated number of distinct values added to the sketch.
+   */
+  static long estimate(final String sketch) {
+    final int registerCount = sketch.length();
+
+    double sum = 0.0;
+    int zeroRegisters = 0;
+    for (int i = 0; i < registerCount; i++) {
+      final int value = valueOf(sketch.charAt(i));
+      sum += Math.scalb(1.0, -value);
+      if (value == 0) {
+        zeroRegisters++;
+      }
+    }
+
+    final double estimate = alpha(registerCount) * registerCount * registerCount / sum;
+
+    // Small range correction, using linear counting while registers remain empty:
+    if (estimate <= 2.5 * registerCount && zeroRegisters != 0) {
+      return Math.round(registerCount * Math.log((double) registerCount / zeroRegisters));
+    }
+
+    // No large range correction is needed, as the hash is 64 bits:
+    return Math.round(estimate);
+  }
+
+  private static int precisionOf(final String sketch) {
+    return Integer.numberOfTrailingZeros(sketch.length());
+  }
+
+  private static int valueOf(final char digit) {
+    final int value = digit < DIGIT_VALUES.length ? DIGIT_VALUES[digit] : -1;
+    if (value < 0) {
+      throw new KsqlException("Invalid HyperLogLog sketch register: " + digit);
+    }
+    return value;
+  }
+
+  private static double alpha(final int registerCount) {
+    switch (registerCount) {
+      case 16:
+        return 0.673;
+      case 32:
+        return 0.697;
+      case 64:
+        return 0.709;
+      default:
+        return 0.7213 / (1 + 1.079 / registerCount);
+    }
+  }
+}
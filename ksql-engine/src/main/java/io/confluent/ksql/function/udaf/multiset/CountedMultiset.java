@@ -0,0 +1,216 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.multiset;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+
+/**
+ * Operations on a multiset held as a list of entries, each holding a distinct value and the
+ * number of times it occurs.
+ *
+ * <p>Entries are kept in ascending order of value, with any null value first, so that a value
+ * is found by binary search, and the smallest and largest values are at either end of the list.
+ * A value is removed by decrementing its count, and its entry removed once the count reaches
+ * zero.
+ */
+final class CountedMultiset {
+
+  static final String VALUE = "VALUE";
+  static final String COUNT = "COUNT";
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static final Comparator<Object> ORDER =
+      Comparator.nullsFirst((a, b) -> ((Comparable) a).compareTo(b));
+
+  private CountedMultiset() {
+  }
+
+  /**
+   * @param valueSchema the schema of the values in the multiset.
+   * @return the schema of the list of entries.
+   */
+  static Schema schema(final Schema valueSchema) {
+    final Schema entrySchema = SchemaBuilder.struct()
+        .optional()
+        .field(VALUE, valueSchema)
+        .field(COUNT, Schema.OPTIONAL_INT64_SCHEMA)
+        .build();
+
+    return SchemaBuilder.array(entrySchema)
+        .optional()
+        .build();
+  }
+
+  static List<Struct> add(
+      final List<Struct> entries,
+      final Object value,
+      final Schema entrySchema
+  ) {
+    final int idx = indexOf(entries, value);
+    if (idx >= 0) {
+      final Struct entry = entries.get(idx);
+      entry.put(COUNT, countOf(entry) + 1);
+    } else {
+      entries.add(-idx - 1, new Struct(entrySchema).put(VALUE, value).put(COUNT, 1L));
+    }
+    return entries;
+  }
+
+  static List<Struct> remove(final List<Struct> entries, final Object value) {
+    final int idx = indexOf(entries, value);
+    if (idx < 0) {
+      return entries;
+    }
+
+    final Struct entry = entries.get(idx);
+    final long count = countOf(entry) - 1;
+    if (count > 0) {
+      entry.put(COUNT, count);
+    } else {
+      entries.remove(idx);
+    }
+    return entries;
+  }
+
+  static List<Struct> merge(final List<Struct> one, final List<Struct> two) {
+    final List<Struct> merged = new ArrayList<>(one.size() + two.size());
+
+    int idx1 = 0;
+    int idx2 = 0;
+    while (idx1 < one.size() || idx2 < two.size()) {
+      if (idx2 == two.size()) {
+        merged.add(one.get(idx1++));
+        continue;
+      }
+      if (idx1 == one.size()) {
+        merged.add(two.get(idx2++));
+        continue;
+      }
+
+      final Struct entry1 = one.get(idx1);
+      final Struct entry2 = two.get(idx2);
+      final int comparison = ORDER.compare(entry1.get(VALUE), entry2.get(VALUE));
+      if (comparison < 0) {
+        merged.add(entry1);
+        idx1++;
+      } else if (comparison > 0) {
+        merged.add(entry2);
+        idx2++;
+      } else {
+        merged.add(entry1.put(COUNT, countOf(entry1) + countOf(entry2)));
+        idx1++;
+        idx2++;
+      }
+    }
+    return merged;
+  }
+
+  /**
+   * @return the smallest non-null value, or {@code null} if there is none.
+   */
+  @SuppressWarnings("unchecked")
+  static <T> T min(final List<Struct> entries) {
+    for (final Struct entry : entries) {
+      if (entry.get(VALUE) != null) {
+        return (T) entry.get(VALUE);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return the largest non-null value, or {@code null} if there is none.
+   */
+  @SuppressWarnings("unchecked")
+  static <T> T max(final List<Struct> entries) {
+    return entries.isEmpty()
+        ? null
+        : (T) entries.get(entries.size() - 1).get(VALUE);
+  }
+
+  /**
+   * @return up to {@code limit} of the largest non-null values, in descending order, with each
+   *         value repeated as many times as it occurs.
+   */
+  @SuppressWarnings("unchecked")
+  static <T> List<T> largest(final List<Struct> entries, final int limit) {
+    final List<T> values = new ArrayList<>();
+    for (int i = entries.size() - 1; i >= 0 && values.size() < limit; i--) {
+      final Struct entry = entries.get(i);
+      if (entry.get(VALUE) == null) {
+        break;
+      }
+      for (long c = countOf(entry); c > 0 && values.size() < limit; c--) {
+        values.add((T) entry.get(VALUE));
+      }
+    }
+    return values;
+  }
+
+  /**
+   * @return up to {@code limit} values, in ascending order, with each value repeated as many
+   *         times as it occurs.
+   */
+  @SuppressWarnings("unchecked")
+  static <T> List<T> all(final List<Struct> entries, final int limit) {
+    final List<T> values = new ArrayList<>();
+    for (int i = 0; i < entries.size() && values.size() < limit; i++) {
+      final Struct entry = entries.get(i);
+      for (long c = countOf(entry); c > 0 && values.size() < limit; c--) {
+        values.add((T) entry.get(VALUE));
+      }
+    }
+    return values;
+  }
+
+  /**
+   * @return up to {@code limit} distinct values, in ascending order.
+   */
+  @SuppressWarnings("unchecked")
+  static <T> List<T> distinct(final List<Struct> entries, final int limit) {
+    final List<T> values = new ArrayList<>();
+    for (int i = 0; i < entries.size() && values.size() < limit; i++) {
+      values.add((T) entries.get(i).get(VALUE));
+    }
+    return values;
+  }
+
+  private static int indexOf(final List<Struct> entries, final Object value) {
+    int low = 0;
+    int high = entries.size() - 1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      final int comparison = ORDER.compare(entries.get(mid).get(VALUE), value);
+      if (comparison < 0) {
+        low = mid + 1;
+      } else if (comparison > 0) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+
+  private static long countOf(final Struct entry) {
+    return entry.getInt64(COUNT);
+  }
+}
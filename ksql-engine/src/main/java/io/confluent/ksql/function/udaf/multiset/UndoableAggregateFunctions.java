@@ -0,0 +1,106 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.multiset;
+
+import io.confluent.ksql.function.AggregateFunctionArguments;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.util.KsqlException;
+import java.util.Optional;
+
+/**
+ * Supplies undoable versions of aggregate functions whose aggregate can not otherwise be undone,
+ * so that they can be applied to tables.
+ *
+ * <p>The undoable versions hold a {@link CountedMultiset} of the aggregated values, from which
+ * both adding and removing a value take time logarithmic in the number of distinct values.
+ */
+public final class UndoableAggregateFunctions {
+
+  // Matches the limit of the stream versions of COLLECT_LIST and COLLECT_SET:
+  private static final int COLLECT_LIMIT = 1000;
+
+  private UndoableAggregateFunctions() {
+  }
+
+  /**
+   * Get the undoable version of an aggregate function, if it has one.
+   *
+   * @param function the instance of the aggregate function.
+   * @param args the arguments the instance was created with.
+   * @return the undoable version of the instance, or empty if it has none.
+   */
+  public static Optional<KsqlAggregateFunction<?, ?>> forTableAggregation(
+      final KsqlAggregateFunction<?, ?> function,
+      final AggregateFunctionArguments args
+  ) {
+    final KsqlAggregateFunction<?, ?> undoable;
+    switch (function.getFunctionName().toUpperCase()) {
+      case "MIN":
+        undoable = new UndoableMultisetKudaf<>(
+            function,
+            function.getReturnType(),
+            true,
+            entries -> CountedMultiset.min(entries)
+        );
+        break;
+      case "MAX":
+        undoable = new UndoableMultisetKudaf<>(
+            function,
+            function.getReturnType(),
+            true,
+            entries -> CountedMultiset.max(entries)
+        );
+        break;
+      case "TOPK":
+        final int k = topKSize(args);
+        undoable = new UndoableMultisetKudaf<>(
+            function,
+            function.getReturnType().valueSchema(),
+            true,
+            entries -> CountedMultiset.largest(entries, k)
+        );
+        break;
+      case "COLLECT_LIST":
+        undoable = new UndoableMultisetKudaf<>(
+            function,
+            function.getReturnType().valueSchema(),
+            false,
+            entries -> CountedMultiset.all(entries, COLLECT_LIMIT)
+        );
+        break;
+      case "COLLECT_SET":
+        undoable = new UndoableMultisetKudaf<>(
+            function,
+            function.getReturnType().valueSchema(),
+            false,
+            entries -> CountedMultiset.distinct(entries, COLLECT_LIMIT)
+        );
+        break;
+      default:
+        return Optional.empty();
+    }
+    return Optional.of(undoable);
+  }
+
+  private static int topKSize(final AggregateFunctionArguments args) {
+    args.ensureArgCount(2, "TopK");
+    try {
+      return Integer.parseInt(args.arg(1));
+    } catch (final NumberFormatException e) {
+      throw new KsqlException("TopK size must be an integer literal, got: " + args.arg(1));
+    }
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.multiset;
+
+import io.confluent.ksql.function.AggregateFunctionArguments;
+import io.confluent.ksql.function.BaseAggregateFunction;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.function.TableAggregationFunction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.kstream.Merger;
+
+/**
+ * Computes the result of another aggregate function from a {@link CountedMultiset} of the
+ * aggregated values, so that values removed from a table can be undone.
+ *
+ * @param <T> the type of the aggregated values.
+ */
+public final class UndoableMultisetKudaf<T>
+    extends BaseAggregateFunction<T, List<Struct>>
+    implements TableAggregationFunction<T, List<Struct>> {
+
+  private final KsqlAggregateFunction<T, ?> source;
+  private final Schema aggregateType;
+  private final Schema entrySchema;
+  private final boolean ignoreNulls;
+  private final Function<List<Struct>, ?> resultMapper;
+
+  UndoableMultisetKudaf(
+      final KsqlAggregateFunction<T, ?> source,
+      final Schema valueSchema,
+      final boolean ignoreNulls,
+      final Function<List<Struct>, ?> resultMapper
+  ) {
+    super(
+        source.getFunctionName(),
+        source.getArgIndexInValue(),
+        ArrayList::new,
+        source.getReturnType(),
+        source.getArguments(),
+        source.getDescription()
+    );
+    this.source = source;
+    this.aggregateType = CountedMultiset.schema(valueSchema);
+    this.entrySchema = aggregateType.valueSchema();
+    this.ignoreNulls = ignoreNulls;
+    this.resultMapper = Objects.requireNonNull(resultMapper, "resultMapper");
+  }
+
+  @Override
+  public Schema getAggregateType() {
+    return aggregateType;
+  }
+
+  @Override
+  public Function<List<Struct>, ?> getResultMapper() {
+    return resultMapper;
+  }
+
+  @Override
+  public List<Struct> aggregate(final T currentValue, final List<Struct> aggregateValue) {
+    if (currentValue == null && ignoreNulls) {
+      return aggregateValue;
+    }
+    return CountedMultiset.add(aggregateValue, currentValue, entrySchema);
+  }
+
+  @Override
+  public List<Struct> undo(final T valueToUndo, final List<Struct> aggregateValue) {
+    if (valueToUndo == null && ignoreNulls) {
+      return aggregateValue;
+    }
+    return CountedMultiset.remove(aggregateValue, valueToUndo);
+  }
+
+  @Override
+  public Merger<Struct, List<Struct>> getMerger() {
+    return (aggKey, aggOne, aggTwo) -> CountedMultiset.merge(aggOne, aggTwo);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public KsqlAggregateFunction<T, List<Struct>> getInstance(
+      final AggregateFunctionArguments aggregateFunctionArguments) {
+    final KsqlAggregateFunction<T, ?> instance =
+        source.getInstance(aggregateFunctionArguments);
+    return (KsqlAggregateFunction<T, List<Struct>>) UndoableAggregateFunctions
+        .forTableAggregation(instance, aggregateFunctionArguments)
+        .orElseThrow(IllegalStateException::new);
+  }
+}
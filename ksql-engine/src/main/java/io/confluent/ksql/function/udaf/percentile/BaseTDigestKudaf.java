@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.percentile;
+
+import io.confluent.ksql.function.BaseAggregateFunction;
+import io.confluent.ksql.util.KsqlException;
+import java.util.List;
+import java.util.function.Function;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.kstream.Merger;
+
+/**
+ * Base for functions that estimate quantiles of a column, using an encoded {@link TDigest} as
+ * the aggregate.
+ */
+abstract class BaseTDigestKudaf<R> extends BaseAggregateFunction<Number, String> {
+
+  BaseTDigestKudaf(
+      final String functionName,
+      final int argIndexInValue,
+      final Schema returnType,
+      final List<Schema> arguments,
+      final String description
+  ) {
+    super(
+        functionName,
+        argIndexInValue,
+        () -> TDigest.empty(TDigest.DEFAULT_COMPRESSION).encode(),
+        returnType,
+        arguments,
+        description
+    );
+  }
+
+  @Override
+  public Schema getAggregateType() {
+    return Schema.OPTIONAL_STRING_SCHEMA;
+  }
+
+  @Override
+  public abstract Function<String, R> getResultMapper();
+
+  @Override
+  public String aggregate(final Number currentValue, final String aggregateValue) {
+    if (currentValue == null) {
+      return aggregateValue;
+    }
+
+    final TDigest digest = TDigest.decode(aggregateValue);
+    digest.add(currentValue.doubleValue());
+    return digest.encode();
+  }
+
+  @Override
+  public Merger<Struct, String> getMerger() {
+    return (aggKey, aggOne, aggTwo) -> {
+      final TDigest digest = TDigest.decode(aggOne);
+      digest.merge(TDigest.decode(aggTwo));
+      return digest.encode();
+    };
+  }
+
+  static double parseQuantile(final String functionName, final String quantile) {
+    final double value;
+    try {
+      value = Double.parseDouble(quantile.trim());
+    } catch (final NumberFormatException e) {
+      throw new KsqlException(functionName + " quantile must be a number, got: " + quantile);
+    }
+
+    if (!(value >= 0.0 && value <= 1.0)) {
+      throw new KsqlException(
+          functionName + " quantile must be between 0 and 1, got: " + quantile);
+    }
+    return value;
+  }
+}
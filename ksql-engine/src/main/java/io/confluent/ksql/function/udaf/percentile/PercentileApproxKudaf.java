@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.percentile;
+
+import io.confluent.ksql.function.AggregateFunctionArguments;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import java.util.List;
+import java.util.function.Function;
+import org.apache.kafka.connect.data.Schema;
+
+/**
+ * Estimates a single quantile of a column.
+ */
+public class PercentileApproxKudaf extends BaseTDigestKudaf<Double> {
+
+  private final double quantile;
+
+  PercentileApproxKudaf(
+      final String functionName,
+      final int argIndexInValue,
+      final double quantile,
+      final List<Schema> arguments
+  ) {
+    super(
+        functionName,
+        argIndexInValue,
+        Schema.OPTIONAL_FLOAT64_SCHEMA,
+        arguments,
+        "Estimates the value at the quantile given by the second argument, between 0 and 1, of "
+            + "a column, per key, using a t-digest."
+    );
+    this.quantile = quantile;
+  }
+
+  @Override
+  public Function<String, Double> getResultMapper() {
+    return aggregate -> TDigest.decode(aggregate).quantile(quantile);
+  }
+
+  @Override
+  public KsqlAggregateFunction<Number, String> getInstance(
+      final AggregateFunctionArguments aggregateFunctionArguments) {
+    aggregateFunctionArguments.ensureArgCount(2, functionName);
+    return new PercentileApproxKudaf(
+        functionName,
+        aggregateFunctionArguments.udafIndex(),
+        parseQuantile(functionName, aggregateFunctionArguments.arg(1)),
+        getArguments()
+    );
+  }
+
+  double getQuantile() {
+    return quantile;
+  }
+}
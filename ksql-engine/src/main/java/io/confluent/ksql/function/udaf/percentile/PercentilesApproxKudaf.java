@@ -0,0 +1,106 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.percentile;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.function.AggregateFunctionArguments;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.util.KsqlException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+
+/**
+ * Estimates several quantiles of a column from the same digest.
+ *
+ * <p>The quantiles are passed as a comma separated string literal, as aggregate functions only
+ * support a single literal argument.
+ */
+public class PercentilesApproxKudaf extends BaseTDigestKudaf<List<Double>> {
+
+  static final Schema RETURN_TYPE =
+      SchemaBuilder.array(Schema.OPTIONAL_FLOAT64_SCHEMA).optional().build();
+
+  private final List<Double> quantiles;
+
+  PercentilesApproxKudaf(
+      final String functionName,
+      final int argIndexInValue,
+      final List<Double> quantiles,
+      final List<Schema> arguments
+  ) {
+    super(
+        functionName,
+        argIndexInValue,
+        RETURN_TYPE,
+        arguments,
+        "Estimates the values at the quantiles given by the second argument, a comma separated "
+            + "string of quantiles between 0 and 1, of a column, per key, using a t-digest."
+    );
+    this.quantiles = ImmutableList.copyOf(quantiles);
+  }
+
+  @Override
+  public Function<String, List<Double>> getResultMapper() {
+    return aggregate -> {
+      final TDigest digest = TDigest.decode(aggregate);
+      if (digest.isEmpty()) {
+        return null;
+      }
+
+      final List<Double> result = new ArrayList<>(quantiles.size());
+      for (final double quantile : quantiles) {
+        result.add(digest.quantile(quantile));
+      }
+      return result;
+    };
+  }
+
+  @Override
+  public KsqlAggregateFunction<Number, String> getInstance(
+      final AggregateFunctionArguments aggregateFunctionArguments) {
+    aggregateFunctionArguments.ensureArgCount(2, functionName);
+    return new PercentilesApproxKudaf(
+        functionName,
+        aggregateFunctionArguments.udafIndex(),
+        parseQuantiles(aggregateFunctionArguments.arg(1)),
+        getArguments()
+    );
+  }
+
+  List<Double> getQuantiles() {
+    return quantiles;
+  }
+
+  private List<Double> parseQuantiles(final String arg) {
+    // String literals are passed with their enclosing quotes:
+    final String quantiles = arg.length() >= 2 && arg.startsWith("'") && arg.endsWith("'")
+        ? arg.substring(1, arg.length() - 1)
+        : arg;
+
+    if (quantiles.trim().isEmpty()) {
+      throw new KsqlException(functionName + " requires at least one quantile.");
+    }
+
+    return Arrays.stream(quantiles.split(","))
+        .map(quantile -> parseQuantile(functionName, quantile))
+        .collect(Collectors.toList());
+  }
+}
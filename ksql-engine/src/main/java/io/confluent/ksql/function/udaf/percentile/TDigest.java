@@ -0,0 +1,321 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.percentile;
+
+import io.confluent.ksql.util.KsqlException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * A merging t-digest, used to estimate quantiles of a distribution in constant space.
+ *
+ * <p>Values are clustered into centroids, each holding the mean and count of its values. The
+ * number of values a centroid may hold is limited by the k1 scale function, which keeps the
+ * centroids near the tails small, so extreme quantiles are estimated accurately. The
+ * compression bounds the number of centroids to roughly the compression.
+ *
+ * <p>New values are buffered and merged into the centroids once the buffer is full. The digest
+ * is encoded as a base 64 string, holding the centroids and any buffered values.
+ */
+final class TDigest {
+
+  static final int DEFAULT_COMPRESSION = 100;
+
+  private static final byte VERSION = 1;
+
+  private final int compression;
+  private double[] means;
+  private long[] weights;
+  private int centroidCount;
+  private final double[] buffer;
+  private int bufferCount;
+  private double min = Double.NaN;
+  private double max = Double.NaN;
+
+  private TDigest(final int compression, final int centroidCapacity) {
+    if (compression < 10) {
+      throw new IllegalArgumentException("compression must be at least 10: " + compression);
+    }
+    this.compression = compression;
+    this.means = new double[centroidCapacity];
+    this.weights = new long[centroidCapacity];
+    this.buffer = new double[compression];
+  }
+
+  static TDigest empty(final int compression) {
+    return new TDigest(compression, compression);
+  }
+
+  static TDigest decode(final String encoded) {
+    try {
+      final ByteBuffer bytes = ByteBuffer.wrap(Base64.getDecoder().decode(encoded));
+      final byte version = bytes.get();
+      if (version != VERSION) {
+        throw new KsqlException("Unsupported t-digest version: " + version);
+      }
+
+      final int compression = readVarInt(bytes);
+      final int centroidCount = readVarInt(bytes);
+      final int bufferCount = readVarInt(bytes);
+
+      final TDigest digest = new TDigest(compression, Math.max(compression, centroidCount));
+      digest.min = bytes.getDouble();
+      digest.max = bytes.getDouble();
+
+      for (int i = 0; i < centroidCount; i++) {
+        digest.means[i] = bytes.getDouble();
+        digest.weights[i] = readVarLong(bytes);
+      }
+      digest.centroidCount = centroidCount;
+
+      for (int i = 0; i < bufferCount; i++) {
+        digest.buffer[i] = bytes.getDouble();
+      }
+      digest.bufferCount = bufferCount;
+
+      return digest;
+    } catch (final IllegalArgumentException | BufferUnderflowException
+        | IndexOutOfBoundsException e) {
+      throw new KsqlException("Invalid t-digest: " + encoded, e);
+    }
+  }
+
+  String encode() {
+    final ByteBuffer bytes = ByteBuffer.allocate(
+        1 + 3 * 5 + 2 * Double.BYTES
+            + centroidCount * (Double.BYTES + 10)
+            + bufferCount * Double.BYTES);
+
+    bytes.put(VERSION);
+    writeVarLong(bytes, compression);
+    writeVarLong(bytes, centroidCount);
+    writeVarLong(bytes, bufferCount);
+    bytes.putDouble(min);
+    bytes.putDouble(max);
+
+    for (int i = 0; i < centroidCount; i++) {
+      bytes.putDouble(means[i]);
+      writeVarLong(bytes, weights[i]);
+    }
+
+    for (int i = 0; i < bufferCount; i++) {
+      bytes.putDouble(buffer[i]);
+    }
+
+    return Base64.getEncoder()
+        .encodeToString(Arrays.copyOf(bytes.array(), bytes.position()));
+  }
+
+  void add(final double value) {
+    if (Double.isNaN(value)) {
+      return;
+    }
+
+    if (bufferCount == buffer.length) {
+      compress(null);
+    }
+
+    buffer[bufferCount++] = value;
+    min = Double.isNaN(min) ? value : Math.min(min, value);
+    max = Double.isNaN(max) ? value : Math.max(max, value);
+  }
+
+  void merge(final TDigest other) {
+    if (other.isEmpty()) {
+      return;
+    }
+
+    min = Double.isNaN(min) ? other.min : Math.min(min, other.min);
+    max = Double.isNaN(max) ? other.max : Math.max(max, other.max);
+    compress(other);
+  }
+
+  boolean isEmpty() {
+    return centroidCount == 0 && bufferCount == 0;
+  }
+
+  /**
+   * @param quantile the quantile, between 0 and 1.
+   * @return the estimated value at the quantile, or {@code null} if the digest is empty.
+   */
+  Double quantile(final double quantile) {
+    if (isEmpty()) {
+      return null;
+    }
+
+    if (bufferCount > 0) {
+      compress(null);
+    }
+
+    if (quantile <= 0) {
+      return min;
+    }
+    if (quantile >= 1) {
+      return max;
+    }
+    if (centroidCount == 1) {
+      return means[0];
+    }
+
+    final double totalWeight = totalWeight();
+    final double index = quantile * totalWeight;
+
+    // Between the minimum and the center of the first centroid:
+    final double firstHalf = weights[0] / 2.0;
+    if (index < firstHalf) {
+      return min + (means[0] - min) * index / firstHalf;
+    }
+
+    // Between the centers of adjacent centroids:
+    double cumulative = firstHalf;
+    for (int i = 0; i < centroidCount - 1; i++) {
+      final double step = (weights[i] + weights[i + 1]) / 2.0;
+      if (cumulative + step > index) {
+        return means[i] + (means[i + 1] - means[i]) * (index - cumulative) / step;
+      }
+      cumulative += step;
+    }
+
+    // Between the center of the last centroid and the maximum:
+    final int last = centroidCount - 1;
+    final double lastHalf = weights[last] / 2.0;
+    return means[last] + (max - means[last]) * Math.min(1.0, (index - cumulative) / lastHalf);
+  }
+
+  private long totalWeight() {
+    long total = bufferCount;
+    for (int i = 0; i < centroidCount; i++) {
+      total += weights[i];
+    }
+    return total;
+  }
+
+  /**
+   * Merges the buffered values, and the centroids of any other digest, into the centroids.
+   */
+  private void compress(final TDigest other) {
+    final int otherCount = other == null ? 0 : other.centroidCount + other.bufferCount;
+    final int count = centroidCount + bufferCount + otherCount;
+
+    final double[] inMeans = new double[count];
+    final long[] inWeights = new long[count];
+
+    int idx = 0;
+    for (int i = 0; i < centroidCount; i++, idx++) {
+      inMeans[idx] = means[i];
+      inWeights[idx] = weights[i];
+    }
+    for (int i = 0; i < bufferCount; i++, idx++) {
+      inMeans[idx] = buffer[i];
+      inWeights[idx] = 1;
+    }
+    if (other != null) {
+      for (int i = 0; i < other.centroidCount; i++, idx++) {
+        inMeans[idx] = other.means[i];
+        inWeights[idx] = other.weights[i];
+      }
+      for (int i = 0; i < other.bufferCount; i++, idx++) {
+        inMeans[idx] = other.buffer[i];
+        inWeights[idx] = 1;
+      }
+    }
+
+    final Integer[] order = new Integer[count];
+    for (int i = 0; i < count; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (a, b) -> Double.compare(inMeans[a], inMeans[b]));
+
+    long totalWeight = 0;
+    for (final long weight : inWeights) {
+      totalWeight += weight;
+    }
+
+    final double[] outMeans = new double[Math.max(compression, count)];
+    final long[] outWeights = new long[outMeans.length];
+    int out = 0;
+
+    outMeans[0] = inMeans[order[0]];
+    outWeights[0] = inWeights[order[0]];
+    long weightSoFar = 0;
+    double weightLimit = totalWeight * integratedQ(integratedK(0) + 1);
+
+    for (int i = 1; i < count; i++) {
+      final double mean = inMeans[order[i]];
+      final long weight = inWeights[order[i]];
+
+      if (weightSoFar + outWeights[out] + weight <= weightLimit) {
+        // Merge into the current centroid:
+        outWeights[out] += weight;
+        outMeans[out] += (mean - outMeans[out]) * weight / outWeights[out];
+      } else {
+        // Start a new centroid:
+        weightSoFar += outWeights[out];
+        weightLimit =
+            totalWeight * integratedQ(integratedK((double) weightSoFar / totalWeight) + 1);
+        out++;
+        outMeans[out] = mean;
+        outWeights[out] = weight;
+      }
+    }
+
+    means = outMeans;
+    weights = outWeights;
+    centroidCount = out + 1;
+    bufferCount = 0;
+  }
+
+  // The k1 scale function, mapping a quantile to its index in the digest:
+  private double integratedK(final double quantile) {
+    return compression * Math.asin(2 * quantile - 1) / (2 * Math.PI);
+  }
+
+  // The inverse of the scale function:
+  private double integratedQ(final double k) {
+    return (Math.sin(Math.min(k, compression / 4.0) * 2 * Math.PI / compression) + 1) / 2;
+  }
+
+  private static void writeVarLong(final ByteBuffer bytes, final long value) {
+    long remaining = value;
+    while ((remaining & ~0x7FL) != 0) {
+      bytes.put((byte) ((remaining & 0x7F) | 0x80));
+      remaining >>>= 7;
+    }
+    bytes.put((byte) remaining);
+  }
+
+  private static long readVarLong(final ByteBuffer bytes) {
+    long value = 0;
+    for (int shift = 0; shift < Long.SIZE; shift += 7) {
+      final byte b = bytes.get();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Malformed variable length long");
+  }
+
+  private static int readVarInt(final ByteBuffer bytes) {
+    final long value = readVarLong(bytes);
+    if (value < 0 || value > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Variable length int out of range: " + value);
+    }
+    return (int) value;
+  }
+}
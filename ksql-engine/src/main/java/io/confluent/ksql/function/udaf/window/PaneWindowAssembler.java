@@ -0,0 +1,208 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.window;
+
+import static java.util.Objects.requireNonNull;
+
+import io.confluent.ksql.GenericRow;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.kstream.Initializer;
+import org.apache.kafka.streams.kstream.Merger;
+import org.apache.kafka.streams.kstream.Transformer;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.kstream.internals.TimeWindow;
+import org.apache.kafka.streams.processor.ProcessorContext;
+import org.apache.kafka.streams.processor.To;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.ReadOnlyWindowStore;
+import org.apache.kafka.streams.state.ValueAndTimestamp;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+
+/**
+ * Assembles hopping windows from the non-overlapping panes they are made up of.
+ *
+ * <p>For each updated pane, the panes of every open window containing it are read from the pane
+ * store and merged, starting from a freshly initialized aggregate, to give the updated result of
+ * the window. Each window is forwarded with the latest timestamp of its panes, as a window
+ * aggregated directly would be.
+ *
+ * <p>Windows are closed once their grace period has passed, as judged by the latest pane
+ * timestamp seen. After a restart, that time is recovered from the pane store on the first
+ * update, so windows closed before the restart are not emitted again.
+ *
+ * <p>Each pane update merges every pane of every window containing it, so the number of merges
+ * is the product of the windows per pane and the panes per window. Callers should limit panes to
+ * windows where this is small.
+ */
+public final class PaneWindowAssembler implements
+    Transformer<Windowed<Struct>, GenericRow, Iterable<KeyValue<Windowed<Struct>, GenericRow>>> {
+
+  private final String paneStoreName;
+  private final long sizeMs;
+  private final long advanceMs;
+  private final long paneSizeMs;
+  private final long gracePeriodMs;
+  private final Initializer<GenericRow> initializer;
+  private final Merger<Struct, GenericRow> merger;
+
+  private ProcessorContext context;
+  private ReadOnlyWindowStore<Struct, ValueAndTimestamp<GenericRow>> paneStore;
+  private long observedStreamTime = -1;
+  private boolean streamTimeRecovered;
+
+  public PaneWindowAssembler(
+      final String paneStoreName,
+      final Duration size,
+      final Duration advance,
+      final Duration paneSize,
+      final Duration gracePeriod,
+      final Initializer<GenericRow> initializer,
+      final Merger<Struct, GenericRow> merger
+  ) {
+    this.paneStoreName = requireNonNull(paneStoreName, "paneStoreName");
+    this.sizeMs = size.toMillis();
+    this.advanceMs = advance.toMillis();
+    this.paneSizeMs = paneSize.toMillis();
+    this.gracePeriodMs = gracePeriod.toMillis();
+    this.initializer = requireNonNull(initializer, "initializer");
+    this.merger = requireNonNull(merger, "merger");
+
+    if (sizeMs % paneSizeMs != 0 || advanceMs % paneSizeMs != 0) {
+      throw new IllegalArgumentException("Pane size must divide both the window size and advance."
+          + " size: " + size + ", advance: " + advance + ", paneSize: " + paneSize);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public void init(final ProcessorContext context) {
+    this.context = context;
+    this.paneStore = (ReadOnlyWindowStore<Struct, ValueAndTimestamp<GenericRow>>)
+        context.getStateStore(paneStoreName);
+    this.observedStreamTime = -1;
+    this.streamTimeRecovered = false;
+  }
+
+  /**
+   * Recovers the latest pane timestamp from the panes around the given timestamp, rather than
+   * scanning the whole pane store.
+   *
+   * <p>Panes are only updated until the grace period of the last window they are part of has
+   * passed, so the latest pane can start no later than a window size plus grace period after the
+   * pane being updated. Panes ending by the given timestamp can not hold a later one, so only the
+   * most recent panes of the store are read.
+   */
+  private long latestPaneTimestamp(final long timestamp) {
+    final long from = Math.max(0, timestamp - paneSizeMs + 1);
+    final long to = timestamp + sizeMs + gracePeriodMs;
+
+    long latest = timestamp;
+    try (KeyValueIterator<Windowed<Struct>, ValueAndTimestamp<GenericRow>> it =
+        paneStore.fetchAll(Instant.ofEpochMilli(from), Instant.ofEpochMilli(to))) {
+      while (it.hasNext()) {
+        final ValueAndTimestamp<GenericRow> pane = it.next().value;
+        if (pane != null) {
+          latest = Math.max(latest, pane.timestamp());
+        }
+      }
+    }
+    return latest;
+  }
+
+  @Override
+  public Iterable<KeyValue<Windowed<Struct>, GenericRow>> transform(
+      final Windowed<Struct> pane,
+      final GenericRow paneAggregate
+  ) {
+    if (paneAggregate == null) {
+      return Collections.emptyList();
+    }
+
+    if (!streamTimeRecovered) {
+      observedStreamTime = latestPaneTimestamp(context.timestamp());
+      streamTimeRecovered = true;
+    }
+
+    observedStreamTime = Math.max(observedStreamTime, context.timestamp());
+
+    final long paneStart = pane.window().start();
+    final long firstWindowStart = Math.max(0, paneStart - sizeMs + advanceMs)
+        / advanceMs * advanceMs;
+    final long lastWindowStart = paneStart / advanceMs * advanceMs;
+
+    final NavigableMap<Long, ValueAndTimestamp<GenericRow>> panes = fetchPanes(
+        pane.key(),
+        firstWindowStart,
+        lastWindowStart + sizeMs - paneSizeMs
+    );
+
+    for (long start = firstWindowStart; start <= lastWindowStart; start += advanceMs) {
+      final long end = start + sizeMs;
+      if (end + gracePeriodMs <= observedStreamTime) {
+        continue;
+      }
+
+      GenericRow aggregate = initializer.apply();
+      long timestamp = -1;
+      for (final ValueAndTimestamp<GenericRow> paneRow
+          : panes.subMap(start, true, end, false).values()) {
+        aggregate = merger.apply(pane.key(), aggregate, paneRow.value());
+        timestamp = Math.max(timestamp, paneRow.timestamp());
+      }
+
+      context.forward(
+          new Windowed<>(pane.key(), new TimeWindow(start, end)),
+          aggregate,
+          To.all().withTimestamp(timestamp < 0 ? context.timestamp() : timestamp)
+      );
+    }
+
+    return Collections.emptyList();
+  }
+
+  private NavigableMap<Long, ValueAndTimestamp<GenericRow>> fetchPanes(
+      final Struct key,
+      final long firstPaneStart,
+      final long lastPaneStart
+  ) {
+    final NavigableMap<Long, ValueAndTimestamp<GenericRow>> panes = new TreeMap<>();
+
+    try (WindowStoreIterator<ValueAndTimestamp<GenericRow>> it = paneStore.fetch(
+        key,
+        Instant.ofEpochMilli(firstPaneStart),
+        Instant.ofEpochMilli(lastPaneStart))
+    ) {
+      while (it.hasNext()) {
+        final KeyValue<Long, ValueAndTimestamp<GenericRow>> next = it.next();
+        if (next.value != null) {
+          panes.put(next.key, next.value);
+        }
+      }
+    }
+
+    return panes;
+  }
+
+  @Override
+  public void close() {
+  }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.materialization;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Range;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.model.WindowType;
+import io.confluent.ksql.serde.WindowInfo;
+import io.confluent.ksql.structured.StructKeyUtil;
+import io.confluent.ksql.util.KsqlException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.kstream.Window;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.QueryableStoreType;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.apache.kafka.streams.state.ReadOnlySessionStore;
+import org.apache.kafka.streams.state.ReadOnlyWindowStore;
+import org.apache.kafka.streams.state.StreamsMetadata;
+import org.apache.kafka.streams.state.ValueAndTimestamp;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+
+/**
+ * Read access to a table materialized into the state store of a persistent query.
+ *
+ * <p>Lookups are served via Kafka Streams interactive queries. Only the keys hosted by the local
+ * instance can be read: use {@link #locate} to find the owning instance of a key.
+ */
+public final class Materialization {
+
+  private final KafkaStreams kafkaStreams;
+  private final MaterializationInfo info;
+  private final Optional<HostInfo> localHost;
+
+  public Materialization(
+      final KafkaStreams kafkaStreams,
+      final MaterializationInfo info,
+      final Optional<HostInfo> localHost
+  ) {
+    this.kafkaStreams = Objects.requireNonNull(kafkaStreams, "kafkaStreams");
+    this.info = Objects.requireNonNull(info, "info");
+    this.localHost = Objects.requireNonNull(localHost, "localHost");
+  }
+
+  public Optional<WindowInfo> getWindowInfo() {
+    return info.getWindowInfo();
+  }
+
+  /**
+   * Locate the instance hosting the supplied {@code rowKey}.
+   *
+   * @param rowKey the key to locate.
+   * @return the owning host, or {@link Optional#empty()} if the key is hosted locally.
+   */
+  public Optional<HostInfo> locate(final String rowKey) {
+    if (!localHost.isPresent()) {
+      return Optional.empty();
+    }
+
+    final StreamsMetadata metadata = kafkaStreams.metadataForKey(
+        info.getStateStoreName(),
+        StructKeyUtil.asStructKey(rowKey),
+        info.getKeySerde().serializer()
+    );
+
+    if (metadata == null || metadata == StreamsMetadata.NOT_AVAILABLE) {
+      throw new KsqlException("Materialized data for key '" + rowKey + "' is not "
+          + "currently available. The query may be starting or rebalancing.");
+    }
+
+    return metadata.hostInfo().equals(localHost.get())
+        ? Optional.empty()
+        : Optional.of(metadata.hostInfo());
+  }
+
+  /**
+   * Get the row for the supplied key from a non-windowed table.
+   *
+   * @param rowKey the key of the row.
+   * @return the row, if present.
+   */
+  public Optional<MaterializedRow> get(final String rowKey) {
+    if (info.getWindowInfo().isPresent()) {
+      throw new KsqlException("Table is windowed: lookup requires window bounds");
+    }
+
+    final Struct key = StructKeyUtil.asStructKey(rowKey);
+
+    final ReadOnlyKeyValueStore<Struct, ValueAndTimestamp<GenericRow>> store =
+        store(QueryableStoreTypes.timestampedKeyValueStore());
+
+    final ValueAndTimestamp<GenericRow> row = store.get(key);
+    if (row == null) {
+      return Optional.empty();
+    }
+
+    return info.transform(key, row.value())
+        .map(value -> MaterializedRow.of(rowKey, Optional.empty(), row.timestamp(), value));
+  }
+
+  /**
+   * Get the rows for the supplied key from a windowed table.
+   *
+   * @param rowKey the key of the rows.
+   * @param windowStart the bounds on the window start time of the returned rows.
+   * @return the rows, ordered by window start.
+   */
+  public List<MaterializedRow> get(final String rowKey, final Range<Instant> windowStart) {
+    final WindowInfo windowInfo = info.getWindowInfo()
+        .orElseThrow(() -> new KsqlException("Table is not windowed: lookup only supports key"));
+
+    return windowInfo.getType() == WindowType.SESSION
+        ? getSessions(rowKey, windowStart)
+        : getWindows(rowKey, windowStart, windowInfo.getSize().orElse(Duration.ZERO));
+  }
+
+  private List<MaterializedRow> getWindows(
+      final String rowKey,
+      final Range<Instant> windowStart,
+      final Duration windowSize
+  ) {
+    final Struct key = StructKeyUtil.asStructKey(rowKey);
+
+    final ReadOnlyWindowStore<Struct, ValueAndTimestamp<GenericRow>> store =
+        store(QueryableStoreTypes.timestampedWindowStore());
+
+    final Instant lower = windowStart.hasLowerBound()
+        ? windowStart.lowerEndpoint()
+        : Instant.ofEpochMilli(0);
+
+    final Instant upper = windowStart.hasUpperBound()
+        ? windowStart.upperEndpoint()
+        : Instant.ofEpochMilli(Long.MAX_VALUE);
+
+    final ImmutableList.Builder<MaterializedRow> rows = ImmutableList.builder();
+
+    try (WindowStoreIterator<ValueAndTimestamp<GenericRow>> it =
+        store.fetch(key, lower, upper)) {
+
+      while (it.hasNext()) {
+        final KeyValue<Long, ValueAndTimestamp<GenericRow>> next = it.next();
+        final Instant start = Instant.ofEpochMilli(next.key);
+        if (!windowStart.contains(start)) {
+          continue;
+        }
+
+        final Window window = new FixedWindow(next.key, next.key + windowSize.toMillis());
+
+        info.transform(new Windowed<>(key, window), next.value.value())
+            .map(value -> MaterializedRow.of(
+                rowKey,
+                Optional.of(window),
+                next.value.timestamp(),
+                value
+            ))
+            .ifPresent(rows::add);
+      }
+    }
+
+    return rows.build();
+  }
+
+  private List<MaterializedRow> getSessions(
+      final String rowKey,
+      final Range<Instant> windowStart
+  ) {
+    final Struct key = StructKeyUtil.asStructKey(rowKey);
+
+    final ReadOnlySessionStore<Struct, GenericRow> store =
+        store(QueryableStoreTypes.sessionStore());
+
+    final ImmutableList.Builder<MaterializedRow> rows = ImmutableList.builder();
+
+    try (KeyValueIterator<Windowed<Struct>, GenericRow> it = store.fetch(key)) {
+
+      while (it.hasNext()) {
+        final KeyValue<Windowed<Struct>, GenericRow> next = it.next();
+        final Window window = next.key.window();
+        if (!windowStart.contains(window.startTime())) {
+          continue;
+        }
+
+        info.transform(next.key, next.value)
+            .map(value -> MaterializedRow.of(rowKey, Optional.of(window), window.end(), value))
+            .ifPresent(rows::add);
+      }
+    }
+
+    return rows.build();
+  }
+
+  /**
+   * A window of a tumbling or hopping table, as stored by its start time in the window store.
+   */
+  private static final class FixedWindow extends Window {
+
+    FixedWindow(final long startMs, final long endMs) {
+      super(startMs, endMs);
+    }
+
+    @Override
+    public boolean overlap(final Window other) {
+      return start() < other.end() && other.start() < end();
+    }
+  }
+
+  private <T> T store(final QueryableStoreType<T> queryableStoreType) {
+    try {
+      return kafkaStreams.store(info.getStateStoreName(), queryableStoreType);
+    } catch (final InvalidStateStoreException e) {
+      throw new KsqlException("State store '" + info.getStateStoreName() + "' is not "
+          + "currently available. The query may be starting or rebalancing.", e);
+    }
+  }
+}
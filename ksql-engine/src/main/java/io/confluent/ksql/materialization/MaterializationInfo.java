@@ -0,0 +1,157 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.materialization;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.serde.KeySerde;
+import io.confluent.ksql.serde.WindowInfo;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.kstream.Predicate;
+import org.apache.kafka.streams.kstream.ValueMapper;
+import org.apache.kafka.streams.kstream.ValueMapperWithKey;
+
+/**
+ * Information about a table materialized into a state store by an aggregation.
+ *
+ * <p>Holds the name of the state store and the set of stateless transforms, e.g. {@code HAVING}
+ * and projections, applied to the aggregate rows in the store to produce the rows of the table.
+ */
+public final class MaterializationInfo {
+
+  private final String stateStoreName;
+  private final KeySerde<Struct> keySerde;
+  private final Optional<WindowInfo> windowInfo;
+  private final ImmutableList<RowTransform> transforms;
+
+  /**
+   * A transform applied to a row from the state store.
+   */
+  @FunctionalInterface
+  public interface RowTransform {
+
+    /**
+     * @param key the key of the row, either a {@link Struct} or a windowed {@link Struct}.
+     * @param row the row.
+     * @return the transformed row, or {@link Optional#empty()} if the row is filtered out.
+     */
+    Optional<GenericRow> apply(Object key, GenericRow row);
+  }
+
+  /**
+   * Create instance.
+   *
+   * @param stateStoreName the name of the state store holding the aggregates.
+   * @param keySerde the serde of the <i>unwindowed</i> key the store is partitioned by.
+   * @param windowInfo the window, if the aggregation is windowed.
+   * @return the instance.
+   */
+  public static MaterializationInfo of(
+      final String stateStoreName,
+      final KeySerde<Struct> keySerde,
+      final Optional<WindowInfo> windowInfo
+  ) {
+    return new MaterializationInfo(stateStoreName, keySerde, windowInfo, ImmutableList.of());
+  }
+
+  private MaterializationInfo(
+      final String stateStoreName,
+      final KeySerde<Struct> keySerde,
+      final Optional<WindowInfo> windowInfo,
+      final List<RowTransform> transforms
+  ) {
+    this.stateStoreName = Objects.requireNonNull(stateStoreName, "stateStoreName");
+    this.keySerde = Objects.requireNonNull(keySerde, "keySerde");
+    this.windowInfo = Objects.requireNonNull(windowInfo, "windowInfo");
+    this.transforms = ImmutableList.copyOf(Objects.requireNonNull(transforms, "transforms"));
+  }
+
+  public String getStateStoreName() {
+    return stateStoreName;
+  }
+
+  public KeySerde<Struct> getKeySerde() {
+    return keySerde;
+  }
+
+  public Optional<WindowInfo> getWindowInfo() {
+    return windowInfo;
+  }
+
+  /**
+   * @param predicate the predicate rows must pass.
+   * @return a new instance with the filter appended to the transforms.
+   */
+  public MaterializationInfo filter(final Predicate<Object, GenericRow> predicate) {
+    return withTransform((key, row) -> predicate.test(key, row)
+        ? Optional.of(row)
+        : Optional.empty());
+  }
+
+  /**
+   * @param mapper the mapper to apply to rows.
+   * @return a new instance with the mapper appended to the transforms.
+   */
+  public MaterializationInfo map(final ValueMapper<GenericRow, GenericRow> mapper) {
+    return withTransform((key, row) -> Optional.ofNullable(mapper.apply(row)));
+  }
+
+  /**
+   * @param mapper the mapper to apply to rows.
+   * @return a new instance with the mapper appended to the transforms.
+   */
+  public <K> MaterializationInfo mapWithKey(
+      final ValueMapperWithKey<K, GenericRow, GenericRow> mapper
+  ) {
+    return withTransform((key, row) -> {
+      @SuppressWarnings("unchecked") final K typedKey = (K) key;
+      return Optional.ofNullable(mapper.apply(typedKey, row));
+    });
+  }
+
+  /**
+   * Apply the transforms to a row read from the state store.
+   *
+   * @param key the key of the row.
+   * @param storeRow the row from the state store.
+   * @return the table row, or {@link Optional#empty()} if the row is filtered out.
+   */
+  public Optional<GenericRow> transform(final Object key, final GenericRow storeRow) {
+    Optional<GenericRow> row = Optional.of(storeRow);
+    for (final RowTransform transform : transforms) {
+      if (!row.isPresent()) {
+        break;
+      }
+      row = transform.apply(key, row.get());
+    }
+    return row;
+  }
+
+  private MaterializationInfo withTransform(final RowTransform transform) {
+    return new MaterializationInfo(
+        stateStoreName,
+        keySerde,
+        windowInfo,
+        ImmutableList.<RowTransform>builder()
+            .addAll(transforms)
+            .add(transform)
+            .build()
+    );
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.materialization;
+
+import io.confluent.ksql.GenericRow;
+import java.util.Objects;
+import java.util.Optional;
+import org.apache.kafka.streams.kstream.Window;
+
+/**
+ * A row read from a materialized table.
+ */
+public final class MaterializedRow {
+
+  private final String rowKey;
+  private final Optional<Window> window;
+  private final long rowTime;
+  private final GenericRow value;
+
+  public static MaterializedRow of(
+      final String rowKey,
+      final Optional<Window> window,
+      final long rowTime,
+      final GenericRow value
+  ) {
+    return new MaterializedRow(rowKey, window, rowTime, value);
+  }
+
+  private MaterializedRow(
+      final String rowKey,
+      final Optional<Window> window,
+      final long rowTime,
+      final GenericRow value
+  ) {
+    this.rowKey = Objects.requireNonNull(rowKey, "rowKey");
+    this.window = Objects.requireNonNull(window, "window");
+    this.rowTime = rowTime;
+    this.value = Objects.requireNonNull(value, "value");
+  }
+
+  public String getRowKey() {
+    return rowKey;
+  }
+
+  public Optional<Window> getWindow() {
+    return window;
+  }
+
+  public long getRowTime() {
+    return rowTime;
+  }
+
+  public GenericRow getValue() {
+    return value;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final MaterializedRow that = (MaterializedRow) o;
+    return rowTime == that.rowTime
+        && Objects.equals(rowKey, that.rowKey)
+        && Objects.equals(window, that.window)
+        && Objects.equals(value, that.value);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(rowKey, window, rowTime, value);
+  }
+
+  @Override
+  public String toString() {
+    return "MaterializedRow{"
+        + "rowKey='" + rowKey + '\''
+        + ", window=" + window
+        + ", rowTime=" + rowTime
+        + ", value=" + value
+        + '}';
+  }
+}
@@ -17,31 +17,47 @@ package io.confluent.ksql.physical;
 
 import static io.confluent.ksql.metastore.model.DataSource.DataSourceType;
 
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.errors.ProductionExceptionHandlerUtil;
 import io.confluent.ksql.execution.builder.KsqlQueryBuilder;
+import io.confluent.ksql.execution.context.QueryContext;
+import io.confluent.ksql.execution.context.QueryLoggerUtil;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.materialization.Materialization;
 import io.confluent.ksql.metastore.MutableMetaStore;
 import io.confluent.ksql.metastore.model.DataSource;
 import io.confluent.ksql.metastore.model.KsqlStream;
 import io.confluent.ksql.metastore.model.KsqlTable;
 import io.confluent.ksql.metrics.ConsumerCollector;
 import io.confluent.ksql.metrics.ProducerCollector;
+import io.confluent.ksql.physical.SharedSource.StartPolicy;
+import io.confluent.ksql.physical.SharedSource.Subscribers;
+import io.confluent.ksql.physical.SharedSourcePersistentQueryMetadata.Router;
+import io.confluent.ksql.physical.SharedSourcePersistentQueryMetadata.RoutingSubscriber;
+import io.confluent.ksql.physical.SharedSourceQueryMetadata.RowSubscriber;
 import io.confluent.ksql.planner.LogicalPlanNode;
 import io.confluent.ksql.planner.PlanSourceExtractorVisitor;
+import io.confluent.ksql.planner.plan.DataSourceNode;
+import io.confluent.ksql.planner.plan.FilterNode;
 import io.confluent.ksql.planner.plan.KsqlBareOutputNode;
 import io.confluent.ksql.planner.plan.KsqlStructuredDataOutputNode;
 import io.confluent.ksql.planner.plan.OutputNode;
 import io.confluent.ksql.planner.plan.PlanNode;
+import io.confluent.ksql.planner.plan.ProjectNode;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.schema.ksql.Field;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.PhysicalSchema;
 import io.confluent.ksql.services.ServiceContext;
+import io.confluent.ksql.streams.KsqlBoundedMemoryRocksDBConfigSetter;
 import io.confluent.ksql.structured.QueuedSchemaKStream;
 import io.confluent.ksql.structured.SchemaKStream;
 import io.confluent.ksql.structured.SchemaKTable;
+import io.confluent.ksql.structured.StreamRowPipeline;
+import io.confluent.ksql.util.EngineProcessingLogMessageFactory;
+import io.confluent.ksql.util.KafkaConsumerGroupClientImpl;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlConstants;
 import io.confluent.ksql.util.KsqlException;
@@ -50,7 +66,9 @@ import io.confluent.ksql.util.QueryIdGenerator;
 import io.confluent.ksql.util.QueryMetadata;
 import io.confluent.ksql.util.QuerySchemas;
 import io.confluent.ksql.util.TransientQueryMetadata;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -58,16 +76,24 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.utils.Utils;
 import org.apache.kafka.streams.KafkaStreams;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.StreamsConfig;
 import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.state.HostInfo;
 
 public class PhysicalPlanBuilder {
 
+  private static final String TRANSIENT_SOURCE_KEY_PREFIX = "transient:";
+  private static final String PERSISTENT_SOURCE_KEY_PREFIX = "persistent:";
+
   private final StreamsBuilder builder;
   private final KsqlConfig ksqlConfig;
   private final ServiceContext serviceContext;
@@ -78,7 +104,9 @@ public class PhysicalPlanBuilder {
   private final QueryIdGenerator queryIdGenerator;
   private final KafkaStreamsBuilder kafkaStreamsBuilder;
   private final Consumer<QueryMetadata> queryCloseCallback;
+  private final SharedSources sharedSources;
 
+  // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
   public PhysicalPlanBuilder(
       final StreamsBuilder builder,
       final KsqlConfig ksqlConfig,
@@ -89,8 +117,10 @@ public class PhysicalPlanBuilder {
       final MutableMetaStore metaStore,
       final QueryIdGenerator queryIdGenerator,
       final KafkaStreamsBuilder kafkaStreamsBuilder,
-      final Consumer<QueryMetadata> queryCloseCallback
+      final Consumer<QueryMetadata> queryCloseCallback,
+      final SharedSources sharedSources
   ) {
+    // CHECKSTYLE_RULES.ON: ParameterNumberCheck
     this.builder = Objects.requireNonNull(builder, "builder");
     this.ksqlConfig = Objects.requireNonNull(ksqlConfig, "ksqlConfig");
     this.serviceContext = Objects.requireNonNull(serviceContext, "serviceContext");
@@ -104,6 +134,7 @@ public class PhysicalPlanBuilder {
     this.queryIdGenerator = Objects.requireNonNull(queryIdGenerator, "queryIdGenerator");
     this.kafkaStreamsBuilder = Objects.requireNonNull(kafkaStreamsBuilder, "kafkaStreamsBuilder");
     this.queryCloseCallback = Objects.requireNonNull(queryCloseCallback, "queryCloseCallback");
+    this.sharedSources = Objects.requireNonNull(sharedSources, "sharedSources");
   }
 
   public QueryMetadata buildPhysicalPlan(final LogicalPlanNode logicalPlanNode) {
@@ -121,6 +152,22 @@ public class PhysicalPlanBuilder {
         queryId
     );
 
+    if (outputNode instanceof KsqlBareOutputNode) {
+      final Optional<DataSourceNode> sharedSourceNode = findShareableSource(
+          outputNode,
+          KsqlConfig.KSQL_SHARED_TRANSIENT_SOURCES_ENABLE_CONFIG
+      );
+      if (sharedSourceNode.isPresent()) {
+        return buildPlanForSharedSourceQuery(
+            ksqlQueryBuilder,
+            (KsqlBareOutputNode) outputNode,
+            sharedSourceNode.get(),
+            queryId,
+            logicalPlanNode.getStatementText()
+        );
+      }
+    }
+
     final SchemaKStream<?> resultStream = outputNode.buildStream(ksqlQueryBuilder);
 
     if (outputNode instanceof KsqlBareOutputNode) {
@@ -162,6 +209,20 @@ public class PhysicalPlanBuilder {
       final String persistanceQueryPrefix =
           ksqlConfig.getString(KsqlConfig.KSQL_PERSISTENT_QUERY_NAME_PREFIX_CONFIG);
 
+      final Optional<DataSourceNode> sharedSourceNode =
+          findShareablePersistentSource(ksqlStructuredDataOutputNode, resultStream);
+      if (sharedSourceNode.isPresent()) {
+        return buildPlanForSharedSourcePersistentQuery(
+            logicalPlanNode.getStatementText(),
+            resultStream,
+            ksqlStructuredDataOutputNode,
+            sharedSourceNode.get(),
+            persistanceQueryPrefix,
+            queryId,
+            ksqlQueryBuilder
+        );
+      }
+
       return buildPlanForStructuredOutputNode(
           logicalPlanNode.getStatementText(),
           resultStream,
@@ -211,6 +272,7 @@ public class PhysicalPlanBuilder {
         bareOutputNode.getSchema(),
         getSourceNames(bareOutputNode),
         queue::setLimitHandler,
+        queue::setQueuedHandler,
         schemaKStream.getExecutionPlan(""),
         queue.getQueue(),
         (sourceSchemaKstream instanceof SchemaKTable)
@@ -220,45 +282,409 @@ public class PhysicalPlanBuilder {
         builder.build(),
         streamsProperties,
         overriddenProperties,
-        queryCloseCallback
+        closeCallback(queryId)
     );
   }
 
-  private QueryMetadata buildPlanForStructuredOutputNode(
+  /**
+   * Find the source of a query that can run on a {@link SharedSource}.
+   *
+   * <p>Only queries that filter and project a single stream, and which read from the latest
+   * offset, can share a source: a query joining a running shared source only sees rows produced
+   * after it joins.
+   */
+  private Optional<DataSourceNode> findShareableSource(
+      final OutputNode outputNode,
+      final String enableConfig
+  ) {
+    if (!ksqlConfig.getBoolean(enableConfig) || !overriddenProperties.isEmpty()) {
+      return Optional.empty();
+    }
+
+    final Object offsetReset = ksqlConfig.getKsqlStreamConfigProps()
+        .get(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG);
+    if (offsetReset == null || !offsetReset.toString().equalsIgnoreCase("latest")) {
+      return Optional.empty();
+    }
+
+    if (!(outputNode.getSource() instanceof ProjectNode)) {
+      return Optional.empty();
+    }
+
+    PlanNode source = ((ProjectNode) outputNode.getSource()).getSource();
+    if (source instanceof FilterNode) {
+      source = ((FilterNode) source).getSource();
+    }
+
+    if (!(source instanceof DataSourceNode)) {
+      return Optional.empty();
+    }
+
+    final DataSourceNode sourceNode = (DataSourceNode) source;
+    return sourceNode.getDataSourceType() == DataSourceType.KSTREAM
+        ? Optional.of(sourceNode)
+        : Optional.empty();
+  }
+
+  /**
+   * Find the source of a persistent query that can run on a {@link SharedSource}.
+   *
+   * <p>In addition to the requirements of transient queries, the query must write a stream
+   * without repartitioning it, and the source must not be windowed, as all queries on the source
+   * write their rows through a single sink using the source's key serde.
+   */
+  private Optional<DataSourceNode> findShareablePersistentSource(
+      final KsqlStructuredDataOutputNode outputNode,
+      final SchemaKStream<?> resultStream
+  ) {
+    if (resultStream instanceof SchemaKTable || outputNode.getPartitionByField().isPresent()) {
+      return Optional.empty();
+    }
+
+    return findShareableSource(outputNode, KsqlConfig.KSQL_SHARED_PERSISTENT_SOURCES_ENABLE_CONFIG)
+        .filter(sourceNode -> !sourceNode.getDataSource().getKsqlTopic()
+            .getKeyFormat().isWindowed());
+  }
+
+  private QueryMetadata buildPlanForSharedSourceQuery(
+      final KsqlQueryBuilder ksqlQueryBuilder,
+      final KsqlBareOutputNode bareOutputNode,
+      final DataSourceNode sourceNode,
+      final QueryId queryId,
+      final String statement
+  ) {
+    final String sourceKey = TRANSIENT_SOURCE_KEY_PREFIX + sourceNode.getDataSource().getName();
+
+    final SharedSource<RowSubscriber> source = sharedSources.attach(
+        sourceKey,
+        sourceNode.getDataSource(),
+        () -> buildSharedTransientSource(sourceNode)
+    );
+
+    final StreamRowPipeline pipeline = buildSharedSourcePipeline(
+        ksqlQueryBuilder,
+        (ProjectNode) bareOutputNode.getSource(),
+        sourceNode
+    );
+
+    final TransientQueryQueue<Object> queue = new TransientQueryQueue<>(bareOutputNode.getLimit());
+
+    final String applicationId = addTimeSuffix(getQueryApplicationId(
+        getServiceId(),
+        ksqlConfig.getString(KsqlConfig.KSQL_TRANSIENT_QUERY_NAME_PREFIX_CONFIG),
+        queryId
+    ));
+
+    return new SharedSourceQueryMetadata(
+        statement,
+        sharedSources,
+        sourceKey,
+        source,
+        applicationId,
+        pipeline.into(queue.getPopulator()),
+        bareOutputNode.getSchema(),
+        getSourceNames(bareOutputNode),
+        queue,
+        overriddenProperties,
+        closeCallback(queryId)
+    );
+  }
+
+  private QueryMetadata buildPlanForSharedSourcePersistentQuery(
       final String sqlExpression,
       final SchemaKStream<?> schemaKStream,
       final KsqlStructuredDataOutputNode outputNode,
-      final String serviceId,
+      final DataSourceNode sourceNode,
       final String persistanceQueryPrefix,
       final QueryId queryId,
-      final QuerySchemas schemas
+      final KsqlQueryBuilder ksqlQueryBuilder
+  ) {
+    final DataSource<?> sinkDataSource =
+        buildSinkDataSource(sqlExpression, schemaKStream, outputNode);
+
+    sinkSetUp(outputNode, sinkDataSource);
+
+    final String sourceKey = PERSISTENT_SOURCE_KEY_PREFIX + sourceNode.getDataSource().getName();
+
+    final SharedSource<RoutingSubscriber> source = sharedSources.attach(
+        sourceKey,
+        sourceNode.getDataSource(),
+        () -> buildSharedPersistentSource(sourceNode, persistanceQueryPrefix)
+    );
+
+    final StreamRowPipeline pipeline = buildSharedSourcePipeline(
+        ksqlQueryBuilder,
+        (ProjectNode) outputNode.getSource(),
+        sourceNode
+    );
+
+    final PhysicalSchema querySchema = PhysicalSchema
+        .from(outputNode.getSchema(), outputNode.getSerdeOptions());
+
+    // The result stream has already tracked the sink's schema, so build the serde on a fresh
+    // builder, which ensures the serde and its logger match those of an unshared query:
+    final QueryContext sinkContext =
+        ksqlQueryBuilder.buildNodeContext(outputNode.getId().toString()).getQueryContext();
+
+    final Serializer<GenericRow> serializer = KsqlQueryBuilder.of(
+        new StreamsBuilder(),
+        ksqlConfig,
+        serviceContext,
+        processingLogContext,
+        functionRegistry,
+        queryId
+    ).buildValueSerde(
+        outputNode.getKsqlTopic().getValueFormat().getFormatInfo(),
+        querySchema,
+        sinkContext
+    ).serializer();
+
+    final ProcessingLogger sinkLogger = processingLogContext.getLoggerFactory()
+        .getLogger(QueryLoggerUtil.queryLoggerName(sinkContext));
+
+    final String topic = outputNode.getKsqlTopic().getKafkaTopicName();
+    final Set<Integer> droppedIndexes = outputNode.getImplicitAndKeyFieldIndexes();
+
+    final Router router = (key, row, output) -> pipeline.apply(key, row, (k, result) -> {
+      if (result == null) {
+        output.add(new RoutedRow(topic, null));
+        return;
+      }
+
+      // The source is shared with other queries, so a row this query can not serialize is
+      // dropped, as an unshared query's production exception handler would, rather than thrown:
+      final GenericRow sinkRow = dropColumns(result, droppedIndexes);
+      final byte[] serialized;
+      try {
+        serialized = serializer.serialize(topic, sinkRow);
+      } catch (final Exception e) {
+        sinkLogger.error(EngineProcessingLogMessageFactory.recordProcessingError(
+            () -> "Error serializing row for topic " + topic + ": " + e.getMessage(),
+            e,
+            sinkRow
+        ));
+        return;
+      }
+      output.add(new RoutedRow(topic, serialized));
+    });
+
+    return new SharedSourcePersistentQueryMetadata(
+        sqlExpression,
+        sharedSources,
+        sourceKey,
+        source,
+        getQueryApplicationId(getServiceId(), persistanceQueryPrefix, queryId),
+        router,
+        querySchema,
+        getSourceNames(outputNode),
+        sinkDataSource.getName(),
+        queryId,
+        sinkDataSource.getKsqlTopic(),
+        ksqlQueryBuilder.getSchemas(),
+        overriddenProperties,
+        closeCallback(queryId)
+    );
+  }
+
+  private StreamRowPipeline buildSharedSourcePipeline(
+      final KsqlQueryBuilder ksqlQueryBuilder,
+      final ProjectNode projectNode,
+      final DataSourceNode sourceNode
+  ) {
+    StreamRowPipeline pipeline =
+        StreamRowPipeline.of(sourceNode.getSchema(), ksqlConfig, functionRegistry);
+
+    if (projectNode.getSource() instanceof FilterNode) {
+      final FilterNode filterNode = (FilterNode) projectNode.getSource();
+      pipeline = pipeline.filter(
+          filterNode.getPredicate(),
+          ksqlQueryBuilder.buildNodeContext(filterNode.getId().toString()),
+          processingLogContext
+      );
+    }
+
+    return pipeline.select(
+        projectNode.getProjectSelectExpressions(),
+        ksqlQueryBuilder.buildNodeContext(projectNode.getId().toString()),
+        processingLogContext
+    );
+  }
+
+  private SharedSource<RowSubscriber> buildSharedTransientSource(final DataSourceNode sourceNode) {
+    final QueryId queryId = sharedSourceQueryId(sourceNode);
+
+    final String applicationId = addTimeSuffix(getQueryApplicationId(
+        getServiceId(),
+        ksqlConfig.getString(KsqlConfig.KSQL_TRANSIENT_QUERY_NAME_PREFIX_CONFIG),
+        queryId
+    ));
+
+    // Time suffixed, so each app built for the source starts from the latest rows:
+    return buildSharedSource(
+        sourceNode,
+        queryId,
+        applicationId,
+        StartPolicy.FIRST_STARTED,
+        (sourceStream, subscribers) -> forEachRow(sourceStream, subscribers),
+        () -> { }
+    );
+  }
+
+  private SharedSource<RoutingSubscriber> buildSharedPersistentSource(
+      final DataSourceNode sourceNode,
+      final String persistanceQueryPrefix
+  ) {
+    final QueryId queryId = sharedSourceQueryId(sourceNode);
+
+    // Not time suffixed: the shared app resumes from its committed offsets on restart.
+    final String applicationId =
+        getQueryApplicationId(getServiceId(), persistanceQueryPrefix, queryId);
+
+    // Once the last query is terminated, the offsets are deleted, so the next app built for the
+    // source starts from the latest rows, rather than resuming from where this one stopped:
+    final Runnable resetOffsets = () -> new KafkaConsumerGroupClientImpl(
+        serviceContext.getAdminClient()
+    ).deleteConsumerGroups(Collections.singleton(applicationId));
+
+    return buildSharedSource(
+        sourceNode,
+        queryId,
+        applicationId,
+        StartPolicy.ALL_STARTED,
+        (sourceStream, subscribers) -> routeRows(sourceStream, subscribers),
+        resetOffsets
+    );
+  }
+
+  private <S extends SharedSource.Subscriber> SharedSource<S> buildSharedSource(
+      final DataSourceNode sourceNode,
+      final QueryId queryId,
+      final String applicationId,
+      final StartPolicy startPolicy,
+      final BiConsumer<SchemaKStream<?>, Subscribers<S>> subscribe,
+      final Runnable resetOffsets
+  ) {
+    final Map<String, Object> streamsProperties = buildStreamsProperties(
+        applicationId,
+        ksqlConfig,
+        queryId,
+        processingLogContext
+    );
+
+    final StreamsBuilder sharedBuilder = new StreamsBuilder();
+
+    final SchemaKStream<?> sourceStream = sourceNode.buildStream(KsqlQueryBuilder.of(
+        sharedBuilder,
+        ksqlConfig,
+        serviceContext,
+        processingLogContext,
+        functionRegistry,
+        queryId
+    ));
+
+    final Subscribers<S> subscribers = new Subscribers<>();
+    subscribe.accept(sourceStream, subscribers);
+
+    final KafkaStreams streams =
+        kafkaStreamsBuilder.buildKafkaStreams(sharedBuilder, streamsProperties);
+
+    return new SharedSource<>(
+        sourceNode.getDataSource(),
+        streams,
+        subscribers,
+        startPolicy,
+        applicationId,
+        sharedBuilder.build(),
+        sourceStream.getExecutionPlan(""),
+        streamsProperties,
+        resetOffsets
+    );
+  }
+
+  private static <K> void forEachRow(
+      final SchemaKStream<K> sourceStream,
+      final Subscribers<RowSubscriber> subscribers
+  ) {
+    sourceStream.getKstream().foreach((key, row) -> {
+      for (final RowSubscriber subscriber : subscribers.get()) {
+        subscriber.apply(key, row);
+      }
+    });
+  }
+
+  private static <K> void routeRows(
+      final SchemaKStream<K> sourceStream,
+      final Subscribers<RoutingSubscriber> subscribers
+  ) {
+    sourceStream.getKstream()
+        .flatMapValues((key, row) -> {
+          final List<RoutedRow> routed = new ArrayList<>();
+          for (final RoutingSubscriber subscriber : subscribers.get()) {
+            subscriber.route(key, row, routed);
+          }
+          return routed;
+        })
+        .to(
+            RoutedRow.topicExtractor(),
+            Produced.with(sourceStream.getKeySerde(), RoutedRow.serde())
+        );
+  }
+
+  private static QueryId sharedSourceQueryId(final DataSourceNode sourceNode) {
+    return new QueryId("SHARED_" + sourceNode.getDataSource().getName());
+  }
+
+  private static GenericRow dropColumns(final GenericRow row, final Set<Integer> indexes) {
+    final List<Object> columns = new ArrayList<>();
+    for (int i = 0; i < row.getColumns().size(); i++) {
+      if (!indexes.contains(i)) {
+        columns.add(row.getColumns().get(i));
+      }
+    }
+    return new GenericRow(columns);
+  }
+
+  private static DataSource<?> buildSinkDataSource(
+      final String sqlExpression,
+      final SchemaKStream<?> schemaKStream,
+      final KsqlStructuredDataOutputNode outputNode
   ) {
-    final DataSource<?> sinkDataSource;
     if (schemaKStream instanceof SchemaKTable) {
       final SchemaKTable<?> schemaKTable = (SchemaKTable) schemaKStream;
-      sinkDataSource =
-          new KsqlTable<>(
-              sqlExpression,
-              outputNode.getId().toString(),
-              outputNode.getSchema(),
-              outputNode.getSerdeOptions(),
-              schemaKTable.getKeyField(),
-              outputNode.getTimestampExtractionPolicy(),
-              outputNode.getKsqlTopic()
-          );
-    } else {
-      sinkDataSource =
-          new KsqlStream<>(
-              sqlExpression,
-              outputNode.getId().toString(),
-              outputNode.getSchema(),
-              outputNode.getSerdeOptions(),
-              schemaKStream.getKeyField(),
-              outputNode.getTimestampExtractionPolicy(),
-              outputNode.getKsqlTopic()
-          );
+      return new KsqlTable<>(
+          sqlExpression,
+          outputNode.getId().toString(),
+          outputNode.getSchema(),
+          outputNode.getSerdeOptions(),
+          schemaKTable.getKeyField(),
+          outputNode.getTimestampExtractionPolicy(),
+          outputNode.getKsqlTopic()
+      );
     }
 
+    return new KsqlStream<>(
+        sqlExpression,
+        outputNode.getId().toString(),
+        outputNode.getSchema(),
+        outputNode.getSerdeOptions(),
+        schemaKStream.getKeyField(),
+        outputNode.getTimestampExtractionPolicy(),
+        outputNode.getKsqlTopic()
+    );
+  }
+
+  private QueryMetadata buildPlanForStructuredOutputNode(
+      final String sqlExpression,
+      final SchemaKStream<?> schemaKStream,
+      final KsqlStructuredDataOutputNode outputNode,
+      final String serviceId,
+      final String persistanceQueryPrefix,
+      final QueryId queryId,
+      final QuerySchemas schemas
+  ) {
+    final DataSource<?> sinkDataSource =
+        buildSinkDataSource(sqlExpression, schemaKStream, outputNode);
+
     sinkSetUp(outputNode, sinkDataSource);
 
     final String applicationId = getQueryApplicationId(
@@ -281,6 +707,11 @@ public class PhysicalPlanBuilder {
     final PhysicalSchema querySchema = PhysicalSchema
         .from(outputNode.getSchema(), outputNode.getSerdeOptions());
 
+    final Optional<Materialization> materialization = schemaKStream instanceof SchemaKTable
+        ? ((SchemaKTable<?>) schemaKStream).getMaterializationInfo()
+            .map(info -> new Materialization(streams, info, getLocalHost(streamsProperties)))
+        : Optional.empty();
+
     return new PersistentQueryMetadata(
         sqlExpression,
         streams,
@@ -298,10 +729,26 @@ public class PhysicalPlanBuilder {
         schemas,
         streamsProperties,
         overriddenProperties,
-        queryCloseCallback
+        closeCallback(queryId),
+        materialization
     );
   }
 
+  private Consumer<QueryMetadata> closeCallback(final QueryId queryId) {
+    return queryCloseCallback.andThen(query ->
+        processingLogContext.getLoggerFactory().closeQueryLoggers(queryId.getId()));
+  }
+
+  private static Optional<HostInfo> getLocalHost(final Map<String, Object> streamsProperties) {
+    final Object appServer = streamsProperties.get(StreamsConfig.APPLICATION_SERVER_CONFIG);
+    if (appServer == null || appServer.toString().isEmpty()) {
+      return Optional.empty();
+    }
+
+    final String endPoint = appServer.toString();
+    return Optional.of(new HostInfo(Utils.getHost(endPoint), Utils.getPort(endPoint)));
+  }
+
   private void sinkSetUp(
       final KsqlStructuredDataOutputNode outputNode,
       final DataSource<?> sinkDataSource
@@ -399,6 +846,7 @@ public class PhysicalPlanBuilder {
         StreamsConfig.producerPrefix(ProducerConfig.INTERCEPTOR_CLASSES_CONFIG),
         ProducerCollector.class.getCanonicalName()
     );
+    KsqlBoundedMemoryRocksDBConfigSetter.addConfigs(ksqlConfig, newStreamsProperties);
     return newStreamsProperties;
   }
 
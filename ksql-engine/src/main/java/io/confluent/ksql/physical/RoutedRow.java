@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical;
+
+import java.util.Objects;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.processor.TopicNameExtractor;
+
+/**
+ * A serialized row, along with the sink topic it should be written to.
+ *
+ * <p>Used by the queries attached to a shared persistent source to write to their own sinks
+ * through the single sink node of the shared app.
+ */
+final class RoutedRow {
+
+  private final String topic;
+  private final byte[] value;
+
+  RoutedRow(final String topic, final byte[] value) {
+    this.topic = Objects.requireNonNull(topic, "topic");
+    this.value = value;
+  }
+
+  String getTopic() {
+    return topic;
+  }
+
+  /**
+   * @return the serialized value, which will be null for tombstones.
+   */
+  byte[] getValue() {
+    return value;
+  }
+
+  /**
+   * @return extractor that routes each row to its topic.
+   */
+  static <K> TopicNameExtractor<K, RoutedRow> topicExtractor() {
+    return (key, row, recordContext) -> row.getTopic();
+  }
+
+  /**
+   * @return serde that writes the already serialized value. Routed rows are never read back.
+   */
+  static Serde<RoutedRow> serde() {
+    return Serdes.serdeFrom(
+        (topic, row) -> row == null ? null : row.getValue(),
+        (topic, bytes) -> {
+          throw new UnsupportedOperationException("Routed rows are write only");
+        }
+    );
+  }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.metastore.model.DataSource;
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KafkaStreams.State;
+import org.apache.kafka.streams.KafkaStreams.StateListener;
+import org.apache.kafka.streams.Topology;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A Kafka Streams app that consumes and deserializes a single source stream on behalf of any
+ * number of queries.
+ *
+ * <p>The lifecycle of the app is managed by {@link SharedSources}.
+ *
+ * @param <S> the type of the subscribers, i.e. the queries attached to the source.
+ */
+final class SharedSource<S extends SharedSource.Subscriber> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SharedSource.class);
+
+  static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(30);
+
+  private final DataSource<?> dataSource;
+  private final KafkaStreams kafkaStreams;
+  private final Subscribers<S> subscribers;
+  private final StartPolicy startPolicy;
+  private final String applicationId;
+  private final Topology topology;
+  private final String executionPlan;
+  private final Map<String, Object> streamsProperties;
+  private final Runnable resetOffsets;
+
+  private int attached;
+  private boolean started;
+
+  /**
+   * When to start the shared app.
+   */
+  enum StartPolicy {
+    /**
+     * Start the app as soon as the first attached query starts.
+     */
+    FIRST_STARTED,
+
+    /**
+     * Start the app once every attached query has started, so that queries built together, e.g.
+     * when restoring persistent queries on start up, all see the same rows.
+     */
+    ALL_STARTED
+  }
+
+  // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
+  SharedSource(
+      final DataSource<?> dataSource,
+      final KafkaStreams kafkaStreams,
+      final Subscribers<S> subscribers,
+      final StartPolicy startPolicy,
+      final String applicationId,
+      final Topology topology,
+      final String executionPlan,
+      final Map<String, Object> streamsProperties,
+      final Runnable resetOffsets
+  ) {
+    // CHECKSTYLE_RULES.ON: ParameterNumberCheck
+    this.dataSource = Objects.requireNonNull(dataSource, "dataSource");
+    this.kafkaStreams = Objects.requireNonNull(kafkaStreams, "kafkaStreams");
+    this.subscribers = Objects.requireNonNull(subscribers, "subscribers");
+    this.startPolicy = Objects.requireNonNull(startPolicy, "startPolicy");
+    this.applicationId = Objects.requireNonNull(applicationId, "applicationId");
+    this.topology = Objects.requireNonNull(topology, "topology");
+    this.executionPlan = Objects.requireNonNull(executionPlan, "executionPlan");
+    this.streamsProperties = ImmutableMap.copyOf(
+        Objects.requireNonNull(streamsProperties, "streamsProperties"));
+    this.resetOffsets = Objects.requireNonNull(resetOffsets, "resetOffsets");
+
+    kafkaStreams.setUncaughtExceptionHandler(subscribers);
+    kafkaStreams.setStateListener(subscribers);
+  }
+
+  DataSource<?> getDataSource() {
+    return dataSource;
+  }
+
+  KafkaStreams getKafkaStreams() {
+    return kafkaStreams;
+  }
+
+  String getApplicationId() {
+    return applicationId;
+  }
+
+  Topology getTopology() {
+    return topology;
+  }
+
+  String getExecutionPlan() {
+    return executionPlan;
+  }
+
+  Map<String, Object> getStreamsProperties() {
+    return streamsProperties;
+  }
+
+  // The methods below are only called by SharedSources, which serializes access to them.
+
+  void attach() {
+    attached++;
+  }
+
+  /**
+   * Detach a closed subscriber.
+   *
+   * @return {@code true} if this was the last attached subscriber, i.e. the source should be
+   *         {@link #close(boolean) closed}.
+   */
+  boolean detach(final S subscriber) {
+    subscribers.remove(subscriber);
+    attached--;
+    if (attached > 0) {
+      maybeStart();
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Close the app once the last subscriber has detached.
+   *
+   * <p>Closing waits for the app's stream threads, so is not serialized with other calls.
+   *
+   * @param resetOffsets whether to discard the app's committed offsets, so that the next app
+   *        built for the source starts from the latest rows, rather than replaying every row
+   *        since this one closed.
+   */
+  void close(final boolean resetOffsets) {
+    if (!kafkaStreams.close(CLOSE_TIMEOUT)) {
+      LOG.warn("Shared source {} did not close within {}. Its local state and offsets are not "
+          + "cleaned up.", applicationId, CLOSE_TIMEOUT);
+      return;
+    }
+
+    kafkaStreams.cleanUp();
+
+    if (!resetOffsets) {
+      return;
+    }
+
+    try {
+      this.resetOffsets.run();
+    } catch (final Exception e) {
+      LOG.warn("Failed to reset the offsets of shared source {}. The next query to share the "
+          + "source will first process the rows produced since it closed.", applicationId, e);
+    }
+  }
+
+  void subscribe(final S subscriber) {
+    subscribers.add(subscriber);
+    maybeStart();
+  }
+
+  private void maybeStart() {
+    if (started) {
+      return;
+    }
+
+    if (startPolicy == StartPolicy.ALL_STARTED && subscribers.size() < attached) {
+      return;
+    }
+
+    started = true;
+    kafkaStreams.start();
+  }
+
+  /**
+   * A query attached to a shared source.
+   */
+  interface Subscriber extends UncaughtExceptionHandler, StateListener {
+  }
+
+  /**
+   * The queries subscribed to a shared source.
+   *
+   * <p>Passes any uncaught exceptions and state changes of the shared app to each subscriber.
+   */
+  static final class Subscribers<S extends Subscriber>
+      implements UncaughtExceptionHandler, StateListener {
+
+    private final List<S> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void onChange(final State newState, final State oldState) {
+      for (final S subscriber : subscribers) {
+        subscriber.onChange(newState, oldState);
+      }
+    }
+
+    @Override
+    public void uncaughtException(final Thread thread, final Throwable e) {
+      for (final S subscriber : subscribers) {
+        subscriber.uncaughtException(thread, e);
+      }
+    }
+
+    List<S> get() {
+      return subscribers;
+    }
+
+    int size() {
+      return subscribers.size();
+    }
+
+    void add(final S subscriber) {
+      subscribers.add(subscriber);
+    }
+
+    void remove(final S subscriber) {
+      subscribers.remove(subscriber);
+    }
+  }
+}
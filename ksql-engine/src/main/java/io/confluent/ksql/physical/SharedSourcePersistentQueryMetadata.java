@@ -0,0 +1,191 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.internal.QueryStateListener;
+import io.confluent.ksql.metastore.model.DataSource.DataSourceType;
+import io.confluent.ksql.metastore.model.KsqlTopic;
+import io.confluent.ksql.physical.SharedSource.Subscriber;
+import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.schema.ksql.PhysicalSchema;
+import io.confluent.ksql.util.PersistentQueryMetadata;
+import io.confluent.ksql.util.QueryMetadata;
+import io.confluent.ksql.util.QuerySchemas;
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KafkaStreams.State;
+import org.apache.kafka.streams.KafkaStreams.StateListener;
+
+/**
+ * Metadata of a persistent query that runs on a {@link SharedSource}, rather than in its own
+ * Kafka Streams app.
+ *
+ * <p>Starting the query subscribes it to the rows of the shared source, which it routes to its
+ * own sink topic. Closing it detaches it from the source, which is only closed once no other
+ * queries are attached.
+ */
+final class SharedSourcePersistentQueryMetadata extends PersistentQueryMetadata {
+
+  private final SharedSources sharedSources;
+  private final String sourceKey;
+  private final SharedSource<RoutingSubscriber> source;
+  private final RoutingSubscriber subscriber;
+  private final AtomicBoolean detached;
+  private final AtomicReference<UncaughtExceptionHandler> exceptionHandler;
+  private final AtomicReference<StateListener> stateListener;
+
+  // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
+  SharedSourcePersistentQueryMetadata(
+      final String statementString,
+      final SharedSources sharedSources,
+      final String sourceKey,
+      final SharedSource<RoutingSubscriber> source,
+      final String queryApplicationId,
+      final Router router,
+      final PhysicalSchema schema,
+      final Set<String> sourceNames,
+      final String sinkName,
+      final QueryId id,
+      final KsqlTopic resultTopic,
+      final QuerySchemas schemas,
+      final Map<String, Object> overriddenProperties,
+      final Consumer<QueryMetadata> closeCallback
+  ) {
+    // CHECKSTYLE_RULES.ON: ParameterNumberCheck
+    super(
+        statementString,
+        source.getKafkaStreams(),
+        schema,
+        sourceNames,
+        sinkName,
+        source.getExecutionPlan(),
+        id,
+        DataSourceType.KSTREAM,
+        queryApplicationId,
+        resultTopic,
+        source.getTopology(),
+        schemas,
+        source.getStreamsProperties(),
+        overriddenProperties,
+        closeCallback
+    );
+    this.sharedSources = Objects.requireNonNull(sharedSources, "sharedSources");
+    this.sourceKey = Objects.requireNonNull(sourceKey, "sourceKey");
+    this.source = source;
+    this.detached = new AtomicBoolean(false);
+    this.exceptionHandler = new AtomicReference<>((thread, e) -> { });
+    this.stateListener = new AtomicReference<>((newState, oldState) -> { });
+    Objects.requireNonNull(router, "router");
+    this.subscriber = new RoutingSubscriber() {
+      @Override
+      public void route(final Object key, final GenericRow row, final List<RoutedRow> output) {
+        router.route(key, row, output);
+      }
+
+      @Override
+      public void uncaughtException(final Thread thread, final Throwable e) {
+        exceptionHandler.get().uncaughtException(thread, e);
+      }
+
+      @Override
+      public void onChange(final State newState, final State oldState) {
+        stateListener.get().onChange(newState, oldState);
+      }
+    };
+  }
+
+  private SharedSourcePersistentQueryMetadata(
+      final SharedSourcePersistentQueryMetadata other,
+      final Consumer<QueryMetadata> closeCallback
+  ) {
+    super(other, closeCallback);
+    this.sharedSources = other.sharedSources;
+    this.sourceKey = other.sourceKey;
+    this.source = other.source;
+    this.subscriber = other.subscriber;
+    this.detached = other.detached;
+    this.exceptionHandler = other.exceptionHandler;
+    this.stateListener = other.stateListener;
+  }
+
+  @Override
+  public PersistentQueryMetadata copyWith(final Consumer<QueryMetadata> closeCallback) {
+    return new SharedSourcePersistentQueryMetadata(this, closeCallback);
+  }
+
+  /**
+   * The state of the shared app, until the query is closed: other queries may keep the app
+   * running after this one has been closed.
+   */
+  @Override
+  public String getState() {
+    return detached.get()
+        ? KafkaStreams.State.NOT_RUNNING.toString()
+        : super.getState();
+  }
+
+  @Override
+  public void registerQueryStateListener(final QueryStateListener queryStateListener) {
+    super.registerQueryStateListener(queryStateListener);
+    stateListener.set(queryStateListener);
+  }
+
+  @Override
+  public void setUncaughtExceptionHandler(final UncaughtExceptionHandler handler) {
+    exceptionHandler.set(Objects.requireNonNull(handler, "handler"));
+  }
+
+  @Override
+  protected void startKafkaStreams() {
+    sharedSources.subscribe(source, subscriber);
+  }
+
+  @Override
+  protected void closeKafkaStreams() {
+    if (detached.compareAndSet(false, true)) {
+      sharedSources.detach(sourceKey, source, subscriber);
+    }
+  }
+
+  /**
+   * Routes the rows of a shared source to a query's sink.
+   */
+  interface Router {
+
+    /**
+     * Apply the query to a row of the source, adding any resulting rows to {@code output}.
+     *
+     * @param key the key of the row.
+     * @param row the row.
+     * @param output the list to add the routed rows to.
+     */
+    void route(Object key, GenericRow row, List<RoutedRow> output);
+  }
+
+  /**
+   * A persistent query subscribed to the rows of a shared source.
+   */
+  interface RoutingSubscriber extends Subscriber, Router {
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.internal.QueryStateListener;
+import io.confluent.ksql.metastore.model.DataSource.DataSourceType;
+import io.confluent.ksql.physical.SharedSource.Subscriber;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.util.QueryMetadata;
+import io.confluent.ksql.util.TransientQueryMetadata;
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KafkaStreams.State;
+import org.apache.kafka.streams.KafkaStreams.StateListener;
+import org.apache.kafka.streams.kstream.ForeachAction;
+
+/**
+ * Metadata of a transient query that runs on a {@link SharedSource}, rather than in its own
+ * Kafka Streams app.
+ *
+ * <p>Starting the query subscribes it to the rows of the shared source. Closing it detaches it
+ * from the source, which is only closed once no other queries are attached.
+ */
+final class SharedSourceQueryMetadata extends TransientQueryMetadata {
+
+  private final SharedSources sharedSources;
+  private final String sourceKey;
+  private final SharedSource<RowSubscriber> source;
+  private final RowSubscriber subscriber;
+  private final TransientQueryQueue<Object> queue;
+  private final AtomicBoolean detached = new AtomicBoolean(false);
+  private volatile UncaughtExceptionHandler exceptionHandler = (thread, e) -> { };
+  private volatile StateListener stateListener = (newState, oldState) -> { };
+
+  // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
+  SharedSourceQueryMetadata(
+      final String statementString,
+      final SharedSources sharedSources,
+      final String sourceKey,
+      final SharedSource<RowSubscriber> source,
+      final String queryApplicationId,
+      final ForeachAction<Object, GenericRow> pipeline,
+      final LogicalSchema logicalSchema,
+      final Set<String> sourceNames,
+      final TransientQueryQueue<Object> queue,
+      final Map<String, Object> overriddenProperties,
+      final Consumer<QueryMetadata> closeCallback
+  ) {
+    // CHECKSTYLE_RULES.ON: ParameterNumberCheck
+    super(
+        statementString,
+        source.getKafkaStreams(),
+        logicalSchema,
+        sourceNames,
+        queue::setLimitHandler,
+        queue::setQueuedHandler,
+        source.getExecutionPlan(),
+        queue.getQueue(),
+        DataSourceType.KSTREAM,
+        queryApplicationId,
+        source.getTopology(),
+        source.getStreamsProperties(),
+        overriddenProperties,
+        closeCallback
+    );
+    this.sharedSources = Objects.requireNonNull(sharedSources, "sharedSources");
+    this.sourceKey = Objects.requireNonNull(sourceKey, "sourceKey");
+    this.source = source;
+    this.queue = queue;
+    // A stalled reader fails the query, which the client is told of, like any other error:
+    queue.setErrorHandler(e -> exceptionHandler.uncaughtException(Thread.currentThread(), e));
+    Objects.requireNonNull(pipeline, "pipeline");
+    this.subscriber = new RowSubscriber() {
+      @Override
+      public void apply(final Object key, final GenericRow row) {
+        pipeline.apply(key, row);
+      }
+
+      @Override
+      public void uncaughtException(final Thread thread, final Throwable e) {
+        exceptionHandler.uncaughtException(thread, e);
+      }
+
+      @Override
+      public void onChange(final State newState, final State oldState) {
+        stateListener.onChange(newState, oldState);
+      }
+    };
+  }
+
+  /**
+   * The state of the shared app, until the query is closed: other queries may keep the app
+   * running after this one has been closed.
+   */
+  @Override
+  public String getState() {
+    return detached.get()
+        ? KafkaStreams.State.NOT_RUNNING.toString()
+        : super.getState();
+  }
+
+  @Override
+  public void registerQueryStateListener(final QueryStateListener queryStateListener) {
+    super.registerQueryStateListener(queryStateListener);
+    this.stateListener = queryStateListener;
+  }
+
+  @Override
+  public void setUncaughtExceptionHandler(final UncaughtExceptionHandler handler) {
+    this.exceptionHandler = Objects.requireNonNull(handler, "handler");
+  }
+
+  @Override
+  protected void startKafkaStreams() {
+    sharedSources.subscribe(source, subscriber);
+  }
+
+  @Override
+  protected void closeKafkaStreams() {
+    if (detached.compareAndSet(false, true)) {
+      // Release the shared thread should it be waiting on this query's queue:
+      queue.close();
+      sharedSources.detach(sourceKey, source, subscriber);
+    }
+  }
+
+  /**
+   * A transient query subscribed to the rows of a shared source.
+   */
+  interface RowSubscriber extends Subscriber, ForeachAction<Object, GenericRow> {
+  }
+}
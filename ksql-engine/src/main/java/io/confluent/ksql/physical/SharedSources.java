@@ -0,0 +1,112 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical;
+
+import io.confluent.ksql.metastore.model.DataSource;
+import io.confluent.ksql.physical.SharedSource.Subscriber;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The {@link SharedSource shared sources} of an engine.
+ *
+ * <p>A shared source is created when the first query attaches to it and started once attached
+ * queries start. It is closed once every attached query has been closed, after which the next
+ * query to read the source will create a new one.
+ */
+public final class SharedSources {
+
+  private final Map<String, SharedSource<?>> sources = new HashMap<>();
+  private boolean shuttingDown;
+
+  /**
+   * Attach a new query to the shared source registered under {@code key}.
+   *
+   * <p>If there is no shared source registered under the key, or its data source has since been
+   * replaced, e.g. dropped and re-created, a new shared source is built using {@code factory}.
+   *
+   * @param key the key of the shared source.
+   * @param dataSource the data source the query reads.
+   * @param factory the factory to build a new shared source, if required.
+   * @param <S> the subscriber type of the shared source.
+   * @return the shared source the query is attached to.
+   */
+  @SuppressWarnings("unchecked")
+  synchronized <S extends Subscriber> SharedSource<S> attach(
+      final String key,
+      final DataSource<?> dataSource,
+      final Supplier<SharedSource<S>> factory
+  ) {
+    SharedSource<S> source = (SharedSource<S>) sources.get(key);
+    if (source == null || source.getDataSource() != dataSource) {
+      source = factory.get();
+      sources.put(key, source);
+    }
+
+    source.attach();
+    return source;
+  }
+
+  /**
+   * Subscribe a started query to its {@code source}, starting the source's app if required.
+   */
+  synchronized <S extends Subscriber> void subscribe(
+      final SharedSource<S> source,
+      final S subscriber
+  ) {
+    source.subscribe(subscriber);
+  }
+
+  /**
+   * Mark the engine as shutting down.
+   *
+   * <p>Sources closed after this keep their committed offsets, so the queries restored when the
+   * engine next starts resume where they stopped. Otherwise, the offsets of a source are reset
+   * once its last query is closed, so a query later sharing the source starts from its latest
+   * rows, as an unshared query would.
+   */
+  synchronized void shutdown() {
+    shuttingDown = true;
+  }
+
+  /**
+   * Detach a closed query from its {@code source}, closing the source's app if no other queries
+   * remain attached.
+   *
+   * <p>The app is closed outside of the lock, so that waiting for its stream threads does not
+   * stall queries attaching to, or detaching from, other sources.
+   */
+  <S extends Subscriber> void detach(
+      final String key,
+      final SharedSource<S> source,
+      final S subscriber
+  ) {
+    final boolean last;
+    final boolean resetOffsets;
+    synchronized (this) {
+      last = source.detach(subscriber);
+      if (last) {
+        sources.remove(key, source);
+      }
+      resetOffsets = !shuttingDown;
+    }
+
+    if (last) {
+      source.close(resetOffsets);
+    }
+  }
+}
@@ -18,13 +18,20 @@ package io.confluent.ksql.physical;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.structured.QueuedSchemaKStream;
 import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.TransientQueryKey;
+import java.time.Duration;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.kstream.ForeachAction;
-import org.apache.kafka.streams.kstream.Windowed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * A queue of rows for transient queries.
@@ -33,20 +40,71 @@ import org.apache.kafka.streams.kstream.Windowed;
  */
 class TransientQueryQueue<K> {
 
+  private static final Logger LOG = LoggerFactory.getLogger(TransientQueryQueue.class);
+
+  /**
+   * The longest a shared source thread waits for a full queue to have space, before treating
+   * the queue's reader as stalled and failing the query.
+   */
+  static final Duration SHARED_SOURCE_MAX_BLOCK = Duration.ofMillis(100);
+
+  private static final long CLOSED_CHECK_INTERVAL_MS = 100;
+
   private final LimitQueueCallback callback;
-  private final BlockingQueue<KeyValue<String, GenericRow>> rowQueue =
+  private final BlockingQueue<KeyValue<TransientQueryKey, GenericRow>> rowQueue =
       new LinkedBlockingQueue<>(100);
+  private final QueuePopulator<K> populator;
+  private volatile Runnable queuedHandler = () -> { };
+  private volatile Consumer<Throwable> errorHandler = e -> { };
+  private volatile boolean closed;
 
   TransientQueryQueue(final QueuedSchemaKStream<K> schemaKStream, final OptionalInt limit) {
+    this(limit, Optional.empty());
+
+    schemaKStream.getKstream().foreach(populator);
+  }
+
+  /**
+   * Create a queue that is not attached to a stream, to be populated by a shared source.
+   *
+   * <p>Rows are added by passing them to the {@link #getPopulator() populator}.
+   *
+   * <p>The thread populating the queue also serves other queries, so it never waits more than
+   * {@link #SHARED_SOURCE_MAX_BLOCK} on a full queue. Once a wait times out the reader is
+   * considered stalled: the queue stops accepting rows and the query is failed through the
+   * {@link #setErrorHandler error handler}, rather than silently skipping rows.
+   *
+   * @param limit the optional limit on the number of rows to queue.
+   */
+  TransientQueryQueue(final OptionalInt limit) {
+    this(limit, Optional.of(SHARED_SOURCE_MAX_BLOCK));
+  }
+
+  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+  private TransientQueryQueue(final OptionalInt limit, final Optional<Duration> maxBlock) {
     this.callback = limit.isPresent()
         ? new LimitedQueueCallback(limit.getAsInt())
         : new UnlimitedQueueCallback();
 
-    schemaKStream.getKstream()
-        .foreach(new TransientQueryQueue.QueuePopulator<>(rowQueue, callback));
+    this.populator = new TransientQueryQueue.QueuePopulator<>(rowQueue, new QueueCallback() {
+      @Override
+      public boolean shouldQueue() {
+        return callback.shouldQueue();
+      }
+
+      @Override
+      public void onQueued() {
+        callback.onQueued();
+        queuedHandler.run();
+      }
+    }, maxBlock, () -> closed, this::onStalled);
+  }
+
+  ForeachAction<K, GenericRow> getPopulator() {
+    return populator;
   }
 
-  BlockingQueue<KeyValue<String, GenericRow>> getQueue() {
+  BlockingQueue<KeyValue<TransientQueryKey, GenericRow>> getQueue() {
     return rowQueue;
   }
 
@@ -54,24 +112,73 @@ class TransientQueryQueue<K> {
     callback.setLimitHandler(limitHandler);
   }
 
+  /**
+   * Set a handler to be called each time a row is added to the queue.
+   *
+   * <p>The handler is called on a stream thread, so should not block.
+   *
+   * @param queuedHandler the handler.
+   */
+  void setQueuedHandler(final Runnable queuedHandler) {
+    this.queuedHandler = Objects.requireNonNull(queuedHandler, "queuedHandler");
+  }
+
+  /**
+   * Set a handler to be called if the queue fails, e.g. because its reader stalled.
+   *
+   * <p>The handler is called on a stream thread, so should not block.
+   *
+   * @param errorHandler the handler.
+   */
+  void setErrorHandler(final Consumer<Throwable> errorHandler) {
+    this.errorHandler = Objects.requireNonNull(errorHandler, "errorHandler");
+  }
+
+  private void onStalled() {
+    LOG.warn("Transient query is not reading its results fast enough. Failing the query.");
+    closed = true;
+    errorHandler.accept(new KsqlException("The query was not reading its results fast enough "
+        + "to keep up with the source it shares with other queries, so has been stopped rather "
+        + "than skipping rows."));
+  }
+
+  /**
+   * Close the queue, discarding any queued rows.
+   *
+   * <p>Any thread waiting to add a row gives up and all further rows are dropped.
+   */
+  void close() {
+    closed = true;
+    rowQueue.clear();
+  }
+
   @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
   static final class QueuePopulator<K> implements ForeachAction<K, GenericRow> {
 
-    private final BlockingQueue<KeyValue<String, GenericRow>> queue;
+    private final BlockingQueue<KeyValue<TransientQueryKey, GenericRow>> queue;
     private final QueueCallback callback;
+    private final Optional<Duration> maxBlock;
+    private final BooleanSupplier closed;
+    private final Runnable onStalled;
 
     QueuePopulator(
-        final BlockingQueue<KeyValue<String, GenericRow>> queue,
-        final QueueCallback callback
+        final BlockingQueue<KeyValue<TransientQueryKey, GenericRow>> queue,
+        final QueueCallback callback,
+        final Optional<Duration> maxBlock,
+        final BooleanSupplier closed,
+        final Runnable onStalled
     ) {
       this.queue = Objects.requireNonNull(queue, "queue");
       this.callback = Objects.requireNonNull(callback, "callback");
+      this.maxBlock = Objects.requireNonNull(maxBlock, "maxBlock");
+      this.closed = Objects.requireNonNull(closed, "closed");
+      this.onStalled = Objects.requireNonNull(onStalled, "onStalled");
     }
 
     @Override
     public void apply(final K key, final GenericRow row) {
       try {
-        if (row == null) {
+        if (row == null || closed.getAsBoolean()) {
           return;
         }
 
@@ -79,22 +186,38 @@ class TransientQueryQueue<K> {
           return;
         }
 
-        final String keyString = getStringKey(key);
-        queue.put(new KeyValue<>(keyString, row));
-
-        callback.onQueued();
+        // The key is only rendered as a string if a consumer of the queue asks for it:
+        if (enqueue(new KeyValue<>(TransientQueryKey.of(key), row))) {
+          callback.onQueued();
+        }
       } catch (final InterruptedException exception) {
         throw new KsqlException("InterruptedException while enqueueing:" + key);
       }
     }
 
-    private String getStringKey(final K key) {
-      if (key instanceof Windowed) {
-        final Windowed windowedKey = (Windowed) key;
-        return String.format("%s : %s", windowedKey.key(), windowedKey.window());
-      }
+    private boolean enqueue(
+        final KeyValue<TransientQueryKey, GenericRow> keyValue
+    ) throws InterruptedException {
+      final long deadline = maxBlock
+          .map(max -> System.nanoTime() + max.toNanos())
+          .orElse(Long.MAX_VALUE);
+
+      while (!closed.getAsBoolean()) {
+        final long remainingMs = deadline == Long.MAX_VALUE
+            ? CLOSED_CHECK_INTERVAL_MS
+            : TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+
+        if (queue.offer(keyValue, Math.min(remainingMs, CLOSED_CHECK_INTERVAL_MS),
+            TimeUnit.MILLISECONDS)) {
+          return true;
+        }
 
-      return Objects.toString(key);
+        if (deadline != Long.MAX_VALUE && System.nanoTime() - deadline >= 0) {
+          onStalled.run();
+          return false;
+        }
+      }
+      return false;
     }
   }
 }
@@ -22,6 +22,8 @@ import io.confluent.ksql.analyzer.Analysis.Into;
 import io.confluent.ksql.analyzer.Analysis.JoinInfo;
 import io.confluent.ksql.execution.expression.tree.DereferenceExpression;
 import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.QualifiedNameReference;
+import io.confluent.ksql.execution.expression.tree.TraversalExpressionVisitor;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.metastore.model.KeyField;
 import io.confluent.ksql.planner.plan.AggregateNode;
@@ -44,8 +46,10 @@ import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.SchemaUtil;
 import io.confluent.ksql.util.timestamp.TimestampExtractionPolicy;
 import io.confluent.ksql.util.timestamp.TimestampExtractionPolicyFactory;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiFunction;
 
 // CHECKSTYLE_RULES.OFF: ClassDataAbstractionCoupling
@@ -181,6 +185,7 @@ public class LogicalPlanner {
         keyFieldName,
         analysis.getGroupByExpressions(),
         analysis.getWindowExpression(),
+        analysis.getResultMaterialization(),
         aggregateAnalysis.getAggregateFunctionArguments(),
         aggregateAnalysis.getAggregateFunctions(),
         aggregateAnalysis.getRequiredColumns(),
@@ -252,10 +257,29 @@ public class LogicalPlanner {
         rightSourceNode,
         joinInfo.get().getLeftJoinField(),
         joinInfo.get().getRightJoinField(),
-        joinInfo.get().getWithinExpression()
+        joinInfo.get().getWithinExpression(),
+        getRequiredJoinColumns()
     );
   }
 
+  private Optional<Set<String>> getRequiredJoinColumns() {
+    if (!ksqlConfig.getBoolean(KsqlConfig.KSQL_JOIN_PRUNE_COLUMNS)) {
+      return Optional.empty();
+    }
+
+    final RequiredColumnsCollector collector = new RequiredColumnsCollector();
+
+    analysis.getSelectExpressions().forEach(e -> collector.process(e, null));
+    analysis.getGroupByExpressions().forEach(e -> collector.process(e, null));
+    aggregateAnalysis.getRequiredColumns().forEach(e -> collector.process(e, null));
+
+    if (analysis.getWhereExpression() != null) {
+      collector.process(analysis.getWhereExpression(), null);
+    }
+
+    return Optional.of(collector.columns);
+  }
+
   private DataSourceNode buildNonJoinNode(final List<AliasedDataSource> sources) {
     if (sources.size() != 1) {
       throw new IllegalStateException("Expected only 1 source, got: " + sources.size());
@@ -309,4 +333,27 @@ public class LogicalPlanner {
 
     return builder.build();
   }
+
+  private static final class RequiredColumnsCollector extends TraversalExpressionVisitor<Void> {
+
+    private final Set<String> columns = new HashSet<>();
+
+    @Override
+    public Void visitDereferenceExpression(
+        final DereferenceExpression node,
+        final Void context
+    ) {
+      columns.add(node.toString());
+      return super.visitDereferenceExpression(node, context);
+    }
+
+    @Override
+    public Void visitQualifiedNameReference(
+        final QualifiedNameReference node,
+        final Void context
+    ) {
+      columns.add(node.getName().getSuffix());
+      return null;
+    }
+  }
 }
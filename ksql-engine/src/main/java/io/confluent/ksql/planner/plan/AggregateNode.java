@@ -34,9 +34,11 @@ import io.confluent.ksql.function.AggregateFunctionArguments;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.function.KsqlAggregateFunction;
 import io.confluent.ksql.function.udaf.KudafInitializer;
+import io.confluent.ksql.function.udaf.multiset.UndoableAggregateFunctions;
 import io.confluent.ksql.metastore.model.KeyField;
 import io.confluent.ksql.parser.rewrite.ExpressionTreeRewriter;
 import io.confluent.ksql.parser.rewrite.ExpressionTreeRewriter.Context;
+import io.confluent.ksql.parser.tree.ResultMaterialization;
 import io.confluent.ksql.parser.tree.WindowExpression;
 import io.confluent.ksql.schema.ksql.Field;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
@@ -48,10 +50,12 @@ import io.confluent.ksql.serde.SerdeOption;
 import io.confluent.ksql.serde.ValueFormat;
 import io.confluent.ksql.services.KafkaTopicClient;
 import io.confluent.ksql.structured.SchemaKGroupedStream;
+import io.confluent.ksql.structured.SchemaKGroupedTable;
 import io.confluent.ksql.structured.SchemaKStream;
 import io.confluent.ksql.structured.SchemaKTable;
 import io.confluent.ksql.util.AggregateExpressionRewriter;
 import io.confluent.ksql.util.ExpressionTypeManager;
+import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -82,6 +86,7 @@ public class AggregateNode extends PlanNode {
   private final KeyField keyField;
   private final List<Expression> groupByExpressions;
   private final WindowExpression windowExpression;
+  private final ResultMaterialization resultMaterialization;
   private final List<Expression> aggregateFunctionArguments;
   private final List<FunctionCall> functionList;
   private final List<DereferenceExpression> requiredColumns;
@@ -96,6 +101,7 @@ public class AggregateNode extends PlanNode {
       final Optional<String> keyFieldName,
       final List<Expression> groupByExpressions,
       final WindowExpression windowExpression,
+      final ResultMaterialization resultMaterialization,
       final List<Expression> aggregateFunctionArguments,
       final List<FunctionCall> functionList,
       final List<DereferenceExpression> requiredColumns,
@@ -109,6 +115,7 @@ public class AggregateNode extends PlanNode {
     this.schema = requireNonNull(schema, "schema");
     this.groupByExpressions = requireNonNull(groupByExpressions, "groupByExpressions");
     this.windowExpression = windowExpression;
+    this.resultMaterialization = requireNonNull(resultMaterialization, "resultMaterialization");
     this.aggregateFunctionArguments =
         requireNonNull(aggregateFunctionArguments, "aggregateFunctionArguments");
     this.functionList = requireNonNull(functionList, "functionList");
@@ -148,6 +155,10 @@ public class AggregateNode extends PlanNode {
     return windowExpression;
   }
 
+  public ResultMaterialization getResultMaterialization() {
+    return resultMaterialization;
+  }
+
   public List<Expression> getAggregateFunctionArguments() {
     return aggregateFunctionArguments;
   }
@@ -225,12 +236,16 @@ public class AggregateNode extends PlanNode {
     // Aggregate computations
     final KudafInitializer initializer = new KudafInitializer(requiredColumns.size());
 
+    final boolean undoable = schemaKGroupedStream instanceof SchemaKGroupedTable
+        && builder.getKsqlConfig().getBoolean(KsqlConfig.KSQL_UNDOABLE_TABLE_AGGREGATES);
+
     final Map<Integer, KsqlAggregateFunction> aggValToFunctionMap = createAggValToFunctionMap(
         aggregateArgExpanded,
         initializer,
         requiredColumns.size(),
         builder.getFunctionRegistry(),
-        internalSchema
+        internalSchema,
+        undoable
     );
 
     final LogicalSchema aggStageSchema = buildAggregateSchema(
@@ -252,16 +267,25 @@ public class AggregateNode extends PlanNode {
         requiredColumns.size(),
         aggValToFunctionMap,
         getWindowExpression(),
+        getResultMaterialization(),
         aggValueGenericRowSerde,
         aggregationContext
-
     );
 
     if (havingExpressions != null) {
-      aggregated = aggregated.filter(
-          internalSchema.resolveToInternal(havingExpressions),
-          contextStacker.push(FILTER_OP_NAME),
-          builder.getProcessingLogContext());
+      final Expression having = internalSchema.resolveToInternal(havingExpressions);
+      final QueryContext.Stacker filterContext = contextStacker.push(FILTER_OP_NAME);
+
+      // Keys that keep failing the HAVING clause need only be deleted from the sink once, which
+      // can be detected by comparing each aggregate with its previous value, as long as the
+      // aggregation leaves the previous value unchanged:
+      final boolean compareWithPrevious = hasImmutableAggregates(aggValToFunctionMap)
+          && builder.getKsqlConfig().getBoolean(
+              KsqlConfig.KSQL_SUPPRESS_REPEATED_HAVING_TOMBSTONES);
+
+      aggregated = compareWithPrevious
+          ? aggregated.filterAggregate(having, filterContext, builder.getProcessingLogContext())
+          : aggregated.filter(having, filterContext, builder.getProcessingLogContext());
     }
 
     return aggregated.select(
@@ -279,7 +303,8 @@ public class AggregateNode extends PlanNode {
       final KudafInitializer initializer,
       final int initialUdafIndex,
       final FunctionRegistry functionRegistry,
-      final InternalSchema internalSchema
+      final InternalSchema internalSchema,
+      final boolean undoable
   ) {
     int udafIndexInAggSchema = initialUdafIndex;
     final Map<Integer, KsqlAggregateFunction> aggValToAggFunctionMap = new HashMap<>();
@@ -287,7 +312,7 @@ public class AggregateNode extends PlanNode {
       final KsqlAggregateFunction aggregateFunction = getAggregateFunction(
           functionRegistry,
           internalSchema,
-          functionCall, aggregateArgExpanded.getSchema());
+          functionCall, aggregateArgExpanded.getSchema(), undoable);
 
       aggValToAggFunctionMap.put(udafIndexInAggSchema++, aggregateFunction);
       initializer.addAggregateIntializer(aggregateFunction.getInitialValueSupplier());
@@ -300,7 +325,8 @@ public class AggregateNode extends PlanNode {
       final FunctionRegistry functionRegistry,
       final InternalSchema internalSchema,
       final FunctionCall functionCall,
-      final LogicalSchema schema
+      final LogicalSchema schema,
+      final boolean undoable
   ) {
     try {
       final ExpressionTypeManager expressionTypeManager =
@@ -318,12 +344,36 @@ public class AggregateNode extends PlanNode {
       final int udafIndex = Integer
           .parseInt(args.get(0).substring(INTERNAL_COLUMN_NAME_PREFIX.length()));
 
-      return aggregateFunctionInfo.getInstance(new AggregateFunctionArguments(udafIndex, args));
+      final AggregateFunctionArguments aggregateFunctionArguments =
+          new AggregateFunctionArguments(udafIndex, args);
+
+      final KsqlAggregateFunction<?, ?> instance =
+          aggregateFunctionInfo.getInstance(aggregateFunctionArguments);
+
+      if (!undoable) {
+        return instance;
+      }
+
+      // Swap in a version whose aggregate can be undone, so it can be applied to a table:
+      return UndoableAggregateFunctions
+          .forTableAggregation(instance, aggregateFunctionArguments)
+          .orElse(instance);
     } catch (final Exception e) {
       throw new KsqlException("Failed to create aggregate function: " + functionCall, e);
     }
   }
 
+  /**
+   * @return true if every aggregate is a primitive value, rather than a collection or struct that
+   *         an aggregate function may update in place.
+   */
+  private static boolean hasImmutableAggregates(
+      final Map<Integer, KsqlAggregateFunction> aggValToFunctionMap
+  ) {
+    return aggValToFunctionMap.values().stream()
+        .allMatch(function -> function.getAggregateType().type().isPrimitive());
+  }
+
   private LogicalSchema buildAggregateSchema(
       final LogicalSchema inputSchema,
       final Map<Integer, KsqlAggregateFunction> aggregateFunctions
@@ -345,7 +395,7 @@ public class AggregateNode extends PlanNode {
           .get(requiredColumns.size() + idx);
 
       final String fieldName = AggregateExpressionRewriter.AGGREGATE_FUNCTION_VARIABLE_PREFIX + idx;
-      final SqlType fieldType = converter.toSqlType(aggregateFunction.getReturnType());
+      final SqlType fieldType = converter.toSqlType(aggregateFunction.getAggregateType());
       schemaBuilder.valueField(fieldName, fieldType);
     }
 
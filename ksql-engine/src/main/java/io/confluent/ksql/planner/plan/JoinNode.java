@@ -42,7 +42,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.Serde;
 
@@ -60,6 +62,8 @@ public class JoinNode extends PlanNode {
   private final DataSourceNode left;
   private final DataSourceNode right;
   private final LogicalSchema schema;
+  private final LogicalSchema leftSchema;
+  private final LogicalSchema rightSchema;
   private final String leftJoinFieldName;
   private final String rightJoinFieldName;
   private final KeyField keyField;
@@ -73,6 +77,34 @@ public class JoinNode extends PlanNode {
       final String leftJoinFieldName,
       final String rightJoinFieldName,
       final Optional<WithinExpression> withinExpression
+  ) {
+    this(
+        id,
+        joinType,
+        left,
+        right,
+        leftJoinFieldName,
+        rightJoinFieldName,
+        withinExpression,
+        Optional.empty()
+    );
+  }
+
+  /**
+   * @param requiredColumns the full names of the columns referenced downstream of the join, if
+   *                        known. Stream sources are projected down to these columns, (plus any
+   *                        meta, key and join columns), before the join, so that join state only
+   *                        holds what is needed. If empty, all columns are retained.
+   */
+  public JoinNode(
+      final PlanNodeId id,
+      final JoinType joinType,
+      final DataSourceNode left,
+      final DataSourceNode right,
+      final String leftJoinFieldName,
+      final String rightJoinFieldName,
+      final Optional<WithinExpression> withinExpression,
+      final Optional<Set<String>> requiredColumns
   ) {
     super(id, calculateSinkType(left, right));
     this.joinType = joinType;
@@ -88,7 +120,10 @@ public class JoinNode extends PlanNode {
     this.keyField = KeyField
         .of(leftJoinFieldName, LegacyField.of(leftKeyField.fullName(), leftKeyField.type()));
 
-    this.schema = buildSchema(left, right);
+    Objects.requireNonNull(requiredColumns, "requiredColumns");
+    this.leftSchema = buildSourceSchema(left, leftJoinFieldName, requiredColumns);
+    this.rightSchema = buildSourceSchema(right, rightJoinFieldName, requiredColumns);
+    this.schema = buildSchema(leftSchema, rightSchema);
   }
 
   @Override
@@ -213,12 +248,19 @@ public class JoinNode extends PlanNode {
 
     protected SchemaKStream<K> buildStream(
         final PlanNode node,
-        final String joinFieldName
+        final String joinFieldName,
+        final LogicalSchema requiredSchema
     ) {
-      return maybeRePartitionByKey(
+      final SchemaKStream<K> stream = maybeRePartitionByKey(
           node.buildStream(builder),
           joinFieldName,
           contextStacker);
+
+      if (requiredSchema.equals(stream.getSchema())) {
+        return stream;
+      }
+
+      return stream.project(requiredSchema, contextStacker);
     }
 
     @SuppressWarnings("unchecked")
@@ -282,6 +324,7 @@ public class JoinNode extends PlanNode {
 
     Serde<GenericRow> getSerDeForSource(
         final DataSourceNode sourceNode,
+        final LogicalSchema sourceSchema,
         final QueryContext.Stacker contextStacker
     ) {
       final DataSource<?> dataSource = sourceNode.getDataSource();
@@ -290,7 +333,7 @@ public class JoinNode extends PlanNode {
           .getKsqlTopic()
           .getValueFormat();
 
-      final LogicalSchema logicalSchema = sourceNode.getSchema()
+      final LogicalSchema logicalSchema = sourceSchema
           .withoutAlias();
 
       return builder.buildValueSerde(
@@ -355,10 +398,10 @@ public class JoinNode extends PlanNode {
       }
 
       final SchemaKStream<K> leftStream = buildStream(
-          joinNode.getLeft(), joinNode.leftJoinFieldName);
+          joinNode.getLeft(), joinNode.leftJoinFieldName, joinNode.leftSchema);
 
       final SchemaKStream<K> rightStream = buildStream(
-          joinNode.getRight(), joinNode.rightJoinFieldName);
+          joinNode.getRight(), joinNode.rightJoinFieldName, joinNode.rightSchema);
 
       switch (joinNode.joinType) {
         case LEFT:
@@ -367,8 +410,14 @@ public class JoinNode extends PlanNode {
               joinNode.schema,
               getJoinedKeyField(joinNode.left.getAlias(), leftStream.getKeyField()),
               joinNode.withinExpression.get().joinWindow(),
-              getSerDeForSource(joinNode.left, contextStacker.push(LEFT_SERDE_CONTEXT_NAME)),
-              getSerDeForSource(joinNode.right, contextStacker.push(RIGHT_SERDE_CONTEXT_NAME)),
+              getSerDeForSource(
+                  joinNode.left,
+                  joinNode.leftSchema,
+                  contextStacker.push(LEFT_SERDE_CONTEXT_NAME)),
+              getSerDeForSource(
+                  joinNode.right,
+                  joinNode.rightSchema,
+                  contextStacker.push(RIGHT_SERDE_CONTEXT_NAME)),
               contextStacker);
         case OUTER:
           return leftStream.outerJoin(
@@ -376,8 +425,14 @@ public class JoinNode extends PlanNode {
               joinNode.schema,
               getOuterJoinedKeyField(joinNode.left.getAlias(), leftStream.getKeyField()),
               joinNode.withinExpression.get().joinWindow(),
-              getSerDeForSource(joinNode.left, contextStacker.push(LEFT_SERDE_CONTEXT_NAME)),
-              getSerDeForSource(joinNode.right, contextStacker.push(RIGHT_SERDE_CONTEXT_NAME)),
+              getSerDeForSource(
+                  joinNode.left,
+                  joinNode.leftSchema,
+                  contextStacker.push(LEFT_SERDE_CONTEXT_NAME)),
+              getSerDeForSource(
+                  joinNode.right,
+                  joinNode.rightSchema,
+                  contextStacker.push(RIGHT_SERDE_CONTEXT_NAME)),
               contextStacker);
         case INNER:
           return leftStream.join(
@@ -385,8 +440,14 @@ public class JoinNode extends PlanNode {
               joinNode.schema,
               getJoinedKeyField(joinNode.left.getAlias(), leftStream.getKeyField()),
               joinNode.withinExpression.get().joinWindow(),
-              getSerDeForSource(joinNode.left, contextStacker.push(LEFT_SERDE_CONTEXT_NAME)),
-              getSerDeForSource(joinNode.right, contextStacker.push(RIGHT_SERDE_CONTEXT_NAME)),
+              getSerDeForSource(
+                  joinNode.left,
+                  joinNode.leftSchema,
+                  contextStacker.push(LEFT_SERDE_CONTEXT_NAME)),
+              getSerDeForSource(
+                  joinNode.right,
+                  joinNode.rightSchema,
+                  contextStacker.push(RIGHT_SERDE_CONTEXT_NAME)),
               contextStacker);
         default:
           throw new KsqlException("Invalid join type encountered: " + joinNode.joinType);
@@ -416,7 +477,7 @@ public class JoinNode extends PlanNode {
           joinNode.getRight(), joinNode.rightJoinFieldName, joinNode.right.getAlias());
 
       final SchemaKStream<K> leftStream = buildStream(
-          joinNode.getLeft(), joinNode.leftJoinFieldName);
+          joinNode.getLeft(), joinNode.leftJoinFieldName, joinNode.leftSchema);
 
       switch (joinNode.joinType) {
         case LEFT:
@@ -424,7 +485,10 @@ public class JoinNode extends PlanNode {
               rightTable,
               joinNode.schema,
               getJoinedKeyField(joinNode.left.getAlias(), leftStream.getKeyField()),
-              getSerDeForSource(joinNode.left, contextStacker.push(LEFT_SERDE_CONTEXT_NAME)),
+              getSerDeForSource(
+                  joinNode.left,
+                  joinNode.leftSchema,
+                  contextStacker.push(LEFT_SERDE_CONTEXT_NAME)),
               contextStacker);
 
         case INNER:
@@ -432,7 +496,10 @@ public class JoinNode extends PlanNode {
               rightTable,
               joinNode.schema,
               getJoinedKeyField(joinNode.left.getAlias(), leftStream.getKeyField()),
-              getSerDeForSource(joinNode.left, contextStacker.push(LEFT_SERDE_CONTEXT_NAME)),
+              getSerDeForSource(
+                  joinNode.left,
+                  joinNode.leftSchema,
+                  contextStacker.push(LEFT_SERDE_CONTEXT_NAME)),
               contextStacker);
         case OUTER:
           throw new KsqlException("Full outer joins between streams and tables are not supported.");
@@ -503,13 +570,41 @@ public class JoinNode extends PlanNode {
         : DataSourceType.KSTREAM;
   }
 
-  private static LogicalSchema buildSchema(
-      final PlanNode left,
-      final PlanNode right
+  private static LogicalSchema buildSourceSchema(
+      final DataSourceNode source,
+      final String joinFieldName,
+      final Optional<Set<String>> requiredColumns
   ) {
-    final LogicalSchema leftSchema = left.getSchema();
-    final LogicalSchema rightSchema = right.getSchema();
+    final LogicalSchema sourceSchema = source.getSchema();
+
+    // Tables are joined via their source materialization, so there is nothing to gain:
+    if (!requiredColumns.isPresent() || source.getDataSourceType() != DataSourceType.KSTREAM) {
+      return sourceSchema;
+    }
+
+    final Set<String> required = requiredColumns.get();
+    final Optional<String> keyFieldName = source.getKeyField().name();
+
+    final List<Field> valueFields = sourceSchema.valueFields().stream()
+        .filter(field -> sourceSchema.isMetaField(field.name())
+            || sourceSchema.isKeyField(field.name())
+            || field.fullName().equals(joinFieldName)
+            || keyFieldName.map(field.fullName()::equals).orElse(false)
+            || required.contains(field.fullName())
+            || required.contains(field.name()))
+        .collect(Collectors.toList());
+
+    return new LogicalSchema(
+        sourceSchema.metaFields(),
+        sourceSchema.keyFields(),
+        valueFields
+    );
+  }
 
+  private static LogicalSchema buildSchema(
+      final LogicalSchema leftSchema,
+      final LogicalSchema rightSchema
+  ) {
     final LogicalSchema.Builder joinSchema = LogicalSchema.builder();
 
     joinSchema.valueFields(leftSchema.valueFields());
@@ -105,6 +105,18 @@ public class KsqlStructuredDataOutputNode extends OutputNode {
     return serdeOptions;
   }
 
+  public Optional<String> getPartitionByField() {
+    return partitionByField;
+  }
+
+  /**
+   * @return the indexes of the implicit and key columns that are dropped from the value of rows
+   *     before they are written to the sink topic.
+   */
+  public Set<Integer> getImplicitAndKeyFieldIndexes() {
+    return implicitAndKeyFieldIndexes;
+  }
+
   @Override
   public QueryId getQueryId(final QueryIdGenerator queryIdGenerator) {
     final String base = queryIdGenerator.getNextId();
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.services;
+
+import com.google.common.base.Throwables;
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.confluent.ksql.util.KafkaConsumerGroupClient;
+import io.confluent.ksql.util.KafkaConsumerGroupClient.ConsumerGroupSummary;
+import io.confluent.ksql.util.KafkaConsumerGroupClientImpl;
+import io.confluent.ksql.util.KsqlConfig;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.apache.kafka.clients.admin.TopicDescription;
+
+/**
+ * Serves the topic and consumer group metadata of the Kafka cluster used by metadata commands,
+ * such as {@code SHOW TOPICS} and {@code DESCRIBE EXTENDED}.
+ *
+ * <p>The metadata of all topics, and of all consumer groups, is each fetched with a single
+ * batched request to the cluster. When caching, fetched metadata is served until it is older than
+ * the TTL, after which it is refreshed in the background while the stale metadata continues to be
+ * served. Metadata older than twice the TTL is not served, and is instead fetched afresh.
+ *
+ * <p>A cached instance serves all callers with the metadata visible to the clients it was
+ * created with, so must only be shared by callers with the same access to the cluster.
+ */
+public final class ClusterMetadataService {
+
+  private static final String ALL = "all";
+
+  private final KafkaTopicClient topicClient;
+  private final boolean cached;
+  private final LoadingCache<String, Map<String, TopicDescription>> topics;
+  private final LoadingCache<String, Map<String, ConsumerGroupSummary>> consumerGroups;
+
+  /**
+   * Create a service that caches metadata for {@link KsqlConfig#KSQL_METADATA_CACHE_TTL_MS_CONFIG}.
+   *
+   * @param serviceContext the long-lived context whose clients fetch the metadata.
+   * @param ksqlConfig the config.
+   * @return the service.
+   */
+  public static ClusterMetadataService create(
+      final ServiceContext serviceContext,
+      final KsqlConfig ksqlConfig
+  ) {
+    final ThreadPoolExecutor refreshExecutor = new ThreadPoolExecutor(
+        0,
+        1,
+        1,
+        TimeUnit.MINUTES,
+        new LinkedBlockingQueue<>(),
+        new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat("ksql-metadata-refresh-%d")
+            .build()
+    );
+
+    return new ClusterMetadataService(
+        serviceContext.getTopicClient(),
+        new KafkaConsumerGroupClientImpl(serviceContext.getAdminClient()),
+        Duration.ofMillis(ksqlConfig.getLong(KsqlConfig.KSQL_METADATA_CACHE_TTL_MS_CONFIG)),
+        refreshExecutor,
+        Ticker.systemTicker()
+    );
+  }
+
+  /**
+   * Create a service that fetches metadata on every call, for use within a single request.
+   *
+   * @param serviceContext the context whose clients fetch the metadata.
+   * @return the service.
+   */
+  public static ClusterMetadataService uncached(final ServiceContext serviceContext) {
+    return new ClusterMetadataService(
+        serviceContext.getTopicClient(),
+        new KafkaConsumerGroupClientImpl(serviceContext.getAdminClient()),
+        Duration.ZERO,
+        MoreExecutors.directExecutor(),
+        Ticker.systemTicker()
+    );
+  }
+
+  ClusterMetadataService(
+      final KafkaTopicClient topicClient,
+      final KafkaConsumerGroupClient consumerGroupClient,
+      final Duration ttl,
+      final Executor refreshExecutor,
+      final Ticker ticker
+  ) {
+    Objects.requireNonNull(consumerGroupClient, "consumerGroupClient");
+    Objects.requireNonNull(refreshExecutor, "refreshExecutor");
+    Objects.requireNonNull(ticker, "ticker");
+
+    if (ttl.isNegative()) {
+      throw new IllegalArgumentException("ttl can not be negative: " + ttl);
+    }
+
+    this.topicClient = Objects.requireNonNull(topicClient, "topicClient");
+    this.cached = !ttl.isZero();
+
+    this.topics = buildCache(
+        () -> ImmutableMap.copyOf(
+            topicClient.describeTopics(topicClient.listNonInternalTopicNames())),
+        ttl,
+        refreshExecutor,
+        ticker
+    );
+
+    this.consumerGroups = buildCache(
+        () -> ImmutableMap.copyOf(
+            consumerGroupClient.describeConsumerGroups(consumerGroupClient.listGroups())),
+        ttl,
+        refreshExecutor,
+        ticker
+    );
+  }
+
+  /**
+   * @return the descriptions of all non-internal topics, keyed by topic name.
+   */
+  public Map<String, TopicDescription> describeTopics() {
+    return get(topics);
+  }
+
+  /**
+   * Describe a single topic.
+   *
+   * <p>When caching, the topic is described from the metadata of all topics, unless it is
+   * missing from it, e.g. because it is internal or was created since, when it is described
+   * directly.
+   *
+   * @param topicName the name of the topic.
+   * @return the description of the topic.
+   */
+  public TopicDescription describeTopic(final String topicName) {
+    if (!cached) {
+      return topicClient.describeTopic(topicName);
+    }
+
+    final TopicDescription description = describeTopics().get(topicName);
+    return description != null
+        ? description
+        : topicClient.describeTopic(topicName);
+  }
+
+  /**
+   * @return the summaries of all consumer groups, keyed by group id.
+   */
+  public Map<String, ConsumerGroupSummary> describeConsumerGroups() {
+    return get(consumerGroups);
+  }
+
+  private static <V> LoadingCache<String, V> buildCache(
+      final Supplier<V> loader,
+      final Duration ttl,
+      final Executor refreshExecutor,
+      final Ticker ticker
+  ) {
+    final CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+        .ticker(ticker);
+
+    if (ttl.isZero()) {
+      builder.maximumSize(0);
+    } else {
+      builder
+          .refreshAfterWrite(ttl.toNanos(), TimeUnit.NANOSECONDS)
+          .expireAfterWrite(ttl.multipliedBy(2).toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    return builder.build(CacheLoader.asyncReloading(
+        CacheLoader.from(() -> loader.get()),
+        refreshExecutor
+    ));
+  }
+
+  private static <V> V get(final LoadingCache<String, V> cache) {
+    try {
+      return cache.getUnchecked(ALL);
+    } catch (final UncheckedExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.streams;
+
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.state.RocksDBConfigSetter;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.Cache;
+import org.rocksdb.LRUCache;
+import org.rocksdb.Options;
+import org.rocksdb.WriteBufferManager;
+
+/**
+ * Bounds the total memory used by the RocksDB state stores of all queries.
+ *
+ * <p>Kafka Streams creates an instance of the setter for each state store, so the block cache
+ * and write buffer manager are held statically and shared by all stores configured with the
+ * same memory settings, regardless of which query they belong to. Memtables are charged to the
+ * block cache, so its capacity bounds both.
+ *
+ * <p>The settings are passed through the streams properties of each query, by
+ * {@link #addConfigs(KsqlConfig, Map)}.
+ */
+public class KsqlBoundedMemoryRocksDBConfigSetter implements RocksDBConfigSetter {
+
+  // Share of the cache reserved for index and filter blocks, when they are cached:
+  private static final double INDEX_FILTER_BLOCK_RATIO = 0.1;
+
+  private static final ConcurrentMap<MemoryConfig, SharedMemory> SHARED_MEMORY =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Installs the setter in the supplied streams properties, if the config bounds the memory of
+   * RocksDB and no other setter has been configured.
+   *
+   * @param ksqlConfig the config of the query.
+   * @param streamsProperties the streams properties of the query, which are updated.
+   */
+  public static void addConfigs(
+      final KsqlConfig ksqlConfig,
+      final Map<String, Object> streamsProperties
+  ) {
+    final long totalMemory =
+        ksqlConfig.getLong(KsqlConfig.KSQL_ROCKSDB_TOTAL_MEMORY_BYTES_CONFIG);
+
+    if (totalMemory == 0
+        || streamsProperties.containsKey(StreamsConfig.ROCKSDB_CONFIG_SETTER_CLASS_CONFIG)) {
+      return;
+    }
+
+    streamsProperties.put(
+        StreamsConfig.ROCKSDB_CONFIG_SETTER_CLASS_CONFIG,
+        KsqlBoundedMemoryRocksDBConfigSetter.class.getName());
+    streamsProperties.put(
+        KsqlConfig.KSQL_ROCKSDB_TOTAL_MEMORY_BYTES_CONFIG,
+        totalMemory);
+    streamsProperties.put(
+        KsqlConfig.KSQL_ROCKSDB_WRITE_BUFFER_RATIO_CONFIG,
+        ksqlConfig.getDouble(KsqlConfig.KSQL_ROCKSDB_WRITE_BUFFER_RATIO_CONFIG));
+    streamsProperties.put(
+        KsqlConfig.KSQL_ROCKSDB_CACHE_INDEX_AND_FILTER_BLOCKS_CONFIG,
+        ksqlConfig.getBoolean(KsqlConfig.KSQL_ROCKSDB_CACHE_INDEX_AND_FILTER_BLOCKS_CONFIG));
+  }
+
+  @Override
+  public void setConfig(
+      final String storeName,
+      final Options options,
+      final Map<String, Object> configs
+  ) {
+    final MemoryConfig memoryConfig = MemoryConfig.from(configs);
+    final SharedMemory sharedMemory =
+        SHARED_MEMORY.computeIfAbsent(memoryConfig, SharedMemory::new);
+
+    final BlockBasedTableConfig tableConfig = (BlockBasedTableConfig) options.tableFormatConfig();
+    tableConfig.setBlockCache(sharedMemory.cache);
+
+    if (memoryConfig.cacheIndexAndFilterBlocks) {
+      tableConfig.setCacheIndexAndFilterBlocks(true);
+      tableConfig.setCacheIndexAndFilterBlocksWithHighPriority(true);
+      tableConfig.setPinTopLevelIndexAndFilter(true);
+    }
+
+    options.setWriteBufferManager(sharedMemory.writeBufferManager);
+    options.setTableFormatConfig(tableConfig);
+  }
+
+  @Override
+  public void close(final String storeName, final Options options) {
+    // The cache and write buffer manager are shared by other stores, so must not be closed.
+  }
+
+  private static final class MemoryConfig {
+
+    private final long totalMemory;
+    private final double writeBufferRatio;
+    private final boolean cacheIndexAndFilterBlocks;
+
+    private MemoryConfig(
+        final long totalMemory,
+        final double writeBufferRatio,
+        final boolean cacheIndexAndFilterBlocks
+    ) {
+      if (totalMemory <= 0) {
+        throw new IllegalArgumentException(
+            KsqlConfig.KSQL_ROCKSDB_TOTAL_MEMORY_BYTES_CONFIG + " must be positive");
+      }
+
+      this.totalMemory = totalMemory;
+      this.writeBufferRatio = writeBufferRatio;
+      this.cacheIndexAndFilterBlocks = cacheIndexAndFilterBlocks;
+    }
+
+    static MemoryConfig from(final Map<String, Object> configs) {
+      return new MemoryConfig(
+          Long.parseLong(get(configs, KsqlConfig.KSQL_ROCKSDB_TOTAL_MEMORY_BYTES_CONFIG)),
+          Double.parseDouble(get(configs, KsqlConfig.KSQL_ROCKSDB_WRITE_BUFFER_RATIO_CONFIG)),
+          Boolean.parseBoolean(
+              get(configs, KsqlConfig.KSQL_ROCKSDB_CACHE_INDEX_AND_FILTER_BLOCKS_CONFIG))
+      );
+    }
+
+    private static String get(final Map<String, Object> configs, final String name) {
+      final Object value = configs.get(name);
+      if (value == null) {
+        throw new IllegalStateException(
+            KsqlBoundedMemoryRocksDBConfigSetter.class.getSimpleName()
+                + " requires the streams config: " + name);
+      }
+      return value.toString();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final MemoryConfig that = (MemoryConfig) o;
+      return totalMemory == that.totalMemory
+          && Double.compare(that.writeBufferRatio, writeBufferRatio) == 0
+          && cacheIndexAndFilterBlocks == that.cacheIndexAndFilterBlocks;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(totalMemory, writeBufferRatio, cacheIndexAndFilterBlocks);
+    }
+  }
+
+  private static final class SharedMemory {
+
+    private final Cache cache;
+    private final WriteBufferManager writeBufferManager;
+
+    SharedMemory(final MemoryConfig config) {
+      this.cache = new LRUCache(
+          config.totalMemory,
+          -1,
+          false,
+          config.cacheIndexAndFilterBlocks ? INDEX_FILTER_BLOCK_RATIO : 0.0
+      );
+
+      this.writeBufferManager = new WriteBufferManager(
+          (long) (config.totalMemory * config.writeBufferRatio),
+          cache
+      );
+    }
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.structured;
+
+import static java.util.Objects.requireNonNull;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.context.QueryContext;
+import io.confluent.ksql.execution.context.QueryLoggerUtil;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.plan.SelectExpression;
+import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.logging.processing.ProcessingLogContext;
+import io.confluent.ksql.metastore.model.KeyField;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.serde.KeySerde;
+import io.confluent.ksql.streams.StreamsFactories;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlException;
+import java.util.Collections;
+import java.util.List;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.KTable;
+import org.apache.kafka.streams.kstream.Predicate;
+
+/**
+ * A table whose changes are only available as a stream of updates, rather than as a
+ * {@link KTable}.
+ *
+ * <p>Used for the results of aggregations that emit several updates per input record, such as
+ * hopping windows assembled from panes, which Kafka Streams can not turn into a {@code KTable}
+ * without materializing them a second time. The table can be filtered, projected and written to a
+ * sink, but not grouped or joined, and can not be queried by pull queries.
+ */
+public class SchemaKChangelogTable<K> extends SchemaKTable<K> {
+
+  private final KStream<K, GenericRow> changelog;
+
+  public SchemaKChangelogTable(
+      final KStream<K, GenericRow> changelog,
+      final LogicalSchema schema,
+      final KeySerde<K> keySerde,
+      final KeyField keyField,
+      final List<SchemaKStream> sourceSchemaKStreams,
+      final Type type,
+      final KsqlConfig ksqlConfig,
+      final FunctionRegistry functionRegistry,
+      final QueryContext queryContext
+  ) {
+    this(
+        changelog,
+        schema,
+        keySerde,
+        keyField,
+        sourceSchemaKStreams,
+        type,
+        ksqlConfig,
+        functionRegistry,
+        StreamsFactories.create(ksqlConfig),
+        queryContext
+    );
+  }
+
+  SchemaKChangelogTable(
+      final KStream<K, GenericRow> changelog,
+      final LogicalSchema schema,
+      final KeySerde<K> keySerde,
+      final KeyField keyField,
+      final List<SchemaKStream> sourceSchemaKStreams,
+      final Type type,
+      final KsqlConfig ksqlConfig,
+      final FunctionRegistry functionRegistry,
+      final StreamsFactories streamsFactories,
+      final QueryContext queryContext
+  ) {
+    super(
+        null,
+        schema,
+        keySerde,
+        keyField,
+        sourceSchemaKStreams,
+        type,
+        ksqlConfig,
+        functionRegistry,
+        streamsFactories,
+        queryContext
+    );
+    this.changelog = requireNonNull(changelog, "changelog");
+  }
+
+  @Override
+  public SchemaKTable<K> filter(
+      final Expression filterExpression,
+      final QueryContext.Stacker contextStacker,
+      final ProcessingLogContext processingLogContext
+  ) {
+    final SqlPredicate predicate = new SqlPredicate(
+        filterExpression,
+        schema,
+        ksqlConfig,
+        functionRegistry,
+        processingLogContext.getLoggerFactory().getLogger(
+            QueryLoggerUtil.queryLoggerName(
+                contextStacker.push(Type.FILTER.name()).getQueryContext()))
+    );
+
+    final Predicate<K, GenericRow> test = predicate.getPredicate();
+
+    // As with a filtered KTable, rows that do not match are deleted from the table:
+    final KStream<K, GenericRow> filtered = changelog
+        .mapValues((key, row) -> row != null && test.test(key, row) ? row : null);
+
+    return new SchemaKChangelogTable<>(
+        filtered,
+        schema,
+        keySerde,
+        keyField,
+        Collections.singletonList(this),
+        Type.FILTER,
+        ksqlConfig,
+        functionRegistry,
+        streamsFactories,
+        contextStacker.getQueryContext()
+    );
+  }
+
+  /**
+   * The changelog does not carry the previous value of each row, so the {@code HAVING} clause is
+   * applied as any other filter.
+   */
+  @Override
+  public SchemaKTable<K> filterAggregate(
+      final Expression havingExpression,
+      final QueryContext.Stacker contextStacker,
+      final ProcessingLogContext processingLogContext
+  ) {
+    return filter(havingExpression, contextStacker, processingLogContext);
+  }
+
+  @Override
+  public SchemaKTable<K> select(
+      final List<SelectExpression> selectExpressions,
+      final QueryContext.Stacker contextStacker,
+      final ProcessingLogContext processingLogContext
+  ) {
+    final Selection selection = new Selection(
+        selectExpressions,
+        processingLogContext.getLoggerFactory().getLogger(
+            QueryLoggerUtil.queryLoggerName(
+                contextStacker.push(Type.PROJECT.name()).getQueryContext()))
+    );
+
+    return new SchemaKChangelogTable<>(
+        changelog.mapValues(selection.getSelectValueMapper()),
+        selection.getProjectedSchema(),
+        keySerde,
+        selection.getKey(),
+        Collections.singletonList(this),
+        Type.PROJECT,
+        ksqlConfig,
+        functionRegistry,
+        streamsFactories,
+        contextStacker.getQueryContext()
+    );
+  }
+
+  @Override
+  public KStream getKstream() {
+    return changelog;
+  }
+
+  @Override
+  public KTable getKtable() {
+    throw new KsqlException("Tables aggregated from hopping window panes are only available as "
+        + "a stream of changes, so can not be grouped or joined. "
+        + "Set '" + KsqlConfig.KSQL_HOPPING_WINDOW_PANES_ENABLE_CONFIG + "' to false.");
+  }
+}
@@ -21,12 +21,19 @@ import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.function.KsqlAggregateFunction;
 import io.confluent.ksql.function.UdafAggregator;
 import io.confluent.ksql.function.udaf.KudafAggregator;
+import io.confluent.ksql.function.udaf.KudafResultMapper;
+import io.confluent.ksql.function.udaf.window.PaneWindowAssembler;
 import io.confluent.ksql.function.udaf.window.WindowSelectMapper;
+import io.confluent.ksql.materialization.MaterializationInfo;
 import io.confluent.ksql.metastore.model.KeyField;
 import io.confluent.ksql.model.WindowType;
+import io.confluent.ksql.parser.tree.HoppingWindowExpression;
 import io.confluent.ksql.parser.tree.KsqlWindowExpression;
+import io.confluent.ksql.parser.tree.ResultMaterialization;
 import io.confluent.ksql.parser.tree.WindowExpression;
+import io.confluent.ksql.schema.ksql.Field;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.SchemaConverters;
 import io.confluent.ksql.serde.KeySerde;
 import io.confluent.ksql.serde.WindowInfo;
 import io.confluent.ksql.streams.MaterializedFactory;
@@ -38,15 +45,29 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.streams.kstream.Initializer;
 import org.apache.kafka.streams.kstream.KGroupedStream;
+import org.apache.kafka.streams.kstream.KStream;
 import org.apache.kafka.streams.kstream.KTable;
 import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.Suppressed;
+import org.apache.kafka.streams.kstream.Suppressed.BufferConfig;
+import org.apache.kafka.streams.kstream.Suppressed.StrictBufferConfig;
 import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.state.WindowStore;
 
 public class SchemaKGroupedStream {
 
+  private static final String SUPPRESS_OP_NAME = "Suppress";
+
+  /**
+   * The most merges of panes that a single pane update may cost before hopping windows are
+   * aggregated directly instead.
+   */
+  static final long MAX_PANE_MERGES_PER_UPDATE = 256;
+
   final KGroupedStream kgroupedStream;
   final LogicalSchema schema;
   final KeySerde<Struct> keySerde;
@@ -100,6 +121,27 @@ public class SchemaKGroupedStream {
     return keyField;
   }
 
+  public SchemaKTable<?> aggregate(
+      final LogicalSchema aggregateSchema,
+      final Initializer initializer,
+      final int nonFuncColumnCount,
+      final Map<Integer, KsqlAggregateFunction> aggValToFunctionMap,
+      final WindowExpression windowExpression,
+      final Serde<GenericRow> topicValueSerDe,
+      final QueryContext.Stacker contextStacker
+  ) {
+    return aggregate(
+        aggregateSchema,
+        initializer,
+        nonFuncColumnCount,
+        aggValToFunctionMap,
+        windowExpression,
+        ResultMaterialization.CHANGES,
+        topicValueSerDe,
+        contextStacker
+    );
+  }
+
   @SuppressWarnings("unchecked")
   public SchemaKTable<?> aggregate(
       final LogicalSchema aggregateSchema,
@@ -107,12 +149,25 @@ public class SchemaKGroupedStream {
       final int nonFuncColumnCount,
       final Map<Integer, KsqlAggregateFunction> aggValToFunctionMap,
       final WindowExpression windowExpression,
+      final ResultMaterialization resultMaterialization,
       final Serde<GenericRow> topicValueSerDe,
       final QueryContext.Stacker contextStacker
   ) {
     throwOnValueFieldCountMismatch(aggregateSchema, nonFuncColumnCount, aggValToFunctionMap);
 
-    final KTable table;
+    if (windowExpression != null && usePanes(windowExpression, resultMaterialization)) {
+      return aggregateInPanes(
+          aggregateSchema,
+          initializer,
+          nonFuncColumnCount,
+          aggValToFunctionMap,
+          (HoppingWindowExpression) windowExpression.getKsqlWindowExpression(),
+          topicValueSerDe,
+          contextStacker
+      );
+    }
+
+    KTable table;
     final KeySerde<?> newKeySerde;
     if (windowExpression != null) {
       newKeySerde = getKeySerde(windowExpression);
@@ -122,6 +177,7 @@ public class SchemaKGroupedStream {
           nonFuncColumnCount,
           aggValToFunctionMap,
           windowExpression,
+          resultMaterialization,
           topicValueSerDe,
           contextStacker
       );
@@ -137,9 +193,14 @@ public class SchemaKGroupedStream {
       );
     }
 
-    return new SchemaKTable(
+    final KudafResultMapper resultMapper = new KudafResultMapper(aggValToFunctionMap);
+    if (resultMapper.hasMappings()) {
+      table = table.mapValues(resultMapper);
+    }
+
+    final SchemaKTable<?> aggregated = new SchemaKTable(
         table,
-        aggregateSchema,
+        buildResultSchema(aggregateSchema, aggValToFunctionMap),
         newKeySerde,
         keyField,
         sourceSchemaKStreams,
@@ -147,6 +208,87 @@ public class SchemaKGroupedStream {
         ksqlConfig,
         functionRegistry,
         contextStacker.getQueryContext());
+
+    if (!StreamsUtil.useProvidedName(ksqlConfig)) {
+      // State store has a generated name, so can not be queried:
+      return aggregated;
+    }
+
+    if (resultMaterialization == ResultMaterialization.FINAL) {
+      // State store holds intermediate results, not the final results the table is made of:
+      return aggregated;
+    }
+
+    return aggregated.withMaterialization(buildMaterializationInfo(
+        aggValToFunctionMap,
+        windowExpression,
+        contextStacker
+    ));
+  }
+
+  /**
+   * Builds the schema of the aggregated rows once the aggregates of any functions whose
+   * aggregate type differs from their return type have been mapped to their results.
+   */
+  static LogicalSchema buildResultSchema(
+      final LogicalSchema aggregateSchema,
+      final Map<Integer, KsqlAggregateFunction> aggValToFunctionMap
+  ) {
+    if (aggValToFunctionMap.values().stream().noneMatch(KudafResultMapper::hasResultMapper)) {
+      return aggregateSchema;
+    }
+
+    final LogicalSchema.Builder schemaBuilder = LogicalSchema.builder()
+        .keyFields(aggregateSchema.keyFields());
+
+    final List<Field> fields = aggregateSchema.valueFields();
+    for (int idx = 0; idx < fields.size(); idx++) {
+      final Field field = fields.get(idx);
+      final KsqlAggregateFunction function = aggValToFunctionMap.get(idx);
+      if (function == null || !KudafResultMapper.hasResultMapper(function)) {
+        schemaBuilder.valueField(field);
+      } else {
+        schemaBuilder.valueField(
+            field.name(),
+            SchemaConverters.connectToSqlConverter().toSqlType(function.getReturnType()));
+      }
+    }
+
+    return schemaBuilder.build();
+  }
+
+  private MaterializationInfo buildMaterializationInfo(
+      final Map<Integer, KsqlAggregateFunction> aggValToFunctionMap,
+      final WindowExpression windowExpression,
+      final QueryContext.Stacker contextStacker
+  ) {
+    final String storeName = StreamsUtil.buildOpName(contextStacker.getQueryContext());
+
+    final KudafResultMapper resultMapper = new KudafResultMapper(aggValToFunctionMap);
+
+    if (windowExpression == null) {
+      final MaterializationInfo info =
+          MaterializationInfo.of(storeName, keySerde, Optional.empty());
+
+      return resultMapper.hasMappings()
+          ? info.map(resultMapper)
+          : info;
+    }
+
+    MaterializationInfo info = MaterializationInfo.of(
+        storeName,
+        keySerde,
+        Optional.of(windowExpression.getKsqlWindowExpression().getWindowInfo())
+    );
+
+    final WindowSelectMapper windowSelectMapper = new WindowSelectMapper(aggValToFunctionMap);
+    if (windowSelectMapper.hasSelects()) {
+      info = info.mapWithKey(windowSelectMapper);
+    }
+
+    return resultMapper.hasMappings()
+        ? info.map(resultMapper)
+        : info;
   }
 
   @SuppressWarnings("unchecked")
@@ -174,6 +316,7 @@ public class SchemaKGroupedStream {
       final int nonFuncColumnCount,
       final Map<Integer, KsqlAggregateFunction> indexToFunctionMap,
       final WindowExpression windowExpression,
+      final ResultMaterialization resultMaterialization,
       final Serde<GenericRow> topicValueSerDe,
       final QueryContext.Stacker contextStacker
   ) {
@@ -187,9 +330,17 @@ public class SchemaKGroupedStream {
         StreamsUtil.buildOpName(contextStacker.getQueryContext())
     );
 
-    final KTable<Windowed<Struct>, GenericRow> aggKtable = ksqlWindowExpression.applyAggregate(
+    KTable<Windowed<Struct>, GenericRow> aggKtable = ksqlWindowExpression.applyAggregate(
         kgroupedStream, initializer, aggregator, materialized);
 
+    if (resultMaterialization == ResultMaterialization.FINAL) {
+      // Must be applied before the window select mapper, as suppression requires value serde:
+      aggKtable = aggKtable.suppress(
+          Suppressed.untilWindowCloses(buildSuppressBufferConfig())
+              .withName(StreamsUtil.buildOpName(
+                  contextStacker.push(SUPPRESS_OP_NAME).getQueryContext())));
+    }
+
     final WindowSelectMapper windowSelectMapper = new WindowSelectMapper(indexToFunctionMap);
     if (!windowSelectMapper.hasSelects()) {
       return aggKtable;
@@ -198,7 +349,113 @@ public class SchemaKGroupedStream {
     return aggKtable.mapValues(windowSelectMapper);
   }
 
+  private boolean usePanes(
+      final WindowExpression windowExpression,
+      final ResultMaterialization resultMaterialization
+  ) {
+    if (!ksqlConfig.getBoolean(KsqlConfig.KSQL_HOPPING_WINDOW_PANES_ENABLE_CONFIG)
+        || resultMaterialization != ResultMaterialization.CHANGES
+        || !(windowExpression.getKsqlWindowExpression() instanceof HoppingWindowExpression)) {
+      return false;
+    }
+
+    final HoppingWindowExpression hopping =
+        (HoppingWindowExpression) windowExpression.getKsqlWindowExpression();
+
+    // Panes only save work if windows overlap:
+    if (hopping.getPaneSize().compareTo(hopping.getSize()) >= 0) {
+      return false;
+    }
+
+    // Each pane update merges every pane of every window containing it:
+    final long advanceMs = hopping.getAdvanceBy().toMillis();
+    final long windowsPerPane = (hopping.getSize().toMillis() + advanceMs - 1) / advanceMs;
+    final long panesPerWindow = hopping.getSize().toMillis() / hopping.getPaneSize().toMillis();
+    return windowsPerPane * panesPerWindow <= MAX_PANE_MERGES_PER_UPDATE;
+  }
+
+  /**
+   * Aggregates each record into a single non-overlapping pane, and assembles the hopping windows
+   * from the panes they cover, using the mergers of the aggregate functions.
+   *
+   * <p>As the assembled windows are a stream of updates, the result is a
+   * {@link SchemaKChangelogTable}, which is not materialized for pull queries.
+   */
+  @SuppressWarnings("unchecked")
+  private SchemaKTable<?> aggregateInPanes(
+      final LogicalSchema aggregateSchema,
+      final Initializer initializer,
+      final int nonFuncColumnCount,
+      final Map<Integer, KsqlAggregateFunction> aggValToFunctionMap,
+      final HoppingWindowExpression hopping,
+      final Serde<GenericRow> topicValueSerDe,
+      final QueryContext.Stacker contextStacker
+  ) {
+    final UdafAggregator aggregator = new KudafAggregator(nonFuncColumnCount, aggValToFunctionMap);
+
+    // Always named, as the windows are assembled by looking the panes up in the store:
+    final String paneStoreName = StreamsUtil.buildOpName(contextStacker.getQueryContext());
+
+    final Materialized<Struct, GenericRow, WindowStore<Bytes, byte[]>> materialized =
+        Materialized.<Struct, GenericRow, WindowStore<Bytes, byte[]>>as(paneStoreName)
+            .withKeySerde(keySerde)
+            .withValueSerde(topicValueSerDe);
+
+    final KTable<Windowed<Struct>, GenericRow> panes =
+        hopping.applyPaneAggregate(kgroupedStream, initializer, aggregator, materialized);
+
+    KStream<Windowed<Struct>, GenericRow> windows = panes
+        .toStream()
+        .flatTransform(
+            () -> new PaneWindowAssembler(
+                paneStoreName,
+                hopping.getSize(),
+                hopping.getAdvanceBy(),
+                hopping.getPaneSize(),
+                hopping.getWindowGracePeriod(),
+                initializer,
+                aggregator.getMerger()
+            ),
+            paneStoreName
+        );
+
+    final WindowSelectMapper windowSelectMapper = new WindowSelectMapper(aggValToFunctionMap);
+    if (windowSelectMapper.hasSelects()) {
+      windows = windows.mapValues(windowSelectMapper);
+    }
+
+    final KudafResultMapper resultMapper = new KudafResultMapper(aggValToFunctionMap);
+    if (resultMapper.hasMappings()) {
+      windows = windows.mapValues(resultMapper);
+    }
+
+    return new SchemaKChangelogTable<>(
+        windows,
+        buildResultSchema(aggregateSchema, aggValToFunctionMap),
+        getKeySerde(hopping),
+        keyField,
+        sourceSchemaKStreams,
+        SchemaKStream.Type.AGGREGATE,
+        ksqlConfig,
+        functionRegistry,
+        contextStacker.getQueryContext()
+    );
+  }
+
+  private StrictBufferConfig buildSuppressBufferConfig() {
+    final long maxBytes = ksqlConfig.getLong(KsqlConfig.KSQL_SUPPRESS_BUFFER_SIZE_BYTES_CONFIG);
+    if (maxBytes < 0) {
+      return BufferConfig.unbounded();
+    }
+
+    return BufferConfig.maxBytes(maxBytes).shutDownWhenFull();
+  }
+
   private KeySerde<Windowed<Struct>> getKeySerde(final WindowExpression windowExpression) {
+    return getKeySerde(windowExpression.getKsqlWindowExpression());
+  }
+
+  private KeySerde<Windowed<Struct>> getKeySerde(final KsqlWindowExpression windowExpression) {
     if (ksqlConfig.getBoolean(KsqlConfig.KSQL_WINDOWED_SESSION_KEY_LEGACY_CONFIG)) {
       return keySerde.rebind(WindowInfo.of(
           WindowType.TUMBLING,
@@ -206,7 +463,7 @@ public class SchemaKGroupedStream {
       ));
     }
 
-    return keySerde.rebind(windowExpression.getKsqlWindowExpression().getWindowInfo());
+    return keySerde.rebind(windowExpression.getWindowInfo());
   }
 
   static void throwOnValueFieldCountMismatch(
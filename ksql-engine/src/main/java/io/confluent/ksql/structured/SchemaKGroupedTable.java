@@ -21,8 +21,10 @@ import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.function.KsqlAggregateFunction;
 import io.confluent.ksql.function.TableAggregationFunction;
 import io.confluent.ksql.function.udaf.KudafAggregator;
+import io.confluent.ksql.function.udaf.KudafResultMapper;
 import io.confluent.ksql.function.udaf.KudafUndoAggregator;
 import io.confluent.ksql.metastore.model.KeyField;
+import io.confluent.ksql.parser.tree.ResultMaterialization;
 import io.confluent.ksql.parser.tree.WindowExpression;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.serde.KeySerde;
@@ -88,6 +90,7 @@ public class SchemaKGroupedTable extends SchemaKGroupedStream {
       final int nonFuncColumnCount,
       final Map<Integer, KsqlAggregateFunction> aggValToFunctionMap,
       final WindowExpression windowExpression,
+      final ResultMaterialization resultMaterialization,
       final Serde<GenericRow> topicValueSerDe,
       final QueryContext.Stacker contextStacker
   ) {
@@ -129,15 +132,20 @@ public class SchemaKGroupedTable extends SchemaKGroupedStream {
         StreamsUtil.buildOpName(contextStacker.getQueryContext())
     );
 
-    final KTable<Struct, GenericRow> aggKtable = kgroupedTable.aggregate(
+    KTable<Struct, GenericRow> aggKtable = kgroupedTable.aggregate(
         initializer,
         aggregator,
         subtractor,
         materialized);
 
+    final KudafResultMapper resultMapper = new KudafResultMapper(aggValToFunctionMap);
+    if (resultMapper.hasMappings()) {
+      aggKtable = aggKtable.mapValues(resultMapper);
+    }
+
     return new SchemaKTable<>(
         aggKtable,
-        aggregateSchema,
+        buildResultSchema(aggregateSchema, aggValToFunctionMap),
         keySerde,
         keyField,
         sourceSchemaKStreams,
@@ -92,7 +92,7 @@ public class SchemaKStream<K> {
   final KsqlConfig ksqlConfig;
   final FunctionRegistry functionRegistry;
   final StreamsFactories streamsFactories;
-  private final QueryContext queryContext;
+  final QueryContext queryContext;
 
   private static <K> SchemaKStream<K> forSource(
       final KsqlQueryBuilder builder,
@@ -336,6 +336,51 @@ public class SchemaKStream<K> {
     );
   }
 
+  /**
+   * Project the stream down to the value fields of the supplied {@code projectedSchema}.
+   *
+   * <p>Unlike {@link #select}, this does no code generation: each field of the projected schema
+   * must exist in the current schema and is copied across by index.
+   *
+   * @param projectedSchema the schema to project to.
+   * @param contextStacker the query context.
+   * @return the projected stream.
+   */
+  public SchemaKStream<K> project(
+      final LogicalSchema projectedSchema,
+      final QueryContext.Stacker contextStacker
+  ) {
+    final int[] indexes = projectedSchema.valueFields().stream()
+        .mapToInt(field -> schema.valueFieldIndex(field.fullName())
+            .orElseThrow(() -> new IllegalArgumentException(
+                "Projected field not in schema: " + field.fullName())))
+        .toArray();
+
+    final KStream<K, GenericRow> projected = kstream.mapValues(row -> {
+      if (row == null) {
+        return null;
+      }
+
+      final List<Object> columns = new ArrayList<>(indexes.length);
+      for (final int index : indexes) {
+        columns.add(row.getColumns().get(index));
+      }
+      return new GenericRow(columns);
+    });
+
+    return new SchemaKStream<>(
+        projected,
+        projectedSchema,
+        keySerde,
+        keyField,
+        Collections.singletonList(this),
+        Type.PROJECT,
+        ksqlConfig,
+        functionRegistry,
+        contextStacker.getQueryContext()
+    );
+  }
+
   class Selection {
 
     private final LogicalSchema schema;
@@ -890,27 +935,27 @@ public class SchemaKStream<K> {
   protected static class KsqlValueJoiner
       implements ValueJoiner<GenericRow, GenericRow, GenericRow> {
 
-    private final LogicalSchema leftSchema;
-    private final LogicalSchema rightSchema;
+    private final int leftCount;
+    private final int rightCount;
 
     KsqlValueJoiner(final LogicalSchema leftSchema, final LogicalSchema rightSchema) {
-      this.leftSchema = Objects.requireNonNull(leftSchema, "leftSchema");
-      this.rightSchema = Objects.requireNonNull(rightSchema, "rightSchema");
+      this.leftCount = Objects.requireNonNull(leftSchema, "leftSchema").valueFields().size();
+      this.rightCount = Objects.requireNonNull(rightSchema, "rightSchema").valueFields().size();
     }
 
     @Override
     public GenericRow apply(final GenericRow left, final GenericRow right) {
-      final List<Object> columns = new ArrayList<>();
+      final List<Object> columns = new ArrayList<>(leftCount + rightCount);
       if (left != null) {
         columns.addAll(left.getColumns());
       } else {
-        fillWithNulls(columns, leftSchema.valueFields().size());
+        fillWithNulls(columns, leftCount);
       }
 
       if (right != null) {
         columns.addAll(right.getColumns());
       } else {
-        fillWithNulls(columns, rightSchema.valueFields().size());
+        fillWithNulls(columns, rightCount);
       }
 
       return new GenericRow(columns);
@@ -15,6 +15,8 @@
 
 package io.confluent.ksql.structured;
 
+import static java.util.Objects.requireNonNull;
+
 import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.context.QueryContext;
@@ -23,6 +25,7 @@ import io.confluent.ksql.execution.expression.tree.Expression;
 import io.confluent.ksql.execution.plan.SelectExpression;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
+import io.confluent.ksql.materialization.MaterializationInfo;
 import io.confluent.ksql.metastore.model.KeyField;
 import io.confluent.ksql.metastore.model.KeyField.LegacyField;
 import io.confluent.ksql.schema.ksql.Field;
@@ -32,6 +35,7 @@ import io.confluent.ksql.serde.KeySerde;
 import io.confluent.ksql.streams.StreamsFactories;
 import io.confluent.ksql.streams.StreamsUtil;
 import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -45,12 +49,14 @@ import org.apache.kafka.streams.kstream.KGroupedTable;
 import org.apache.kafka.streams.kstream.KStream;
 import org.apache.kafka.streams.kstream.KTable;
 import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.kstream.internals.KTableImpl;
 
 // CHECKSTYLE_RULES.OFF: ClassDataAbstractionCoupling
 public class SchemaKTable<K> extends SchemaKStream<K> {
 
   // CHECKSTYLE_RULES.ON: ClassDataAbstractionCoupling
   private final KTable<K, GenericRow> ktable;
+  private final Optional<MaterializationInfo> materialization;
 
   public SchemaKTable(
       final KTable<K, GenericRow> ktable,
@@ -88,6 +94,36 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
       final StreamsFactories streamsFactories,
       final QueryContext queryContext
   ) {
+    this(
+        ktable,
+        schema,
+        keySerde,
+        keyField,
+        sourceSchemaKStreams,
+        type,
+        ksqlConfig,
+        functionRegistry,
+        streamsFactories,
+        queryContext,
+        Optional.empty()
+    );
+  }
+
+  // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
+  private SchemaKTable(
+      final KTable<K, GenericRow> ktable,
+      final LogicalSchema schema,
+      final KeySerde<K> keySerde,
+      final KeyField keyField,
+      final List<SchemaKStream> sourceSchemaKStreams,
+      final Type type,
+      final KsqlConfig ksqlConfig,
+      final FunctionRegistry functionRegistry,
+      final StreamsFactories streamsFactories,
+      final QueryContext queryContext,
+      final Optional<MaterializationInfo> materialization
+  ) {
+    // CHECKSTYLE_RULES.ON: ParameterNumberCheck
     super(
         null,
         schema,
@@ -101,16 +137,46 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
         queryContext
     );
     this.ktable = ktable;
+    this.materialization = requireNonNull(materialization, "materialization");
+  }
+
+  /**
+   * @return info about the state store the table is materialized in, if it can be queried.
+   */
+  public Optional<MaterializationInfo> getMaterializationInfo() {
+    return materialization;
+  }
+
+  /**
+   * @param materializationInfo info about the state store the table is materialized in.
+   * @return a copy of this table, with the supplied materialization info.
+   */
+  public SchemaKTable<K> withMaterialization(final MaterializationInfo materializationInfo) {
+    return new SchemaKTable<>(
+        ktable,
+        schema,
+        keySerde,
+        keyField,
+        sourceSchemaKStreams,
+        type,
+        ksqlConfig,
+        functionRegistry,
+        streamsFactories,
+        queryContext,
+        Optional.of(materializationInfo)
+    );
   }
 
+  @SuppressWarnings("unchecked")
   @Override
   public SchemaKTable<K> into(
       final String kafkaTopicName,
       final Serde<GenericRow> topicValueSerDe,
       final Set<Integer> rowkeyIndexes
   ) {
+    final KStream<K, GenericRow> changes = getKstream();
 
-    ktable.toStream()
+    changes
         .mapValues(row -> {
               if (row == null) {
                 return null;
@@ -128,12 +194,42 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
     return this;
   }
 
-  @SuppressWarnings("unchecked")
   @Override
   public SchemaKTable<K> filter(
       final Expression filterExpression,
       final QueryContext.Stacker contextStacker,
       final ProcessingLogContext processingLogContext
+  ) {
+    return doFilter(filterExpression, contextStacker, processingLogContext, false);
+  }
+
+  /**
+   * Filter the result of an aggregation by its {@code HAVING} clause.
+   *
+   * <p>Unlike {@link #filter}, which forwards a tombstone for every update that does not match the
+   * predicate, each update is compared with the previous value of the aggregate, and a tombstone
+   * only forwarded when an aggregate that matched stops matching. Updates to keys that keep
+   * failing the predicate are dropped.
+   *
+   * <p>The previous value must not have been changed by the update, so this must only be used
+   * when the aggregates are immutable values, e.g. numbers, rather than collections.
+   *
+   * @throws KsqlException if the filtered table can not be sent previous values.
+   */
+  public SchemaKTable<K> filterAggregate(
+      final Expression havingExpression,
+      final QueryContext.Stacker contextStacker,
+      final ProcessingLogContext processingLogContext
+  ) {
+    return doFilter(havingExpression, contextStacker, processingLogContext, true);
+  }
+
+  @SuppressWarnings("unchecked")
+  private SchemaKTable<K> doFilter(
+      final Expression filterExpression,
+      final QueryContext.Stacker contextStacker,
+      final ProcessingLogContext processingLogContext,
+      final boolean compareWithPrevious
   ) {
     final SqlPredicate predicate = new SqlPredicate(
         filterExpression,
@@ -146,6 +242,10 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
     );
 
     final KTable filteredKTable = ktable.filter(predicate.getPredicate());
+    if (compareWithPrevious) {
+      enableSendingOldValues(filteredKTable);
+    }
+
     return new SchemaKTable<>(
         filteredKTable,
         schema,
@@ -155,10 +255,31 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
         Type.FILTER,
         ksqlConfig,
         functionRegistry,
-        contextStacker.getQueryContext()
+        streamsFactories,
+        contextStacker.getQueryContext(),
+        materialization.map(info -> info.filter(predicate.getPredicate()))
     );
   }
 
+  /**
+   * Send the filter the previous value of each update, so that it drops updates where
+   * neither the previous nor the new value match, which the upstream aggregation then also sends.
+   *
+   * <p>The public {@link KTable} interface has no way to ask for previous values, so this is the
+   * one place that depends on the internal {@link KTableImpl} of Kafka Streams. Should a future
+   * version of Streams build the table differently, the query fails to build rather than silently
+   * sending repeated tombstones again.
+   */
+  private static void enableSendingOldValues(final KTable<?, ?> filtered) {
+    if (!(filtered instanceof KTableImpl)) {
+      throw new KsqlException("Can not compare aggregates with their previous value, as the "
+          + "filtered table does not support sending old values: "
+          + filtered.getClass().getName());
+    }
+
+    ((KTableImpl<?, ?, ?>) filtered).enableSendingOldValues();
+  }
+
   @Override
   public SchemaKTable<K> select(
       final List<SelectExpression> selectExpressions,
@@ -179,7 +300,9 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
         Type.PROJECT,
         ksqlConfig,
         functionRegistry,
-        contextStacker.getQueryContext()
+        streamsFactories,
+        contextStacker.getQueryContext(),
+        materialization.map(info -> info.map(selection.getSelectValueMapper()))
     );
   }
 
@@ -193,6 +316,7 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
     return ktable;
   }
 
+  @SuppressWarnings("unchecked")
   @Override
   public SchemaKGroupedStream groupBy(
       final Serde<GenericRow> valSerde,
@@ -212,7 +336,9 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
             valSerde
         );
 
-    final KGroupedTable kgroupedTable = ktable
+    final KTable<K, GenericRow> table = getKtable();
+
+    final KGroupedTable kgroupedTable = table
         .filter((key, value) -> value != null)
         .groupBy(
             (key, value) -> new KeyValue<>(groupBy.mapper.apply(key, value), value),
@@ -242,7 +368,7 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
       final KeyField keyField,
       final QueryContext.Stacker contextStacker
   ) {
-    final KTable<K, GenericRow> joinedKTable = ktable.join(
+    final KTable<K, GenericRow> joinedKTable = getKtable().join(
         schemaKTable.getKtable(),
         new KsqlValueJoiner(this.getSchema(), schemaKTable.getSchema())
     );
@@ -268,7 +394,7 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
       final QueryContext.Stacker contextStacker
   ) {
     final KTable<K, GenericRow> joinedKTable =
-        ktable.leftJoin(
+        getKtable().leftJoin(
             schemaKTable.getKtable(),
             new KsqlValueJoiner(this.getSchema(), schemaKTable.getSchema())
         );
@@ -294,7 +420,7 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
       final QueryContext.Stacker contextStacker
   ) {
     final KTable<K, GenericRow> joinedKTable =
-        ktable.outerJoin(
+        getKtable().outerJoin(
             schemaKTable.getKtable(),
             new KsqlValueJoiner(this.getSchema(), schemaKTable.getSchema())
         );
@@ -66,17 +66,15 @@ class SelectValueMapper implements ValueMapper<GenericRow, GenericRow> {
     try {
       return select.evaluator.evaluate(row);
     } catch (final Exception e) {
-      final String errorMsg = String.format(
-          "Error computing expression %s for column %s with index %d: %s",
-          select.evaluator.getExpression(),
-          select.fieldName,
-          column,
-          e.getMessage()
-      );
-
       processingLogger.error(
           EngineProcessingLogMessageFactory.recordProcessingError(
-              errorMsg,
+              () -> String.format(
+                  "Error computing expression %s for column %s with index %d: %s",
+                  select.evaluator.getExpression(),
+                  select.fieldName,
+                  column,
+                  e.getMessage()
+              ),
               e,
               row
           )
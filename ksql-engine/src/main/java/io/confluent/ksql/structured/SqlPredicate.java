@@ -144,7 +144,7 @@ class SqlPredicate {
   private void logProcessingError(final Exception e, final GenericRow row) {
     processingLogger.error(
         EngineProcessingLogMessageFactory.recordProcessingError(
-            String.format(
+            () -> String.format(
                 "Error evaluating predicate %s: %s",
                 filterExpression,
                 e.getMessage()
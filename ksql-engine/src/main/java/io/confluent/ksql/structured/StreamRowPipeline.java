@@ -0,0 +1,197 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.structured;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.context.QueryContext;
+import io.confluent.ksql.execution.context.QueryLoggerUtil;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.plan.SelectExpression;
+import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.logging.processing.ProcessingLogContext;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.structured.SchemaKStream.Type;
+import io.confluent.ksql.structured.SelectValueMapper.SelectInfo;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.List;
+import java.util.function.BiFunction;
+import org.apache.kafka.streams.kstream.ForeachAction;
+import org.apache.kafka.streams.kstream.Predicate;
+
+/**
+ * The filter and projection steps of a stream query, applied to rows outside of a Kafka Streams
+ * topology.
+ *
+ * <p>This allows many queries to attach to a single topology that consumes and deserializes a
+ * source, with each query applying its own steps to the rows the source produces. The steps are
+ * compiled exactly as {@link SchemaKStream#filter} and {@link SchemaKStream#select} would.
+ */
+public final class StreamRowPipeline {
+
+  /**
+   * Returned by a step to drop the row. Null rows, i.e. tombstones, pass through steps that do
+   * not filter them out, just as they do in the topology.
+   */
+  private static final GenericRow DROPPED = new GenericRow();
+
+  private final LogicalSchema schema;
+  private final KsqlConfig ksqlConfig;
+  private final FunctionRegistry functionRegistry;
+  private final ImmutableList<BiFunction<Object, GenericRow, GenericRow>> steps;
+
+  public static StreamRowPipeline of(
+      final LogicalSchema sourceSchema,
+      final KsqlConfig ksqlConfig,
+      final FunctionRegistry functionRegistry
+  ) {
+    return new StreamRowPipeline(sourceSchema, ksqlConfig, functionRegistry, ImmutableList.of());
+  }
+
+  private StreamRowPipeline(
+      final LogicalSchema schema,
+      final KsqlConfig ksqlConfig,
+      final FunctionRegistry functionRegistry,
+      final ImmutableList<BiFunction<Object, GenericRow, GenericRow>> steps
+  ) {
+    this.schema = requireNonNull(schema, "schema");
+    this.ksqlConfig = requireNonNull(ksqlConfig, "ksqlConfig");
+    this.functionRegistry = requireNonNull(functionRegistry, "functionRegistry");
+    this.steps = requireNonNull(steps, "steps");
+  }
+
+  public LogicalSchema getSchema() {
+    return schema;
+  }
+
+  public StreamRowPipeline filter(
+      final Expression filterExpression,
+      final QueryContext.Stacker contextStacker,
+      final ProcessingLogContext processingLogContext
+  ) {
+    final Predicate<Object, GenericRow> predicate = new SqlPredicate(
+        filterExpression,
+        schema,
+        ksqlConfig,
+        functionRegistry,
+        buildLogger(Type.FILTER, contextStacker, processingLogContext)
+    ).getPredicate();
+
+    return new StreamRowPipeline(
+        schema,
+        ksqlConfig,
+        functionRegistry,
+        withStep((key, row) -> predicate.test(key, row) ? row : DROPPED)
+    );
+  }
+
+  public StreamRowPipeline select(
+      final List<SelectExpression> selectExpressions,
+      final QueryContext.Stacker contextStacker,
+      final ProcessingLogContext processingLogContext
+  ) {
+    final SelectValueMapper mapper = SelectValueMapperFactory.create(
+        selectExpressions,
+        schema,
+        ksqlConfig,
+        functionRegistry,
+        buildLogger(Type.PROJECT, contextStacker, processingLogContext)
+    );
+
+    return new StreamRowPipeline(
+        buildSchema(mapper),
+        ksqlConfig,
+        functionRegistry,
+        withStep((key, row) -> mapper.apply(row))
+    );
+  }
+
+  /**
+   * Build an action that applies the pipeline to each row and passes those rows that survive it
+   * on to {@code downstream}.
+   *
+   * @param downstream the action to pass the resulting rows to.
+   * @param <K> the key type.
+   * @return the action.
+   * @see #apply
+   */
+  public <K> ForeachAction<K, GenericRow> into(final ForeachAction<K, GenericRow> downstream) {
+    requireNonNull(downstream, "downstream");
+
+    return (key, row) -> apply(key, row, downstream);
+  }
+
+  /**
+   * Apply the pipeline to a row, passing the result on to {@code downstream} if it survives.
+   *
+   * <p>As in the topology, null rows that are not filtered out are passed on as null.
+   *
+   * @param key the key of the row.
+   * @param row the row.
+   * @param downstream the action to pass the result to.
+   * @param <K> the key type.
+   */
+  public <K> void apply(
+      final K key,
+      final GenericRow row,
+      final ForeachAction<K, GenericRow> downstream
+  ) {
+    GenericRow result = row;
+    for (final BiFunction<Object, GenericRow, GenericRow> step : steps) {
+      result = step.apply(key, result);
+      if (result == DROPPED) {
+        return;
+      }
+    }
+
+    downstream.apply(key, result);
+  }
+
+  private ImmutableList<BiFunction<Object, GenericRow, GenericRow>> withStep(
+      final BiFunction<Object, GenericRow, GenericRow> step
+  ) {
+    return ImmutableList.<BiFunction<Object, GenericRow, GenericRow>>builder()
+        .addAll(steps)
+        .add(step)
+        .build();
+  }
+
+  private LogicalSchema buildSchema(final SelectValueMapper mapper) {
+    final LogicalSchema.Builder schemaBuilder = LogicalSchema.builder();
+
+    schemaBuilder.keyFields(schema.isAliased()
+        ? schema.withoutAlias().keyFields()
+        : schema.keyFields());
+
+    for (final SelectInfo select : mapper.getSelects()) {
+      schemaBuilder.valueField(select.getFieldName(), select.getExpressionType());
+    }
+
+    return schemaBuilder.build();
+  }
+
+  private static ProcessingLogger buildLogger(
+      final Type type,
+      final QueryContext.Stacker contextStacker,
+      final ProcessingLogContext processingLogContext
+  ) {
+    return processingLogContext.getLoggerFactory().getLogger(
+        QueryLoggerUtil.queryLoggerName(contextStacker.push(type.name()).getQueryContext()));
+  }
+}
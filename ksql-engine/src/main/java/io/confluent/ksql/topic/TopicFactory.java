@@ -45,7 +45,9 @@ public final class TopicFactory {
 
     final ValueFormat valueFormat = ValueFormat.of(FormatInfo.of(
         properties.getValueFormat(),
-        properties.getValueAvroSchemaName()
+        properties.getValueAvroSchemaName(),
+        properties.getValueDelimiter(),
+        properties.getValueQuote()
     ));
 
     return new KsqlTopic(
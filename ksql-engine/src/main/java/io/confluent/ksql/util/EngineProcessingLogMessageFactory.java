@@ -22,6 +22,7 @@ import io.confluent.ksql.logging.processing.ProcessingLogMessageSchema;
 import io.confluent.ksql.logging.processing.ProcessingLogMessageSchema.MessageType;
 import java.util.List;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import org.apache.kafka.connect.data.SchemaAndValue;
 import org.apache.kafka.connect.data.Struct;
 import org.slf4j.Logger;
@@ -38,6 +39,25 @@ public final class EngineProcessingLogMessageFactory {
       final String errorMsg,
       final Throwable exception,
       final GenericRow record
+  ) {
+    return recordProcessingError(() -> errorMsg, exception, record);
+  }
+
+  /**
+   * Build a record processing error message.
+   *
+   * <p>Nothing is formatted until the returned function is applied, which the processing logger
+   * only does if the message is actually logged.
+   *
+   * @param errorMsg supplies the error message.
+   * @param exception the exception.
+   * @param record the record being processed, if any.
+   * @return the message factory.
+   */
+  public static Function<ProcessingLogConfig, SchemaAndValue> recordProcessingError(
+      final Supplier<String> errorMsg,
+      final Throwable exception,
+      final GenericRow record
   ) {
     return (config) -> {
       final Struct struct = new Struct(ProcessingLogMessageSchema.PROCESSING_LOG_SCHEMA);
@@ -47,7 +67,7 @@ public final class EngineProcessingLogMessageFactory {
       struct.put(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR, recordProcessingError);
       recordProcessingError.put(
           ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR_FIELD_MESSAGE,
-          errorMsg);
+          errorMsg.get());
       final List<String> cause = ErrorMessageUtil.getErrorMessages(exception);
       cause.remove(0);
       recordProcessingError.put(
@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import org.apache.kafka.common.TopicPartition;
@@ -29,6 +30,23 @@ public interface KafkaConsumerGroupClient {
 
   ConsumerGroupSummary describeConsumerGroup(String group);
 
+  /**
+   * Describe several consumer groups with a single request to the cluster.
+   *
+   * @param groups the ids of the groups to describe.
+   * @return the summary of each group, keyed by group id.
+   */
+  Map<String, ConsumerGroupSummary> describeConsumerGroups(Collection<String> groups);
+
+  /**
+   * Delete several consumer groups, including their committed offsets.
+   *
+   * <p>A group can only be deleted once it has no active members.
+   *
+   * @param groups the ids of the groups to delete.
+   */
+  void deleteConsumerGroups(Collection<String> groups);
+
   /**
    * API POJOs
    */
@@ -17,6 +17,7 @@ package io.confluent.ksql.util;
 
 import io.confluent.ksql.exception.KafkaResponseGetFailedException;
 import io.confluent.ksql.util.ExecutorUtil.RetryBehaviour;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -47,30 +48,61 @@ public class KafkaConsumerGroupClientImpl implements KafkaConsumerGroupClient {
     }
   }
 
+  @Override
   public ConsumerGroupSummary describeConsumerGroup(final String group) {
+    return describeConsumerGroups(Collections.singleton(group))
+        .getOrDefault(group, new ConsumerGroupSummary(Collections.emptySet()));
+  }
+
+  @Override
+  public Map<String, ConsumerGroupSummary> describeConsumerGroups(
+      final Collection<String> groups
+  ) {
+    if (groups.isEmpty()) {
+      return Collections.emptyMap();
+    }
 
     try {
-      final Map<String, ConsumerGroupDescription> groups = ExecutorUtil
+      final Map<String, ConsumerGroupDescription> descriptions = ExecutorUtil
           .executeWithRetries(
-              () -> adminClient.describeConsumerGroups(Collections.singleton(group)).all().get(),
+              () -> adminClient.describeConsumerGroups(groups).all().get(),
               RetryBehaviour.ON_RETRYABLE);
 
-      final Set<ConsumerSummary> results = groups
-          .values()
+      return descriptions.values()
           .stream()
-          .flatMap(g ->
-              g.members()
-                  .stream()
-                  .map(member -> {
-                    final ConsumerSummary summary = new ConsumerSummary(member.consumerId());
-                    summary.addPartitions(member.assignment().topicPartitions());
-                    return summary;
-                  })).collect(Collectors.toSet());
-
-      return new ConsumerGroupSummary(results);
+          .collect(Collectors.toMap(
+              ConsumerGroupDescription::groupId,
+              KafkaConsumerGroupClientImpl::toSummary));
 
     } catch (final Exception e) {
       throw new KafkaResponseGetFailedException("Failed to describe Kafka consumer groups", e);
     }
   }
+
+  @Override
+  public void deleteConsumerGroups(final Collection<String> groups) {
+    if (groups.isEmpty()) {
+      return;
+    }
+
+    try {
+      ExecutorUtil.executeWithRetries(
+          () -> adminClient.deleteConsumerGroups(groups).all().get(),
+          RetryBehaviour.ON_RETRYABLE);
+    } catch (final Exception e) {
+      throw new KafkaResponseGetFailedException("Failed to delete Kafka consumer groups", e);
+    }
+  }
+
+  private static ConsumerGroupSummary toSummary(final ConsumerGroupDescription description) {
+    final Set<ConsumerSummary> results = description.members()
+        .stream()
+        .map(member -> {
+          final ConsumerSummary summary = new ConsumerSummary(member.consumerId());
+          summary.addPartitions(member.assignment().topicPartitions());
+          return summary;
+        }).collect(Collectors.toSet());
+
+    return new ConsumerGroupSummary(results);
+  }
 }
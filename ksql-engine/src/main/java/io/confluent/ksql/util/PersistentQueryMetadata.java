@@ -17,6 +17,7 @@ package io.confluent.ksql.util;
 
 import static java.util.Objects.requireNonNull;
 
+import io.confluent.ksql.materialization.Materialization;
 import io.confluent.ksql.metastore.model.DataSource.DataSourceType;
 import io.confluent.ksql.metastore.model.KsqlTopic;
 import io.confluent.ksql.query.QueryId;
@@ -24,6 +25,7 @@ import io.confluent.ksql.schema.ksql.PhysicalSchema;
 import io.confluent.ksql.serde.Format;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
 import org.apache.kafka.streams.KafkaStreams;
@@ -39,6 +41,7 @@ public class PersistentQueryMetadata extends QueryMetadata {
   private final String sinkName;
   private final QuerySchemas schemas;
   private final PhysicalSchema resultSchema;
+  private final Optional<Materialization> materialization;
 
   // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
   public PersistentQueryMetadata(
@@ -57,6 +60,44 @@ public class PersistentQueryMetadata extends QueryMetadata {
       final Map<String, Object> streamsProperties,
       final Map<String, Object> overriddenProperties,
       final Consumer<QueryMetadata> closeCallback
+  ) {
+    this(
+        statementString,
+        kafkaStreams,
+        schema,
+        sourceNames,
+        sinkName,
+        executionPlan,
+        id,
+        dataSourceType,
+        queryApplicationId,
+        resultTopic,
+        topology,
+        schemas,
+        streamsProperties,
+        overriddenProperties,
+        closeCallback,
+        Optional.empty()
+    );
+  }
+
+  public PersistentQueryMetadata(
+      final String statementString,
+      final KafkaStreams kafkaStreams,
+      final PhysicalSchema schema,
+      final Set<String> sourceNames,
+      final String sinkName,
+      final String executionPlan,
+      final QueryId id,
+      final DataSourceType dataSourceType,
+      final String queryApplicationId,
+      final KsqlTopic resultTopic,
+      final Topology topology,
+      final QuerySchemas schemas,
+      final Map<String, Object> streamsProperties,
+      final Map<String, Object> overriddenProperties,
+      final Consumer<QueryMetadata> closeCallback,
+      final Optional<Materialization> materialization
   ) {
     // CHECKSTYLE_RULES.ON: ParameterNumberCheck
     super(
@@ -77,9 +118,10 @@ public class PersistentQueryMetadata extends QueryMetadata {
     this.sinkName = Objects.requireNonNull(sinkName, "sinkName");
     this.schemas = requireNonNull(schemas, "schemas");
     this.resultSchema = requireNonNull(schema, "schema");
+    this.materialization = requireNonNull(materialization, "materialization");
   }
 
-  private PersistentQueryMetadata(
+  protected PersistentQueryMetadata(
       final PersistentQueryMetadata other,
       final Consumer<QueryMetadata> closeCallback
   ) {
@@ -89,6 +131,7 @@ public class PersistentQueryMetadata extends QueryMetadata {
     this.sinkName = other.sinkName;
     this.schemas = other.schemas;
     this.resultSchema = other.resultSchema;
+    this.materialization = other.materialization;
   }
 
   public PersistentQueryMetadata copyWith(final Consumer<QueryMetadata> closeCallback) {
@@ -118,4 +161,11 @@ public class PersistentQueryMetadata extends QueryMetadata {
   public PhysicalSchema getPhysicalSchema() {
     return resultSchema;
   }
+
+  /**
+   * @return access to the table the query materializes, if it can be queried.
+   */
+  public Optional<Materialization> getMaterialization() {
+    return materialization;
+  }
 }
@@ -149,9 +149,7 @@ public class QueryMetadata {
   }
 
   public void close() {
-    kafkaStreams.close();
-
-    kafkaStreams.cleanUp();
+    closeKafkaStreams();
 
     queryStateListener.ifPresent(QueryStateListener::close);
 
@@ -161,10 +159,30 @@ public class QueryMetadata {
   public void start() {
     LOG.info("Starting query with application id: {}", queryApplicationId);
     everStarted = true;
+    startKafkaStreams();
+  }
+
+  /**
+   * Start the Kafka Streams app running the query.
+   *
+   * <p>Overridden by queries that do not own their app, i.e. share it with other queries.
+   */
+  protected void startKafkaStreams() {
     queryStateListener.ifPresent(kafkaStreams::setStateListener);
     kafkaStreams.start();
   }
 
+  /**
+   * Close the Kafka Streams app running the query.
+   *
+   * <p>Overridden by queries that do not own their app, i.e. share it with other queries.
+   */
+  protected void closeKafkaStreams() {
+    kafkaStreams.close();
+
+    kafkaStreams.cleanUp();
+  }
+
   public String getTopologyDescription() {
     return topology.describe().toString();
   }
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.util;
+
+import java.util.Objects;
+import java.util.Optional;
+import org.apache.kafka.streams.kstream.Window;
+import org.apache.kafka.streams.kstream.Windowed;
+
+/**
+ * The key of a row output by a transient query.
+ *
+ * <p>The key, and the bounds of its window if any, are held as is, and only rendered as a string
+ * by {@link #toString()}, so that queuing a row does not format a key that is usually ignored.
+ */
+public final class TransientQueryKey {
+
+  private final Object key;
+  private final Optional<Window> window;
+
+  /**
+   * @param key the key output by the query, which may be {@link Windowed}.
+   * @return the key of the row.
+   */
+  public static TransientQueryKey of(final Object key) {
+    if (key instanceof Windowed) {
+      final Windowed<?> windowed = (Windowed<?>) key;
+      return new TransientQueryKey(windowed.key(), Optional.of(windowed.window()));
+    }
+
+    return new TransientQueryKey(key, Optional.empty());
+  }
+
+  private TransientQueryKey(final Object key, final Optional<Window> window) {
+    this.key = key;
+    this.window = Objects.requireNonNull(window, "window");
+  }
+
+  /**
+   * @return the key, excluding any window.
+   */
+  public Object getKey() {
+    return key;
+  }
+
+  /**
+   * @return the window of the key, whose bounds are in epoch milliseconds, if windowed.
+   */
+  public Optional<Window> getWindow() {
+    return window;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final TransientQueryKey that = (TransientQueryKey) o;
+    return Objects.equals(key, that.key)
+        && Objects.equals(window, that.window);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(key, window);
+  }
+
+  @Override
+  public String toString() {
+    return window
+        .map(w -> key + " : " + w)
+        .orElseGet(() -> Objects.toString(key));
+  }
+}
@@ -34,9 +34,10 @@ import org.apache.kafka.streams.Topology;
  */
 public class TransientQueryMetadata extends QueryMetadata {
 
-  private final BlockingQueue<KeyValue<String, GenericRow>> rowQueue;
+  private final BlockingQueue<KeyValue<TransientQueryKey, GenericRow>> rowQueue;
   private final AtomicBoolean isRunning = new AtomicBoolean(true);
   private final Consumer<LimitHandler> limitHandlerSetter;
+  private final Consumer<Runnable> queuedHandlerSetter;
 
   // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
   public TransientQueryMetadata(
@@ -45,8 +46,9 @@ public class TransientQueryMetadata extends QueryMetadata {
       final LogicalSchema logicalSchema,
       final Set<String> sourceNames,
       final Consumer<LimitHandler> limitHandlerSetter,
+      final Consumer<Runnable> queuedHandlerSetter,
       final String executionPlan,
-      final BlockingQueue<KeyValue<String, GenericRow>> rowQueue,
+      final BlockingQueue<KeyValue<TransientQueryKey, GenericRow>> rowQueue,
       final DataSourceType dataSourceType,
       final String queryApplicationId,
       final Topology topology,
@@ -68,6 +70,7 @@ public class TransientQueryMetadata extends QueryMetadata {
         closeCallback
     );
     this.limitHandlerSetter = Objects.requireNonNull(limitHandlerSetter, "limitHandlerSetter");
+    this.queuedHandlerSetter = Objects.requireNonNull(queuedHandlerSetter, "queuedHandlerSetter");
     this.rowQueue = Objects.requireNonNull(rowQueue, "rowQueue");
   }
 
@@ -75,7 +78,7 @@ public class TransientQueryMetadata extends QueryMetadata {
     return isRunning.get();
   }
 
-  public BlockingQueue<KeyValue<String, GenericRow>> getRowQueue() {
+  public BlockingQueue<KeyValue<TransientQueryKey, GenericRow>> getRowQueue() {
     return rowQueue;
   }
 
@@ -99,6 +102,17 @@ public class TransientQueryMetadata extends QueryMetadata {
     limitHandlerSetter.accept(limitHandler);
   }
 
+  /**
+   * Set a handler to be called each time a row is added to the {@link #getRowQueue() row queue}.
+   *
+   * <p>The handler is called on a stream thread, so should not block.
+   *
+   * @param queuedHandler the handler.
+   */
+  public void setQueuedHandler(final Runnable queuedHandler) {
+    queuedHandlerSetter.accept(queuedHandler);
+  }
+
   @Override
   public void close() {
     super.close();
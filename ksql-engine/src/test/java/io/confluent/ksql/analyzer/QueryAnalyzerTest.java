@@ -46,6 +46,7 @@ import io.confluent.ksql.parser.tree.CreateStreamAsSelect;
 import io.confluent.ksql.parser.tree.CreateTableAsSelect;
 import io.confluent.ksql.parser.tree.InsertInto;
 import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.parser.tree.ResultMaterialization;
 import io.confluent.ksql.parser.tree.Sink;
 import io.confluent.ksql.serde.Format;
 import io.confluent.ksql.serde.SerdeOption;
@@ -184,6 +185,48 @@ public class QueryAnalyzerTest {
     assertThat(aggregateAnalysis.getRequiredColumns(), containsInAnyOrder(ITEM_ID, ORDER_UNITS));
   }
 
+  @Test
+  public void shouldAnalyseEmitFinal() {
+    // Given:
+    final Query query = givenQuery(
+        "select itemid, sum(orderunits) from orders "
+            + "window TUMBLING (size 30 second, grace period 5 seconds) "
+            + "group by itemid emit final;");
+
+    // When:
+    final Analysis analysis = queryAnalyzer.analyze(query, Optional.empty());
+
+    // Then:
+    assertThat(analysis.getResultMaterialization(), is(ResultMaterialization.FINAL));
+  }
+
+  @Test
+  public void shouldThrowOnEmitFinalWithoutGracePeriod() {
+    // Given:
+    final Query query = givenQuery(
+        "select itemid, sum(orderunits) from orders window TUMBLING ( size 30 second) "
+            + "group by itemid emit final;");
+
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("EMIT FINAL requires the window to have a GRACE PERIOD");
+
+    // When:
+    queryAnalyzer.analyze(query, Optional.empty());
+  }
+
+  @Test
+  public void shouldThrowOnEmitFinalIfNotWindowed() {
+    // Given:
+    final Query query = givenQuery(
+        "select itemid, sum(orderunits) from orders group by itemid emit final;");
+
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("EMIT FINAL is only supported for windowed aggregations.");
+
+    // When:
+    queryAnalyzer.analyze(query, Optional.empty());
+  }
+
   @Test
   public void shouldThrowIfAggregateAnalysisDoesNotHaveGroupBy() {
     // Given:
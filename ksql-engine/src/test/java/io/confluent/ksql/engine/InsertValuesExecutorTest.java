@@ -33,6 +33,7 @@ import io.confluent.ksql.execution.expression.tree.DoubleLiteral;
 import io.confluent.ksql.execution.expression.tree.Expression;
 import io.confluent.ksql.execution.expression.tree.IntegerLiteral;
 import io.confluent.ksql.execution.expression.tree.LongLiteral;
+import io.confluent.ksql.execution.expression.tree.NullLiteral;
 import io.confluent.ksql.execution.expression.tree.QualifiedName;
 import io.confluent.ksql.execution.expression.tree.StringLiteral;
 import io.confluent.ksql.function.TestFunctionRegistry;
@@ -577,6 +578,30 @@ public class InsertValuesExecutorTest {
     executor.execute(statement, engine, serviceContext);
   }
 
+  @Test
+  public void shouldThrowIfParametersAreNotBound() {
+    // Given:
+    final ConfiguredStatement<InsertValues> statement = ConfiguredStatement.of(
+        PreparedStatement.of(
+            "",
+            new InsertValues(
+                Optional.empty(),
+                QualifiedName.of("TOPIC"),
+                ImmutableList.of(),
+                ImmutableList.of(new NullLiteral()),
+                ImmutableList.of(0))),
+        ImmutableMap.of(),
+        new KsqlConfig(ImmutableMap.of())
+    );
+
+    // Expect:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("as the statement has parameters with no values");
+
+    // When:
+    executor.execute(statement, engine, serviceContext);
+  }
+
   @Test
   public void shouldFailOnDowncast() {
     // Given:
@@ -521,6 +521,28 @@ public class KsqlEngineTest {
     assertThat(ksqlEngine.numberOfLiveQueries(), is(startingLiveQueries));
   }
 
+  @Test
+  public void shouldCountOnlyTransientQueries() {
+    // Given:
+    KsqlEngineTestUtil.execute(ksqlEngine,
+        "create stream s1 with (value_format = 'avro') as select * from test1;",
+        KSQL_CONFIG, Collections.emptyMap());
+
+    // When:
+    final QueryMetadata query = KsqlEngineTestUtil.execute(ksqlEngine,
+        "select * from test1;",
+        KSQL_CONFIG, Collections.emptyMap()).get(0);
+
+    // Then:
+    assertThat(ksqlEngine.numberOfTransientQueries(), is(1));
+
+    // When:
+    query.close();
+
+    // Then:
+    assertThat(ksqlEngine.numberOfTransientQueries(), is(0));
+  }
+
   @SuppressWarnings("unchecked")
   @Test
   public void shouldHandleMultipleStatements() {
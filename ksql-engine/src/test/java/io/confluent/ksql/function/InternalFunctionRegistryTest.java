@@ -380,7 +380,8 @@ public class InternalFunctionRegistryTest {
   @Test
   public void shouldHaveBuiltInUDAFRegistered() {
     Collection<String> builtInUDAF = Arrays.asList(
-        "COUNT", "SUM", "MAX", "MIN", "TOPK", "TOPKDISTINCT"
+        "COUNT", "COUNT_DISTINCT", "SUM", "MAX", "MIN", "PERCENTILE_APPROX",
+        "PERCENTILES_APPROX", "TOPK", "TOPKDISTINCT"
     );
 
     Collection<String> names = Collections2.transform(functionRegistry.listAggregateFunctions(),
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Function;
+import org.apache.kafka.connect.data.Schema;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@SuppressWarnings("unchecked")
+@RunWith(MockitoJUnitRunner.class)
+public class KudafResultMapperTest {
+
+  @Mock
+  private KsqlAggregateFunction mappedFunc;
+  @Mock
+  private KsqlAggregateFunction otherFunc;
+
+  @Test
+  public void shouldNotHaveMappingsIfAggregateTypesMatchReturnTypes() {
+    // Given:
+    givenOtherFunc();
+
+    // Then:
+    assertThat(new KudafResultMapper(ImmutableMap.of(1, otherFunc)).hasMappings(), is(false));
+  }
+
+  @Test
+  public void shouldHaveMappingsIfAggregateTypeDiffersFromReturnType() {
+    // Given:
+    givenMappedFunc(Function.identity());
+
+    // Then:
+    assertThat(new KudafResultMapper(ImmutableMap.of(1, mappedFunc)).hasMappings(), is(true));
+  }
+
+  @Test
+  public void shouldMapAggregatesToResultsWithoutModifyingAggregateRow() {
+    // Given:
+    givenOtherFunc();
+    givenMappedFunc((Function<String, Long>) s -> (long) s.length());
+    final KudafResultMapper mapper = new KudafResultMapper(ImmutableMap.of(
+        1, otherFunc, 2, mappedFunc));
+    final GenericRow aggRow = new GenericRow(new ArrayList<>(Arrays.asList("key", 10L, "abc")));
+
+    // When:
+    final GenericRow result = mapper.apply(aggRow);
+
+    // Then:
+    assertThat(result, is(new GenericRow(Arrays.asList("key", 10L, 3L))));
+    assertThat(aggRow, is(new GenericRow(Arrays.asList("key", 10L, "abc"))));
+  }
+
+  private void givenOtherFunc() {
+    when(otherFunc.getAggregateType()).thenReturn(Schema.OPTIONAL_INT64_SCHEMA);
+    when(otherFunc.getReturnType()).thenReturn(Schema.OPTIONAL_INT64_SCHEMA);
+  }
+
+  private void givenMappedFunc(final Function<?, ?> resultMapper) {
+    when(mappedFunc.getAggregateType()).thenReturn(Schema.OPTIONAL_STRING_SCHEMA);
+    when(mappedFunc.getReturnType()).thenReturn(Schema.OPTIONAL_INT64_SCHEMA);
+    when(mappedFunc.getResultMapper()).thenReturn((Function) resultMapper);
+  }
+}
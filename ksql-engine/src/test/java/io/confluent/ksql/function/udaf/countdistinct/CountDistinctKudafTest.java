@@ -0,0 +1,206 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.countdistinct;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.function.AggregateFunctionArguments;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.util.KsqlException;
+import java.util.Collections;
+import org.apache.kafka.connect.data.Schema;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class CountDistinctKudafTest {
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  @Test
+  public void shouldReturnBigintButAggregateSketch() {
+    // When:
+    final CountDistinctKudaf countDistinct = getCountDistinctKudaf(Schema.OPTIONAL_STRING_SCHEMA);
+
+    // Then:
+    assertThat(countDistinct.getReturnType(), is(Schema.OPTIONAL_INT64_SCHEMA));
+    assertThat(countDistinct.getAggregateType(), is(Schema.OPTIONAL_STRING_SCHEMA));
+  }
+
+  @Test
+  public void shouldCountSmallNumberOfDistinctValuesExactly() {
+    // Given:
+    final CountDistinctKudaf countDistinct = getCountDistinctKudaf(Schema.OPTIONAL_STRING_SCHEMA);
+    String sketch = countDistinct.getInitialValueSupplier().get();
+
+    // When:
+    for (final String value : ImmutableList.of("a", "b", "c", "a", "b")) {
+      sketch = countDistinct.aggregate(value, sketch);
+    }
+
+    // Then:
+    assertThat(countDistinct.getResultMapper().apply(sketch), is(3L));
+  }
+
+  @Test
+  public void shouldCountZeroForEmptySketch() {
+    // Given:
+    final CountDistinctKudaf countDistinct = getCountDistinctKudaf(Schema.OPTIONAL_INT64_SCHEMA);
+
+    // When:
+    final Long count = countDistinct.getResultMapper()
+        .apply(countDistinct.getInitialValueSupplier().get());
+
+    // Then:
+    assertThat(count, is(0L));
+  }
+
+  @Test
+  public void shouldIgnoreNulls() {
+    // Given:
+    final CountDistinctKudaf countDistinct = getCountDistinctKudaf(Schema.OPTIONAL_INT64_SCHEMA);
+    final String sketch = countDistinct.getInitialValueSupplier().get();
+
+    // When:
+    final String result = countDistinct.aggregate(null, sketch);
+
+    // Then:
+    assertThat(result, is(sameInstance(sketch)));
+  }
+
+  @Test
+  public void shouldNotCopySketchIfNoRegisterChanges() {
+    // Given:
+    final CountDistinctKudaf countDistinct = getCountDistinctKudaf(Schema.OPTIONAL_INT64_SCHEMA);
+    final String sketch =
+        countDistinct.aggregate(10L, countDistinct.getInitialValueSupplier().get());
+
+    // When:
+    final String result = countDistinct.aggregate(10L, sketch);
+
+    // Then:
+    assertThat(result, is(sameInstance(sketch)));
+  }
+
+  @Test
+  public void shouldEstimateLargeNumberOfDistinctValuesWithinErrorBounds() {
+    // Given:
+    final CountDistinctKudaf countDistinct = getCountDistinctKudaf(Schema.OPTIONAL_INT64_SCHEMA);
+    String sketch = countDistinct.getInitialValueSupplier().get();
+
+    // When:
+    for (long i = 0; i < 100_000; i++) {
+      sketch = countDistinct.aggregate(i, sketch);
+    }
+
+    // Then:
+    assertThat(sketch.length(), is(4096));
+    assertThat((double) countDistinct.getResultMapper().apply(sketch),
+        is(closeTo(100_000, 5_000)));
+  }
+
+  @Test
+  public void shouldMergeSketchesToSketchOfUnion() {
+    // Given:
+    final CountDistinctKudaf countDistinct = getCountDistinctKudaf(Schema.OPTIONAL_INT64_SCHEMA);
+    String sketch1 = countDistinct.getInitialValueSupplier().get();
+    String sketch2 = countDistinct.getInitialValueSupplier().get();
+    String union = countDistinct.getInitialValueSupplier().get();
+
+    for (long i = 0; i < 5_000; i++) {
+      sketch1 = countDistinct.aggregate(i, sketch1);
+      union = countDistinct.aggregate(i, union);
+    }
+    for (long i = 2_500; i < 7_500; i++) {
+      sketch2 = countDistinct.aggregate(i, sketch2);
+      union = countDistinct.aggregate(i, union);
+    }
+
+    // When:
+    final String merged = countDistinct.getMerger().apply(null, sketch1, sketch2);
+
+    // Then:
+    assertThat(merged, is(union));
+    assertThat((double) countDistinct.getResultMapper().apply(merged),
+        is(closeTo(7_500, 375)));
+  }
+
+  @Test
+  public void shouldUsePrecisionArgument() {
+    // Given:
+    final CountDistinctKudaf countDistinct = getCountDistinctKudaf(Schema.OPTIONAL_INT64_SCHEMA);
+
+    // When:
+    final KsqlAggregateFunction<Object, String> instance = countDistinct.getInstance(
+        new AggregateFunctionArguments(1, ImmutableList.of("KSQL_INTERNAL_COL_1", "14")));
+
+    // Then:
+    assertThat(instance.getArgIndexInValue(), is(1));
+    assertThat(instance.getInitialValueSupplier().get().length(), is(16384));
+  }
+
+  @Test
+  public void shouldDefaultPrecision() {
+    // Given:
+    final CountDistinctKudaf countDistinct = getCountDistinctKudaf(Schema.OPTIONAL_INT64_SCHEMA);
+
+    // When:
+    final KsqlAggregateFunction<Object, String> instance = countDistinct.getInstance(
+        new AggregateFunctionArguments(1, ImmutableList.of("KSQL_INTERNAL_COL_1")));
+
+    // Then:
+    assertThat(((CountDistinctKudaf) instance).getPrecision(),
+        is(CountDistinctKudaf.DEFAULT_PRECISION));
+  }
+
+  @Test
+  public void shouldThrowOnPrecisionOutOfRange() {
+    // Given:
+    final CountDistinctKudaf countDistinct = getCountDistinctKudaf(Schema.OPTIONAL_INT64_SCHEMA);
+
+    // Then:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("HyperLogLog precision must be between 4 and 16, got: 20");
+
+    // When:
+    countDistinct.getInstance(
+        new AggregateFunctionArguments(1, ImmutableList.of("KSQL_INTERNAL_COL_1", "20")));
+  }
+
+  @Test
+  public void shouldThrowOnMergingSketchesOfDifferentPrecision() {
+    // Then:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage(
+        "Can not merge HyperLogLog sketches of different precision: 12 and 14");
+
+    // When:
+    HyperLogLog.merge(HyperLogLog.empty(12), HyperLogLog.empty(14));
+  }
+
+  private static CountDistinctKudaf getCountDistinctKudaf(final Schema argType) {
+    final KsqlAggregateFunction aggregateFunction = new CountDistinctAggFunctionFactory()
+        .getProperAggregateFunction(Collections.singletonList(argType));
+    assertThat(aggregateFunction, instanceOf(CountDistinctKudaf.class));
+    return (CountDistinctKudaf) aggregateFunction;
+  }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.multiset;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.function.AggregateFunctionArguments;
+import io.confluent.ksql.function.AggregateFunctionFactory;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.function.TableAggregationFunction;
+import io.confluent.ksql.function.udaf.max.MaxAggFunctionFactory;
+import io.confluent.ksql.function.udaf.min.MinAggFunctionFactory;
+import io.confluent.ksql.function.udaf.sum.SumAggFunctionFactory;
+import io.confluent.ksql.function.udaf.topk.TopKAggregateFunctionFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Test;
+
+public class UndoableAggregateFunctionsTest {
+
+  @Test
+  public void shouldComputeMaxAfterUndoingLargestValue() {
+    // Given:
+    final UndoableMultisetKudaf<Long> max = undoable(new MaxAggFunctionFactory());
+    final List<Struct> aggregate = aggregate(max, 10L, 30L, 20L, 30L);
+    max.undo(30L, aggregate);
+
+    // When:
+    max.undo(30L, aggregate);
+
+    // Then:
+    assertThat(max.getResultMapper().apply(aggregate), is(20L));
+  }
+
+  @Test
+  public void shouldComputeMinAfterUndoingSmallestValue() {
+    // Given:
+    final UndoableMultisetKudaf<Long> min = undoable(new MinAggFunctionFactory());
+    final List<Struct> aggregate = aggregate(min, 10L, 30L, 20L);
+
+    // When:
+    min.undo(10L, aggregate);
+
+    // Then:
+    assertThat(min.getResultMapper().apply(aggregate), is(20L));
+  }
+
+  @Test
+  public void shouldIgnoreNullsForMax() {
+    // Given:
+    final UndoableMultisetKudaf<Long> max = undoable(new MaxAggFunctionFactory());
+    final List<Struct> aggregate = aggregate(max, null, 10L);
+
+    // When:
+    max.undo(null, aggregate);
+
+    // Then:
+    assertThat(aggregate.size(), is(1));
+    assertThat(max.getResultMapper().apply(aggregate), is(10L));
+  }
+
+  @Test
+  public void shouldComputeNullMaxOnceAllValuesUndone() {
+    // Given:
+    final UndoableMultisetKudaf<Long> max = undoable(new MaxAggFunctionFactory());
+    final List<Struct> aggregate = aggregate(max, 10L);
+
+    // When:
+    max.undo(10L, aggregate);
+
+    // Then:
+    assertThat(aggregate, is(empty()));
+    assertThat(max.getResultMapper().apply(aggregate), is(nullValue()));
+  }
+
+  @Test
+  public void shouldComputeTopKIncludingDuplicates() {
+    // Given:
+    final UndoableMultisetKudaf<Long> topk = undoable(new TopKAggregateFunctionFactory(), "3");
+    final List<Struct> aggregate = aggregate(topk, 10L, 40L, 30L, 30L, 20L);
+
+    // When:
+    topk.undo(40L, aggregate);
+
+    // Then:
+    assertThat(topk.getResultMapper().apply(aggregate), is(ImmutableList.of(30L, 30L, 20L)));
+  }
+
+  @Test
+  public void shouldIgnoreUndoOfValueNotInAggregate() {
+    // Given:
+    final UndoableMultisetKudaf<Long> max = undoable(new MaxAggFunctionFactory());
+    final List<Struct> aggregate = aggregate(max, 10L);
+
+    // When:
+    max.undo(20L, aggregate);
+
+    // Then:
+    assertThat(max.getResultMapper().apply(aggregate), is(10L));
+  }
+
+  @Test
+  public void shouldMergeAggregates() {
+    // Given:
+    final UndoableMultisetKudaf<Long> topk = undoable(new TopKAggregateFunctionFactory(), "5");
+    final List<Struct> one = aggregate(topk, 10L, 30L);
+    final List<Struct> two = aggregate(topk, 20L, 30L, 40L);
+
+    // When:
+    final List<Struct> merged = topk.getMerger().apply(null, one, two);
+
+    // Then:
+    assertThat(topk.getResultMapper().apply(merged),
+        is(ImmutableList.of(40L, 30L, 30L, 20L, 10L)));
+  }
+
+  @Test
+  public void shouldHoldAggregateAsSortedCountedValues() {
+    // Given:
+    final UndoableMultisetKudaf<Long> max = undoable(new MaxAggFunctionFactory());
+
+    // When:
+    final List<Struct> aggregate = aggregate(max, 30L, 10L, 30L);
+
+    // Then:
+    final Schema expectedType = SchemaBuilder.array(
+        SchemaBuilder.struct()
+            .optional()
+            .field("VALUE", Schema.OPTIONAL_INT64_SCHEMA)
+            .field("COUNT", Schema.OPTIONAL_INT64_SCHEMA)
+            .build())
+        .optional()
+        .build();
+
+    assertThat(max.getAggregateType(), is(expectedType));
+    assertThat(max.getReturnType(), is(Schema.OPTIONAL_INT64_SCHEMA));
+    assertThat(aggregate, contains(
+        new Struct(expectedType.valueSchema()).put("VALUE", 10L).put("COUNT", 1L),
+        new Struct(expectedType.valueSchema()).put("VALUE", 30L).put("COUNT", 2L)
+    ));
+  }
+
+  @Test
+  public void shouldReturnTableAggregationFunction() {
+    assertThat(undoable(new MaxAggFunctionFactory()), instanceOf(TableAggregationFunction.class));
+  }
+
+  @Test
+  public void shouldNotReturnUndoableVersionOfFunctionsWithoutOne() {
+    // Given:
+    final AggregateFunctionArguments args = args();
+    final KsqlAggregateFunction<?, ?> sum = new SumAggFunctionFactory()
+        .getProperAggregateFunction(ImmutableList.of(Schema.OPTIONAL_INT64_SCHEMA))
+        .getInstance(args);
+
+    // When:
+    final Optional<KsqlAggregateFunction<?, ?>> result =
+        UndoableAggregateFunctions.forTableAggregation(sum, args);
+
+    // Then:
+    assertThat(result, is(Optional.empty()));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static UndoableMultisetKudaf<Long> undoable(
+      final AggregateFunctionFactory factory,
+      final String... extraArgs
+  ) {
+    final AggregateFunctionArguments args = args(extraArgs);
+    final KsqlAggregateFunction<?, ?> function = factory
+        .getProperAggregateFunction(ImmutableList.of(Schema.OPTIONAL_INT64_SCHEMA))
+        .getInstance(args);
+
+    return (UndoableMultisetKudaf<Long>) UndoableAggregateFunctions
+        .forTableAggregation(function, args)
+        .get();
+  }
+
+  private static AggregateFunctionArguments args(final String... extraArgs) {
+    final ImmutableList.Builder<String> args = ImmutableList.builder();
+    args.add("KSQL_INTERNAL_COL_0");
+    args.addAll(Arrays.asList(extraArgs));
+    return new AggregateFunctionArguments(0, args.build());
+  }
+
+  private static List<Struct> aggregate(
+      final UndoableMultisetKudaf<Long> function,
+      final Long... values
+  ) {
+    List<Struct> aggregate = function.getInitialValueSupplier().get();
+    for (final Long value : values) {
+      aggregate = function.aggregate(value, aggregate);
+    }
+    return aggregate;
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.percentile;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.function.AggregateFunctionArguments;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.util.KsqlException;
+import java.util.Collections;
+import org.apache.kafka.connect.data.Schema;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class PercentileApproxKudafTest {
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  @Test
+  public void shouldReturnDoubleButAggregateDigest() {
+    // When:
+    final PercentileApproxKudaf percentile = getPercentileApproxKudaf("0.9");
+
+    // Then:
+    assertThat(percentile.getReturnType(), is(Schema.OPTIONAL_FLOAT64_SCHEMA));
+    assertThat(percentile.getAggregateType(), is(Schema.OPTIONAL_STRING_SCHEMA));
+    assertThat(percentile.getQuantile(), is(0.9));
+  }
+
+  @Test
+  public void shouldEstimatePercentile() {
+    // Given:
+    final PercentileApproxKudaf percentile = getPercentileApproxKudaf("0.99");
+    String digest = percentile.getInitialValueSupplier().get();
+
+    // When:
+    for (long i = 0; i < 100_000; i++) {
+      digest = percentile.aggregate(i, digest);
+    }
+
+    // Then:
+    assertThat(percentile.getResultMapper().apply(digest), is(closeTo(99_000, 100)));
+  }
+
+  @Test
+  public void shouldIgnoreNulls() {
+    // Given:
+    final PercentileApproxKudaf percentile = getPercentileApproxKudaf("0.5");
+    final String digest = percentile.getInitialValueSupplier().get();
+
+    // When:
+    final String result = percentile.aggregate(null, digest);
+
+    // Then:
+    assertThat(result, is(digest));
+    assertThat(percentile.getResultMapper().apply(result), is(nullValue()));
+  }
+
+  @Test
+  public void shouldMergeSessionDigests() {
+    // Given:
+    final PercentileApproxKudaf percentile = getPercentileApproxKudaf("0.5");
+    String digest1 = percentile.getInitialValueSupplier().get();
+    String digest2 = percentile.getInitialValueSupplier().get();
+    for (int i = 0; i < 1_000; i++) {
+      digest1 = percentile.aggregate(i, digest1);
+      digest2 = percentile.aggregate(i + 1_000, digest2);
+    }
+
+    // When:
+    final String merged = percentile.getMerger().apply(null, digest1, digest2);
+
+    // Then:
+    assertThat(percentile.getResultMapper().apply(merged), is(closeTo(1_000, 10)));
+  }
+
+  @Test
+  public void shouldThrowOnQuantileOutOfRange() {
+    // Then:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage(
+        "PERCENTILE_APPROX quantile must be between 0 and 1, got: 95");
+
+    // When:
+    getPercentileApproxKudaf("95");
+  }
+
+  private static PercentileApproxKudaf getPercentileApproxKudaf(final String quantile) {
+    final KsqlAggregateFunction aggregateFunction = new PercentileApproxAggFunctionFactory()
+        .getProperAggregateFunction(Collections.singletonList(Schema.OPTIONAL_INT64_SCHEMA));
+    assertThat(aggregateFunction, instanceOf(PercentileApproxKudaf.class));
+    return (PercentileApproxKudaf) aggregateFunction.getInstance(
+        new AggregateFunctionArguments(0, ImmutableList.of("KSQL_INTERNAL_COL_0", quantile)));
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.percentile;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.function.AggregateFunctionArguments;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.util.KsqlException;
+import java.util.Collections;
+import org.apache.kafka.connect.data.Schema;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class PercentilesApproxKudafTest {
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  @Test
+  public void shouldParseQuantilesFromStringLiteral() {
+    // When:
+    final PercentilesApproxKudaf percentiles = getPercentilesApproxKudaf("'0.5, 0.9,0.99'");
+
+    // Then:
+    assertThat(percentiles.getReturnType(), is(PercentilesApproxKudaf.RETURN_TYPE));
+    assertThat(percentiles.getAggregateType(), is(Schema.OPTIONAL_STRING_SCHEMA));
+    assertThat(percentiles.getQuantiles(), contains(0.5, 0.9, 0.99));
+  }
+
+  @Test
+  public void shouldEstimatePercentiles() {
+    // Given:
+    final PercentilesApproxKudaf percentiles = getPercentilesApproxKudaf("'0.5,0.99'");
+    String digest = percentiles.getInitialValueSupplier().get();
+
+    // When:
+    for (int i = 0; i < 100_000; i++) {
+      digest = percentiles.aggregate((double) i, digest);
+    }
+
+    // Then:
+    assertThat(percentiles.getResultMapper().apply(digest), contains(
+        closeTo(50_000, 500),
+        closeTo(99_000, 100)
+    ));
+  }
+
+  @Test
+  public void shouldReturnNullIfNoValues() {
+    // Given:
+    final PercentilesApproxKudaf percentiles = getPercentilesApproxKudaf("'0.5,0.99'");
+
+    // When:
+    final Object result = percentiles.getResultMapper()
+        .apply(percentiles.getInitialValueSupplier().get());
+
+    // Then:
+    assertThat(result, is(nullValue()));
+  }
+
+  @Test
+  public void shouldThrowOnInvalidQuantile() {
+    // Then:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("PERCENTILES_APPROX quantile must be a number, got: p99");
+
+    // When:
+    getPercentilesApproxKudaf("'0.5,p99'");
+  }
+
+  private static PercentilesApproxKudaf getPercentilesApproxKudaf(final String quantiles) {
+    final KsqlAggregateFunction aggregateFunction = new PercentilesApproxAggFunctionFactory()
+        .getProperAggregateFunction(Collections.singletonList(Schema.OPTIONAL_FLOAT64_SCHEMA));
+    assertThat(aggregateFunction, instanceOf(PercentilesApproxKudaf.class));
+    return (PercentilesApproxKudaf) aggregateFunction.getInstance(
+        new AggregateFunctionArguments(0, ImmutableList.of("KSQL_INTERNAL_COL_0", quantiles)));
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.percentile;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import io.confluent.ksql.util.KsqlException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class TDigestTest {
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  @Test
+  public void shouldReturnNullQuantileIfEmpty() {
+    assertThat(TDigest.empty(100).quantile(0.5), is(nullValue()));
+  }
+
+  @Test
+  public void shouldReturnMinAndMaxForExtremeQuantiles() {
+    // Given:
+    final TDigest digest = TDigest.empty(100);
+    for (int i = 0; i < 1_000; i++) {
+      digest.add(i);
+    }
+
+    // Then:
+    assertThat(digest.quantile(0.0), is(0.0));
+    assertThat(digest.quantile(1.0), is(999.0));
+  }
+
+  @Test
+  public void shouldEstimateQuantilesOfSmallInputExactly() {
+    // Given:
+    final TDigest digest = TDigest.empty(100);
+    for (int i = 1; i <= 5; i++) {
+      digest.add(i);
+    }
+
+    // Then:
+    assertThat(digest.quantile(0.5), is(3.0));
+  }
+
+  @Test
+  public void shouldEstimateQuantilesWithinErrorBounds() {
+    // Given:
+    final TDigest digest = TDigest.empty(100);
+    for (int i = 0; i < 100_000; i++) {
+      digest.add(i);
+    }
+
+    // Then:
+    assertThat(digest.quantile(0.5), is(closeTo(50_000, 500)));
+    assertThat(digest.quantile(0.9), is(closeTo(90_000, 500)));
+    assertThat(digest.quantile(0.99), is(closeTo(99_000, 100)));
+    assertThat(digest.quantile(0.999), is(closeTo(99_900, 20)));
+  }
+
+  @Test
+  public void shouldRoundTripThroughEncoding() {
+    // Given:
+    final TDigest digest = TDigest.empty(100);
+    for (int i = 0; i < 10_050; i++) {
+      digest.add(i);
+    }
+
+    // When:
+    final TDigest decoded = TDigest.decode(digest.encode());
+
+    // Then:
+    assertThat(decoded.encode(), is(digest.encode()));
+    assertThat(decoded.quantile(0.5), is(digest.quantile(0.5)));
+  }
+
+  @Test
+  public void shouldBoundEncodedSize() {
+    // Given:
+    final TDigest digest = TDigest.empty(100);
+
+    // When:
+    for (int i = 0; i < 1_000_000; i++) {
+      digest.add(i);
+    }
+
+    // Then:
+    assertThat(digest.encode().length(), is(lessThan(4096)));
+  }
+
+  @Test
+  public void shouldMergeDigests() {
+    // Given:
+    final TDigest evens = TDigest.empty(100);
+    final TDigest odds = TDigest.empty(100);
+    for (int i = 0; i < 100_000; i += 2) {
+      evens.add(i);
+      odds.add(i + 1);
+    }
+
+    // When:
+    evens.merge(odds);
+
+    // Then:
+    assertThat(evens.quantile(0.0), is(0.0));
+    assertThat(evens.quantile(0.5), is(closeTo(50_000, 500)));
+    assertThat(evens.quantile(0.99), is(closeTo(99_000, 100)));
+    assertThat(evens.quantile(1.0), is(99_999.0));
+  }
+
+  @Test
+  public void shouldMergeIntoEmptyDigest() {
+    // Given:
+    final TDigest empty = TDigest.empty(100);
+    final TDigest other = TDigest.empty(100);
+    other.add(10.0);
+
+    // When:
+    empty.merge(other);
+
+    // Then:
+    assertThat(empty.quantile(0.5), is(10.0));
+  }
+
+  @Test
+  public void shouldThrowOnInvalidEncoding() {
+    // Then:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("Invalid t-digest: AQ");
+
+    // When:
+    TDigest.decode("AQ");
+  }
+}
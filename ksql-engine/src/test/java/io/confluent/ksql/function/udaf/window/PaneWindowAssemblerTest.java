@@ -0,0 +1,310 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.window;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.emptyIterable;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericRow;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.kstream.internals.TimeWindow;
+import org.apache.kafka.streams.processor.ProcessorContext;
+import org.apache.kafka.streams.processor.To;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.TimestampedWindowStore;
+import org.apache.kafka.streams.state.ValueAndTimestamp;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PaneWindowAssemblerTest {
+
+  private static final String STORE_NAME = "panes";
+
+  private static final Schema KEY_SCHEMA = SchemaBuilder.struct()
+      .field("ROWKEY", Schema.OPTIONAL_STRING_SCHEMA)
+      .build();
+
+  private static final Struct KEY = new Struct(KEY_SCHEMA).put("ROWKEY", "a");
+
+  // Sums of the panes [0, 10), [10, 20), [20, 30), [30, 40) and [40, 50), each of which was
+  // last updated at its start plus 5:
+  private static final Map<Long, Long> PANES = ImmutableMap.of(
+      0L, 1L,
+      10L, 2L,
+      20L, 4L,
+      30L, 8L,
+      40L, 16L
+  );
+
+  @Mock
+  private ProcessorContext context;
+  @Mock
+  private TimestampedWindowStore<Struct, GenericRow> paneStore;
+  private PaneWindowAssembler assembler;
+
+  @Before
+  public void setUp() {
+    assembler = new PaneWindowAssembler(
+        STORE_NAME,
+        Duration.ofMillis(30),
+        Duration.ofMillis(10),
+        Duration.ofMillis(10),
+        Duration.ofMillis(100),
+        () -> new GenericRow(0L),
+        (key, one, two) -> new GenericRow(sumOf(one) + sumOf(two))
+    );
+
+    when(context.getStateStore(STORE_NAME)).thenReturn(paneStore);
+
+    assembler.init(context);
+  }
+
+  @Test
+  public void shouldAssembleEveryWindowContainingThePane() {
+    // Given:
+    givenPanes();
+    when(context.timestamp()).thenReturn(25L);
+
+    // When:
+    final Iterable<KeyValue<Windowed<Struct>, GenericRow>> result =
+        assembler.transform(paneAt(20), new GenericRow(4L));
+
+    // Then:
+    assertThat(result, is(emptyIterable()));
+    final InOrder inOrder = inOrder(context);
+    inOrder.verify(context).forward(windowAt(0), new GenericRow(7L), at(25L));
+    inOrder.verify(context).forward(windowAt(10), new GenericRow(14L), at(35L));
+    inOrder.verify(context).forward(windowAt(20), new GenericRow(28L), at(45L));
+    verify(context, times(3)).forward(any(), any(), any(To.class));
+  }
+
+  @Test
+  public void shouldNotAssembleWindowsBeforeTheFirst() {
+    // Given:
+    givenPanes();
+    when(context.timestamp()).thenReturn(5L);
+
+    // When:
+    assembler.transform(paneAt(0), new GenericRow(1L));
+
+    // Then:
+    verify(context).forward(windowAt(0), new GenericRow(7L), at(25L));
+    verify(context, times(1)).forward(any(), any(), any(To.class));
+  }
+
+  @Test
+  public void shouldNotAssembleWindowsWhoseGracePeriodHasPassed() {
+    // Given:
+    givenPanes();
+    when(context.timestamp()).thenReturn(130L);
+
+    // When:
+    assembler.transform(paneAt(20), new GenericRow(4L));
+
+    // Then:
+    final InOrder inOrder = inOrder(context);
+    inOrder.verify(context).forward(windowAt(10), new GenericRow(14L), at(35L));
+    inOrder.verify(context).forward(windowAt(20), new GenericRow(28L), at(45L));
+    verify(context, times(2)).forward(any(), any(), any(To.class));
+  }
+
+  @Test
+  public void shouldRecoverStreamTimeFromThePaneStoreOnFirstUpdate() {
+    // Given:
+    givenPanes();
+    when(paneStore.fetchAll(any(Instant.class), any(Instant.class)))
+        .thenReturn(storeIteratorOf(ImmutableList.of(
+            KeyValue.pair(paneAt(20), ValueAndTimestamp.make(new GenericRow(4L), 25L)),
+            KeyValue.pair(paneAt(40), ValueAndTimestamp.make(new GenericRow(16L), 135L))
+        )));
+    when(context.timestamp()).thenReturn(25L);
+
+    // When:
+    assembler.transform(paneAt(20), new GenericRow(4L));
+
+    // Then:
+    verify(context, never()).forward(eq(windowAt(0)), any(), any(To.class));
+    verify(context, times(2)).forward(any(), any(), any(To.class));
+  }
+
+  @Test
+  public void shouldOnlyRecoverStreamTimeFromPanesThatMayBeLater() {
+    // Given:
+    givenPanes();
+    when(context.timestamp()).thenReturn(25L);
+
+    // When:
+    assembler.transform(paneAt(20), new GenericRow(4L));
+
+    // Then:
+    verify(paneStore).fetchAll(Instant.ofEpochMilli(16L), Instant.ofEpochMilli(155L));
+    verify(paneStore, never()).all();
+  }
+
+  @Test
+  public void shouldOnlyRecoverStreamTimeOnce() {
+    // Given:
+    givenPanes();
+    when(context.timestamp()).thenReturn(25L);
+    assembler.transform(paneAt(20), new GenericRow(4L));
+
+    // When:
+    assembler.transform(paneAt(20), new GenericRow(4L));
+
+    // Then:
+    verify(paneStore, times(1)).fetchAll(any(Instant.class), any(Instant.class));
+  }
+
+  @Test
+  public void shouldIgnoreDeletedPanes() {
+    // When:
+    final Iterable<KeyValue<Windowed<Struct>, GenericRow>> result =
+        assembler.transform(paneAt(20), null);
+
+    // Then:
+    assertThat(result, is(emptyIterable()));
+    verify(paneStore, never()).fetch(any(), any(Instant.class), any(Instant.class));
+    verify(context, never()).forward(any(), any(), any(To.class));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowIfPaneSizeDoesNotDivideAdvance() {
+    new PaneWindowAssembler(
+        STORE_NAME,
+        Duration.ofMillis(30),
+        Duration.ofMillis(15),
+        Duration.ofMillis(10),
+        Duration.ofMillis(100),
+        () -> new GenericRow(0L),
+        (key, one, two) -> one
+    );
+  }
+
+  private void givenPanes() {
+    when(paneStore.fetchAll(any(Instant.class), any(Instant.class)))
+        .thenAnswer(inv -> storeIteratorOf(Collections.emptyList()));
+    when(paneStore.fetch(any(), any(Instant.class), any(Instant.class)))
+        .thenAnswer(inv -> iteratorOf(
+            ((Instant) inv.getArgument(1)).toEpochMilli(),
+            ((Instant) inv.getArgument(2)).toEpochMilli()));
+  }
+
+  private static Windowed<Struct> paneAt(final long start) {
+    return new Windowed<>(KEY, new TimeWindow(start, start + 10));
+  }
+
+  private static Windowed<Struct> windowAt(final long start) {
+    return new Windowed<>(KEY, new TimeWindow(start, start + 30));
+  }
+
+  private static To at(final long timestamp) {
+    return To.all().withTimestamp(timestamp);
+  }
+
+  private static long sumOf(final GenericRow row) {
+    return (Long) row.getColumns().get(0);
+  }
+
+  private static WindowStoreIterator<ValueAndTimestamp<GenericRow>> iteratorOf(
+      final long from,
+      final long to
+  ) {
+    final Iterator<KeyValue<Long, ValueAndTimestamp<GenericRow>>> panes = PANES.entrySet()
+        .stream()
+        .filter(e -> e.getKey() >= from && e.getKey() <= to)
+        .map(e -> KeyValue.pair(
+            e.getKey(),
+            ValueAndTimestamp.make(new GenericRow(e.getValue()), e.getKey() + 5)))
+        .collect(Collectors.toList())
+        .iterator();
+
+    return new WindowStoreIterator<ValueAndTimestamp<GenericRow>>() {
+      @Override
+      public void close() {
+      }
+
+      @Override
+      public Long peekNextKey() {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public boolean hasNext() {
+        return panes.hasNext();
+      }
+
+      @Override
+      public KeyValue<Long, ValueAndTimestamp<GenericRow>> next() {
+        return panes.next();
+      }
+    };
+  }
+
+  private static KeyValueIterator<Windowed<Struct>, ValueAndTimestamp<GenericRow>> storeIteratorOf(
+      final List<KeyValue<Windowed<Struct>, ValueAndTimestamp<GenericRow>>> panes
+  ) {
+    final Iterator<KeyValue<Windowed<Struct>, ValueAndTimestamp<GenericRow>>> it =
+        panes.iterator();
+
+    return new KeyValueIterator<Windowed<Struct>, ValueAndTimestamp<GenericRow>>() {
+      @Override
+      public void close() {
+      }
+
+      @Override
+      public Windowed<Struct> peekNextKey() {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public boolean hasNext() {
+        return it.hasNext();
+      }
+
+      @Override
+      public KeyValue<Windowed<Struct>, ValueAndTimestamp<GenericRow>> next() {
+        return it.next();
+      }
+    };
+  }
+}
@@ -36,6 +36,7 @@ import io.confluent.ksql.util.KsqlConstants;
 import io.confluent.ksql.util.PageViewDataProvider;
 import io.confluent.ksql.util.PersistentQueryMetadata;
 import io.confluent.ksql.util.QueryMetadata;
+import io.confluent.ksql.util.TransientQueryKey;
 import io.confluent.ksql.util.TransientQueryMetadata;
 import io.confluent.ksql.util.UserDataProvider;
 import java.util.ArrayList;
@@ -215,8 +216,9 @@ public class EndToEndIntegrationTest {
     final TransientQueryMetadata queryMetadata = executeStatement(
         "SELECT * from pageviews_female;");
 
-    final List<KeyValue<String, GenericRow>> results = new ArrayList<>();
-    final BlockingQueue<KeyValue<String, GenericRow>> rowQueue = queryMetadata.getRowQueue();
+    final List<KeyValue<TransientQueryKey, GenericRow>> results = new ArrayList<>();
+    final BlockingQueue<KeyValue<TransientQueryKey, GenericRow>> rowQueue =
+        queryMetadata.getRowQueue();
 
     // From the mock data, we expect exactly 3 page views from female users.
     final List<String> expectedPages = ImmutableList.of("PAGE_2", "PAGE_5", "PAGE_5");
@@ -225,7 +227,7 @@ public class EndToEndIntegrationTest {
     TestUtils.waitForCondition(() -> {
       try {
         log.debug("polling from pageviews_female");
-        final KeyValue<String, GenericRow> nextRow = rowQueue.poll(1, TimeUnit.SECONDS);
+        final KeyValue<TransientQueryKey, GenericRow> nextRow = rowQueue.poll(1, TimeUnit.SECONDS);
         if (nextRow != null) {
           results.add(nextRow);
         } else {
@@ -245,7 +247,7 @@ public class EndToEndIntegrationTest {
     final List<String> actualPages = new ArrayList<>();
     final List<String> actualUsers = new ArrayList<>();
 
-    for (final KeyValue<String, GenericRow> result : results) {
+    for (final KeyValue<TransientQueryKey, GenericRow> result : results) {
       final List<Object> columns = result.value.getColumns();
       log.debug("pageview join: {}", columns);
 
@@ -402,14 +404,15 @@ public class EndToEndIntegrationTest {
       final TransientQueryMetadata queryMetadata,
       final int expectedRows
   ) throws Exception {
-    final BlockingQueue<KeyValue<String, GenericRow>> rowQueue = queryMetadata.getRowQueue();
+    final BlockingQueue<KeyValue<TransientQueryKey, GenericRow>> rowQueue =
+        queryMetadata.getRowQueue();
 
     TestUtils.waitForCondition(
         () -> rowQueue.size() >= expectedRows,
         30_000,
         expectedRows + " rows were not available after 30 seconds");
 
-    final List<KeyValue<String, GenericRow>> rows = new ArrayList<>();
+    final List<KeyValue<TransientQueryKey, GenericRow>> rows = new ArrayList<>();
     rowQueue.drainTo(rows);
 
     return rows.stream()
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.materialization;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.serde.KeySerde;
+import java.util.Optional;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MaterializationInfoTest {
+
+  private static final GenericRow ROW = new GenericRow(ImmutableList.of(1L, 2L));
+
+  @Mock
+  private KeySerde<Struct> keySerde;
+  @Mock
+  private Struct key;
+
+  @Test
+  public void shouldReturnStoreRowIfNoTransforms() {
+    // Given:
+    final MaterializationInfo info = MaterializationInfo.of("store", keySerde, Optional.empty());
+
+    // Then:
+    assertThat(info.transform(key, ROW), is(Optional.of(ROW)));
+  }
+
+  @Test
+  public void shouldApplyTransformsInOrder() {
+    // Given:
+    final MaterializationInfo info = MaterializationInfo.of("store", keySerde, Optional.empty())
+        .map(row -> new GenericRow(ImmutableList.of(row.getColumns().get(1))))
+        .filter((k, row) -> row.getColumns().get(0).equals(2L))
+        .mapWithKey((k, row) -> new GenericRow(ImmutableList.of(k == key, row.getColumns())));
+
+    // When:
+    final Optional<GenericRow> result = info.transform(key, ROW);
+
+    // Then:
+    assertThat(result, is(Optional.of(
+        new GenericRow(ImmutableList.of(true, ImmutableList.of(2L))))));
+  }
+
+  @Test
+  public void shouldReturnEmptyIfRowFilteredOut() {
+    // Given:
+    final MaterializationInfo info = MaterializationInfo.of("store", keySerde, Optional.empty())
+        .filter((k, row) -> false)
+        .map(row -> {
+          throw new AssertionError("should not be called");
+        });
+
+    // Then:
+    assertThat(info.transform(key, ROW), is(Optional.empty()));
+  }
+}
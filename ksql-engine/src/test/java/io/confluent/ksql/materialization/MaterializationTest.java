@@ -0,0 +1,310 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.materialization;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Range;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.model.WindowType;
+import io.confluent.ksql.serde.KeySerde;
+import io.confluent.ksql.serde.WindowInfo;
+import io.confluent.ksql.structured.StructKeyUtil;
+import io.confluent.ksql.util.KsqlException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.kstream.Window;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.kstream.internals.SessionWindow;
+import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.apache.kafka.streams.state.ReadOnlySessionStore;
+import org.apache.kafka.streams.state.ReadOnlyWindowStore;
+import org.apache.kafka.streams.state.StreamsMetadata;
+import org.apache.kafka.streams.state.ValueAndTimestamp;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MaterializationTest {
+
+  private static final String STORE_NAME = "store";
+  private static final String ROW_KEY = "k";
+  private static final Struct KEY = StructKeyUtil.asStructKey(ROW_KEY);
+  private static final GenericRow ROW = new GenericRow(ImmutableList.of(1L));
+  private static final HostInfo LOCAL_HOST = new HostInfo("local", 8088);
+  private static final HostInfo OTHER_HOST = new HostInfo("other", 8088);
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  @Mock
+  private KafkaStreams kafkaStreams;
+  @Mock
+  private KeySerde<Struct> keySerde;
+  @Mock
+  private Serializer<Struct> keySerializer;
+  @Mock
+  private StreamsMetadata metadata;
+  @Mock
+  private ReadOnlyKeyValueStore<Struct, ValueAndTimestamp<GenericRow>> keyValueStore;
+  @Mock
+  private ReadOnlyWindowStore<Struct, ValueAndTimestamp<GenericRow>> windowStore;
+  @Mock
+  private WindowStoreIterator<ValueAndTimestamp<GenericRow>> windowIterator;
+  @Mock
+  private ReadOnlySessionStore<Struct, GenericRow> sessionStore;
+  @Mock
+  private KeyValueIterator<Windowed<Struct>, GenericRow> sessionIterator;
+
+  private Materialization materialization;
+
+  @Before
+  public void setUp() {
+    materialization = materialization(Optional.empty(), Optional.of(LOCAL_HOST));
+  }
+
+  @Test
+  public void shouldNotLocateIfNoLocalHost() {
+    // Given:
+    materialization = materialization(Optional.empty(), Optional.empty());
+
+    // When:
+    final Optional<HostInfo> owner = materialization.locate(ROW_KEY);
+
+    // Then:
+    assertThat(owner, is(Optional.empty()));
+    verifyZeroInteractions(kafkaStreams);
+  }
+
+  @Test
+  public void shouldLocateKeyOwnedByOtherHost() {
+    // Given:
+    givenKeyOwnedBy(OTHER_HOST);
+
+    // When:
+    final Optional<HostInfo> owner = materialization.locate(ROW_KEY);
+
+    // Then:
+    assertThat(owner, is(Optional.of(OTHER_HOST)));
+    verify(kafkaStreams).metadataForKey(STORE_NAME, KEY, keySerializer);
+  }
+
+  @Test
+  public void shouldLocateKeyOwnedByLocalHostAsEmpty() {
+    // Given:
+    givenKeyOwnedBy(LOCAL_HOST);
+
+    // When:
+    final Optional<HostInfo> owner = materialization.locate(ROW_KEY);
+
+    // Then:
+    assertThat(owner, is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldThrowOnLocateIfMetadataNotAvailable() {
+    // Given:
+    when(keySerde.serializer()).thenReturn(keySerializer);
+    when(kafkaStreams.metadataForKey(STORE_NAME, KEY, keySerializer))
+        .thenReturn(StreamsMetadata.NOT_AVAILABLE);
+
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("Materialized data for key 'k' is not currently available");
+
+    // When:
+    materialization.locate(ROW_KEY);
+  }
+
+  @Test
+  public void shouldGetRowFromKeyValueStore() {
+    // Given:
+    when(kafkaStreams.store(eq(STORE_NAME), any())).thenReturn(keyValueStore);
+    when(keyValueStore.get(KEY)).thenReturn(ValueAndTimestamp.make(ROW, 10L));
+
+    // When:
+    final Optional<MaterializedRow> row = materialization.get(ROW_KEY);
+
+    // Then:
+    assertThat(row, is(Optional.of(MaterializedRow.of(ROW_KEY, Optional.empty(), 10L, ROW))));
+  }
+
+  @Test
+  public void shouldGetNoRowIfKeyNotInStore() {
+    // Given:
+    when(kafkaStreams.store(eq(STORE_NAME), any())).thenReturn(keyValueStore);
+
+    // When:
+    final Optional<MaterializedRow> row = materialization.get(ROW_KEY);
+
+    // Then:
+    assertThat(row, is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldThrowIfStoreNotAvailable() {
+    // Given:
+    when(kafkaStreams.store(eq(STORE_NAME), any()))
+        .thenThrow(new InvalidStateStoreException("rebalancing"));
+
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("State store 'store' is not currently available");
+
+    // When:
+    materialization.get(ROW_KEY);
+  }
+
+  @Test
+  public void shouldThrowOnKeyOnlyLookupOfWindowedTable() {
+    // Given:
+    materialization = materialization(
+        Optional.of(WindowInfo.of(WindowType.TUMBLING, Optional.of(Duration.ofSeconds(1)))),
+        Optional.of(LOCAL_HOST)
+    );
+
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("Table is windowed");
+
+    // When:
+    materialization.get(ROW_KEY);
+  }
+
+  @Test
+  public void shouldGetWindowsWithinWindowStartBounds() {
+    // Given:
+    materialization = materialization(
+        Optional.of(WindowInfo.of(WindowType.TUMBLING, Optional.of(Duration.ofSeconds(1)))),
+        Optional.of(LOCAL_HOST)
+    );
+    when(kafkaStreams.store(eq(STORE_NAME), any())).thenReturn(windowStore);
+    when(windowStore.fetch(KEY, Instant.ofEpochMilli(1000), Instant.ofEpochMilli(3000)))
+        .thenReturn(windowIterator);
+    when(windowIterator.hasNext()).thenReturn(true, true, false);
+    when(windowIterator.next())
+        .thenReturn(KeyValue.pair(1000L, ValueAndTimestamp.make(ROW, 1500L)))
+        .thenReturn(KeyValue.pair(3000L, ValueAndTimestamp.make(ROW, 3500L)));
+
+    // When:
+    final List<MaterializedRow> rows = materialization.get(
+        ROW_KEY,
+        Range.closedOpen(Instant.ofEpochMilli(1000), Instant.ofEpochMilli(3000))
+    );
+
+    // Then:
+    assertThat(rows, hasSize(1));
+    assertThat(rows.get(0).getRowTime(), is(1500L));
+    assertThat(rows.get(0).getValue(), is(ROW));
+
+    final Window window = rows.get(0).getWindow().get();
+    assertThat(window.start(), is(1000L));
+    assertThat(window.end(), is(2000L));
+    verify(windowIterator).close();
+  }
+
+  @Test
+  public void shouldFetchAllWindowsIfWindowStartUnbounded() {
+    // Given:
+    materialization = materialization(
+        Optional.of(WindowInfo.of(WindowType.HOPPING, Optional.of(Duration.ofSeconds(1)))),
+        Optional.of(LOCAL_HOST)
+    );
+    when(kafkaStreams.store(eq(STORE_NAME), any())).thenReturn(windowStore);
+    when(windowStore.fetch(KEY, Instant.ofEpochMilli(0), Instant.ofEpochMilli(Long.MAX_VALUE)))
+        .thenReturn(windowIterator);
+
+    // When:
+    final List<MaterializedRow> rows = materialization.get(ROW_KEY, Range.all());
+
+    // Then:
+    assertThat(rows, is(ImmutableList.of()));
+  }
+
+  @Test
+  public void shouldGetSessionsWithinWindowStartBounds() {
+    // Given:
+    materialization = materialization(
+        Optional.of(WindowInfo.of(WindowType.SESSION, Optional.empty())),
+        Optional.of(LOCAL_HOST)
+    );
+    when(kafkaStreams.store(eq(STORE_NAME), any())).thenReturn(sessionStore);
+    when(sessionStore.fetch(KEY)).thenReturn(sessionIterator);
+    when(sessionIterator.hasNext()).thenReturn(true, true, false);
+    when(sessionIterator.next())
+        .thenReturn(KeyValue.pair(new Windowed<>(KEY, new SessionWindow(1000, 1500)), ROW))
+        .thenReturn(KeyValue.pair(new Windowed<>(KEY, new SessionWindow(5000, 6000)), ROW));
+
+    // When:
+    final List<MaterializedRow> rows = materialization.get(
+        ROW_KEY,
+        Range.atMost(Instant.ofEpochMilli(2000))
+    );
+
+    // Then:
+    assertThat(rows, contains(
+        MaterializedRow.of(ROW_KEY, Optional.of(new SessionWindow(1000, 1500)), 1500L, ROW)));
+    verify(sessionIterator).close();
+  }
+
+  @Test
+  public void shouldThrowOnWindowedLookupOfNonWindowedTable() {
+    // Given:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("Table is not windowed");
+
+    // When:
+    materialization.get(ROW_KEY, Range.all());
+  }
+
+  private Materialization materialization(
+      final Optional<WindowInfo> windowInfo,
+      final Optional<HostInfo> localHost
+  ) {
+    return new Materialization(
+        kafkaStreams,
+        MaterializationInfo.of(STORE_NAME, keySerde, windowInfo),
+        localHost
+    );
+  }
+
+  private void givenKeyOwnedBy(final HostInfo owner) {
+    when(keySerde.serializer()).thenReturn(keySerializer);
+    when(kafkaStreams.metadataForKey(STORE_NAME, KEY, keySerializer)).thenReturn(metadata);
+    when(metadata.hostInfo()).thenReturn(owner);
+  }
+}
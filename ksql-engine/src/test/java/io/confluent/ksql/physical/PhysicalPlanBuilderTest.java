@@ -27,6 +27,7 @@ import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.Matchers.startsWith;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
 import static org.mockito.ArgumentMatchers.any;
@@ -193,6 +194,7 @@ public class PhysicalPlanBuilderTest {
   }
 
   private TestKafkaStreamsBuilder testKafkaStreamsBuilder;
+  private SharedSources sharedSources;
 
   @Before
   public void before() {
@@ -200,6 +202,7 @@ public class PhysicalPlanBuilderTest {
     serviceContext = TestServiceContext.create(kafkaTopicClient);
     processingLogContext = ProcessingLogContext.create();
     testKafkaStreamsBuilder = new TestKafkaStreamsBuilder(serviceContext);
+    sharedSources = new SharedSources();
     physicalPlanBuilder = buildPhysicalPlanBuilder(Collections.emptyMap());
     engineMetastore = new MetaStoreImpl(new InternalFunctionRegistry());
     ksqlEngine = KsqlEngineTestUtil.createKsqlEngine(
@@ -228,10 +231,27 @@ public class PhysicalPlanBuilderTest {
         metaStore,
         new QueryIdGenerator(),
         testKafkaStreamsBuilder,
-        queryCloseCallback
+        queryCloseCallback,
+        sharedSources
     );
   }
 
+  private void givenSharedSourcesEnabled(final boolean enabled) {
+    givenConfig(KsqlConfig.KSQL_SHARED_TRANSIENT_SOURCES_ENABLE_CONFIG, enabled);
+  }
+
+  private void givenSharedPersistentSourcesEnabled(final boolean enabled) {
+    givenConfig(KsqlConfig.KSQL_SHARED_PERSISTENT_SOURCES_ENABLE_CONFIG, enabled);
+  }
+
+  private void givenConfig(final String sharedSourcesConfig, final boolean enabled) {
+    ksqlConfig = INITIAL_CONFIG.cloneWithPropertyOverwrite(ImmutableMap.<String, Object>of(
+        sharedSourcesConfig, enabled,
+        ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest"
+    ));
+    physicalPlanBuilder = buildPhysicalPlanBuilder(Collections.emptyMap());
+  }
+
   private QueryMetadata buildPhysicalPlan(final String query) {
     final OutputNode logical = AnalysisTestUtil.buildLogicalPlan(ksqlConfig, query, metaStore);;
     return physicalPlanBuilder.buildPhysicalPlan(new LogicalPlanNode(query, Optional.of(logical)));
@@ -249,6 +269,204 @@ public class PhysicalPlanBuilderTest {
     assertThat(queryMetadata, instanceOf(TransientQueryMetadata.class));
   }
 
+  @Test
+  public void shouldNotShareSourcesByDefault() {
+    // Given:
+    givenSharedSourcesEnabled(false);
+
+    // When:
+    buildPhysicalPlan(simpleSelectFilter);
+    buildPhysicalPlan("SELECT col2 FROM test1;");
+
+    // Then:
+    assertThat(testKafkaStreamsBuilder.getCalls(), hasSize(2));
+  }
+
+  @Test
+  public void shouldShareSourceBetweenTransientQueries() {
+    // Given:
+    givenSharedSourcesEnabled(true);
+
+    // When:
+    final QueryMetadata first = buildPhysicalPlan(simpleSelectFilter);
+    final QueryMetadata second = buildPhysicalPlan("SELECT col2 FROM test1;");
+
+    // Then:
+    assertThat(testKafkaStreamsBuilder.getCalls(), hasSize(1));
+    assertThat(first, instanceOf(SharedSourceQueryMetadata.class));
+    assertThat(second.getTopology(), is(sameInstance(first.getTopology())));
+    assertThat(second.getQueryApplicationId(), is(not(first.getQueryApplicationId())));
+  }
+
+  @Test
+  public void shouldBuildTransientQueryOnSharedSourceWithCorrectSchema() {
+    // Given:
+    givenSharedSourcesEnabled(true);
+
+    // When:
+    final QueryMetadata queryMetadata = buildPhysicalPlan(simpleSelectFilter);
+
+    // Then:
+    assertThat(queryMetadata.getLogicalSchema(), is(LogicalSchema.of(
+        SchemaBuilder.struct()
+            .field("COL0", Schema.OPTIONAL_INT64_SCHEMA)
+            .field("COL2", Schema.OPTIONAL_STRING_SCHEMA)
+            .field("COL3", Schema.OPTIONAL_FLOAT64_SCHEMA)
+            .build()
+    )));
+  }
+
+  @Test
+  public void shouldNotShareSourceIfPropertiesOverridden() {
+    // Given:
+    givenSharedSourcesEnabled(true);
+    physicalPlanBuilder = buildPhysicalPlanBuilder(
+        ImmutableMap.<String, Object>of(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest"));
+
+    // When:
+    final QueryMetadata queryMetadata = buildPhysicalPlan(simpleSelectFilter);
+
+    // Then:
+    assertThat(queryMetadata, not(instanceOf(SharedSourceQueryMetadata.class)));
+  }
+
+  @Test
+  public void shouldNotShareSourceOfAggregateQuery() {
+    // Given:
+    givenSharedSourcesEnabled(true);
+
+    // When:
+    final QueryMetadata queryMetadata =
+        buildPhysicalPlan("SELECT col0, count(*) FROM test1 GROUP BY col0;");
+
+    // Then:
+    assertThat(queryMetadata, not(instanceOf(SharedSourceQueryMetadata.class)));
+  }
+
+  @Test
+  public void shouldReportClosedSharedSourceQueryAsNotRunning() {
+    // Given:
+    givenSharedSourcesEnabled(true);
+    final QueryMetadata first = buildPhysicalPlan(simpleSelectFilter);
+    buildPhysicalPlan(simpleSelectFilter);
+
+    // When:
+    first.close();
+
+    // Then:
+    assertThat(first.getState(), is("NOT_RUNNING"));
+  }
+
+  @Test
+  public void shouldBuildNewSharedSourceOnceAllQueriesClosed() {
+    // Given:
+    givenSharedSourcesEnabled(true);
+    final QueryMetadata first = buildPhysicalPlan(simpleSelectFilter);
+    final QueryMetadata second = buildPhysicalPlan(simpleSelectFilter);
+    first.close();
+    final QueryMetadata third = buildPhysicalPlan(simpleSelectFilter);
+    second.close();
+    third.close();
+
+    // When:
+    buildPhysicalPlan(simpleSelectFilter);
+
+    // Then:
+    assertThat(testKafkaStreamsBuilder.getCalls(), hasSize(2));
+  }
+
+  @Test
+  public void shouldNotSharePersistentSourcesByDefault() {
+    // Given:
+    givenKafkaTopicsExist("test1");
+    givenSharedSourcesEnabled(true);
+
+    // When:
+    final QueryMetadata queryMetadata =
+        buildPhysicalPlan("CREATE STREAM FOO AS " + simpleSelectFilter);
+
+    // Then:
+    assertThat(queryMetadata, not(instanceOf(SharedSourcePersistentQueryMetadata.class)));
+  }
+
+  @Test
+  public void shouldShareSourceBetweenPersistentQueries() {
+    // Given:
+    givenKafkaTopicsExist("test1");
+    givenSharedPersistentSourcesEnabled(true);
+
+    // When:
+    final QueryMetadata first = buildPhysicalPlan("CREATE STREAM FOO AS " + simpleSelectFilter);
+    final QueryMetadata second = buildPhysicalPlan("CREATE STREAM BAR AS SELECT col2 FROM test1;");
+
+    // Then:
+    assertThat(testKafkaStreamsBuilder.getCalls(), hasSize(1));
+    assertThat(first, instanceOf(SharedSourcePersistentQueryMetadata.class));
+    assertThat(second.getTopology(), is(sameInstance(first.getTopology())));
+    assertThat(((PersistentQueryMetadata) first).getSinkName(), is("FOO"));
+    assertThat(((PersistentQueryMetadata) second).getSinkName(), is("BAR"));
+  }
+
+  @Test
+  public void shouldGivePersistentQueriesOnSharedSourceTheirOwnApplicationIds() {
+    // Given:
+    givenKafkaTopicsExist("test1");
+    givenSharedPersistentSourcesEnabled(true);
+
+    // When:
+    final QueryMetadata first = buildPhysicalPlan("CREATE STREAM FOO AS " + simpleSelectFilter);
+    final QueryMetadata second = buildPhysicalPlan("CREATE STREAM BAR AS SELECT col2 FROM test1;");
+
+    // Then:
+    assertThat(first.getQueryApplicationId(), is(not(second.getQueryApplicationId())));
+    assertThat(first.getQueryApplicationId(),
+        is(physicalPlanBuilder.getServiceId() + "query_"
+            + ((PersistentQueryMetadata) first).getQueryId()));
+  }
+
+  @Test
+  public void shouldNotShareSourceOfPersistentQueryWithPartitionBy() {
+    // Given:
+    givenKafkaTopicsExist("test1");
+    givenSharedPersistentSourcesEnabled(true);
+
+    // When:
+    final QueryMetadata queryMetadata =
+        buildPhysicalPlan("CREATE STREAM FOO AS SELECT col0, col2 FROM test1 PARTITION BY col0;");
+
+    // Then:
+    assertThat(queryMetadata, not(instanceOf(SharedSourcePersistentQueryMetadata.class)));
+  }
+
+  @Test
+  public void shouldNotShareSourceOfPersistentAggregateQuery() {
+    // Given:
+    givenKafkaTopicsExist("test1");
+    givenSharedPersistentSourcesEnabled(true);
+
+    // When:
+    final QueryMetadata queryMetadata = buildPhysicalPlan(
+        "CREATE TABLE FOO AS SELECT col0, count(*) FROM test1 GROUP BY col0;");
+
+    // Then:
+    assertThat(queryMetadata, not(instanceOf(SharedSourcePersistentQueryMetadata.class)));
+  }
+
+  @Test
+  public void shouldReportClosedSharedSourcePersistentQueryAsNotRunning() {
+    // Given:
+    givenKafkaTopicsExist("test1");
+    givenSharedPersistentSourcesEnabled(true);
+    final QueryMetadata first = buildPhysicalPlan("CREATE STREAM FOO AS " + simpleSelectFilter);
+    buildPhysicalPlan("CREATE STREAM BAR AS SELECT col2 FROM test1;");
+
+    // When:
+    first.close();
+
+    // Then:
+    assertThat(first.getState(), is("NOT_RUNNING"));
+  }
+
   @Test
   public void shouldBuildTransientQueryWithCorrectSchema() {
     // When:
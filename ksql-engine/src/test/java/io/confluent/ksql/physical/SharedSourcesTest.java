@@ -0,0 +1,152 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical;
+
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.metastore.model.DataSource;
+import io.confluent.ksql.physical.SharedSource.StartPolicy;
+import io.confluent.ksql.physical.SharedSource.Subscriber;
+import io.confluent.ksql.physical.SharedSource.Subscribers;
+import java.util.concurrent.CountDownLatch;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.Topology;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SharedSourcesTest {
+
+  @Mock
+  private DataSource<?> dataSource;
+  @Mock
+  private KafkaStreams closingStreams;
+  @Mock
+  private KafkaStreams otherStreams;
+  @Mock
+  private Topology topology;
+  @Mock
+  private Subscriber subscriber;
+  @Mock
+  private Runnable resetOffsets;
+
+  private final SharedSources sharedSources = new SharedSources();
+
+  @Test
+  public void shouldCloseSourceOnceLastQueryDetached() {
+    // Given:
+    final SharedSource<Subscriber> source = attach("a", closingStreams);
+    when(closingStreams.close(SharedSource.CLOSE_TIMEOUT)).thenReturn(true);
+
+    // When:
+    sharedSources.detach("a", source, subscriber);
+
+    // Then:
+    verify(closingStreams).close(SharedSource.CLOSE_TIMEOUT);
+    verify(closingStreams).cleanUp();
+    verify(resetOffsets).run();
+  }
+
+  @Test
+  public void shouldKeepOffsetsOfSourcesClosedOnShutdown() {
+    // Given:
+    final SharedSource<Subscriber> source = attach("a", closingStreams);
+    when(closingStreams.close(SharedSource.CLOSE_TIMEOUT)).thenReturn(true);
+    sharedSources.shutdown();
+
+    // When:
+    sharedSources.detach("a", source, subscriber);
+
+    // Then:
+    verify(closingStreams).cleanUp();
+    verify(resetOffsets, never()).run();
+  }
+
+  @Test
+  public void shouldCloseSourceIfOffsetsCanNotBeReset() {
+    // Given:
+    final SharedSource<Subscriber> source = attach("a", closingStreams);
+    when(closingStreams.close(SharedSource.CLOSE_TIMEOUT)).thenReturn(true);
+    doThrow(new RuntimeException("boom")).when(resetOffsets).run();
+
+    // When:
+    sharedSources.detach("a", source, subscriber);
+
+    // Then: did not throw, and
+    verify(closingStreams).cleanUp();
+  }
+
+  @Test
+  public void shouldNotCleanUpSourceIfCloseTimesOut() {
+    // Given:
+    final SharedSource<Subscriber> source = attach("a", closingStreams);
+    when(closingStreams.close(SharedSource.CLOSE_TIMEOUT)).thenReturn(false);
+
+    // When:
+    sharedSources.detach("a", source, subscriber);
+
+    // Then:
+    verify(closingStreams, never()).cleanUp();
+    verify(resetOffsets, never()).run();
+  }
+
+  @Test(timeout = 30_000)
+  public void shouldNotBlockOtherSourcesWhileClosingSource() throws Exception {
+    // Given:
+    final CountDownLatch closing = new CountDownLatch(1);
+    final CountDownLatch closed = new CountDownLatch(1);
+    when(closingStreams.close(SharedSource.CLOSE_TIMEOUT)).thenAnswer(inv -> {
+      closing.countDown();
+      closed.await();
+      return true;
+    });
+
+    final SharedSource<Subscriber> source = attach("a", closingStreams);
+    final Thread detacher = new Thread(() -> sharedSources.detach("a", source, subscriber));
+    detacher.start();
+    closing.await();
+
+    // When:
+    final SharedSource<Subscriber> other = attach("b", otherStreams);
+    sharedSources.subscribe(other, subscriber);
+
+    // Then:
+    verify(otherStreams).start();
+
+    closed.countDown();
+    detacher.join();
+  }
+
+  private SharedSource<Subscriber> attach(final String key, final KafkaStreams kafkaStreams) {
+    return sharedSources.attach(key, dataSource, () -> new SharedSource<>(
+        dataSource,
+        kafkaStreams,
+        new Subscribers<>(),
+        StartPolicy.FIRST_STARTED,
+        "app-" + key,
+        topology,
+        "plan",
+        ImmutableMap.of(),
+        resetOffsets
+    ));
+  }
+}
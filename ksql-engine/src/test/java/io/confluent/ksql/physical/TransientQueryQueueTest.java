@@ -19,6 +19,8 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -28,8 +30,14 @@ import static org.mockito.Mockito.when;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.physical.TransientQueryQueue.QueuePopulator;
 import io.confluent.ksql.structured.QueuedSchemaKStream;
+import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.TransientQueryKey;
+import java.time.Duration;
 import java.util.OptionalInt;
 import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.IntStream;
 import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.kstream.KStream;
@@ -52,20 +60,22 @@ public class TransientQueryQueueTest {
   @Mock
   private LimitHandler limitHandler;
   @Mock
+  private Consumer<Throwable> errorHandler;
+  @Mock
   private KStream<String, GenericRow> kStreamsApp;
   @Mock
   private QueuedSchemaKStream<String> queuedKStream;
   @Captor
   private ArgumentCaptor<QueuePopulator<String>> queuePopulatorCaptor;
-  private Queue<KeyValue<String, GenericRow>> queue;
+  private TransientQueryQueue<String> queuer;
+  private Queue<KeyValue<TransientQueryKey, GenericRow>> queue;
   private QueuePopulator<String> queuePopulator;
 
   @Before
   public void setUp() {
     when(queuedKStream.getKstream()).thenReturn(kStreamsApp);
 
-    final TransientQueryQueue<String> queuer =
-        new TransientQueryQueue<>(queuedKStream, OptionalInt.of(SOME_LIMIT));
+    queuer = new TransientQueryQueue<>(queuedKStream, OptionalInt.of(SOME_LIMIT));
 
     queuer.setLimitHandler(limitHandler);
 
@@ -83,9 +93,9 @@ public class TransientQueryQueueTest {
 
     // Then:
     assertThat(queue, hasSize(2));
-    assertThat(queue.peek().key, is("key1"));
+    assertThat(queue.peek().key, is(TransientQueryKey.of("key1")));
     assertThat(queue.remove().value, is(ROW_ONE));
-    assertThat(queue.peek().key, is("key2"));
+    assertThat(queue.peek().key, is(TransientQueryKey.of("key2")));
     assertThat(queue.remove().value, is(ROW_TWO));
   }
 
@@ -137,4 +147,100 @@ public class TransientQueryQueueTest {
     // Then:
     verify(limitHandler, times(1)).limitReached();
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldClearQueueOnClose() {
+    // Given:
+    queuePopulator.apply("key1", ROW_ONE);
+
+    // When:
+    queuer.close();
+
+    // Then:
+    assertThat(queue, is(empty()));
+  }
+
+  @Test
+  public void shouldNotQueueOnceClosed() {
+    // Given:
+    queuer.close();
+
+    // When:
+    queuePopulator.apply("key1", ROW_ONE);
+
+    // Then:
+    assertThat(queue, is(empty()));
+  }
+
+  @Test(timeout = 30_000)
+  public void shouldReleaseBlockedPopulatorOnClose() throws Exception {
+    // Given:
+    IntStream.range(0, 100)
+        .forEach(idx -> queue.add(new KeyValue<>(TransientQueryKey.of("key1"), ROW_ONE)));
+
+    final Thread streamThread = new Thread(() -> queuePopulator.apply("key2", ROW_TWO));
+    streamThread.start();
+
+    // When:
+    queuer.close();
+
+    // Then:
+    streamThread.join();
+    assertThat(queue, is(empty()));
+  }
+
+  @Test(timeout = 30_000)
+  public void shouldFailSharedSourceQueryOnceItsReaderStalls() {
+    // Given:
+    final TransientQueryQueue<String> shared = new TransientQueryQueue<>(OptionalInt.empty());
+    shared.setErrorHandler(errorHandler);
+    IntStream.range(0, 100)
+        .forEach(idx -> shared.getPopulator().apply("key1", ROW_ONE));
+
+    // When:
+    shared.getPopulator().apply("key2", ROW_TWO);
+    shared.getQueue().clear();
+    shared.getPopulator().apply("key3", ROW_TWO);
+
+    // Then:
+    verify(errorHandler).accept(any(KsqlException.class));
+    assertThat(shared.getQueue(), is(empty()));
+  }
+
+  @Test(timeout = 30_000)
+  public void shouldKeepFeedingSharedSourceQueuesWhileAnotherStalls() throws Exception {
+    // Given:
+    final int numRows = 1_000;
+    final TransientQueryQueue<String> stalled = new TransientQueryQueue<>(OptionalInt.empty());
+    final TransientQueryQueue<String> draining = new TransientQueryQueue<>(OptionalInt.empty());
+    stalled.setErrorHandler(errorHandler);
+
+    final CountDownLatch drained = new CountDownLatch(numRows);
+    final Thread reader = new Thread(() -> {
+      try {
+        while (drained.getCount() > 0) {
+          draining.getQueue().take();
+          drained.countDown();
+        }
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    reader.setDaemon(true);
+    reader.start();
+
+    // When:
+    final long start = System.nanoTime();
+    IntStream.range(0, numRows).forEach(idx -> {
+      stalled.getPopulator().apply("key1", ROW_ONE);
+      draining.getPopulator().apply("key1", ROW_ONE);
+    });
+    final Duration taken = Duration.ofNanos(System.nanoTime() - start);
+
+    // Then:
+    assertThat(drained.await(10, TimeUnit.SECONDS), is(true));
+    assertThat(stalled.getQueue(), hasSize(100));
+    assertThat(taken, is(lessThan(Duration.ofSeconds(5))));
+    verify(errorHandler, times(1)).accept(any(KsqlException.class));
+  }
+}
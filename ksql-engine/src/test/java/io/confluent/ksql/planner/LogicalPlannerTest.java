@@ -126,6 +126,35 @@ public class LogicalPlannerTest {
     assertThat(joinNode.getSources().get(1), instanceOf(DataSourceNode.class));
   }
 
+  @Test
+  public void shouldPruneUnusedStreamColumnsBeforeJoin() {
+    // When:
+    final PlanNode logicalPlan = buildLogicalPlan(
+        "SELECT t1.col1, t2.col1 FROM test1 t1 LEFT JOIN test2 t2 ON t1.col1 = t2.col1;");
+
+    // Then:
+    final JoinNode joinNode = (JoinNode) logicalPlan.getSources().get(0).getSources().get(0);
+    assertThat(joinNode.getSchema().valueFieldIndex("T1.COL1").isPresent(), is(true));
+    assertThat(joinNode.getSchema().valueFieldIndex("T1.COL0").isPresent(), is(true));
+    assertThat(joinNode.getSchema().valueFieldIndex("T1.COL2").isPresent(), is(false));
+    assertThat(joinNode.getSchema().valueFieldIndex("T1.COL5").isPresent(), is(false));
+    assertThat(joinNode.getSchema().valueFieldIndex("T2.COL2").isPresent(), is(true));
+  }
+
+  @Test
+  public void shouldNotPruneJoinColumnsForLegacyQueries() {
+    // Given:
+    ksqlConfig = ksqlConfig.overrideBreakingConfigsWithOriginalValues(Collections.emptyMap());
+
+    // When:
+    final PlanNode logicalPlan = buildLogicalPlan(
+        "SELECT t1.col1, t2.col1 FROM test1 t1 LEFT JOIN test2 t2 ON t1.col1 = t2.col1;");
+
+    // Then:
+    final JoinNode joinNode = (JoinNode) logicalPlan.getSources().get(0).getSources().get(0);
+    assertThat(joinNode.getSchema().valueFieldIndex("T1.COL5").isPresent(), is(true));
+  }
+
   @Test
   public void testSimpleAggregateLogicalPlan() {
     final String simpleQuery = "SELECT col0, sum(col3), count(col3) FROM test1 window TUMBLING ( size 2 "
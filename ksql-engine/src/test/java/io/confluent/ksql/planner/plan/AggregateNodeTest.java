@@ -58,6 +58,7 @@ import io.confluent.ksql.structured.SchemaKStream;
 import io.confluent.ksql.structured.SchemaKTable;
 import io.confluent.ksql.testutils.AnalysisTestUtil;
 import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.LimitedProxyBuilder;
 import io.confluent.ksql.util.MetaStoreFixture;
 import java.util.Collections;
@@ -86,7 +87,9 @@ import org.apache.kafka.streams.kstream.ValueMapperWithKey;
 import org.apache.kafka.streams.kstream.ValueTransformerSupplier;
 import org.apache.kafka.streams.kstream.Windowed;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
@@ -99,6 +102,9 @@ public class AggregateNodeTest {
   private static final FunctionRegistry FUNCTION_REGISTRY = new InternalFunctionRegistry();
   private static final KsqlConfig KSQL_CONFIG =  new KsqlConfig(new HashMap<>());
 
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
   @Mock
   private KsqlQueryBuilder ksqlStreamBuilder;
   @Mock
@@ -176,6 +182,57 @@ public class AggregateNodeTest {
     assertThat("should select col0, agg1, agg2", result.getColumns(), contains(0L, 2.0, 3L, 4.0));
   }
 
+  @Test
+  public void shouldFilterCollectionAggregatesWithoutComparingWithPreviousValue() {
+    // Given:
+    final StreamBuilderMocker mocker = new StreamBuilderMocker();
+    builder = mocker.createMockStreamBuilder();
+
+    // When:
+    buildQuery("SELECT col0, collect_list(col1) FROM test1 "
+        + "GROUP BY col0 HAVING count(col1) > 1;");
+
+    // Then:
+    // A table that can not send old values must only be filtered directly:
+    final List<StreamBuilderMocker.FakeKTable> tables = mocker.collectAggregateTables();
+    assertThat(tables, hasSize(1));
+    assertThat(tables.get(0).filter.values(), hasSize(1));
+  }
+
+  @Test
+  public void shouldFilterPrimitiveAggregatesByComparingWithPreviousValue() {
+    // Given:
+    final StreamBuilderMocker mocker = new StreamBuilderMocker();
+    builder = mocker.createMockStreamBuilder();
+
+    // Then:
+    // Comparing with the previous value needs a table that can send old values:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("does not support sending old values");
+
+    // When:
+    buildQuery("SELECT col0, sum(col3) FROM test1 "
+        + "GROUP BY col0 HAVING sum(col3) > 10;");
+  }
+
+  @Test
+  public void shouldFilterPrimitiveAggregatesWithoutComparingWithPreviousValueIfLegacy() {
+    // Given:
+    final StreamBuilderMocker mocker = new StreamBuilderMocker();
+    builder = mocker.createMockStreamBuilder();
+
+    // When:
+    buildQuery("SELECT col0, sum(col3) FROM test1 "
+            + "GROUP BY col0 HAVING sum(col3) > 10;",
+        new KsqlConfig(ImmutableMap.of(
+            KsqlConfig.KSQL_SUPPRESS_REPEATED_HAVING_TOMBSTONES, false)));
+
+    // Then:
+    final List<StreamBuilderMocker.FakeKTable> tables = mocker.collectAggregateTables();
+    assertThat(tables, hasSize(1));
+    assertThat(tables.get(0).filter.values(), hasSize(1));
+  }
+
   @Test
   public void shouldHaveOneSubTopologyIfGroupByKey() {
     // When:
@@ -428,6 +485,14 @@ public class AggregateNodeTest {
       return builder;
     }
 
+    List<FakeKTable> collectAggregateTables() {
+      return sources.values().stream()
+          .flatMap(stream -> Streams.concat(Stream.of(stream), stream.stream()))
+          .flatMap(FakeKStream::groupStreams)
+          .flatMap(FakeKGroupedStream::tables)
+          .collect(Collectors.toList());
+    }
+
     List<ValueMapper> collectValueMappers() {
       return sources.values().stream()
           .flatMap(stream -> Streams.concat(Stream.of(stream), stream.stream()))
@@ -556,13 +621,22 @@ public class AggregateNodeTest {
     private static final class FakeKTable {
 
       private final Map<ValueMapper, FakeKTable> mapValues = new IdentityHashMap<>();
+      private final Map<Predicate, FakeKTable> filter = new IdentityHashMap<>();
 
       KTable createProxy() {
         return LimitedProxyBuilder.forClass(KTable.class)
             .forward("mapValues", methodParams(ValueMapper.class), this)
+            .forward("filter", methodParams(Predicate.class), this)
             .build();
       }
 
+      @SuppressWarnings("unused") // Invoked via reflection.
+      private KTable filter(final Predicate predicate) {
+        final FakeKTable table = new FakeKTable();
+        filter.put(predicate, table);
+        return table.createProxy();
+      }
+
       @SuppressWarnings("unused") // Invoked via reflection.
       private KTable mapValues(final ValueMapper mapper) {
         final FakeKTable table = new FakeKTable();
@@ -295,7 +295,7 @@ public class JoinNodeTest {
 
     final Topology topology = builder.build();
     final TopologyDescription.Processor leftJoin
-        = (TopologyDescription.Processor) getNodeByName(topology, "KSTREAM-LEFTJOIN-0000000015");
+        = (TopologyDescription.Processor) getNodeByName(topology, "KSTREAM-LEFTJOIN-0000000016");
     assertThat(
         leftJoin.stores(),
         equalTo(Utils.mkSet("KSTREAM-AGGREGATE-STATE-STORE-0000000004")));
@@ -395,6 +395,39 @@ public class JoinNodeTest {
         eq(CONTEXT_STACKER));
   }
 
+  @Test
+  public void shouldProjectStreamsDownToRequiredColumnsBeforeJoin() {
+    // Given:
+    setupStream(left, leftSchemaKStream);
+    setupStream(right, rightSchemaKStream);
+    when(left.getKeyField()).thenReturn(KeyField.none());
+    when(right.getKeyField()).thenReturn(KeyField.none());
+    when(leftSchemaKStream.project(any(), any())).thenReturn(leftSchemaKStream);
+    when(rightSchemaKStream.project(any(), any())).thenReturn(rightSchemaKStream);
+
+    final JoinNode joinNode = new JoinNode(
+        nodeId,
+        JoinNode.JoinType.INNER,
+        left,
+        right,
+        LEFT_JOIN_FIELD_NAME,
+        RIGHT_JOIN_FIELD_NAME,
+        WITHIN_EXPRESSION,
+        Optional.of(ImmutableSet.of(LEFT_ALIAS + ".L1"))
+    );
+
+    // When:
+    joinNode.buildStream(ksqlStreamBuilder);
+
+    // Then:
+    verify(leftSchemaKStream, never()).project(any(), any());
+    verify(rightSchemaKStream).project(
+        eq(withoutValueField(RIGHT_NODE_SCHEMA, RIGHT_ALIAS + ".C0")),
+        eq(CONTEXT_STACKER));
+    assertThat(joinNode.getSchema().valueFieldIndex(RIGHT_ALIAS + ".C0").isPresent(), is(false));
+    assertThat(joinNode.getSchema().valueFieldIndex(LEFT_ALIAS + ".L1").isPresent(), is(true));
+  }
+
   @Test
   public void shouldPerformStreamToStreamOuterJoin() {
     // Given:
@@ -1025,6 +1058,19 @@ public class JoinNodeTest {
     when(node.getDataSourceType()).thenReturn(DataSourceType.KSTREAM);
   }
 
+  private static LogicalSchema withoutValueField(
+      final LogicalSchema schema,
+      final String fieldName
+  ) {
+    return new LogicalSchema(
+        schema.metaFields(),
+        schema.keyFields(),
+        schema.valueFields().stream()
+            .filter(field -> !field.fullName().equals(fieldName))
+            .collect(Collectors.toList())
+    );
+  }
+
   @SuppressWarnings("Duplicates")
   private static LogicalSchema joinSchema() {
     final LogicalSchema.Builder schemaBuilder = LogicalSchema.builder();
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.services;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.testing.FakeTicker;
+import io.confluent.ksql.exception.KafkaResponseGetFailedException;
+import io.confluent.ksql.util.KafkaConsumerGroupClient;
+import io.confluent.ksql.util.KafkaConsumerGroupClient.ConsumerGroupSummary;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ClusterMetadataServiceTest {
+
+  private static final Duration TTL = Duration.ofSeconds(2);
+
+  private static final TopicDescription TOPIC_A =
+      new TopicDescription("a", false, Collections.emptyList());
+  private static final TopicDescription TOPIC_B =
+      new TopicDescription("b", false, Collections.emptyList());
+
+  private static final ConsumerGroupSummary GROUP_SUMMARY =
+      new ConsumerGroupSummary(Collections.emptySet());
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  @Mock
+  private KafkaTopicClient topicClient;
+  @Mock
+  private KafkaConsumerGroupClient consumerGroupClient;
+  private final FakeTicker ticker = new FakeTicker();
+  private final List<Runnable> pendingRefreshes = new ArrayList<>();
+  private ClusterMetadataService metadataService;
+
+  @Before
+  public void setUp() {
+    metadataService = givenMetadataService(TTL, ticker);
+  }
+
+  @Test
+  public void shouldDescribeAllNonInternalTopicsInOneCall() {
+    // Given:
+    givenTopics(TOPIC_A, TOPIC_B);
+
+    // When:
+    final Map<String, TopicDescription> result = metadataService.describeTopics();
+
+    // Then:
+    assertThat(result, is(ImmutableMap.of("a", TOPIC_A, "b", TOPIC_B)));
+    verify(topicClient).describeTopics(ImmutableSet.of("a", "b"));
+  }
+
+  @Test
+  public void shouldDescribeAllConsumerGroupsInOneCall() {
+    // Given:
+    when(consumerGroupClient.listGroups()).thenReturn(ImmutableList.of("g1", "g2"));
+    when(consumerGroupClient.describeConsumerGroups(ImmutableList.of("g1", "g2")))
+        .thenReturn(ImmutableMap.of("g1", GROUP_SUMMARY, "g2", GROUP_SUMMARY));
+
+    // When:
+    final Map<String, ConsumerGroupSummary> result = metadataService.describeConsumerGroups();
+
+    // Then:
+    assertThat(result, is(ImmutableMap.of("g1", GROUP_SUMMARY, "g2", GROUP_SUMMARY)));
+    verify(consumerGroupClient, never()).describeConsumerGroup("g1");
+  }
+
+  @Test
+  public void shouldServeCachedMetadataWithinTtl() {
+    // Given:
+    givenTopics(TOPIC_A);
+    metadataService.describeTopics();
+    advance(TTL.minusMillis(1));
+
+    // When:
+    final Map<String, TopicDescription> result = metadataService.describeTopics();
+
+    // Then:
+    assertThat(result, is(ImmutableMap.of("a", TOPIC_A)));
+    verify(topicClient, times(1)).listNonInternalTopicNames();
+  }
+
+  @Test
+  public void shouldServeStaleMetadataWhileRefreshingInBackground() {
+    // Given:
+    givenTopics(TOPIC_A);
+    metadataService.describeTopics();
+    advance(TTL.plusMillis(1));
+
+    // When:
+    final Map<String, TopicDescription> result = metadataService.describeTopics();
+
+    // Then:
+    assertThat(result, is(ImmutableMap.of("a", TOPIC_A)));
+    assertThat(pendingRefreshes, hasSize(1));
+  }
+
+  @Test
+  public void shouldServeRefreshedMetadataOnceRefreshed() {
+    // Given:
+    givenTopics(TOPIC_A);
+    metadataService.describeTopics();
+    givenTopics(TOPIC_A, TOPIC_B);
+    advance(TTL.plusMillis(1));
+    metadataService.describeTopics();
+    pendingRefreshes.forEach(Runnable::run);
+
+    // When:
+    final Map<String, TopicDescription> result = metadataService.describeTopics();
+
+    // Then:
+    assertThat(result, is(ImmutableMap.of("a", TOPIC_A, "b", TOPIC_B)));
+  }
+
+  @Test
+  public void shouldFetchMetadataAfreshOnceOlderThanTwiceTtl() {
+    // Given:
+    givenTopics(TOPIC_A);
+    metadataService.describeTopics();
+    givenTopics(TOPIC_A, TOPIC_B);
+    advance(TTL.multipliedBy(2).plusMillis(1));
+
+    // When:
+    final Map<String, TopicDescription> result = metadataService.describeTopics();
+
+    // Then:
+    assertThat(result, is(ImmutableMap.of("a", TOPIC_A, "b", TOPIC_B)));
+  }
+
+  @Test
+  public void shouldDescribeTopicFromCachedMetadata() {
+    // Given:
+    givenTopics(TOPIC_A, TOPIC_B);
+    metadataService.describeTopics();
+
+    // When:
+    final TopicDescription result = metadataService.describeTopic("b");
+
+    // Then:
+    assertThat(result, is(TOPIC_B));
+    verify(topicClient, never()).describeTopic("b");
+  }
+
+  @Test
+  public void shouldDescribeTopicMissingFromCachedMetadataDirectly() {
+    // Given:
+    givenTopics(TOPIC_A);
+    when(topicClient.describeTopic("b")).thenReturn(TOPIC_B);
+
+    // When:
+    final TopicDescription result = metadataService.describeTopic("b");
+
+    // Then:
+    assertThat(result, is(TOPIC_B));
+  }
+
+  @Test
+  public void shouldFetchMetadataOnEveryCallIfTtlIsZero() {
+    // Given:
+    metadataService = givenMetadataService(Duration.ZERO, Ticker.systemTicker());
+    givenTopics(TOPIC_A);
+    metadataService.describeTopics();
+
+    // When:
+    metadataService.describeTopics();
+
+    // Then:
+    verify(topicClient, times(2)).listNonInternalTopicNames();
+  }
+
+  @Test
+  public void shouldDescribeSingleTopicDirectlyIfTtlIsZero() {
+    // Given:
+    metadataService = givenMetadataService(Duration.ZERO, Ticker.systemTicker());
+    when(topicClient.describeTopic("a")).thenReturn(TOPIC_A);
+
+    // When:
+    final TopicDescription result = metadataService.describeTopic("a");
+
+    // Then:
+    assertThat(result, is(TOPIC_A));
+    verify(topicClient, never()).listNonInternalTopicNames();
+  }
+
+  @Test
+  public void shouldThrowFetchFailures() {
+    // Given:
+    when(topicClient.listNonInternalTopicNames())
+        .thenThrow(new KafkaResponseGetFailedException("boom", new RuntimeException()));
+
+    // Expect:
+    expectedException.expect(KafkaResponseGetFailedException.class);
+    expectedException.expectMessage("boom");
+
+    // When:
+    metadataService.describeTopics();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowOnNegativeTtl() {
+    givenMetadataService(Duration.ofMillis(-1), ticker);
+  }
+
+  private ClusterMetadataService givenMetadataService(final Duration ttl, final Ticker clock) {
+    return new ClusterMetadataService(
+        topicClient,
+        consumerGroupClient,
+        ttl,
+        pendingRefreshes::add,
+        clock
+    );
+  }
+
+  private void advance(final Duration duration) {
+    ticker.advance(duration.toNanos());
+  }
+
+  private void givenTopics(final TopicDescription... topics) {
+    final ImmutableMap.Builder<String, TopicDescription> descriptions = ImmutableMap.builder();
+    for (final TopicDescription topic : topics) {
+      descriptions.put(topic.name(), topic);
+    }
+
+    when(topicClient.listNonInternalTopicNames())
+        .thenReturn(descriptions.build().keySet());
+    when(topicClient.describeTopics(descriptions.build().keySet()))
+        .thenReturn(descriptions.build());
+  }
+}
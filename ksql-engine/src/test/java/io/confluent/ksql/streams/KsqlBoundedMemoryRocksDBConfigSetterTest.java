@@ -0,0 +1,188 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.streams;
+
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.kafka.streams.StreamsConfig;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.Cache;
+import org.rocksdb.Options;
+import org.rocksdb.WriteBufferManager;
+
+@RunWith(MockitoJUnitRunner.class)
+public class KsqlBoundedMemoryRocksDBConfigSetterTest {
+
+  private static final Map<String, Object> CONFIGS = ImmutableMap.of(
+      KsqlConfig.KSQL_ROCKSDB_TOTAL_MEMORY_BYTES_CONFIG, 16 * 1024 * 1024L,
+      KsqlConfig.KSQL_ROCKSDB_WRITE_BUFFER_RATIO_CONFIG, 0.5,
+      KsqlConfig.KSQL_ROCKSDB_CACHE_INDEX_AND_FILTER_BLOCKS_CONFIG, false
+  );
+
+  @Mock
+  private Options options;
+  @Mock
+  private BlockBasedTableConfig tableConfig;
+  @Mock
+  private Options otherOptions;
+  @Mock
+  private BlockBasedTableConfig otherTableConfig;
+
+  @Test
+  public void shouldShareCacheAndWriteBufferManagerBetweenStores() {
+    // Given:
+    givenTableConfigs();
+
+    // When:
+    new KsqlBoundedMemoryRocksDBConfigSetter().setConfig("store-1", options, CONFIGS);
+    new KsqlBoundedMemoryRocksDBConfigSetter().setConfig("store-2", otherOptions, CONFIGS);
+
+    // Then:
+    assertThat(cacheOf(otherTableConfig), is(sameInstance(cacheOf(tableConfig))));
+    assertThat(writeBufferManagerOf(otherOptions),
+        is(sameInstance(writeBufferManagerOf(options))));
+    verify(options).setTableFormatConfig(tableConfig);
+  }
+
+  @Test
+  public void shouldNotShareCacheBetweenDifferentMemorySettings() {
+    // Given:
+    givenTableConfigs();
+    final Map<String, Object> otherConfigs = new HashMap<>(CONFIGS);
+    otherConfigs.put(KsqlConfig.KSQL_ROCKSDB_TOTAL_MEMORY_BYTES_CONFIG, 8 * 1024 * 1024L);
+
+    // When:
+    new KsqlBoundedMemoryRocksDBConfigSetter().setConfig("store-1", options, CONFIGS);
+    new KsqlBoundedMemoryRocksDBConfigSetter().setConfig("store-2", otherOptions, otherConfigs);
+
+    // Then:
+    assertThat(cacheOf(otherTableConfig), is(not(sameInstance(cacheOf(tableConfig)))));
+  }
+
+  @Test
+  public void shouldNotCacheIndexAndFilterBlocksByDefault() {
+    // Given:
+    when(options.tableFormatConfig()).thenReturn(tableConfig);
+
+    // When:
+    new KsqlBoundedMemoryRocksDBConfigSetter().setConfig("store", options, CONFIGS);
+
+    // Then:
+    verify(tableConfig, never()).setCacheIndexAndFilterBlocks(anyBoolean());
+    verify(tableConfig, never()).setPinTopLevelIndexAndFilter(anyBoolean());
+  }
+
+  @Test
+  public void shouldCacheAndPinIndexAndFilterBlocksIfConfigured() {
+    // Given:
+    when(options.tableFormatConfig()).thenReturn(tableConfig);
+    final Map<String, Object> configs = new HashMap<>(CONFIGS);
+    configs.put(KsqlConfig.KSQL_ROCKSDB_CACHE_INDEX_AND_FILTER_BLOCKS_CONFIG, true);
+
+    // When:
+    new KsqlBoundedMemoryRocksDBConfigSetter().setConfig("store", options, configs);
+
+    // Then:
+    verify(tableConfig).setCacheIndexAndFilterBlocks(true);
+    verify(tableConfig).setCacheIndexAndFilterBlocksWithHighPriority(true);
+    verify(tableConfig).setPinTopLevelIndexAndFilter(true);
+  }
+
+  @Test
+  public void shouldAddConfigsIfMemoryBounded() {
+    // Given:
+    final KsqlConfig ksqlConfig = new KsqlConfig(ImmutableMap.of(
+        KsqlConfig.KSQL_ROCKSDB_TOTAL_MEMORY_BYTES_CONFIG, 1024L
+    ));
+    final Map<String, Object> streamsProperties = new HashMap<>();
+
+    // When:
+    KsqlBoundedMemoryRocksDBConfigSetter.addConfigs(ksqlConfig, streamsProperties);
+
+    // Then:
+    assertThat(streamsProperties, hasEntry(
+        StreamsConfig.ROCKSDB_CONFIG_SETTER_CLASS_CONFIG,
+        (Object) KsqlBoundedMemoryRocksDBConfigSetter.class.getName()));
+    assertThat(streamsProperties, hasEntry(
+        KsqlConfig.KSQL_ROCKSDB_TOTAL_MEMORY_BYTES_CONFIG, (Object) 1024L));
+  }
+
+  @Test
+  public void shouldNotAddConfigsIfMemoryNotBounded() {
+    // Given:
+    final KsqlConfig ksqlConfig = new KsqlConfig(ImmutableMap.of());
+    final Map<String, Object> streamsProperties = new HashMap<>();
+
+    // When:
+    KsqlBoundedMemoryRocksDBConfigSetter.addConfigs(ksqlConfig, streamsProperties);
+
+    // Then:
+    assertThat(streamsProperties.isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldNotReplaceUserConfiguredSetter() {
+    // Given:
+    final KsqlConfig ksqlConfig = new KsqlConfig(ImmutableMap.of(
+        KsqlConfig.KSQL_ROCKSDB_TOTAL_MEMORY_BYTES_CONFIG, 1024L
+    ));
+    final Map<String, Object> streamsProperties = new HashMap<>(ImmutableMap.of(
+        StreamsConfig.ROCKSDB_CONFIG_SETTER_CLASS_CONFIG, "some.Setter"
+    ));
+
+    // When:
+    KsqlBoundedMemoryRocksDBConfigSetter.addConfigs(ksqlConfig, streamsProperties);
+
+    // Then:
+    assertThat(streamsProperties, is(ImmutableMap.of(
+        StreamsConfig.ROCKSDB_CONFIG_SETTER_CLASS_CONFIG, "some.Setter")));
+  }
+
+  private void givenTableConfigs() {
+    when(options.tableFormatConfig()).thenReturn(tableConfig);
+    when(otherOptions.tableFormatConfig()).thenReturn(otherTableConfig);
+  }
+
+  private static Cache cacheOf(final BlockBasedTableConfig tableConfig) {
+    final ArgumentCaptor<Cache> captor = ArgumentCaptor.forClass(Cache.class);
+    verify(tableConfig).setBlockCache(captor.capture());
+    return captor.getValue();
+  }
+
+  private static WriteBufferManager writeBufferManagerOf(final Options options) {
+    final ArgumentCaptor<WriteBufferManager> captor =
+        ArgumentCaptor.forClass(WriteBufferManager.class);
+    verify(options).setWriteBufferManager(captor.capture());
+    return captor.getValue();
+  }
+}
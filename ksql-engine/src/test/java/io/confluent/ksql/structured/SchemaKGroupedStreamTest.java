@@ -16,7 +16,9 @@
 package io.confluent.ksql.structured;
 
 import static java.util.Collections.emptyMap;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.mockito.ArgumentMatchers.any;
@@ -35,16 +37,20 @@ import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.function.KsqlAggregateFunction;
 import io.confluent.ksql.metastore.model.KeyField;
 import io.confluent.ksql.model.WindowType;
+import io.confluent.ksql.parser.tree.HoppingWindowExpression;
 import io.confluent.ksql.parser.tree.KsqlWindowExpression;
+import io.confluent.ksql.parser.tree.ResultMaterialization;
 import io.confluent.ksql.parser.tree.WindowExpression;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.schema.ksql.Field;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
 import io.confluent.ksql.serde.KeySerde;
 import io.confluent.ksql.serde.WindowInfo;
 import io.confluent.ksql.streams.MaterializedFactory;
 import io.confluent.ksql.streams.StreamsUtil;
 import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlException;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
@@ -53,16 +59,23 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.streams.kstream.Initializer;
 import org.apache.kafka.streams.kstream.KGroupedStream;
+import org.apache.kafka.streams.kstream.KStream;
 import org.apache.kafka.streams.kstream.KTable;
 import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.TimeWindowedKStream;
+import org.apache.kafka.streams.kstream.TimeWindows;
+import org.apache.kafka.streams.kstream.TransformerSupplier;
 import org.apache.kafka.streams.kstream.ValueMapper;
 import org.apache.kafka.streams.kstream.ValueMapperWithKey;
 import org.apache.kafka.streams.kstream.Windowed;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -70,6 +83,10 @@ import org.mockito.junit.MockitoJUnitRunner;
 @SuppressWarnings("unchecked")
 @RunWith(MockitoJUnitRunner.class)
 public class SchemaKGroupedStreamTest {
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
   @Mock
   private LogicalSchema schema;
   @Mock
@@ -268,6 +285,38 @@ public class SchemaKGroupedStreamTest {
     assertThat(result.getKeySerde(), is(windowedKeySerde));
   }
 
+  @Test
+  public void shouldMapAggregatesOfFunctionsWithResultMapper() {
+    // Given:
+    final LogicalSchema sketchSchema = LogicalSchema.builder()
+        .valueField("KSQL_INTERNAL_COL_0", SqlTypes.BIGINT)
+        .valueField("KSQL_AGG_VARIABLE_0", SqlTypes.STRING)
+        .build();
+
+    when(otherFunc.getAggregateType()).thenReturn(Schema.OPTIONAL_STRING_SCHEMA);
+    when(otherFunc.getReturnType()).thenReturn(Schema.OPTIONAL_INT64_SCHEMA);
+    when(groupedStream.aggregate(any(), any(), any())).thenReturn(table);
+    when(table.mapValues(any(ValueMapper.class))).thenReturn(table2);
+
+    // When:
+    final SchemaKTable result = schemaGroupedStream.aggregate(
+        sketchSchema,
+        initializer,
+        1,
+        ImmutableMap.of(1, otherFunc),
+        null,
+        topicValueSerDe,
+        queryContext
+    );
+
+    // Then:
+    assertThat(result.getKtable(), is(sameInstance(table2)));
+    assertThat(result.getSchema(), is(LogicalSchema.builder()
+        .valueField("KSQL_INTERNAL_COL_0", SqlTypes.BIGINT)
+        .valueField("KSQL_AGG_VARIABLE_0", SqlTypes.BIGINT)
+        .build()));
+  }
+
   private void assertDoesNotInstallWindowSelectMapper(
       final WindowExpression windowExp,
       final Map<Integer, KsqlAggregateFunction> funcMap) {
@@ -407,6 +456,220 @@ public class SchemaKGroupedStreamTest {
     assertThat(result.getSchema(), is(aggregateSchema));
   }
 
+  @Test
+  public void shouldSuppressUntilWindowClosesIfEmitFinal() {
+    // Given:
+    when(ksqlWindowExp.applyAggregate(any(), any(), any(), any())).thenReturn(table);
+    when(table.suppress(any())).thenReturn(table2);
+    when(config.getLong(KsqlConfig.KSQL_SUPPRESS_BUFFER_SIZE_BYTES_CONFIG)).thenReturn(-1L);
+
+    // When:
+    final SchemaKTable result = schemaGroupedStream.aggregate(
+        aggregateSchema,
+        initializer,
+        0,
+        emptyMap(),
+        windowExp,
+        ResultMaterialization.FINAL,
+        topicValueSerDe,
+        queryContext
+    );
+
+    // Then:
+    assertThat(result.getKtable(), is(sameInstance(table2)));
+  }
+
+  @Test
+  public void shouldNotMaterializeForPullQueriesIfEmitFinal() {
+    // Given:
+    when(ksqlWindowExp.applyAggregate(any(), any(), any(), any())).thenReturn(table);
+    when(table.suppress(any())).thenReturn(table2);
+    when(config.getLong(KsqlConfig.KSQL_SUPPRESS_BUFFER_SIZE_BYTES_CONFIG)).thenReturn(-1L);
+    when(config.getString(KsqlConfig.KSQL_USE_NAMED_INTERNAL_TOPICS))
+        .thenReturn(KsqlConfig.KSQL_USE_NAMED_INTERNAL_TOPICS_ON);
+
+    // When:
+    final SchemaKTable<?> result = schemaGroupedStream.aggregate(
+        aggregateSchema,
+        initializer,
+        0,
+        emptyMap(),
+        windowExp,
+        ResultMaterialization.FINAL,
+        topicValueSerDe,
+        queryContext
+    );
+
+    // Then:
+    assertThat(result.getMaterializationInfo(), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldSuppressBeforeInstallingWindowSelectMapper() {
+    // Given:
+    when(ksqlWindowExp.applyAggregate(any(), any(), any(), any())).thenReturn(table);
+    when(table.suppress(any())).thenReturn(table2);
+    when(table2.mapValues(any(ValueMapperWithKey.class))).thenReturn(table);
+    when(config.getLong(KsqlConfig.KSQL_SUPPRESS_BUFFER_SIZE_BYTES_CONFIG)).thenReturn(1024L);
+    givenAggregateSchemaFieldCount(2);
+
+    // When:
+    schemaGroupedStream.aggregate(
+        aggregateSchema,
+        initializer,
+        0,
+        ImmutableMap.of(0, otherFunc, 1, windowStartFunc),
+        windowExp,
+        ResultMaterialization.FINAL,
+        topicValueSerDe,
+        queryContext
+    );
+
+    // Then:
+    verify(table2).mapValues(any(ValueMapperWithKey.class));
+    verify(table, never()).mapValues(any(ValueMapperWithKey.class));
+  }
+
+  @Test
+  public void shouldNotSuppressIfEmitChanges() {
+    // Given:
+    when(ksqlWindowExp.applyAggregate(any(), any(), any(), any())).thenReturn(table);
+
+    // When:
+    schemaGroupedStream.aggregate(
+        aggregateSchema,
+        initializer,
+        0,
+        emptyMap(),
+        windowExp,
+        ResultMaterialization.CHANGES,
+        topicValueSerDe,
+        queryContext
+    );
+
+    // Then:
+    verify(table, never()).suppress(any());
+  }
+
+  @Test
+  public void shouldAggregateOverlappingHoppingWindowsInPanesIfEnabled() {
+    // Given:
+    final TimeWindowedKStream windowedStream = mock(TimeWindowedKStream.class);
+    final KStream paneStream = mock(KStream.class);
+    final KStream windowStream = mock(KStream.class);
+    when(windowExp.getKsqlWindowExpression())
+        .thenReturn(new HoppingWindowExpression(30, SECONDS, 10, SECONDS));
+    when(config.getBoolean(KsqlConfig.KSQL_HOPPING_WINDOW_PANES_ENABLE_CONFIG)).thenReturn(true);
+    when(groupedStream.windowedBy(any(TimeWindows.class))).thenReturn(windowedStream);
+    when(windowedStream.aggregate(any(), any(), any(Materialized.class))).thenReturn(table);
+    when(table.toStream()).thenReturn(paneStream);
+    when(paneStream.flatTransform(any(TransformerSupplier.class), any(String.class)))
+        .thenReturn(windowStream);
+
+    // When:
+    final SchemaKTable result = schemaGroupedStream.aggregate(
+        aggregateSchema,
+        initializer,
+        0,
+        emptyMap(),
+        windowExp,
+        ResultMaterialization.CHANGES,
+        topicValueSerDe,
+        queryContext
+    );
+
+    // Then:
+    verify(groupedStream).windowedBy(
+        TimeWindows.of(Duration.ofSeconds(10)).grace(Duration.ofDays(1).minusSeconds(10)));
+    verify(paneStream).flatTransform(
+        any(TransformerSupplier.class),
+        eq(StreamsUtil.buildOpName(queryContext.getQueryContext())));
+    assertThat(result, is(instanceOf(SchemaKChangelogTable.class)));
+    assertThat(result.getKstream(), is(sameInstance(windowStream)));
+  }
+
+  @Test
+  public void shouldNotUsePanesIfEachUpdateWouldMergeTooManyPanes() {
+    // Given:
+    final TimeWindowedKStream windowedStream = mock(TimeWindowedKStream.class);
+    when(windowExp.getKsqlWindowExpression())
+        .thenReturn(new HoppingWindowExpression(300, SECONDS, 1, SECONDS));
+    when(config.getBoolean(KsqlConfig.KSQL_HOPPING_WINDOW_PANES_ENABLE_CONFIG)).thenReturn(true);
+    when(groupedStream.windowedBy(any(TimeWindows.class))).thenReturn(windowedStream);
+    when(windowedStream.aggregate(any(), any(), any(Materialized.class))).thenReturn(table);
+
+    // When:
+    final SchemaKTable result = schemaGroupedStream.aggregate(
+        aggregateSchema,
+        initializer,
+        0,
+        emptyMap(),
+        windowExp,
+        ResultMaterialization.CHANGES,
+        topicValueSerDe,
+        queryContext
+    );
+
+    // Then:
+    verify(groupedStream).windowedBy(
+        TimeWindows.of(Duration.ofSeconds(300)).advanceBy(Duration.ofSeconds(1)));
+    assertThat(result.getKtable(), is(sameInstance(table)));
+  }
+
+  @Test
+  public void shouldThrowKsqlExceptionOnGetKtableOfPaneAggregate() {
+    // Given:
+    final TimeWindowedKStream windowedStream = mock(TimeWindowedKStream.class);
+    final KStream paneStream = mock(KStream.class);
+    when(windowExp.getKsqlWindowExpression())
+        .thenReturn(new HoppingWindowExpression(30, SECONDS, 10, SECONDS));
+    when(config.getBoolean(KsqlConfig.KSQL_HOPPING_WINDOW_PANES_ENABLE_CONFIG)).thenReturn(true);
+    when(groupedStream.windowedBy(any(TimeWindows.class))).thenReturn(windowedStream);
+    when(windowedStream.aggregate(any(), any(), any(Materialized.class))).thenReturn(table);
+    when(table.toStream()).thenReturn(paneStream);
+    when(paneStream.flatTransform(any(TransformerSupplier.class), any(String.class)))
+        .thenReturn(mock(KStream.class));
+
+    final SchemaKTable result = schemaGroupedStream.aggregate(
+        aggregateSchema,
+        initializer,
+        0,
+        emptyMap(),
+        windowExp,
+        ResultMaterialization.CHANGES,
+        topicValueSerDe,
+        queryContext
+    );
+
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("can not be grouped or joined");
+
+    // When:
+    result.getKtable();
+  }
+
+  @Test
+  public void shouldNotUsePanesForOtherWindowTypes() {
+    // Given:
+    when(config.getBoolean(KsqlConfig.KSQL_HOPPING_WINDOW_PANES_ENABLE_CONFIG)).thenReturn(true);
+    when(ksqlWindowExp.applyAggregate(any(), any(), any(), any())).thenReturn(table);
+
+    // When:
+    final SchemaKTable result = schemaGroupedStream.aggregate(
+        aggregateSchema,
+        initializer,
+        0,
+        emptyMap(),
+        windowExp,
+        ResultMaterialization.CHANGES,
+        topicValueSerDe,
+        queryContext
+    );
+
+    // Then:
+    assertThat(result.getKtable(), is(sameInstance(table)));
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void shouldThrowOnColumnCountMismatch() {
     // Given:
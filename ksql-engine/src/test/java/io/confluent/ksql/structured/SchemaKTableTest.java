@@ -71,6 +71,7 @@ import io.confluent.ksql.streams.StreamsUtil;
 import io.confluent.ksql.structured.SchemaKStream.Type;
 import io.confluent.ksql.testutils.AnalysisTestUtil;
 import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.MetaStoreFixture;
 import io.confluent.ksql.util.SchemaUtil;
 import java.util.ArrayList;
@@ -90,6 +91,7 @@ import org.apache.kafka.streams.kstream.KGroupedTable;
 import org.apache.kafka.streams.kstream.KTable;
 import org.apache.kafka.streams.kstream.KeyValueMapper;
 import org.apache.kafka.streams.kstream.Predicate;
+import org.apache.kafka.streams.kstream.internals.KTableImpl;
 import org.easymock.Capture;
 import org.easymock.EasyMock;
 import org.hamcrest.Matchers;
@@ -326,6 +328,71 @@ public class SchemaKTableTest {
     assertThat(filteredSchemaKStream.getSourceSchemaKStreams().get(0), is(initialSchemaKTable));
   }
 
+  @Test
+  public void shouldEnableSendingOldValuesWhenFilteringAggregate() {
+    // Given:
+    final String selectQuery = "SELECT col0, col2, col3 FROM test2 WHERE col0 > 100;";
+    final PlanNode logicalPlan = buildLogicalPlan(selectQuery);
+    final FilterNode filterNode = (FilterNode) logicalPlan.getSources().get(0).getSources().get(0);
+
+    final KTable aggregateKTable = mock(KTable.class);
+    final KTableImpl filteredKTable = mock(KTableImpl.class);
+    expect(aggregateKTable.filter(anyObject(Predicate.class))).andReturn(filteredKTable);
+    filteredKTable.enableSendingOldValues();
+    EasyMock.expectLastCall();
+    replay(aggregateKTable, filteredKTable);
+
+    initialSchemaKTable = new SchemaKTable<>(
+        aggregateKTable, logicalPlan.getTheSourceNode().getSchema(),
+        keySerde,
+        logicalPlan.getTheSourceNode().getKeyField(),
+        new ArrayList<>(),
+        SchemaKStream.Type.AGGREGATE,
+        ksqlConfig,
+        functionRegistry,
+        parentContext);
+
+    // When:
+    final SchemaKTable filteredSchemaKTable = initialSchemaKTable.filterAggregate(
+        filterNode.getPredicate(),
+        childContextStacker,
+        processingLogContext
+    );
+
+    // Then:
+    verify(aggregateKTable, filteredKTable);
+    assertThat(filteredSchemaKTable.getKtable(), is(filteredKTable));
+  }
+
+  @Test(expected = KsqlException.class)
+  public void shouldThrowWhenFilteringAggregateOfTableThatCanNotSendOldValues() {
+    // Given:
+    final String selectQuery = "SELECT col0, col2, col3 FROM test2 WHERE col0 > 100;";
+    final PlanNode logicalPlan = buildLogicalPlan(selectQuery);
+    final FilterNode filterNode = (FilterNode) logicalPlan.getSources().get(0).getSources().get(0);
+
+    final KTable aggregateKTable = mock(KTable.class);
+    expect(aggregateKTable.filter(anyObject(Predicate.class))).andReturn(mock(KTable.class));
+    replay(aggregateKTable);
+
+    initialSchemaKTable = new SchemaKTable<>(
+        aggregateKTable, logicalPlan.getTheSourceNode().getSchema(),
+        keySerde,
+        logicalPlan.getTheSourceNode().getKeyField(),
+        new ArrayList<>(),
+        SchemaKStream.Type.AGGREGATE,
+        ksqlConfig,
+        functionRegistry,
+        parentContext);
+
+    // When:
+    initialSchemaKTable.filterAggregate(
+        filterNode.getPredicate(),
+        childContextStacker,
+        processingLogContext
+    );
+  }
+
   @Test
   public void testGroupBy() {
     // Given:
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import com.google.common.testing.EqualsTester;
+import java.util.Optional;
+import org.apache.kafka.streams.kstream.Window;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.kstream.internals.TimeWindow;
+import org.junit.Test;
+
+public class TransientQueryKeyTest {
+
+  private static final Window WINDOW = new TimeWindow(1000L, 2000L);
+
+  @Test
+  public void shouldImplementEquals() {
+    new EqualsTester()
+        .addEqualityGroup(
+            TransientQueryKey.of("a"),
+            TransientQueryKey.of("a")
+        )
+        .addEqualityGroup(
+            TransientQueryKey.of("b")
+        )
+        .addEqualityGroup(
+            TransientQueryKey.of(new Windowed<>("a", WINDOW)),
+            TransientQueryKey.of(new Windowed<>("a", WINDOW))
+        )
+        .addEqualityGroup(
+            TransientQueryKey.of(new Windowed<>("a", new TimeWindow(1000L, 3000L)))
+        )
+        .testEquals();
+  }
+
+  @Test
+  public void shouldHoldUnwindowedKey() {
+    // When:
+    final TransientQueryKey key = TransientQueryKey.of("a");
+
+    // Then:
+    assertThat(key.getKey(), is("a"));
+    assertThat(key.getWindow(), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldHoldWindowedKeyAndWindowSeparately() {
+    // When:
+    final TransientQueryKey key = TransientQueryKey.of(new Windowed<>("a", WINDOW));
+
+    // Then:
+    assertThat(key.getKey(), is("a"));
+    assertThat(key.getWindow().map(Window::start), is(Optional.of(1000L)));
+    assertThat(key.getWindow().map(Window::end), is(Optional.of(2000L)));
+  }
+
+  @Test
+  public void shouldRenderUnwindowedKey() {
+    assertThat(TransientQueryKey.of("a").toString(), is("a"));
+    assertThat(TransientQueryKey.of(null).toString(), is("null"));
+  }
+
+  @Test
+  public void shouldRenderWindowedKeyAsBefore() {
+    // When:
+    final TransientQueryKey key = TransientQueryKey.of(new Windowed<>("a", WINDOW));
+
+    // Then:
+    assertThat(key.toString(), is(String.format("%s : %s", "a", WINDOW)));
+  }
+}
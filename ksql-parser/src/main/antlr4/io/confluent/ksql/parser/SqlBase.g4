@@ -78,9 +78,15 @@ query
       (WHERE where=booleanExpression)?
       (GROUP BY groupBy)?
       (HAVING having=booleanExpression)?
+      (EMIT resultMaterialization)?
       limitClause?
     ;
 
+resultMaterialization
+    : CHANGES
+    | FINAL
+    ;
+
 tableElements
     : '(' tableElement (',' tableElement)* ')'
     ;
@@ -115,15 +121,29 @@ windowExpression
     ;
 
 tumblingWindowExpression
-    : TUMBLING '(' SIZE number windowUnit')'
+    : TUMBLING '(' SIZE number windowUnit
+      (',' retentionClause)?
+      (',' gracePeriodClause)? ')'
     ;
 
 hoppingWindowExpression
-    : HOPPING '(' SIZE number windowUnit ',' ADVANCE BY number windowUnit ')'
+    : HOPPING '(' SIZE number windowUnit ',' ADVANCE BY number windowUnit
+      (',' retentionClause)?
+      (',' gracePeriodClause)? ')'
     ;
 
 sessionWindowExpression
-    : SESSION '(' number windowUnit ')'
+    : SESSION '(' number windowUnit
+      (',' retentionClause)?
+      (',' gracePeriodClause)? ')'
+    ;
+
+retentionClause
+    : RETENTION number windowUnit
+    ;
+
+gracePeriodClause
+    : GRACE PERIOD number windowUnit
     ;
 
 windowUnit
@@ -153,7 +173,12 @@ groupingExpressions
     ;
 
 values
-    : '(' (literal (',' literal)*)? ')'
+    : '(' (insertValue (',' insertValue)*)? ')'
+    ;
+
+insertValue
+    : literal
+    | '?'
     ;
 
 /*
@@ -182,8 +207,8 @@ joinWindow
     ;
 
 withinExpression
-    : '(' joinWindowSize ',' joinWindowSize ')' # joinWindowWithBeforeAndAfter
-    | joinWindowSize # singleJoinWindow
+    : '(' joinWindowSize ',' joinWindowSize ')' (gracePeriodClause)? # joinWindowWithBeforeAndAfter
+    | joinWindowSize (gracePeriodClause)? # singleJoinWindow
     ;
 
 joinWindowSize
@@ -325,6 +350,8 @@ nonReserved
     | IF
     | SOURCE | SINK
     | KEY
+    | EMIT | CHANGES | FINAL
+    | RETENTION | GRACE | PERIOD
     ;
 
 SELECT: 'SELECT';
@@ -338,6 +365,9 @@ GROUP: 'GROUP';
 BY: 'BY';
 HAVING: 'HAVING';
 LIMIT: 'LIMIT';
+EMIT: 'EMIT';
+CHANGES: 'CHANGES';
+FINAL: 'FINAL';
 AT: 'AT';
 OR: 'OR';
 AND: 'AND';
@@ -374,6 +404,9 @@ TUMBLING: 'TUMBLING';
 HOPPING: 'HOPPING';
 SIZE: 'SIZE';
 ADVANCE: 'ADVANCE';
+RETENTION: 'RETENTION';
+GRACE: 'GRACE';
+PERIOD: 'PERIOD';
 CASE: 'CASE';
 WHEN: 'WHEN';
 THEN: 'THEN';
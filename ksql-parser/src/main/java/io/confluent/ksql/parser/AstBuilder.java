@@ -59,6 +59,7 @@ import io.confluent.ksql.parser.SqlBaseParser.CreateConnectorContext;
 import io.confluent.ksql.parser.SqlBaseParser.DescribeConnectorContext;
 import io.confluent.ksql.parser.SqlBaseParser.DropConnectorContext;
 import io.confluent.ksql.parser.SqlBaseParser.DropTypeContext;
+import io.confluent.ksql.parser.SqlBaseParser.InsertValueContext;
 import io.confluent.ksql.parser.SqlBaseParser.InsertValuesContext;
 import io.confluent.ksql.parser.SqlBaseParser.IntervalClauseContext;
 import io.confluent.ksql.parser.SqlBaseParser.LimitClauseContext;
@@ -105,6 +106,7 @@ import io.confluent.ksql.parser.tree.PrintTopic;
 import io.confluent.ksql.parser.tree.Query;
 import io.confluent.ksql.parser.tree.RegisterType;
 import io.confluent.ksql.parser.tree.Relation;
+import io.confluent.ksql.parser.tree.ResultMaterialization;
 import io.confluent.ksql.parser.tree.RunScript;
 import io.confluent.ksql.parser.tree.Select;
 import io.confluent.ksql.parser.tree.SelectItem;
@@ -123,6 +125,7 @@ import io.confluent.ksql.parser.tree.TerminateQuery;
 import io.confluent.ksql.parser.tree.TumblingWindowExpression;
 import io.confluent.ksql.parser.tree.UnsetProperty;
 import io.confluent.ksql.parser.tree.WindowExpression;
+import io.confluent.ksql.parser.tree.WindowTimeClause;
 import io.confluent.ksql.parser.tree.WithinExpression;
 import io.confluent.ksql.schema.Operator;
 import io.confluent.ksql.util.DataSourceExtractor;
@@ -331,11 +334,24 @@ public class AstBuilder {
         columns = ImmutableList.of();
       }
 
+      final List<Expression> values = new ArrayList<>();
+      final List<Integer> parameterIndexes = new ArrayList<>();
+      for (final InsertValueContext value : context.values().insertValue()) {
+        if (value.literal() == null) {
+          // a parameter, bound to a value before execution:
+          parameterIndexes.add(values.size());
+          values.add(new NullLiteral(getLocation(value)));
+        } else {
+          values.add((Expression) visit(value.literal()));
+        }
+      }
+
       return new InsertValues(
           targetLocation,
           targetName,
           columns,
-          visit(context.values().literal(), Expression.class));
+          values,
+          parameterIndexes);
     }
 
     @Override
@@ -385,10 +401,21 @@ public class AstBuilder {
           visitIfPresent(context.where, Expression.class),
           visitIfPresent(context.groupBy(), GroupBy.class),
           visitIfPresent(context.having, Expression.class),
+          getResultMaterialization(context.resultMaterialization()),
           limit
       );
     }
 
+    private static ResultMaterialization getResultMaterialization(
+        final SqlBaseParser.ResultMaterializationContext context
+    ) {
+      if (context == null || context.CHANGES() != null) {
+        return ResultMaterialization.CHANGES;
+      }
+
+      return ResultMaterialization.FINAL;
+    }
+
     @Override
     public Node visitWindowExpression(final SqlBaseParser.WindowExpressionContext ctx) {
       String windowName = DEFAULT_WINDOW_NAME;
@@ -437,7 +464,9 @@ public class AstBuilder {
           Long.parseLong(sizeStr),
           WindowExpression.getWindowUnit(sizeUnit.toUpperCase()),
           Long.parseLong(advanceByStr),
-          WindowExpression.getWindowUnit(advanceByUnit.toUpperCase())
+          WindowExpression.getWindowUnit(advanceByUnit.toUpperCase()),
+          getRetention(ctx.retentionClause()),
+          getGracePeriod(ctx.gracePeriodClause())
       );
     }
 
@@ -450,7 +479,9 @@ public class AstBuilder {
       return new TumblingWindowExpression(
           getLocation(ctx),
           Long.parseLong(sizeStr),
-          WindowExpression.getWindowUnit(sizeUnit.toUpperCase())
+          WindowExpression.getWindowUnit(sizeUnit.toUpperCase()),
+          getRetention(ctx.retentionClause()),
+          getGracePeriod(ctx.gracePeriodClause())
       );
     }
 
@@ -463,13 +494,46 @@ public class AstBuilder {
       return new SessionWindowExpression(
           getLocation(ctx),
           Long.parseLong(sizeStr),
-          WindowExpression.getWindowUnit(sizeUnit.toUpperCase())
+          WindowExpression.getWindowUnit(sizeUnit.toUpperCase()),
+          getRetention(ctx.retentionClause()),
+          getGracePeriod(ctx.gracePeriodClause())
+      );
+    }
+
+    private static Optional<WindowTimeClause> getRetention(
+        final SqlBaseParser.RetentionClauseContext ctx
+    ) {
+      if (ctx == null) {
+        return Optional.empty();
+      }
+
+      return Optional.of(getWindowTimeClause(ctx.number(), ctx.windowUnit()));
+    }
+
+    private static Optional<WindowTimeClause> getGracePeriod(
+        final SqlBaseParser.GracePeriodClauseContext ctx
+    ) {
+      if (ctx == null) {
+        return Optional.empty();
+      }
+
+      return Optional.of(getWindowTimeClause(ctx.number(), ctx.windowUnit()));
+    }
+
+    private static WindowTimeClause getWindowTimeClause(
+        final SqlBaseParser.NumberContext number,
+        final SqlBaseParser.WindowUnitContext windowUnit
+    ) {
+      return new WindowTimeClause(
+          Long.parseLong(number.getText()),
+          WindowExpression.getWindowUnit(windowUnit.getText().toUpperCase())
       );
     }
 
     private static Node visitWithinExpression(final SqlBaseParser.WithinExpressionContext ctx) {
       final Pair<Long, TimeUnit> beforeSize;
       final Pair<Long, TimeUnit> afterSize;
+      final Optional<WindowTimeClause> gracePeriod;
 
       if (ctx instanceof SqlBaseParser.SingleJoinWindowContext) {
 
@@ -478,12 +542,14 @@ public class AstBuilder {
 
         beforeSize = getSizeAndUnitFromJoinWindowSize(singleWithin.joinWindowSize());
         afterSize = beforeSize;
+        gracePeriod = getGracePeriod(singleWithin.gracePeriodClause());
       } else if (ctx instanceof SqlBaseParser.JoinWindowWithBeforeAndAfterContext) {
         final SqlBaseParser.JoinWindowWithBeforeAndAfterContext beforeAndAfterJoinWindow
             = (SqlBaseParser.JoinWindowWithBeforeAndAfterContext) ctx;
 
         beforeSize = getSizeAndUnitFromJoinWindowSize(beforeAndAfterJoinWindow.joinWindowSize(0));
         afterSize = getSizeAndUnitFromJoinWindowSize(beforeAndAfterJoinWindow.joinWindowSize(1));
+        gracePeriod = getGracePeriod(beforeAndAfterJoinWindow.gracePeriodClause());
 
       } else {
         throw new RuntimeException("Expecting either a single join window, ie \"WITHIN 10 "
@@ -495,7 +561,8 @@ public class AstBuilder {
           beforeSize.left,
           afterSize.left,
           beforeSize.right,
-          afterSize.right
+          afterSize.right,
+          gracePeriod
       );
     }
 
@@ -46,6 +46,7 @@ import io.confluent.ksql.parser.tree.ListTables;
 import io.confluent.ksql.parser.tree.Query;
 import io.confluent.ksql.parser.tree.RegisterType;
 import io.confluent.ksql.parser.tree.Relation;
+import io.confluent.ksql.parser.tree.ResultMaterialization;
 import io.confluent.ksql.parser.tree.Select;
 import io.confluent.ksql.parser.tree.SelectItem;
 import io.confluent.ksql.parser.tree.SetProperty;
@@ -61,6 +62,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.apache.commons.lang3.StringUtils;
 
 public final class SqlFormatter {
@@ -130,6 +132,11 @@ public final class SqlFormatter {
             .append('\n');
       }
 
+      if (node.getResultMaterialization() == ResultMaterialization.FINAL) {
+        append(indent, "EMIT FINAL")
+            .append('\n');
+      }
+
       if (node.getLimit().isPresent()) {
         append(indent, "LIMIT " + node.getLimit().getAsInt())
                 .append('\n');
@@ -314,10 +321,12 @@ public final class SqlFormatter {
       builder.append("VALUES ");
 
       builder.append("(");
+      final List<Expression> values = node.getValues();
       builder.append(
-          node.getValues()
-              .stream()
-              .map(exp -> ExpressionFormatterUtil.formatExpression(exp, unmangledNames))
+          IntStream.range(0, values.size())
+              .mapToObj(idx -> node.isParameter(idx)
+                  ? "?"
+                  : ExpressionFormatterUtil.formatExpression(values.get(idx), unmangledNames))
               .collect(Collectors.joining(", ")));
       builder.append(")");
 
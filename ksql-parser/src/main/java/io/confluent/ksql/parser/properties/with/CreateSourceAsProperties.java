@@ -22,7 +22,9 @@ import io.confluent.ksql.execution.expression.tree.Literal;
 import io.confluent.ksql.execution.expression.tree.StringLiteral;
 import io.confluent.ksql.properties.with.CommonCreateConfigs;
 import io.confluent.ksql.properties.with.CreateAsConfigs;
+import io.confluent.ksql.serde.Delimiter;
 import io.confluent.ksql.serde.Format;
+import io.confluent.ksql.serde.Quote;
 import io.confluent.ksql.util.KsqlException;
 import java.util.Map;
 import java.util.Optional;
@@ -88,6 +90,16 @@ public final class CreateSourceAsProperties extends WithClauseProperties {
     return Optional.ofNullable(getString(CommonCreateConfigs.VALUE_AVRO_SCHEMA_FULL_NAME));
   }
 
+  public Optional<Delimiter> getValueDelimiter() {
+    return Optional.ofNullable(getString(CommonCreateConfigs.VALUE_DELIMITER_PROPERTY))
+        .map(Delimiter::parse);
+  }
+
+  public Optional<Quote> getValueQuote() {
+    return Optional.ofNullable(getString(CommonCreateConfigs.VALUE_QUOTE_PROPERTY))
+        .map(Quote::parse);
+  }
+
   public Optional<Boolean> getWrapSingleValues() {
     return Optional.ofNullable(getBoolean(CommonCreateConfigs.WRAP_SINGLE_VALUE));
   }
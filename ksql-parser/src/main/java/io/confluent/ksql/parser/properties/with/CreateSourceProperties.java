@@ -23,7 +23,9 @@ import io.confluent.ksql.model.WindowType;
 import io.confluent.ksql.parser.DurationParser;
 import io.confluent.ksql.properties.with.CommonCreateConfigs;
 import io.confluent.ksql.properties.with.CreateConfigs;
+import io.confluent.ksql.serde.Delimiter;
 import io.confluent.ksql.serde.Format;
+import io.confluent.ksql.serde.Quote;
 import io.confluent.ksql.util.KsqlException;
 import java.time.Duration;
 import java.util.Map;
@@ -125,6 +127,16 @@ public final class CreateSourceProperties extends WithClauseProperties {
     return Optional.ofNullable(getString(CommonCreateConfigs.VALUE_AVRO_SCHEMA_FULL_NAME));
   }
 
+  public Optional<Delimiter> getValueDelimiter() {
+    return Optional.ofNullable(getString(CommonCreateConfigs.VALUE_DELIMITER_PROPERTY))
+        .map(Delimiter::parse);
+  }
+
+  public Optional<Quote> getValueQuote() {
+    return Optional.ofNullable(getString(CommonCreateConfigs.VALUE_QUOTE_PROPERTY))
+        .map(Quote::parse);
+  }
+
   public Optional<Boolean> getWrapSingleValues() {
     return Optional.ofNullable(getBoolean(CommonCreateConfigs.WRAP_SINGLE_VALUE));
   }
@@ -144,6 +144,7 @@ public final class StatementRewriter<C> {
           where,
           groupBy,
           having,
+          node.getResultMaterialization(),
           node.getLimit()
       );
     }
@@ -37,6 +37,9 @@ import org.apache.kafka.streams.kstream.TimeWindows;
 @Immutable
 public class HoppingWindowExpression extends KsqlWindowExpression {
 
+  // Kafka Streams retains windows for at least a day, unless a grace period is set:
+  private static final Duration DEFAULT_MAINTAIN_DURATION = Duration.ofDays(1);
+
   private final long size;
   private final TimeUnit sizeUnit;
   private final long advanceBy;
@@ -48,7 +51,15 @@ public class HoppingWindowExpression extends KsqlWindowExpression {
       final long advanceBy,
       final TimeUnit advanceByUnit
   ) {
-    this(Optional.empty(), size, sizeUnit, advanceBy, advanceByUnit);
+    this(
+        Optional.empty(),
+        size,
+        sizeUnit,
+        advanceBy,
+        advanceByUnit,
+        Optional.empty(),
+        Optional.empty()
+    );
   }
 
   public HoppingWindowExpression(
@@ -56,13 +67,16 @@ public class HoppingWindowExpression extends KsqlWindowExpression {
       final long size,
       final TimeUnit sizeUnit,
       final long advanceBy,
-      final TimeUnit advanceByUnit
+      final TimeUnit advanceByUnit,
+      final Optional<WindowTimeClause> retention,
+      final Optional<WindowTimeClause> gracePeriod
   ) {
-    super(location);
+    super(location, retention, gracePeriod);
     this.size = size;
     this.sizeUnit = requireNonNull(sizeUnit, "sizeUnit");
     this.advanceBy = advanceBy;
     this.advanceByUnit = requireNonNull(advanceByUnit, "advanceByUnit");
+    validateRetention(getSize());
   }
 
   @Override
@@ -81,12 +95,12 @@ public class HoppingWindowExpression extends KsqlWindowExpression {
   @Override
   public String toString() {
     return " HOPPING ( SIZE " + size + " " + sizeUnit + " , ADVANCE BY "
-        + advanceBy + " " + "" + advanceByUnit + " ) ";
+        + advanceBy + " " + "" + advanceByUnit + timeClausesToString() + " ) ";
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(size, sizeUnit, advanceBy, advanceByUnit);
+    return Objects.hash(size, sizeUnit, advanceBy, advanceByUnit, getRetention(), getGracePeriod());
   }
 
   @Override
@@ -100,7 +114,9 @@ public class HoppingWindowExpression extends KsqlWindowExpression {
     final HoppingWindowExpression hoppingWindowExpression = (HoppingWindowExpression) o;
     return hoppingWindowExpression.size == size && hoppingWindowExpression.sizeUnit == sizeUnit
         && hoppingWindowExpression.advanceBy == advanceBy && hoppingWindowExpression
-        .advanceByUnit == advanceByUnit;
+        .advanceByUnit == advanceByUnit
+        && Objects.equals(hoppingWindowExpression.getRetention(), getRetention())
+        && Objects.equals(hoppingWindowExpression.getGracePeriod(), getGracePeriod());
   }
 
   @SuppressWarnings("unchecked")
@@ -112,11 +128,72 @@ public class HoppingWindowExpression extends KsqlWindowExpression {
       final Materialized<Struct, GenericRow, ?> materialized
   ) {
     final TimeWindows windows = TimeWindows
-        .of(Duration.ofMillis(sizeUnit.toMillis(size)))
-        .advanceBy(Duration.ofMillis(advanceByUnit.toMillis(advanceBy)));
+        .of(getSize())
+        .advanceBy(getAdvanceBy());
 
     return groupedStream
-        .windowedBy(windows)
-        .aggregate(initializer, aggregator, materialized);
+        .windowedBy(resolveGracePeriod(getSize()).map(windows::grace).orElse(windows))
+        .aggregate(initializer, aggregator, applyRetention(materialized));
+  }
+
+  /**
+   * Aggregates into tumbling panes of {@link #getPaneSize()}, rather than into the hopping windows
+   * themselves, so that each record updates a single pane. Each window can then be assembled by
+   * merging the panes it covers.
+   *
+   * <p>A pane is accepted until the grace period of the last window it is part of has passed, and
+   * is retained for as long as the windows would be.
+   */
+  @SuppressWarnings("unchecked")
+  public KTable applyPaneAggregate(
+      final KGroupedStream groupedStream,
+      final Initializer initializer,
+      final UdafAggregator aggregator,
+      final Materialized<Struct, GenericRow, ?> materialized
+  ) {
+    final Duration paneSize = getPaneSize();
+
+    final TimeWindows panes = TimeWindows
+        .of(paneSize)
+        .grace(getSize().minus(paneSize).plus(getWindowGracePeriod()));
+
+    return groupedStream
+        .windowedBy(panes)
+        .aggregate(initializer, aggregator, applyRetention(materialized));
+  }
+
+  public Duration getSize() {
+    return Duration.ofMillis(sizeUnit.toMillis(size));
+  }
+
+  public Duration getAdvanceBy() {
+    return Duration.ofMillis(advanceByUnit.toMillis(advanceBy));
+  }
+
+  /**
+   * @return the size of the largest non-overlapping panes that every window is made up of, being
+   *     the greatest common divisor of the window size and advance.
+   */
+  public Duration getPaneSize() {
+    long a = getSize().toMillis();
+    long b = getAdvanceBy().toMillis();
+    while (b != 0) {
+      final long remainder = a % b;
+      a = b;
+      b = remainder;
+    }
+    return Duration.ofMillis(a);
+  }
+
+  /**
+   * @return the grace period of the windows, defaulting, as Kafka Streams does, to the remainder
+   *     of a day once the window has ended.
+   */
+  public Duration getWindowGracePeriod() {
+    final Duration windowSize = getSize();
+    return resolveGracePeriod(windowSize).orElseGet(() ->
+        (windowSize.compareTo(DEFAULT_MAINTAIN_DURATION) > 0
+            ? windowSize
+            : DEFAULT_MAINTAIN_DURATION).minus(windowSize));
   }
 }
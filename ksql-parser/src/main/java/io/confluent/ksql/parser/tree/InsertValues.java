@@ -21,6 +21,7 @@ import io.confluent.ksql.execution.expression.tree.Expression;
 import io.confluent.ksql.execution.expression.tree.QualifiedName;
 import io.confluent.ksql.parser.NodeLocation;
 import io.confluent.ksql.util.KsqlException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -31,6 +32,7 @@ public class InsertValues extends Statement {
   private final QualifiedName target;
   private final ImmutableList<String> columns;
   private final ImmutableList<Expression> values;
+  private final ImmutableList<Integer> parameterIndexes;
 
   public InsertValues(
       final QualifiedName target,
@@ -45,11 +47,27 @@ public class InsertValues extends Statement {
       final QualifiedName target,
       final List<String> columns,
       final List<Expression> values
+  ) {
+    this(location, target, columns, values, ImmutableList.of());
+  }
+
+  /**
+   * @param parameterIndexes the indexes within {@code values} of parameters, i.e. {@code ?}s,
+   *                         which must be bound before the statement can be executed.
+   */
+  public InsertValues(
+      final Optional<NodeLocation> location,
+      final QualifiedName target,
+      final List<String> columns,
+      final List<Expression> values,
+      final List<Integer> parameterIndexes
   ) {
     super(location);
     this.target = Objects.requireNonNull(target, "target");
     this.columns = ImmutableList.copyOf(Objects.requireNonNull(columns, "columns"));
     this.values = ImmutableList.copyOf(Objects.requireNonNull(values, "values"));
+    this.parameterIndexes =
+        ImmutableList.copyOf(Objects.requireNonNull(parameterIndexes, "parameterIndexes"));
 
     if (values.isEmpty()) {
       throw new KsqlException("Expected some values for INSERT INTO statement.");
@@ -59,6 +77,10 @@ public class InsertValues extends Statement {
       throw new KsqlException(
           "Expected number columns and values to match: " + columns + ", " + values);
     }
+
+    if (parameterIndexes.stream().anyMatch(idx -> idx < 0 || idx >= values.size())) {
+      throw new IllegalArgumentException("Parameter index out of range: " + parameterIndexes);
+    }
   }
 
   public QualifiedName getTarget() {
@@ -73,6 +95,44 @@ public class InsertValues extends Statement {
     return values;
   }
 
+  /**
+   * @return {@code true} if any of the values are parameters that have not been bound.
+   */
+  public boolean hasParameters() {
+    return !parameterIndexes.isEmpty();
+  }
+
+  /**
+   * @param index the index of the value.
+   * @return {@code true} if the value at {@code index} is a parameter.
+   */
+  public boolean isParameter(final int index) {
+    return parameterIndexes.contains(index);
+  }
+
+  /**
+   * Bind values to the statement's parameters.
+   *
+   * @param parameters the values of the parameters, in the order they appear in the statement.
+   * @return a copy of this statement, with its parameters replaced with the supplied values.
+   */
+  public InsertValues bind(final List<? extends Expression> parameters) {
+    if (parameters.size() != parameterIndexes.size()) {
+      throw new KsqlException(String.format(
+          "Expected %d parameter values, but %d were supplied.",
+          parameterIndexes.size(),
+          parameters.size()
+      ));
+    }
+
+    final List<Expression> bound = new ArrayList<>(values);
+    for (int i = 0; i < parameters.size(); i++) {
+      bound.set(parameterIndexes.get(i), parameters.get(i));
+    }
+
+    return new InsertValues(getLocation(), target, columns, bound);
+  }
+
   @Override
   public <R, C> R accept(final AstVisitor<R, C> visitor, final C context) {
     return visitor.visitInsertValues(this, context);
@@ -89,12 +149,13 @@ public class InsertValues extends Statement {
     final InsertValues that = (InsertValues) o;
     return Objects.equals(target, that.target)
         && Objects.equals(columns, that.columns)
-        && Objects.equals(values, that.values);
+        && Objects.equals(values, that.values)
+        && Objects.equals(parameterIndexes, that.parameterIndexes);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(target, columns, values);
+    return Objects.hash(target, columns, values, parameterIndexes);
   }
 
   @Override
@@ -103,6 +164,7 @@ public class InsertValues extends Statement {
         + "target=" + target
         + ", columns=" + columns
         + ", values=" + values
+        + ", parameterIndexes=" + parameterIndexes
         + '}';
   }
 }
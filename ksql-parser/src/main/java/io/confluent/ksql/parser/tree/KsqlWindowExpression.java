@@ -15,11 +15,15 @@
 
 package io.confluent.ksql.parser.tree;
 
+import static java.util.Objects.requireNonNull;
+
 import com.google.errorprone.annotations.Immutable;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.UdafAggregator;
 import io.confluent.ksql.parser.NodeLocation;
 import io.confluent.ksql.serde.WindowInfo;
+import io.confluent.ksql.util.KsqlException;
+import java.time.Duration;
 import java.util.Optional;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.streams.kstream.Initializer;
@@ -30,8 +34,25 @@ import org.apache.kafka.streams.kstream.Materialized;
 @Immutable
 public abstract class KsqlWindowExpression extends AstNode {
 
-  KsqlWindowExpression(final Optional<NodeLocation> location) {
+  private final Optional<WindowTimeClause> retention;
+  private final Optional<WindowTimeClause> gracePeriod;
+
+  KsqlWindowExpression(
+      final Optional<NodeLocation> location,
+      final Optional<WindowTimeClause> retention,
+      final Optional<WindowTimeClause> gracePeriod
+  ) {
     super(location);
+    this.retention = requireNonNull(retention, "retention");
+    this.gracePeriod = requireNonNull(gracePeriod, "gracePeriod");
+  }
+
+  public Optional<WindowTimeClause> getRetention() {
+    return retention;
+  }
+
+  public Optional<WindowTimeClause> getGracePeriod() {
+    return gracePeriod;
   }
 
   public abstract KTable applyAggregate(KGroupedStream groupedStream,
@@ -41,6 +62,63 @@ public abstract class KsqlWindowExpression extends AstNode {
 
   public abstract WindowInfo getWindowInfo();
 
+  /**
+   * Validates the retention is long enough to hold a window of the supplied size until its grace
+   * period has passed, as required by Kafka Streams.
+   *
+   * @param windowSize the size of the window, or the inactivity gap of a session.
+   */
+  void validateRetention(final Duration windowSize) {
+    if (!retention.isPresent()) {
+      return;
+    }
+
+    final Duration minRetention = windowSize.plus(
+        gracePeriod.map(WindowTimeClause::toDuration).orElse(Duration.ZERO));
+
+    if (retention.get().toDuration().compareTo(minRetention) < 0) {
+      throw new KsqlException("Window RETENTION of " + retention.get()
+          + " must be no smaller than the window size"
+          + gracePeriod.map(grace -> " plus the GRACE PERIOD of " + grace).orElse("")
+          + ": " + minRetention.toMillis() + " MILLISECONDS");
+    }
+  }
+
+  /**
+   * Gets the grace period of the window.
+   *
+   * <p>If only a retention is set, the grace period is the remainder of the retention once the
+   * window has ended, matching how Kafka Streams derives the grace period from retention.
+   *
+   * @param windowSize the size of the window, or the inactivity gap of a session.
+   * @return the grace period, if either it or the retention are set.
+   */
+  Optional<Duration> resolveGracePeriod(final Duration windowSize) {
+    if (gracePeriod.isPresent()) {
+      return gracePeriod.map(WindowTimeClause::toDuration);
+    }
+
+    return retention.map(r -> r.toDuration().minus(windowSize));
+  }
+
+  Materialized<Struct, GenericRow, ?> applyRetention(
+      final Materialized<Struct, GenericRow, ?> materialized
+  ) {
+    if (!retention.isPresent()) {
+      return materialized;
+    }
+
+    return materialized.withRetention(retention.get().toDuration());
+  }
+
+  /**
+   * @return the retention and grace period clauses, formatted for inclusion in the expression.
+   */
+  String timeClausesToString() {
+    return retention.map(r -> " , RETENTION " + r).orElse("")
+        + gracePeriod.map(g -> " , GRACE PERIOD " + g).orElse("");
+  }
+
   @Override
   public <R, C> R accept(final AstVisitor<R, C> visitor, final C context) {
     return visitor.visitKsqlWindowExpression(this, context);
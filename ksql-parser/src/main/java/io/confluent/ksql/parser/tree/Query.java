@@ -34,6 +34,7 @@ public class Query extends Statement {
   private final Optional<Expression> where;
   private final Optional<GroupBy> groupBy;
   private final Optional<Expression> having;
+  private final ResultMaterialization resultMaterialization;
   private final OptionalInt limit;
 
   public Query(
@@ -45,6 +46,30 @@ public class Query extends Statement {
       final Optional<GroupBy> groupBy,
       final Optional<Expression> having,
       final OptionalInt limit
+  ) {
+    this(
+        location,
+        select,
+        from,
+        window,
+        where,
+        groupBy,
+        having,
+        ResultMaterialization.CHANGES,
+        limit
+    );
+  }
+
+  public Query(
+      final Optional<NodeLocation> location,
+      final Select select,
+      final Relation from,
+      final Optional<WindowExpression> window,
+      final Optional<Expression> where,
+      final Optional<GroupBy> groupBy,
+      final Optional<Expression> having,
+      final ResultMaterialization resultMaterialization,
+      final OptionalInt limit
   ) {
     super(location);
     this.select = requireNonNull(select, "select");
@@ -53,6 +78,7 @@ public class Query extends Statement {
     this.where = requireNonNull(where, "where");
     this.groupBy = requireNonNull(groupBy, "groupBy");
     this.having = requireNonNull(having, "having");
+    this.resultMaterialization = requireNonNull(resultMaterialization, "resultMaterialization");
     this.limit = requireNonNull(limit, "limit");
   }
 
@@ -80,6 +106,10 @@ public class Query extends Statement {
     return having;
   }
 
+  public ResultMaterialization getResultMaterialization() {
+    return resultMaterialization;
+  }
+
   public OptionalInt getLimit() {
     return limit;
   }
@@ -98,6 +128,7 @@ public class Query extends Statement {
         .add("where", where.orElse(null))
         .add("groupBy", groupBy.orElse(null))
         .add("having", having.orElse(null))
+        .add("resultMaterialization", resultMaterialization)
         .add("limit", limit)
         .omitNullValues()
         .toString();
@@ -118,11 +149,13 @@ public class Query extends Statement {
         && Objects.equals(window, o.window)
         && Objects.equals(groupBy, o.groupBy)
         && Objects.equals(having, o.having)
+        && resultMaterialization == o.resultMaterialization
         && Objects.equals(limit, o.limit);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(select, from, where, window, groupBy, having, limit);
+    return Objects.hash(
+        select, from, where, window, groupBy, having, resultMaterialization, limit);
   }
 }
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.parser.tree;
+
+/**
+ * Controls which results of a query are emitted, as set by its {@code EMIT} clause.
+ */
+public enum ResultMaterialization {
+
+  /**
+   * Emit every change to the result, i.e. an updated row for each input record.
+   */
+  CHANGES,
+
+  /**
+   * Emit only the final result of each window, once the window has closed.
+   */
+  FINAL
+}
@@ -41,17 +41,20 @@ public class SessionWindowExpression extends KsqlWindowExpression {
   private final TimeUnit sizeUnit;
 
   public SessionWindowExpression(final long gap, final TimeUnit sizeUnit) {
-    this(Optional.empty(), gap, sizeUnit);
+    this(Optional.empty(), gap, sizeUnit, Optional.empty(), Optional.empty());
   }
 
   public SessionWindowExpression(
       final Optional<NodeLocation> location,
       final long gap,
-      final TimeUnit sizeUnit
+      final TimeUnit sizeUnit,
+      final Optional<WindowTimeClause> retention,
+      final Optional<WindowTimeClause> gracePeriod
   ) {
-    super(location);
+    super(location, retention, gracePeriod);
     this.gap = gap;
     this.sizeUnit = requireNonNull(sizeUnit, "sizeUnit");
+    validateRetention(getGap());
   }
 
   @Override
@@ -66,12 +69,12 @@ public class SessionWindowExpression extends KsqlWindowExpression {
 
   @Override
   public String toString() {
-    return " SESSION ( " + gap + " " + sizeUnit + " ) ";
+    return " SESSION ( " + gap + " " + sizeUnit + timeClausesToString() + " ) ";
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(gap, sizeUnit);
+    return Objects.hash(gap, sizeUnit, getRetention(), getGracePeriod());
   }
 
   @Override
@@ -83,7 +86,9 @@ public class SessionWindowExpression extends KsqlWindowExpression {
       return false;
     }
     final SessionWindowExpression sessionWindowExpression = (SessionWindowExpression) o;
-    return sessionWindowExpression.gap == gap && sessionWindowExpression.sizeUnit == sizeUnit;
+    return sessionWindowExpression.gap == gap && sessionWindowExpression.sizeUnit == sizeUnit
+        && Objects.equals(sessionWindowExpression.getRetention(), getRetention())
+        && Objects.equals(sessionWindowExpression.getGracePeriod(), getGracePeriod());
   }
 
   @SuppressWarnings("unchecked")
@@ -93,10 +98,18 @@ public class SessionWindowExpression extends KsqlWindowExpression {
                                final UdafAggregator aggregator,
                                final Materialized<Struct, GenericRow, ?> materialized) {
 
-    final SessionWindows windows = SessionWindows.with(Duration.ofMillis(sizeUnit.toMillis(gap)));
+    final SessionWindows windows = SessionWindows.with(getGap());
 
     return groupedStream
-        .windowedBy(windows)
-        .aggregate(initializer, aggregator, aggregator.getMerger(), materialized);
+        .windowedBy(resolveGracePeriod(getGap()).map(windows::grace).orElse(windows))
+        .aggregate(
+            initializer,
+            aggregator,
+            aggregator.getMerger(),
+            applyRetention(materialized));
+  }
+
+  private Duration getGap() {
+    return Duration.ofMillis(sizeUnit.toMillis(gap));
   }
 }
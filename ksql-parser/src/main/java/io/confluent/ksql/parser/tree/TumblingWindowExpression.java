@@ -41,17 +41,20 @@ public class TumblingWindowExpression extends KsqlWindowExpression {
   private final TimeUnit sizeUnit;
 
   public TumblingWindowExpression(final long size, final TimeUnit sizeUnit) {
-    this(Optional.empty(), size, sizeUnit);
+    this(Optional.empty(), size, sizeUnit, Optional.empty(), Optional.empty());
   }
 
   public TumblingWindowExpression(
       final Optional<NodeLocation> location,
       final long size,
-      final TimeUnit sizeUnit
+      final TimeUnit sizeUnit,
+      final Optional<WindowTimeClause> retention,
+      final Optional<WindowTimeClause> gracePeriod
   ) {
-    super(location);
+    super(location, retention, gracePeriod);
     this.size = size;
     this.sizeUnit = requireNonNull(sizeUnit, "sizeUnit");
+    validateRetention(getSize());
   }
 
   @Override
@@ -69,12 +72,12 @@ public class TumblingWindowExpression extends KsqlWindowExpression {
 
   @Override
   public String toString() {
-    return " TUMBLING ( SIZE " + size + " " + sizeUnit + " ) ";
+    return " TUMBLING ( SIZE " + size + " " + sizeUnit + timeClausesToString() + " ) ";
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(size, sizeUnit);
+    return Objects.hash(size, sizeUnit, getRetention(), getGracePeriod());
   }
 
   @Override
@@ -86,7 +89,9 @@ public class TumblingWindowExpression extends KsqlWindowExpression {
       return false;
     }
     final TumblingWindowExpression tumblingWindowExpression = (TumblingWindowExpression) o;
-    return tumblingWindowExpression.size == size && tumblingWindowExpression.sizeUnit == sizeUnit;
+    return tumblingWindowExpression.size == size && tumblingWindowExpression.sizeUnit == sizeUnit
+        && Objects.equals(tumblingWindowExpression.getRetention(), getRetention())
+        && Objects.equals(tumblingWindowExpression.getGracePeriod(), getGracePeriod());
   }
 
   @SuppressWarnings("unchecked")
@@ -96,11 +101,14 @@ public class TumblingWindowExpression extends KsqlWindowExpression {
       final UdafAggregator aggregator,
       final Materialized<Struct, GenericRow, ?> materialized) {
 
-    final TimeWindows windows = TimeWindows.of(Duration.ofMillis(sizeUnit.toMillis(size)));
+    final TimeWindows windows = TimeWindows.of(getSize());
 
     return groupedStream
-        .windowedBy(windows)
-        .aggregate(initializer, aggregator, materialized);
+        .windowedBy(resolveGracePeriod(getSize()).map(windows::grace).orElse(windows))
+        .aggregate(initializer, aggregator, applyRetention(materialized));
+  }
 
+  private Duration getSize() {
+    return Duration.ofMillis(sizeUnit.toMillis(size));
   }
 }
@@ -32,6 +32,7 @@ public class WithinExpression extends AstNode {
   private final long after;
   private final TimeUnit beforeTimeUnit;
   private final TimeUnit afterTimeUnit;
+  private final Optional<WindowTimeClause> gracePeriod;
   private final JoinWindows joinWindows;
 
   public WithinExpression(final long size, final TimeUnit timeUnit) {
@@ -44,7 +45,7 @@ public class WithinExpression extends AstNode {
       final TimeUnit beforeTimeUnit,
       final TimeUnit afterTimeUnit
   ) {
-    this(Optional.empty(), before, after, beforeTimeUnit, afterTimeUnit);
+    this(Optional.empty(), before, after, beforeTimeUnit, afterTimeUnit, Optional.empty());
   }
 
   public WithinExpression(
@@ -52,13 +53,15 @@ public class WithinExpression extends AstNode {
       final long before,
       final long after,
       final TimeUnit beforeTimeUnit,
-      final TimeUnit afterTimeUnit
+      final TimeUnit afterTimeUnit,
+      final Optional<WindowTimeClause> gracePeriod
   ) {
     super(location);
     this.before = before;
     this.after = after;
     this.beforeTimeUnit = requireNonNull(beforeTimeUnit, "beforeTimeUnit");
     this.afterTimeUnit = requireNonNull(afterTimeUnit, "afterTimeUnit");
+    this.gracePeriod = requireNonNull(gracePeriod, "gracePeriod");
     this.joinWindows = createJoinWindows();
   }
 
@@ -88,12 +91,13 @@ public class WithinExpression extends AstNode {
           .append(afterTimeUnit)
           .append(")");
     }
+    gracePeriod.ifPresent(grace -> builder.append(" GRACE PERIOD ").append(grace));
     return builder.toString();
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(before, after, beforeTimeUnit, afterTimeUnit);
+    return Objects.hash(before, after, beforeTimeUnit, afterTimeUnit, gracePeriod);
   }
 
   @Override
@@ -107,13 +111,24 @@ public class WithinExpression extends AstNode {
     final WithinExpression withinExpression = (WithinExpression) o;
     return before == withinExpression.before && after == withinExpression.after
            && Objects.equals(beforeTimeUnit, withinExpression.beforeTimeUnit)
-           && Objects.equals(afterTimeUnit, withinExpression.afterTimeUnit);
+           && Objects.equals(afterTimeUnit, withinExpression.afterTimeUnit)
+           && Objects.equals(gracePeriod, withinExpression.gracePeriod);
   }
 
   private JoinWindows createJoinWindows() {
     final JoinWindows joinWindow = JoinWindows
         .of(Duration.ofMillis(beforeTimeUnit.toMillis(before)));
-    return joinWindow.after(Duration.ofMillis(afterTimeUnit.toMillis(after)));
+    final JoinWindows withAfter = joinWindow
+        .after(Duration.ofMillis(afterTimeUnit.toMillis(after)));
+
+    // The join state stores retain records for the window size plus the grace period:
+    return gracePeriod
+        .map(grace -> withAfter.grace(grace.toDuration()))
+        .orElse(withAfter);
+  }
+
+  public Optional<WindowTimeClause> getGracePeriod() {
+    return gracePeriod;
   }
 
   // Visible for testing
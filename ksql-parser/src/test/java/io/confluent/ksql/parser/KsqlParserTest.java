@@ -56,6 +56,7 @@ import io.confluent.ksql.execution.expression.tree.FunctionCall;
 import io.confluent.ksql.parser.tree.InsertInto;
 import io.confluent.ksql.execution.expression.tree.IntegerLiteral;
 import io.confluent.ksql.parser.tree.Join;
+import io.confluent.ksql.parser.tree.KsqlWindowExpression;
 import io.confluent.ksql.parser.tree.ListProperties;
 import io.confluent.ksql.parser.tree.ListQueries;
 import io.confluent.ksql.parser.tree.ListStreams;
@@ -64,6 +65,7 @@ import io.confluent.ksql.parser.tree.ListTopics;
 import io.confluent.ksql.execution.expression.tree.Literal;
 import io.confluent.ksql.execution.expression.tree.LongLiteral;
 import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.parser.tree.ResultMaterialization;
 import io.confluent.ksql.execution.expression.tree.SearchedCaseExpression;
 import io.confluent.ksql.parser.tree.RegisterType;
 import io.confluent.ksql.parser.tree.SelectItem;
@@ -73,6 +75,7 @@ import io.confluent.ksql.parser.tree.Statement;
 import io.confluent.ksql.execution.expression.tree.StringLiteral;
 import io.confluent.ksql.parser.tree.TableElement;
 import io.confluent.ksql.parser.tree.TableElements;
+import io.confluent.ksql.parser.tree.WindowTimeClause;
 import io.confluent.ksql.parser.tree.WithinExpression;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.SqlBaseType;
@@ -91,6 +94,7 @@ import io.confluent.ksql.util.timestamp.MetadataTimestampExtractionPolicy;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.concurrent.TimeUnit;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
@@ -623,6 +627,46 @@ public class KsqlParserTest {
                                                                  + "( 30 SECONDS ) "));
   }
 
+  @Test
+  public void shouldParseWindowRetentionAndGracePeriod() {
+    // Given:
+    final String queryStr =
+        "select itemid, sum(orderunits) from orders "
+            + "window HOPPING (size 30 second, advance by 5 seconds, "
+            + "retention 2 minutes, grace period 1 minute) group by itemid;";
+
+    // When:
+    final Query query = KsqlParserTestUtil.<Query>buildSingleAst(queryStr, metaStore)
+        .getStatement();
+
+    // Then:
+    final KsqlWindowExpression window = query.getWindow().get().getKsqlWindowExpression();
+    assertThat(window.getRetention(),
+        is(Optional.of(new WindowTimeClause(2, TimeUnit.MINUTES))));
+    assertThat(window.getGracePeriod(),
+        is(Optional.of(new WindowTimeClause(1, TimeUnit.MINUTES))));
+    assertThat(window.toString(), equalTo(" HOPPING ( SIZE 30 SECONDS , ADVANCE BY 5 SECONDS "
+        + ", RETENTION 2 MINUTES , GRACE PERIOD 1 MINUTES ) "));
+  }
+
+  @Test
+  public void shouldParseSessionWindowGracePeriod() {
+    // Given:
+    final String queryStr =
+        "select itemid, sum(orderunits) from orders "
+            + "window SESSION (30 seconds, grace period 10 seconds) group by itemid;";
+
+    // When:
+    final Query query = KsqlParserTestUtil.<Query>buildSingleAst(queryStr, metaStore)
+        .getStatement();
+
+    // Then:
+    final KsqlWindowExpression window = query.getWindow().get().getKsqlWindowExpression();
+    assertThat(window.getRetention(), is(Optional.empty()));
+    assertThat(window.getGracePeriod(),
+        is(Optional.of(new WindowTimeClause(10, TimeUnit.SECONDS))));
+  }
+
   @Test
   public void testShowTopics() {
     // Given:
@@ -842,6 +886,24 @@ public class KsqlParserTest {
   }
 
 
+  @Test
+  public void shouldSetWithinExpressionGracePeriod() {
+    // Given:
+    final String statementString = "CREATE STREAM foobar as SELECT * from TEST1 JOIN ORDERS "
+        + "WITHIN (10 seconds, 20 minutes) GRACE PERIOD 1 minute "
+        + "ON TEST1.col1 = ORDERS.ORDERID ;";
+
+    // When:
+    final CreateStreamAsSelect csas = (CreateStreamAsSelect) KsqlParserTestUtil
+        .buildSingleAst(statementString, metaStore)
+        .getStatement();
+
+    // Then:
+    final Join join = (Join) csas.getQuery().getFrom();
+    assertThat(join.getWithinExpression().get().getGracePeriod(),
+        is(Optional.of(new WindowTimeClause(1, TimeUnit.MINUTES))));
+  }
+
   @Test
   public void shouldSetWithinExpressionWithBeforeAndAfter() {
     final String statementString = "CREATE STREAM foobar as SELECT * from TEST1 JOIN ORDERS "
@@ -1233,6 +1295,45 @@ public class KsqlParserTest {
     assertThat(element.getType().getSqlType(), is(cookie));
   }
 
+  @Test
+  public void shouldDefaultToEmitChanges() {
+    // When:
+    final Query query = KsqlParserTestUtil.<Query>buildSingleAst(
+        "SELECT ITEMID, COUNT(*) FROM orders WINDOW TUMBLING (SIZE 1 MINUTE) GROUP BY ITEMID;",
+        metaStore
+    ).getStatement();
+
+    // Then:
+    assertThat(query.getResultMaterialization(), is(ResultMaterialization.CHANGES));
+  }
+
+  @Test
+  public void shouldParseEmitChanges() {
+    // When:
+    final Query query = KsqlParserTestUtil.<Query>buildSingleAst(
+        "SELECT ITEMID, COUNT(*) FROM orders WINDOW TUMBLING (SIZE 1 MINUTE) GROUP BY ITEMID "
+            + "EMIT CHANGES;",
+        metaStore
+    ).getStatement();
+
+    // Then:
+    assertThat(query.getResultMaterialization(), is(ResultMaterialization.CHANGES));
+  }
+
+  @Test
+  public void shouldParseEmitFinal() {
+    // When:
+    final Query query = KsqlParserTestUtil.<Query>buildSingleAst(
+        "SELECT ITEMID, COUNT(*) FROM orders WINDOW TUMBLING (SIZE 1 MINUTE) GROUP BY ITEMID "
+            + "HAVING COUNT(*) > 1 EMIT FINAL LIMIT 10;",
+        metaStore
+    ).getStatement();
+
+    // Then:
+    assertThat(query.getResultMaterialization(), is(ResultMaterialization.FINAL));
+    assertThat(query.getLimit(), is(OptionalInt.of(10)));
+  }
+
   private static SearchedCaseExpression getSearchedCaseExpressionFromCsas(final Statement statement) {
     final Query query = ((CreateStreamAsSelect) statement).getQuery();
     final Expression caseExpression = ((SingleColumn) query.getSelect().getSelectItems().get(0)).getExpression();
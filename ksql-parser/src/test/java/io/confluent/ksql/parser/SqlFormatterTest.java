@@ -627,6 +627,16 @@ public class SqlFormatterTest {
     assertThat(result, is("INSERT INTO ADDRESS VALUES (2)"));
   }
 
+  @Test
+  public void shouldFormatInsertValuesWithParameters() {
+    final String statementString = "INSERT INTO ADDRESS (NUMBER, STREET, CITY) VALUES (?, 'high', ?);";
+    final Statement statement = parseSingle(statementString);
+
+    final String result = SqlFormatter.formatSql(statement);
+
+    assertThat(result, is("INSERT INTO ADDRESS (NUMBER, STREET, CITY) VALUES (?, 'high', ?)"));
+  }
+
   @Test
   public void shouldNotParseArbitraryExpressions() {
     // Given:
@@ -688,6 +698,43 @@ public class SqlFormatterTest {
         + "GROUP BY ORDERS.ITEMID"));
   }
 
+  @Test
+  public void shouldFormatWindowRetentionAndGracePeriod() {
+    // Given:
+    final Statement statement = parseSingle(
+        "CREATE TABLE S AS SELECT ITEMID, COUNT(*) FROM ORDERS WINDOW TUMBLING (SIZE 7 DAYS, RETENTION 14 DAYS, GRACE PERIOD 1 DAY) GROUP BY ITEMID;");
+
+    // When:
+    final String result = SqlFormatter.formatSql(statement);
+
+    // Then:
+    assertThat(result, is("CREATE TABLE S AS SELECT\n"
+        + "  ORDERS.ITEMID \"ITEMID\",\n"
+        + "  COUNT(*) \"KSQL_COL_1\"\n"
+        + "FROM ORDERS ORDERS\n"
+        + "WINDOW TUMBLING ( SIZE 7 DAYS , RETENTION 14 DAYS , GRACE PERIOD 1 DAYS ) \n"
+        + "GROUP BY ORDERS.ITEMID"));
+  }
+
+  @Test
+  public void shouldFormatEmitFinal() {
+    // Given:
+    final Statement statement = parseSingle(
+        "CREATE TABLE S AS SELECT ITEMID, COUNT(*) FROM ORDERS WINDOW TUMBLING (SIZE 7 DAYS) GROUP BY ITEMID EMIT FINAL;");
+
+    // When:
+    final String result = SqlFormatter.formatSql(statement);
+
+    // Then:
+    assertThat(result, is("CREATE TABLE S AS SELECT\n"
+        + "  ORDERS.ITEMID \"ITEMID\",\n"
+        + "  COUNT(*) \"KSQL_COL_1\"\n"
+        + "FROM ORDERS ORDERS\n"
+        + "WINDOW TUMBLING ( SIZE 7 DAYS ) \n"
+        + "GROUP BY ORDERS.ITEMID\n"
+        + "EMIT FINAL"));
+  }
+
   @Test
   public void shouldFormatDescribeSource() {
     // Given:
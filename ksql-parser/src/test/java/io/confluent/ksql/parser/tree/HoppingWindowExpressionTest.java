@@ -112,6 +112,53 @@ public class HoppingWindowExpressionTest {
     verify(windowedKStream).aggregate(initializer, aggregator, store);
   }
 
+  @Test
+  public void shouldCreatePaneAggregate() {
+    // When:
+    windowExpression.applyPaneAggregate(stream, initializer, aggregator, store);
+
+    // Then:
+    verify(stream)
+        .windowedBy(TimeWindows.of(Duration.ofMillis(4)).grace(Duration.ofDays(1).minusMillis(4)));
+
+    verify(windowedKStream).aggregate(initializer, aggregator, store);
+  }
+
+  @Test
+  public void shouldKeepPanesOpenUntilLastWindowCloses() {
+    // Given:
+    final HoppingWindowExpression expression = new HoppingWindowExpression(
+        Optional.empty(),
+        60,
+        SECONDS,
+        45,
+        SECONDS,
+        Optional.empty(),
+        Optional.of(new WindowTimeClause(10, SECONDS))
+    );
+
+    // When:
+    expression.applyPaneAggregate(stream, initializer, aggregator, store);
+
+    // Then:
+    verify(stream)
+        .windowedBy(TimeWindows.of(Duration.ofSeconds(15)).grace(Duration.ofSeconds(55)));
+  }
+
+  @Test
+  public void shouldReturnPaneSize() {
+    assertThat(new HoppingWindowExpression(60, SECONDS, 45, SECONDS).getPaneSize(),
+        is(Duration.ofSeconds(15)));
+    assertThat(new HoppingWindowExpression(1, MINUTES, 10, SECONDS).getPaneSize(),
+        is(Duration.ofSeconds(10)));
+  }
+
+  @Test
+  public void shouldDefaultWindowGracePeriodToRemainderOfDay() {
+    assertThat(new HoppingWindowExpression(1, HOURS, 10, MINUTES).getWindowGracePeriod(),
+        is(Duration.ofHours(23)));
+  }
+
   @Test
   public void shouldReturnWindowInfo() {
     assertThat(new HoppingWindowExpression(10, SECONDS, 20, MINUTES).getWindowInfo(),
@@ -15,12 +15,18 @@
 
 package io.confluent.ksql.parser.tree;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
 import com.google.common.collect.ImmutableList;
 import com.google.common.testing.EqualsTester;
+import io.confluent.ksql.execution.expression.tree.IntegerLiteral;
 import io.confluent.ksql.execution.expression.tree.NullLiteral;
 import io.confluent.ksql.execution.expression.tree.QualifiedName;
 import io.confluent.ksql.execution.expression.tree.StringLiteral;
 import io.confluent.ksql.util.KsqlException;
+import java.util.Optional;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -42,6 +48,12 @@ public class InsertValuesTest {
             QualifiedName.of("a"), ImmutableList.of("diff"), ImmutableList.of(new StringLiteral("b"))))
         .addEqualityGroup(new InsertValues(
             QualifiedName.of("a"), ImmutableList.of(), ImmutableList.of(new StringLiteral("diff"))))
+        .addEqualityGroup(new InsertValues(
+            Optional.empty(),
+            QualifiedName.of("a"),
+            ImmutableList.of(),
+            ImmutableList.of(new NullLiteral()),
+            ImmutableList.of(0)))
         .testEquals();
   }
 
@@ -71,4 +83,41 @@ public class InsertValuesTest {
         ImmutableList.of(new StringLiteral("val1"), new StringLiteral("val2")));
   }
 
-}
\ No newline at end of file
+  @Test
+  public void shouldBindParameters() {
+    // Given:
+    final InsertValues insertValues = new InsertValues(
+        Optional.empty(),
+        QualifiedName.of("a"),
+        ImmutableList.of("col1", "col2", "col3"),
+        ImmutableList.of(new NullLiteral(), new StringLiteral("val2"), new NullLiteral()),
+        ImmutableList.of(0, 2));
+
+    // When:
+    final InsertValues bound = insertValues.bind(
+        ImmutableList.of(new IntegerLiteral(1), new StringLiteral("val3")));
+
+    // Then:
+    assertThat(bound.hasParameters(), is(false));
+    assertThat(bound.getValues(), contains(
+        new IntegerLiteral(1), new StringLiteral("val2"), new StringLiteral("val3")));
+  }
+
+  @Test
+  public void shouldThrowIfWrongNumberOfParameterValues() {
+    // Given:
+    final InsertValues insertValues = new InsertValues(
+        Optional.empty(),
+        QualifiedName.of("a"),
+        ImmutableList.of(),
+        ImmutableList.of(new NullLiteral(), new NullLiteral()),
+        ImmutableList.of(0, 1));
+
+    // Expect:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("Expected 2 parameter values, but 1 were supplied.");
+
+    // When:
+    insertValues.bind(ImmutableList.of(new IntegerLiteral(1)));
+  }
+}
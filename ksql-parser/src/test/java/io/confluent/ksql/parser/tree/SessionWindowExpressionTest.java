@@ -81,6 +81,28 @@ public class SessionWindowExpressionTest {
     verify(windowedKStream).aggregate(initializer, aggregator, merger, store);
   }
 
+  @Test
+  public void shouldApplyRetentionAndGracePeriod() {
+    // Given:
+    windowExpression = new SessionWindowExpression(
+        Optional.empty(),
+        5,
+        TimeUnit.SECONDS,
+        Optional.of(new WindowTimeClause(1, TimeUnit.MINUTES)),
+        Optional.of(new WindowTimeClause(10, TimeUnit.SECONDS))
+    );
+    when(store.withRetention(any())).thenReturn(store);
+
+    // When:
+    windowExpression.applyAggregate(stream, initializer, aggregator, store);
+
+    // Then:
+    verify(stream).windowedBy(
+        SessionWindows.with(Duration.ofSeconds(5)).grace(Duration.ofSeconds(10)));
+    verify(store).withRetention(Duration.ofMinutes(1));
+    verify(windowedKStream).aggregate(initializer, aggregator, merger, store);
+  }
+
   @Test
   public void shouldReturnWindowInfo() {
     assertThat(windowExpression.getWindowInfo(),
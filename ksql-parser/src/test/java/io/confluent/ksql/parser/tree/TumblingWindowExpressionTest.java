@@ -26,6 +26,7 @@ import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.UdafAggregator;
 import io.confluent.ksql.model.WindowType;
 import io.confluent.ksql.serde.WindowInfo;
+import io.confluent.ksql.util.KsqlException;
 import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
@@ -38,7 +39,9 @@ import org.apache.kafka.streams.kstream.TimeWindowedKStream;
 import org.apache.kafka.streams.kstream.TimeWindows;
 import org.apache.kafka.streams.state.WindowStore;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -58,6 +61,9 @@ public class TumblingWindowExpressionTest {
   private Materialized<Struct, GenericRow, WindowStore<Bytes, byte[]>> store;
   private TumblingWindowExpression windowExpression;
 
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
   @Before
   public void setUp() {
     windowExpression = new TumblingWindowExpression(10, TimeUnit.SECONDS);
@@ -77,6 +83,65 @@ public class TumblingWindowExpressionTest {
     verify(windowedKStream).aggregate(initializer, aggregator, store);
   }
 
+  @Test
+  public void shouldApplyRetentionAndGracePeriod() {
+    // Given:
+    windowExpression = new TumblingWindowExpression(
+        Optional.empty(),
+        10,
+        TimeUnit.SECONDS,
+        Optional.of(new WindowTimeClause(20, TimeUnit.SECONDS)),
+        Optional.of(new WindowTimeClause(5, TimeUnit.SECONDS))
+    );
+    when(store.withRetention(any())).thenReturn(store);
+
+    // When:
+    windowExpression.applyAggregate(stream, initializer, aggregator, store);
+
+    // Then:
+    verify(stream).windowedBy(
+        TimeWindows.of(Duration.ofSeconds(10)).grace(Duration.ofSeconds(5)));
+    verify(store).withRetention(Duration.ofSeconds(20));
+    verify(windowedKStream).aggregate(initializer, aggregator, store);
+  }
+
+  @Test
+  public void shouldDeriveGracePeriodFromRetention() {
+    // Given:
+    windowExpression = new TumblingWindowExpression(
+        Optional.empty(),
+        10,
+        TimeUnit.SECONDS,
+        Optional.of(new WindowTimeClause(1, TimeUnit.MINUTES)),
+        Optional.empty()
+    );
+    when(store.withRetention(any())).thenReturn(store);
+
+    // When:
+    windowExpression.applyAggregate(stream, initializer, aggregator, store);
+
+    // Then:
+    verify(stream).windowedBy(
+        TimeWindows.of(Duration.ofSeconds(10)).grace(Duration.ofSeconds(50)));
+  }
+
+  @Test
+  public void shouldThrowIfRetentionSmallerThanSizePlusGracePeriod() {
+    // Then:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("Window RETENTION of 20 SECONDS must be no smaller than "
+        + "the window size plus the GRACE PERIOD of 15 SECONDS: 25000 MILLISECONDS");
+
+    // When:
+    new TumblingWindowExpression(
+        Optional.empty(),
+        10,
+        TimeUnit.SECONDS,
+        Optional.of(new WindowTimeClause(20, TimeUnit.SECONDS)),
+        Optional.of(new WindowTimeClause(15, TimeUnit.SECONDS))
+    );
+  }
+
   @Test
   public void shouldReturnWindowInfo() {
     assertThat(new TumblingWindowExpression(11, SECONDS).getWindowInfo(),
@@ -17,6 +17,7 @@ package io.confluent.ksql.parser.tree;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import org.junit.Test;
 
@@ -34,4 +35,30 @@ public class WithinExpressionTest {
     assertEquals(" WITHIN (30 MINUTES, 40 HOURS)", expression.toString());
   }
 
+  @Test
+  public void shouldDisplayCorrectStringWithGracePeriod() {
+    final WithinExpression expression = new WithinExpression(
+        Optional.empty(),
+        20,
+        20,
+        TimeUnit.SECONDS,
+        TimeUnit.SECONDS,
+        Optional.of(new WindowTimeClause(5, TimeUnit.SECONDS))
+    );
+    assertEquals(" WITHIN 20 SECONDS GRACE PERIOD 5 SECONDS", expression.toString());
+  }
+
+  @Test
+  public void shouldApplyGracePeriodToJoinWindow() {
+    final WithinExpression expression = new WithinExpression(
+        Optional.empty(),
+        20,
+        20,
+        TimeUnit.SECONDS,
+        TimeUnit.SECONDS,
+        Optional.of(new WindowTimeClause(5, TimeUnit.SECONDS))
+    );
+    assertEquals(5000L, expression.joinWindow().gracePeriodMs());
+  }
+
 }
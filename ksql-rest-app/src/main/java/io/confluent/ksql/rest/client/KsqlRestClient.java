@@ -59,7 +59,9 @@ import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
@@ -187,6 +189,28 @@ public class KsqlRestClient implements Closeable {
     return postRequest("query", jsonRequest, readTimeoutMs, false, QueryStream::new);
   }
 
+  /**
+   * Make a query request to a specific server, independent of the server address and local
+   * properties of this client, e.g. to forward a request to another server in the cluster.
+   *
+   * @param serverAddress the address of the server to send the request to.
+   * @param ksql the query.
+   * @param properties the properties of the request.
+   * @param authHeader the value of the {@code Authorization} header to send, if any.
+   * @return the response.
+   */
+  public RestResponse<QueryStream> makeQueryRequest(
+      final URI serverAddress,
+      final String ksql,
+      final Map<String, ?> properties,
+      final Optional<String> authHeader
+  ) {
+    final KsqlRequest jsonRequest = new KsqlRequest(ksql, properties, null);
+    final Optional<Integer> readTimeoutMs = Optional.of(QueryStream.READ_TIMEOUT_MS);
+    return postRequest(
+        serverAddress, authHeader, "query", jsonRequest, readTimeoutMs, false, QueryStream::new);
+  }
+
   public RestResponse<InputStream> makePrintTopicRequest(
       final String ksql, final Long commandSeqNum) {
     final KsqlRequest jsonRequest = new KsqlRequest(ksql, localProperties.toMap(), commandSeqNum);
@@ -221,18 +245,31 @@ public class KsqlRestClient implements Closeable {
       final Optional<Integer> readTimeoutMs,
       final boolean closeResponse,
       final Function<Response, T> mapper) {
+    return postRequest(getServerAddress(), Optional.empty(), path, jsonEntity, readTimeoutMs,
+        closeResponse, mapper);
+  }
+
+  private <T> RestResponse<T> postRequest(
+      final URI serverAddress,
+      final Optional<String> authHeader,
+      final String path,
+      final Object jsonEntity,
+      final Optional<Integer> readTimeoutMs,
+      final boolean closeResponse,
+      final Function<Response, T> mapper) {
 
     Response response = null;
 
     try {
-      final WebTarget target = client.target(getServerAddress())
+      final WebTarget target = client.target(serverAddress)
           .path(path);
 
       readTimeoutMs.ifPresent(timeout -> target.property(ClientProperties.READ_TIMEOUT, timeout));
 
-      response = target
-          .request(MediaType.APPLICATION_JSON_TYPE)
-          .post(Entity.json(jsonEntity));
+      final Invocation.Builder request = target.request(MediaType.APPLICATION_JSON_TYPE);
+      authHeader.ifPresent(header -> request.header(HttpHeaders.AUTHORIZATION, header));
+
+      response = request.post(Entity.json(jsonEntity));
 
       return response.getStatus() == Response.Status.OK.getStatusCode()
           ? RestResponse.successful(mapper.apply(response))
@@ -240,7 +277,8 @@ public class KsqlRestClient implements Closeable {
 
     } catch (final ProcessingException e) {
       if (shouldRetry(readTimeoutMs, e)) {
-        return postRequest(path, jsonEntity, calcReadTimeout(readTimeoutMs), closeResponse, mapper);
+        return postRequest(serverAddress, authHeader, path, jsonEntity,
+            calcReadTimeout(readTimeoutMs), closeResponse, mapper);
       }
       throw new KsqlRestClientException("Error issuing POST to KSQL server. path:" + path, e);
     } catch (final Exception e) {
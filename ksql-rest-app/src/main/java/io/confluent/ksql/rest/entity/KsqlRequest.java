@@ -17,13 +17,17 @@ package io.confluent.ksql.rest.entity;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import io.confluent.ksql.config.PropertyParser;
 import io.confluent.ksql.properties.LocalPropertyParser;
 import io.confluent.ksql.util.KsqlException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -37,18 +41,31 @@ public class KsqlRequest {
   private final String ksql;
   private final Map<String, Object> streamsProperties;
   private final Optional<Long> commandSequenceNumber;
+  private final List<Object> parameters;
+
+  public KsqlRequest(
+      final String ksql,
+      final Map<String, ?> streamsProperties,
+      final Long commandSequenceNumber
+  ) {
+    this(ksql, streamsProperties, commandSequenceNumber, null);
+  }
 
   @JsonCreator
   public KsqlRequest(
       @JsonProperty("ksql") final String ksql,
       @JsonProperty("streamsProperties") final Map<String, ?> streamsProperties,
-      @JsonProperty("commandSequenceNumber") final Long commandSequenceNumber
+      @JsonProperty("commandSequenceNumber") final Long commandSequenceNumber,
+      @JsonProperty("parameters") final List<?> parameters
   ) {
     this.ksql = ksql == null ? "" : ksql;
     this.streamsProperties = streamsProperties == null
         ? Collections.emptyMap()
         : Collections.unmodifiableMap(new HashMap<>(serializeClassValues(streamsProperties)));
     this.commandSequenceNumber = Optional.ofNullable(commandSequenceNumber);
+    this.parameters = parameters == null
+        ? Collections.emptyList()
+        : Collections.unmodifiableList(new ArrayList<>(parameters));
   }
 
   public String getKsql() {
@@ -63,6 +80,15 @@ public class KsqlRequest {
     return commandSequenceNumber;
   }
 
+  /**
+   * @return the values of the parameters, i.e. {@code ?}s, in an {@code INSERT INTO ... VALUES}
+   *         statement, in the order they appear in the statement.
+   */
+  @JsonInclude(Include.NON_EMPTY)
+  public List<Object> getParameters() {
+    return parameters;
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (this == o) {
@@ -76,12 +102,13 @@ public class KsqlRequest {
     final KsqlRequest that = (KsqlRequest) o;
     return Objects.equals(ksql, that.ksql)
         && Objects.equals(streamsProperties, that.streamsProperties)
-        && Objects.equals(commandSequenceNumber, that.commandSequenceNumber);
+        && Objects.equals(commandSequenceNumber, that.commandSequenceNumber)
+        && Objects.equals(parameters, that.parameters);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(ksql, streamsProperties, commandSequenceNumber);
+    return Objects.hash(ksql, streamsProperties, commandSequenceNumber, parameters);
   }
 
   /**
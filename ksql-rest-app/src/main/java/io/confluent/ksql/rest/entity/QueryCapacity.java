@@ -0,0 +1,117 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.entity;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.errorprone.annotations.Immutable;
+import java.util.Objects;
+
+/**
+ * The current usage of the server's query resources, and the configured limits on them.
+ */
+@Immutable
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class QueryCapacity {
+  private final int persistentQueries;
+  private final int persistentQueryLimit;
+  private final int persistentStreamThreads;
+  private final int persistentStreamThreadLimit;
+  private final int transientQueries;
+  private final int transientQueryLimit;
+
+  @JsonCreator
+  public QueryCapacity(
+      @JsonProperty("persistentQueries") final int persistentQueries,
+      @JsonProperty("persistentQueryLimit") final int persistentQueryLimit,
+      @JsonProperty("persistentStreamThreads") final int persistentStreamThreads,
+      @JsonProperty("persistentStreamThreadLimit") final int persistentStreamThreadLimit,
+      @JsonProperty("transientQueries") final int transientQueries,
+      @JsonProperty("transientQueryLimit") final int transientQueryLimit) {
+    this.persistentQueries = persistentQueries;
+    this.persistentQueryLimit = persistentQueryLimit;
+    this.persistentStreamThreads = persistentStreamThreads;
+    this.persistentStreamThreadLimit = persistentStreamThreadLimit;
+    this.transientQueries = transientQueries;
+    this.transientQueryLimit = transientQueryLimit;
+  }
+
+  public int getPersistentQueries() {
+    return persistentQueries;
+  }
+
+  public int getPersistentQueryLimit() {
+    return persistentQueryLimit;
+  }
+
+  public int getPersistentStreamThreads() {
+    return persistentStreamThreads;
+  }
+
+  public int getPersistentStreamThreadLimit() {
+    return persistentStreamThreadLimit;
+  }
+
+  public int getTransientQueries() {
+    return transientQueries;
+  }
+
+  public int getTransientQueryLimit() {
+    return transientQueryLimit;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final QueryCapacity that = (QueryCapacity) o;
+    return persistentQueries == that.persistentQueries
+        && persistentQueryLimit == that.persistentQueryLimit
+        && persistentStreamThreads == that.persistentStreamThreads
+        && persistentStreamThreadLimit == that.persistentStreamThreadLimit
+        && transientQueries == that.transientQueries
+        && transientQueryLimit == that.transientQueryLimit;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+        persistentQueries,
+        persistentQueryLimit,
+        persistentStreamThreads,
+        persistentStreamThreadLimit,
+        transientQueries,
+        transientQueryLimit
+    );
+  }
+
+  @Override
+  public String toString() {
+    return "QueryCapacity{"
+        + "persistentQueries=" + persistentQueries
+        + ", persistentQueryLimit=" + persistentQueryLimit
+        + ", persistentStreamThreads=" + persistentStreamThreads
+        + ", persistentStreamThreadLimit=" + persistentStreamThreadLimit
+        + ", transientQueries=" + transientQueries
+        + ", transientQueryLimit=" + transientQueryLimit
+        + '}';
+  }
+}
@@ -17,6 +17,7 @@ package io.confluent.ksql.rest.entity;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
@@ -31,15 +32,25 @@ public class ServerInfo {
   private final String version;
   private final String kafkaClusterId;
   private final String ksqlServiceId;
+  private final QueryCapacity queryCapacity;
+
+  public ServerInfo(
+      final String version,
+      final String kafkaClusterId,
+      final String ksqlServiceId) {
+    this(version, kafkaClusterId, ksqlServiceId, null);
+  }
 
   @JsonCreator
   public ServerInfo(
       @JsonProperty("version") final String version,
       @JsonProperty("kafkaClusterId") final String kafkaClusterId,
-      @JsonProperty("ksqlServiceId") final String ksqlServiceId) {
+      @JsonProperty("ksqlServiceId") final String ksqlServiceId,
+      @JsonProperty("queryCapacity") final QueryCapacity queryCapacity) {
     this.version = version;
     this.kafkaClusterId = kafkaClusterId;
     this.ksqlServiceId = ksqlServiceId;
+    this.queryCapacity = queryCapacity;
   }
 
   public String getVersion() {
@@ -54,6 +65,15 @@ public class ServerInfo {
     return ksqlServiceId;
   }
 
+  /**
+   * @return the server's current query resource usage, or {@code null} if the server did not
+   *         report it.
+   */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public QueryCapacity getQueryCapacity() {
+    return queryCapacity;
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (this == o) {
@@ -65,11 +85,12 @@ public class ServerInfo {
     final ServerInfo that = (ServerInfo) o;
     return Objects.equals(version, that.version)
            && Objects.equals(kafkaClusterId, that.kafkaClusterId)
-           && Objects.equals(ksqlServiceId, that.ksqlServiceId);
+           && Objects.equals(ksqlServiceId, that.ksqlServiceId)
+           && Objects.equals(queryCapacity, that.queryCapacity);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(version, kafkaClusterId, ksqlServiceId);
+    return Objects.hash(version, kafkaClusterId, ksqlServiceId, queryCapacity);
   }
 }
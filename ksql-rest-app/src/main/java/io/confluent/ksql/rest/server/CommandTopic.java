@@ -20,13 +20,16 @@ import io.confluent.ksql.rest.server.computation.Command;
 import io.confluent.ksql.rest.server.computation.CommandId;
 import io.confluent.ksql.rest.server.computation.QueuedCommand;
 import io.confluent.ksql.rest.util.InternalTopicJsonSerdeUtil;
+import io.confluent.ksql.util.Pair;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
@@ -104,6 +107,44 @@ public class CommandTopic {
     }
   }
 
+  /**
+   * Send a batch of commands, in order, waiting only once for them all to be written.
+   *
+   * <p>The producer sends the commands in as few requests as it can, rather than one request per
+   * command. Order is preserved by only allowing one request in flight, see
+   * {@link io.confluent.ksql.rest.server.computation.CommandStore.Factory}.
+   *
+   * @param commands the commands to send.
+   * @return the metadata of each written command, in order.
+   */
+  public List<RecordMetadata> send(final List<Pair<CommandId, Command>> commands) {
+    final List<Future<RecordMetadata>> futures = new ArrayList<>(commands.size());
+    for (final Pair<CommandId, Command> command : commands) {
+      futures.add(commandProducer.send(new ProducerRecord<>(
+          commandTopicName,
+          0,
+          Objects.requireNonNull(command.left, "commandId"),
+          Objects.requireNonNull(command.right, "command"))));
+    }
+
+    commandProducer.flush();
+
+    final List<RecordMetadata> metadata = new ArrayList<>(futures.size());
+    try {
+      for (final Future<RecordMetadata> future : futures) {
+        metadata.add(future.get());
+      }
+      return metadata;
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException)e.getCause();
+      }
+      throw new RuntimeException(e.getCause());
+    } catch (final InterruptedException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   public Iterable<ConsumerRecord<CommandId, Command>> getNewCommands(final Duration timeout) {
     return commandConsumer.poll(timeout);
   }
@@ -37,13 +37,16 @@ import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.parser.SqlFormatter;
+import io.confluent.ksql.rest.client.KsqlRestClient;
 import io.confluent.ksql.rest.entity.KsqlErrorMessage;
 import io.confluent.ksql.rest.entity.KsqlRequest;
 import io.confluent.ksql.rest.server.computation.CommandQueue;
 import io.confluent.ksql.rest.server.computation.CommandRunner;
 import io.confluent.ksql.rest.server.computation.CommandStore;
+import io.confluent.ksql.rest.server.computation.PersistentQueryStarter;
 import io.confluent.ksql.rest.server.computation.StatementExecutor;
 import io.confluent.ksql.rest.server.context.KsqlRestServiceContextBinder;
+import io.confluent.ksql.rest.server.execution.PullQueryExecutor;
 import io.confluent.ksql.rest.server.filters.KsqlAuthorizationFilter;
 import io.confluent.ksql.rest.server.resources.KsqlConfigurable;
 import io.confluent.ksql.rest.server.resources.KsqlExceptionMapper;
@@ -62,6 +65,7 @@ import io.confluent.ksql.security.KsqlAuthorizationValidator;
 import io.confluent.ksql.security.KsqlAuthorizationValidatorFactory;
 import io.confluent.ksql.security.KsqlDefaultSecurityExtension;
 import io.confluent.ksql.security.KsqlSecurityExtension;
+import io.confluent.ksql.services.ClusterMetadataService;
 import io.confluent.ksql.services.LazyServiceContext;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.services.ServiceContextFactory;
@@ -74,6 +78,7 @@ import io.confluent.ksql.util.WelcomeMsgUtils;
 import io.confluent.ksql.version.metrics.VersionCheckerAgent;
 import io.confluent.ksql.version.metrics.collector.KsqlModuleType;
 import io.confluent.rest.Application;
+import io.confluent.rest.RestConfig;
 import io.confluent.rest.validation.JacksonMessageBodyProvider;
 import java.io.Console;
 import java.io.OutputStreamWriter;
@@ -89,6 +94,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -102,7 +108,10 @@ import javax.websocket.server.ServerEndpointConfig.Configurator;
 import javax.ws.rs.core.Configurable;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.kafka.streams.StreamsConfig;
+import org.eclipse.jetty.server.Handler;
 import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHandler;
 import org.eclipse.jetty.websocket.jsr356.server.ServerContainer;
 import org.glassfish.hk2.utilities.Binder;
 import org.glassfish.jersey.server.ServerProperties;
@@ -185,7 +194,7 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
   @Override
   public void setupResources(final Configurable<?> config, final KsqlRestConfig appConfig) {
     config.register(rootDocument);
-    config.register(new ServerInfoResource(serviceContext, ksqlConfigNoPort));
+    config.register(new ServerInfoResource(serviceContext, ksqlEngine, ksqlConfigNoPort));
     config.register(statusResource);
     config.register(ksqlResource);
     config.register(streamedQueryResource);
@@ -196,6 +205,7 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
   @Override
   public void start() throws Exception {
     super.start();
+    enableAsyncRequests();
     log.info("KSQL RESTful API listening on {}", StringUtils.join(getListeners(), ", "));
     final KsqlConfig ksqlConfigWithPort = buildConfigWithPort();
     configurables.forEach(c -> c.configure(ksqlConfigWithPort));
@@ -297,6 +307,12 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
       log.error("Exception while closing services", e);
     }
 
+    try {
+      streamedQueryResource.close();
+    } catch (final Exception e) {
+      log.error("Exception while closing streamed query resource", e);
+    }
+
     try {
       securityExtension.close();
     } catch (final Exception e) {
@@ -310,6 +326,18 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
     }
   }
 
+  /**
+   * Results of streamed queries are written asynchronously, which requires every filter and
+   * servlet that handles a request to support async processing.
+   */
+  private void enableAsyncRequests() {
+    for (final Handler handler : server.getChildHandlersByClass(ServletContextHandler.class)) {
+      final ServletHandler servletHandler = ((ServletContextHandler) handler).getServletHandler();
+      Arrays.stream(servletHandler.getFilters()).forEach(f -> f.setAsyncSupported(true));
+      Arrays.stream(servletHandler.getServlets()).forEach(s -> s.setAsyncSupported(true));
+    }
+  }
+
   List<URL> getListeners() {
     return Arrays.stream(server.getConnectors())
         .filter(connector -> connector instanceof ServerConnector)
@@ -473,6 +501,24 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
     final KsqlAuthorizationValidator authorizationValidator =
         KsqlAuthorizationValidatorFactory.create(ksqlConfig, serviceContext);
 
+    final ListeningScheduledExecutorService queryStreamExec = MoreExecutors.listeningDecorator(
+        Executors.newScheduledThreadPool(
+            restConfig.getInt(KsqlRestConfig.KSQL_QUERY_STREAM_NUM_THREADS),
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("query-stream-thread-%d")
+                .build()
+        )
+    );
+
+    // Writes block while clients are slow to read, so have their own threads, created as needed:
+    final Executor queryStreamWriteExec = Executors.newCachedThreadPool(
+        new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat("query-stream-writer-%d")
+            .build()
+    );
+
     final StreamedQueryResource streamedQueryResource = new StreamedQueryResource(
         ksqlEngine,
         commandStore,
@@ -480,15 +526,25 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
             restConfig.getLong(KsqlRestConfig.STREAMED_QUERY_DISCONNECT_CHECK_MS_CONFIG)),
         Duration.ofMillis(restConfig.getLong(DISTRIBUTED_COMMAND_RESPONSE_TIMEOUT_MS_CONFIG)),
         versionChecker::updateLastRequestTime,
-        authorizationValidator
+        authorizationValidator,
+        queryStreamExec,
+        queryStreamWriteExec,
+        buildPullQueryExecutor(restConfig)
     );
 
+    // Cluster metadata is only shared between requests if they all use the server's clients:
+    final Optional<ClusterMetadataService> metadataService =
+        securityExtension.getUserContextProvider().isPresent()
+            ? Optional.empty()
+            : Optional.of(ClusterMetadataService.create(serviceContext, ksqlConfig));
+
     final KsqlResource ksqlResource = new KsqlResource(
         ksqlEngine,
         commandStore,
         Duration.ofMillis(restConfig.getLong(DISTRIBUTED_COMMAND_RESPONSE_TIMEOUT_MS_CONFIG)),
         versionChecker::updateLastRequestTime,
-        authorizationValidator
+        authorizationValidator,
+        metadataService
     );
 
     final List<String> managedTopics = new LinkedList<>();
@@ -501,7 +557,13 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
         commandStore,
         maxStatementRetries,
         new ClusterTerminator(ksqlEngine, serviceContext, managedTopics),
-        serverState
+        serverState,
+        new PersistentQueryStarter(
+            restConfig.getInt(KsqlRestConfig.KSQL_SERVER_RESTORE_QUERY_THREADS),
+            restConfig.getInt(KsqlRestConfig.KSQL_SERVER_RESTORE_MAX_RESTORING_QUERIES),
+            Duration.ofMillis(restConfig.getLong(KsqlRestConfig.KSQL_SERVER_RESTORE_MAX_WAIT_MS)),
+            serverState
+        )
     );
 
     final List<KsqlServerPrecondition> preconditions = restConfig.getConfiguredInstances(
@@ -565,6 +627,19 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
     ksqlEngine.execute(ConfiguredStatement.of(prepared, ImmutableMap.of(), ksqlConfigNoPort));
   }
 
+  private static PullQueryExecutor buildPullQueryExecutor(final KsqlRestConfig restConfig) {
+    // Pull queries are forwarded to other servers using this server's SSL settings:
+    final Map<String, String> clientProps = restConfig.originals().entrySet().stream()
+        .filter(e -> e.getKey().startsWith("ssl.") && e.getValue() != null)
+        .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().toString()));
+
+    return new PullQueryExecutor(new KsqlRestClient(
+        restConfig.getList(RestConfig.LISTENERS_CONFIG).get(0),
+        Collections.emptyMap(),
+        clientProps
+    ));
+  }
+
   private static KsqlSecurityExtension loadSecurityExtension(final KsqlConfig ksqlConfig) {
     final KsqlSecurityExtension securityExtension = Optional.ofNullable(
         ksqlConfig.getConfiguredInstance(
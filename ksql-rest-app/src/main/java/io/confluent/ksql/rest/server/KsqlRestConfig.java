@@ -57,6 +57,14 @@ public class KsqlRestConfig extends RestConfig {
   private static final String KSQL_WEBSOCKETS_NUM_THREADS_DOC =
       "The number of websocket threads to handle query results";
 
+  static final String KSQL_QUERY_STREAM_NUM_THREADS =
+      KSQL_CONFIG_PREFIX + "server.query.stream.num.threads";
+  private static final String KSQL_QUERY_STREAM_NUM_THREADS_DOC =
+      "The number of threads that collect the results of queries and PRINT statements streamed "
+      + "over HTTP. Results are collected as they are produced, so streams that are idle do not "
+      + "hold a thread. Results are written to clients by separate threads, so clients that are "
+      + "slow to read them do not hold these threads either";
+
   static final String KSQL_SERVER_PRECONDITIONS =
       KSQL_CONFIG_PREFIX + "server.preconditions";
   private static final String KSQL_SERVER_PRECONDITIONS_DOC =
@@ -64,6 +72,30 @@ public class KsqlRestConfig extends RestConfig {
       + "will not start serving requests until all preconditions are satisfied. Until that time, "
       + "requests will return a 503 error";
 
+  static final String KSQL_SERVER_RESTORE_QUERY_THREADS =
+      KSQL_CONFIG_PREFIX + "server.restore.query.start.threads";
+  private static final String KSQL_SERVER_RESTORE_QUERY_THREADS_DOC =
+      "The number of threads used to start persistent queries when the server restores them "
+      + "from the command topic on start up. The queries are only started once all have been "
+      + "rebuilt, so they can be started concurrently. The default of 1 starts them one at a time.";
+
+  static final String KSQL_SERVER_RESTORE_MAX_RESTORING_QUERIES =
+      KSQL_CONFIG_PREFIX + "server.restore.max.restoring.queries";
+  private static final String KSQL_SERVER_RESTORE_MAX_RESTORING_QUERIES_DOC =
+      "The maximum number of persistent queries that may restore their state stores at once "
+      + "when the server starts up. Once the limit is reached, further queries are not started "
+      + "until an earlier query has finished restoring, and the server does not serve requests "
+      + "until all but the last queries have finished restoring. The default of 0 means no limit, "
+      + "in which case the server does not wait for queries to restore.";
+
+  static final String KSQL_SERVER_RESTORE_MAX_WAIT_MS =
+      KSQL_CONFIG_PREFIX + "server.restore.max.wait.ms";
+  private static final String KSQL_SERVER_RESTORE_MAX_WAIT_MS_DOC =
+      "When " + KSQL_SERVER_RESTORE_MAX_RESTORING_QUERIES + " is set, the longest time, in "
+      + "milliseconds, that a query counts towards the limit while it restores. A query that is "
+      + "still restoring after this time keeps restoring, but no longer stops further queries "
+      + "from starting. It is logged and reported while the server is initializing.";
+
   private static final ConfigDef CONFIG_DEF;
 
   static {
@@ -91,12 +123,39 @@ public class KsqlRestConfig extends RestConfig {
         5,
         Importance.LOW,
         KSQL_WEBSOCKETS_NUM_THREADS_DOC
+    ).define(
+        KSQL_QUERY_STREAM_NUM_THREADS,
+        Type.INT,
+        5,
+        Importance.LOW,
+        KSQL_QUERY_STREAM_NUM_THREADS_DOC
     ).define(
         KSQL_SERVER_PRECONDITIONS,
         Type.LIST,
         "",
        Importance.LOW,
        KSQL_SERVER_PRECONDITIONS_DOC
+    ).define(
+        KSQL_SERVER_RESTORE_QUERY_THREADS,
+        Type.INT,
+        1,
+        ConfigDef.Range.atLeast(1),
+        Importance.LOW,
+        KSQL_SERVER_RESTORE_QUERY_THREADS_DOC
+    ).define(
+        KSQL_SERVER_RESTORE_MAX_RESTORING_QUERIES,
+        Type.INT,
+        0,
+        ConfigDef.Range.atLeast(0),
+        Importance.LOW,
+        KSQL_SERVER_RESTORE_MAX_RESTORING_QUERIES_DOC
+    ).define(
+        KSQL_SERVER_RESTORE_MAX_WAIT_MS,
+        Type.LONG,
+        600_000L,
+        ConfigDef.Range.atLeast(0),
+        Importance.LOW,
+        KSQL_SERVER_RESTORE_MAX_WAIT_MS_DOC
     );
   }
 
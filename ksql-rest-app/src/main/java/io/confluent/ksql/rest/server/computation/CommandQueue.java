@@ -20,6 +20,7 @@ import java.io.Closeable;
 import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 /**
  * Represents a queue of {@link Command}s that must be distributed to all
@@ -41,6 +42,23 @@ public interface CommandQueue extends Closeable {
    */
   QueuedCommandStatus enqueueCommand(ConfiguredStatement<?> statement);
 
+  /**
+   * Enqueues a batch of commands onto the command topic, in order. After this method returns,
+   * it is guaranteed that all the commands have been persisted.
+   *
+   * <p>Unlike calling {@link #enqueueCommand} for each statement, implementations may write the
+   * batch with a single round trip to the command topic.
+   *
+   * @param statements          The statements to be distributed
+   *
+   * @return an asynchronous tracker per statement, in the same order as {@code statements}
+   */
+  default List<QueuedCommandStatus> enqueueCommands(List<ConfiguredStatement<?>> statements) {
+    return statements.stream()
+        .map(this::enqueueCommand)
+        .collect(Collectors.toList());
+  }
+
   /**
    * Polls the Queue for any commands that have been enqueued since the last
    * invocation to this method.
@@ -21,7 +21,6 @@ import io.confluent.ksql.rest.entity.ClusterTerminateRequest;
 import io.confluent.ksql.rest.server.state.ServerState;
 import io.confluent.ksql.rest.util.ClusterTerminator;
 import io.confluent.ksql.rest.util.TerminateCluster;
-import io.confluent.ksql.util.PersistentQueryMetadata;
 import io.confluent.ksql.util.RetryUtil;
 import java.io.Closeable;
 import java.time.Duration;
@@ -58,6 +57,7 @@ public class CommandRunner implements Closeable {
   private final int maxRetries;
   private final ClusterTerminator clusterTerminator;
   private final ServerState serverState;
+  private final PersistentQueryStarter queryStarter;
 
   public CommandRunner(
       final StatementExecutor statementExecutor,
@@ -65,6 +65,24 @@ public class CommandRunner implements Closeable {
       final int maxRetries,
       final ClusterTerminator clusterTerminator,
       final ServerState serverState
+  ) {
+    this(
+        statementExecutor,
+        commandStore,
+        maxRetries,
+        clusterTerminator,
+        serverState,
+        PersistentQueryStarter.sequential(serverState)
+    );
+  }
+
+  public CommandRunner(
+      final StatementExecutor statementExecutor,
+      final CommandQueue commandStore,
+      final int maxRetries,
+      final ClusterTerminator clusterTerminator,
+      final ServerState serverState,
+      final PersistentQueryStarter queryStarter
   ) {
     this(
         statementExecutor,
@@ -72,7 +90,8 @@ public class CommandRunner implements Closeable {
         maxRetries,
         clusterTerminator,
         Executors.newSingleThreadExecutor(r -> new Thread(r, "CommandRunner")),
-        serverState
+        serverState,
+        queryStarter
     );
   }
 
@@ -83,7 +102,8 @@ public class CommandRunner implements Closeable {
       final int maxRetries,
       final ClusterTerminator clusterTerminator,
       final ExecutorService executor,
-      final ServerState serverState
+      final ServerState serverState,
+      final PersistentQueryStarter queryStarter
   ) {
     this.statementExecutor = Objects.requireNonNull(statementExecutor, "statementExecutor");
     this.commandStore = Objects.requireNonNull(commandStore, "commandStore");
@@ -91,6 +111,7 @@ public class CommandRunner implements Closeable {
     this.clusterTerminator = Objects.requireNonNull(clusterTerminator, "clusterTerminator");
     this.executor = Objects.requireNonNull(executor, "executor");
     this.serverState = Objects.requireNonNull(serverState, "serverState");
+    this.queryStarter = Objects.requireNonNull(queryStarter, "queryStarter");
   }
 
   /**
@@ -119,6 +140,9 @@ public class CommandRunner implements Closeable {
 
   /**
    * Read and execute all commands on the command topic, starting at the earliest offset.
+   *
+   * <p>The persistent queries are only started once every command has been executed, so that
+   * they can be started concurrently.
    */
   public void processPriorCommands() {
     final List<QueuedCommand> restoreCommands = commandStore.getRestoreCommands();
@@ -137,7 +161,7 @@ public class CommandRunner implements Closeable {
         )
     );
     final KsqlEngine ksqlEngine = statementExecutor.getKsqlEngine();
-    ksqlEngine.getPersistentQueries().forEach(PersistentQueryMetadata::start);
+    queryStarter.start(ksqlEngine.getPersistentQueries());
   }
 
   void fetchAndRunCommands() {
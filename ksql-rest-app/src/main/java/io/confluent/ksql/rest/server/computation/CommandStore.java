@@ -20,8 +20,11 @@ import com.google.common.collect.Maps;
 import io.confluent.ksql.rest.server.CommandTopic;
 import io.confluent.ksql.statement.ConfiguredStatement;
 import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.Pair;
 import java.io.Closeable;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -30,6 +33,8 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.RecordMetadata;
 
 /**
@@ -55,8 +60,13 @@ public class CommandStore implements CommandQueue, Closeable {
         final Map<String, Object> kafkaConsumerProperties,
         final Map<String, Object> kafkaProducerProperties
     ) {
+      // Batches of commands are sent without waiting for each to be written, so only one
+      // request may be in flight, or retries could reorder commands:
+      final Map<String, Object> producerProperties = new HashMap<>(kafkaProducerProperties);
+      producerProperties.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 1);
+
       return new CommandStore(
-          new CommandTopic(commandTopicName, kafkaConsumerProperties, kafkaProducerProperties),
+          new CommandTopic(commandTopicName, kafkaConsumerProperties, producerProperties),
           new CommandIdAssigner(),
           new SequenceNumberFutureStore()
       );
@@ -99,11 +109,73 @@ public class CommandStore implements CommandQueue, Closeable {
   @Override
   public QueuedCommandStatus enqueueCommand(final ConfiguredStatement<?> statement) {
     final CommandId commandId = commandIdAssigner.getCommandId(statement.getStatement());
-    final Command command = new Command(
+    final Command command = buildCommand(statement);
+    final CommandStatusFuture statusFuture = registerCommand(commandId);
+    try {
+      final RecordMetadata recordMetadata =
+          commandTopic.send(commandId, command);
+      return new QueuedCommandStatus(recordMetadata.offset(), statusFuture);
+    } catch (final Exception e) {
+      commandStatusMap.remove(commandId);
+      throw new KsqlException(
+          String.format(
+              "Could not write the statement '%s' into the "
+                  + "command topic"
+                  + ".", statement.getStatementText()
+          ),
+          e
+      );
+    }
+  }
+
+  @Override
+  public List<QueuedCommandStatus> enqueueCommands(
+      final List<ConfiguredStatement<?>> statements
+  ) {
+    final List<Pair<CommandId, Command>> commands = new ArrayList<>(statements.size());
+    final List<CommandStatusFuture> statusFutures = new ArrayList<>(statements.size());
+    try {
+      for (final ConfiguredStatement<?> statement : statements) {
+        final CommandId commandId = commandIdAssigner.getCommandId(statement.getStatement());
+        commands.add(Pair.of(commandId, buildCommand(statement)));
+        statusFutures.add(registerCommand(commandId));
+      }
+
+      final List<RecordMetadata> recordMetadata = commandTopic.send(commands);
+
+      final List<QueuedCommandStatus> statuses = new ArrayList<>(statements.size());
+      for (int i = 0; i < statements.size(); i++) {
+        statuses.add(new QueuedCommandStatus(
+            recordMetadata.get(i).offset(),
+            statusFutures.get(i)
+        ));
+      }
+      return statuses;
+    } catch (final Exception e) {
+      statusFutures.forEach(future -> commandStatusMap.remove(future.getCommandId()));
+      throw new KsqlException(
+          String.format(
+              "Could not write the statements '%s' into the command topic.",
+              statements.stream()
+                  .map(ConfiguredStatement::getStatementText)
+                  .collect(Collectors.joining(System.lineSeparator()))
+          ),
+          e
+      );
+    }
+  }
+
+  private static Command buildCommand(final ConfiguredStatement<?> statement) {
+    // Only the configs that would change how the statement is rebuilt are persisted. The
+    // rest of the server's config is taken from the server restoring the command:
+    return new Command(
         statement.getStatementText(),
         statement.getOverrides(),
-        statement.getConfig().getAllConfigPropsWithSecretsObfuscated());
-    final CommandStatusFuture statusFuture = commandStatusMap.compute(
+        statement.getConfig().getCompatibilityBreakingConfigPropsWithSecretsObfuscated());
+  }
+
+  private CommandStatusFuture registerCommand(final CommandId commandId) {
+    return commandStatusMap.compute(
         commandId,
         (k, v) -> {
           if (v == null) {
@@ -118,21 +190,6 @@ public class CommandStore implements CommandQueue, Closeable {
           );
         }
     );
-    try {
-      final RecordMetadata recordMetadata =
-          commandTopic.send(commandId, command);
-      return new QueuedCommandStatus(recordMetadata.offset(), statusFuture);
-    } catch (final Exception e) {
-      commandStatusMap.remove(commandId);
-      throw new KsqlException(
-          String.format(
-              "Could not write the statement '%s' into the "
-                  + "command topic"
-                  + ".", statement.getStatementText()
-          ),
-          e
-      );
-    }
   }
 
   public List<QueuedCommand> getNewCommands(final Duration timeout) {
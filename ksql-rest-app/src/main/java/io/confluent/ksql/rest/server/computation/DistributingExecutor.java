@@ -14,22 +14,39 @@
 
 package io.confluent.ksql.rest.server.computation;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.KsqlExecutionContext;
 import io.confluent.ksql.metastore.MetaStore;
+import io.confluent.ksql.metrics.MetricCollectors;
 import io.confluent.ksql.parser.tree.Statement;
 import io.confluent.ksql.rest.entity.CommandStatus;
 import io.confluent.ksql.rest.entity.CommandStatusEntity;
 import io.confluent.ksql.rest.entity.KsqlEntity;
 import io.confluent.ksql.rest.server.execution.StatementExecutor;
 import io.confluent.ksql.security.KsqlAuthorizationValidator;
+import io.confluent.ksql.services.SandboxedServiceContext;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.statement.ConfiguredStatement;
 import io.confluent.ksql.statement.Injector;
 import io.confluent.ksql.util.KsqlServerException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
 import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.CumulativeSum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * A {@code StatementExecutor} that encapsulates a command queue and will
@@ -39,16 +56,39 @@ import java.util.function.BiFunction;
  */
 public class DistributingExecutor implements StatementExecutor<Statement> {
 
+  private static final Logger LOG = LoggerFactory.getLogger(DistributingExecutor.class);
+
+  static final String METRIC_GROUP = "ksql-command-topic";
+  static final String BATCH_TIMEOUTS_TOTAL = "batch-timeouts-total";
+
   private final CommandQueue commandQueue;
   private final Duration distributedCmdResponseTimeout;
   private final BiFunction<KsqlExecutionContext, ServiceContext, Injector> injectorFactory;
   private final KsqlAuthorizationValidator authorizationValidator;
+  private final Sensor batchTimeouts;
 
   public DistributingExecutor(
       final CommandQueue commandQueue,
       final Duration distributedCmdResponseTimeout,
       final BiFunction<KsqlExecutionContext, ServiceContext, Injector> injectorFactory,
       final KsqlAuthorizationValidator authorizationValidator
+  ) {
+    this(
+        commandQueue,
+        distributedCmdResponseTimeout,
+        injectorFactory,
+        authorizationValidator,
+        MetricCollectors.getMetrics()
+    );
+  }
+
+  @VisibleForTesting
+  DistributingExecutor(
+      final CommandQueue commandQueue,
+      final Duration distributedCmdResponseTimeout,
+      final BiFunction<KsqlExecutionContext, ServiceContext, Injector> injectorFactory,
+      final KsqlAuthorizationValidator authorizationValidator,
+      final Metrics metrics
   ) {
     this.commandQueue = Objects.requireNonNull(commandQueue, "commandQueue");
     this.distributedCmdResponseTimeout =
@@ -56,6 +96,7 @@ public class DistributingExecutor implements StatementExecutor<Statement> {
     this.injectorFactory = Objects.requireNonNull(injectorFactory, "injectorFactory");
     this.authorizationValidator =
         Objects.requireNonNull(authorizationValidator, "authorizationValidator");
+    this.batchTimeouts = batchTimeoutsSensor(Objects.requireNonNull(metrics, "metrics"));
   }
 
   @Override
@@ -68,7 +109,12 @@ public class DistributingExecutor implements StatementExecutor<Statement> {
         .apply(executionContext, serviceContext)
         .inject(statement);
 
-    checkAuthorization(injected, serviceContext, executionContext);
+    checkAuthorization(
+        injected,
+        serviceContext,
+        executionContext.getServiceContext(),
+        executionContext.getMetaStore()
+    );
 
     try {
       final QueuedCommandStatus queuedCommandStatus = commandQueue.enqueueCommand(injected);
@@ -88,13 +134,39 @@ public class DistributingExecutor implements StatementExecutor<Statement> {
     }
   }
 
+  /**
+   * Start a batch of statements to distribute together.
+   *
+   * @param executionContext the execution context the statements will be executed in.
+   * @param serviceContext the service context of the user submitting the statements.
+   * @return the new batch.
+   */
+  public Batch newBatch(
+      final KsqlExecutionContext executionContext,
+      final ServiceContext serviceContext
+  ) {
+    return new Batch(executionContext, serviceContext);
+  }
+
+  private static Sensor batchTimeoutsSensor(final Metrics metrics) {
+    final MetricName total = metrics.metricName(BATCH_TIMEOUTS_TOTAL, METRIC_GROUP,
+        "The total number of batches of statements not all executed within the timeout");
+
+    // Every executor shares the one sensor:
+    final Sensor sensor = metrics.sensor(METRIC_GROUP + "-" + BATCH_TIMEOUTS_TOTAL);
+    if (metrics.metric(total) == null) {
+      sensor.add(total, new CumulativeSum());
+    }
+    return sensor;
+  }
+
   private void checkAuthorization(
       final ConfiguredStatement<?> configured,
       final ServiceContext userServiceContext,
-      final KsqlExecutionContext serverExecutionContext
+      final ServiceContext serverServiceContext,
+      final MetaStore metaStore
   ) {
     final Statement statement = configured.getStatement();
-    final MetaStore metaStore = serverExecutionContext.getMetaStore();
 
     // Check the User will be permitted to execute this statement
     authorizationValidator.checkAuthorization(userServiceContext, metaStore, statement);
@@ -102,7 +174,7 @@ public class DistributingExecutor implements StatementExecutor<Statement> {
     try {
       // Check the KSQL service principal will be permitted too
       authorizationValidator.checkAuthorization(
-          serverExecutionContext.getServiceContext(),
+          serverServiceContext,
           metaStore,
           statement
       );
@@ -110,4 +182,125 @@ public class DistributingExecutor implements StatementExecutor<Statement> {
       throw new KsqlServerException("The KSQL server is not permitted to execute the command", e);
     }
   }
+
+  /**
+   * A batch of statements that are written to the command topic together, after which the
+   * batch waits once for all of them to be executed.
+   *
+   * <p>Distributing each statement on its own waits for it to be executed before the next
+   * statement is injected, as the next may depend on it. A batch instead injects each statement
+   * against a sandbox to which the earlier statements in the batch have been applied.
+   */
+  public final class Batch {
+
+    private final KsqlExecutionContext executionContext;
+    private final ServiceContext serviceContext;
+    private final ServiceContext sandboxServiceContext;
+    private final KsqlExecutionContext sandbox;
+    private final Injector injector;
+    private final CommandIdAssigner commandIdAssigner = new CommandIdAssigner();
+    private final List<ConfiguredStatement<?>> pending = new ArrayList<>();
+    private final Set<CommandId> pendingIds = new HashSet<>();
+
+    private Batch(
+        final KsqlExecutionContext executionContext,
+        final ServiceContext serviceContext
+    ) {
+      this.executionContext = Objects.requireNonNull(executionContext, "executionContext");
+      this.serviceContext = Objects.requireNonNull(serviceContext, "serviceContext");
+      this.sandboxServiceContext = SandboxedServiceContext.create(serviceContext);
+      this.sandbox = executionContext.createSandbox(sandboxServiceContext);
+      this.injector = injectorFactory.apply(sandbox, serviceContext);
+    }
+
+    /**
+     * @return the sandbox the statements in the batch are applied to as they are added.
+     */
+    public KsqlExecutionContext getSandbox() {
+      return sandbox;
+    }
+
+    /**
+     * Add a statement to the batch.
+     *
+     * <p>If the statement would share a command id with a statement already in the batch, e.g.
+     * two {@code INSERT INTO} the same sink, the batch is flushed first.
+     *
+     * @param statement the statement to add.
+     * @return the results of any statements flushed to make room for this one.
+     */
+    public List<KsqlEntity> add(final ConfiguredStatement<Statement> statement) {
+      // Take a copy of the overrides, as later statements in the request may modify them:
+      final ConfiguredStatement<?> injected = injector
+          .inject(statement.withProperties(new HashMap<>(statement.getOverrides())));
+
+      checkAuthorization(
+          injected,
+          serviceContext,
+          executionContext.getServiceContext(),
+          sandbox.getMetaStore()
+      );
+
+      final List<KsqlEntity> flushed = pendingIds
+          .contains(commandIdAssigner.getCommandId(injected.getStatement()))
+          ? flush()
+          : ImmutableList.of();
+
+      sandbox.execute(sandboxServiceContext, injected);
+
+      pending.add(injected);
+      pendingIds.add(commandIdAssigner.getCommandId(injected.getStatement()));
+      return flushed;
+    }
+
+    /**
+     * Write any pending statements to the command topic and wait for them to be executed.
+     *
+     * @return the status of each pending statement, in order.
+     */
+    public List<KsqlEntity> flush() {
+      if (pending.isEmpty()) {
+        return ImmutableList.of();
+      }
+
+      final List<ConfiguredStatement<?>> statements = ImmutableList.copyOf(pending);
+      pending.clear();
+      pendingIds.clear();
+
+      try {
+        final List<QueuedCommandStatus> queued = commandQueue.enqueueCommands(statements);
+
+        final long lastSequenceNumber =
+            queued.get(queued.size() - 1).getCommandSequenceNumber();
+        try {
+          commandQueue.ensureConsumedPast(lastSequenceNumber, distributedCmdResponseTimeout);
+        } catch (final TimeoutException e) {
+          // Report whatever status each command has reached, as for a single statement:
+          batchTimeouts.record();
+          LOG.warn("Timed out after {} waiting for a batch of {} statements to be executed, "
+                  + "up to command sequence number {}",
+              distributedCmdResponseTimeout, statements.size(), lastSequenceNumber, e);
+        }
+
+        final List<KsqlEntity> entities = new ArrayList<>(statements.size());
+        for (int i = 0; i < statements.size(); i++) {
+          final QueuedCommandStatus status = queued.get(i);
+          entities.add(new CommandStatusEntity(
+              statements.get(i).getStatementText(),
+              status.getCommandId(),
+              status.tryWaitForFinalStatus(Duration.ZERO),
+              status.getCommandSequenceNumber()
+          ));
+        }
+        return entities;
+      } catch (final Exception e) {
+        throw new KsqlServerException(String.format(
+            "Could not write the statements '%s' into the command topic: %s",
+            statements.stream()
+                .map(ConfiguredStatement::getStatementText)
+                .collect(Collectors.joining(System.lineSeparator())),
+            e.getMessage()), e);
+      }
+    }
+  }
 }
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.confluent.ksql.rest.entity.KsqlErrorMessage;
+import io.confluent.ksql.rest.server.resources.Errors;
+import io.confluent.ksql.rest.server.state.ServerState;
+import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.PersistentQueryMetadata;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.kafka.streams.KafkaStreams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Starts the persistent queries rebuilt when the server restores the command topic.
+ *
+ * <p>Each query's plan is built, in command order, before any query is started, so queries no
+ * longer depend on each other by the time they are started. They can be started concurrently on
+ * a bounded pool of threads.
+ *
+ * <p>Optionally, the number of queries restoring their state stores at once can be limited. A
+ * query holds one of the limited permits from the time it is started until it is no longer
+ * rebalancing, i.e. until its stores are restored, or until it has waited the maximum restore wait.
+ * A query that is still restoring after that releases its permit and keeps restoring in the
+ * background, and is reported as such.
+ *
+ * <p>Progress is reported as the reason the server is still initializing.
+ */
+public final class PersistentQueryStarter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PersistentQueryStarter.class);
+
+  private static final Duration RESTORE_POLL_INTERVAL = Duration.ofMillis(100);
+  private static final String REBALANCING = KafkaStreams.State.REBALANCING.toString();
+
+  private final int threads;
+  private final int maxRestoring;
+  private final Duration maxRestoreWait;
+  private final ServerState serverState;
+  private final Duration restorePollInterval;
+
+  /**
+   * Create a starter that starts queries one at a time, as they were started before queries
+   * could be started concurrently.
+   *
+   * @param serverState the state to report progress to.
+   * @return the starter.
+   */
+  public static PersistentQueryStarter sequential(final ServerState serverState) {
+    return new PersistentQueryStarter(1, 0, Duration.ZERO, serverState);
+  }
+
+  /**
+   * @param threads the number of queries to start concurrently.
+   * @param maxRestoring the maximum number of queries restoring state at once, or zero for no
+   *                     limit.
+   * @param maxRestoreWait the longest a query holds a restore permit while restoring.
+   * @param serverState the state to report progress to.
+   */
+  public PersistentQueryStarter(
+      final int threads,
+      final int maxRestoring,
+      final Duration maxRestoreWait,
+      final ServerState serverState
+  ) {
+    this(threads, maxRestoring, maxRestoreWait, serverState, RESTORE_POLL_INTERVAL);
+  }
+
+  @VisibleForTesting
+  PersistentQueryStarter(
+      final int threads,
+      final int maxRestoring,
+      final Duration maxRestoreWait,
+      final ServerState serverState,
+      final Duration restorePollInterval
+  ) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be at least one");
+    }
+
+    if (maxRestoring < 0) {
+      throw new IllegalArgumentException("maxRestoring can not be negative");
+    }
+
+    if (maxRestoreWait.isNegative()) {
+      throw new IllegalArgumentException("maxRestoreWait can not be negative");
+    }
+
+    this.threads = threads;
+    this.maxRestoring = maxRestoring;
+    this.maxRestoreWait = Objects.requireNonNull(maxRestoreWait, "maxRestoreWait");
+    this.serverState = Objects.requireNonNull(serverState, "serverState");
+    this.restorePollInterval = Objects.requireNonNull(restorePollInterval, "restorePollInterval");
+  }
+
+  /**
+   * Start the supplied queries, returning once every query has been started.
+   *
+   * <p>If any query fails to start, queries that have not yet begun starting are skipped and the
+   * failure is thrown. Queries already being started on other threads are not interrupted.
+   *
+   * @param queries the queries to start.
+   */
+  public void start(final List<PersistentQueryMetadata> queries) {
+    if (queries.isEmpty()) {
+      return;
+    }
+
+    LOG.info("Starting {} persistent queries on {} thread(s)", queries.size(), threads);
+
+    final Progress progress = new Progress(queries.size());
+
+    if (threads == 1) {
+      queries.forEach(query -> startQuery(query, progress));
+      return;
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(
+        Math.min(threads, queries.size()),
+        new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat("ksql-query-starter-%d")
+            .build()
+    );
+
+    try {
+      final List<Future<?>> futures = new ArrayList<>(queries.size());
+      for (final PersistentQueryMetadata query : queries) {
+        futures.add(executor.submit(() -> startQuery(query, progress)));
+      }
+
+      for (final Future<?> future : futures) {
+        future.get();
+      }
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new KsqlException("Failed to start persistent queries", e.getCause());
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new KsqlException("Interrupted while starting persistent queries", e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private void startQuery(final PersistentQueryMetadata query, final Progress progress) {
+    if (maxRestoring == 0) {
+      if (!startUnlessFailed(query, progress)) {
+        return;
+      }
+    } else {
+      progress.acquireRestorePermit();
+      try {
+        if (!startUnlessFailed(query, progress)) {
+          return;
+        }
+
+        if (!awaitRestored(query)) {
+          progress.stillRestoring.incrementAndGet();
+          LOG.warn("Persistent query {} has not finished restoring after {}. "
+              + "Starting further queries while it continues to restore.",
+              query.getQueryId(), maxRestoreWait);
+        }
+      } finally {
+        progress.releaseRestorePermit();
+      }
+    }
+
+    final int started = progress.started.incrementAndGet();
+    final int stillRestoring = progress.stillRestoring.get();
+    serverState.updateInitializingReason(new KsqlErrorMessage(
+        Errors.ERROR_CODE_SERVER_NOT_READY,
+        String.format(
+            "KSQL is not yet ready to serve requests. "
+                + "Started %d of %d persistent queries.",
+            started,
+            progress.total
+        ) + (stillRestoring == 0
+            ? ""
+            : String.format(" %d have not finished restoring.", stillRestoring))
+    ));
+  }
+
+  /**
+   * Start the query, unless another query has already failed to start.
+   *
+   * @return {@code true} if the query was started.
+   */
+  private static boolean startUnlessFailed(
+      final PersistentQueryMetadata query,
+      final Progress progress
+  ) {
+    if (progress.failed) {
+      return false;
+    }
+
+    try {
+      query.start();
+      return true;
+    } catch (final RuntimeException e) {
+      progress.failed = true;
+      throw e;
+    }
+  }
+
+  /**
+   * Wait while the query is rebalancing, during which its stores are restored, for at most the
+   * maximum restore wait.
+   *
+   * <p>Queries whose app has not been started, i.e. those sharing an app that starts once all
+   * its queries have started, are not waited on, as the app will not start until all of them
+   * have.
+   *
+   * @return {@code true} if the query is no longer restoring.
+   */
+  private boolean awaitRestored(final PersistentQueryMetadata query) {
+    final long deadline = System.nanoTime() + maxRestoreWait.toNanos();
+    try {
+      while (REBALANCING.equals(query.getState())) {
+        if (System.nanoTime() - deadline >= 0) {
+          return false;
+        }
+        Thread.sleep(restorePollInterval.toMillis());
+      }
+      return true;
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new KsqlException("Interrupted while waiting for query "
+          + query.getQueryId() + " to restore", e);
+    }
+  }
+
+  private final class Progress {
+
+    private final int total;
+    private final AtomicInteger started = new AtomicInteger();
+    private final AtomicInteger stillRestoring = new AtomicInteger();
+    private volatile boolean failed;
+    private final Semaphore restoring;
+
+    Progress(final int total) {
+      this.total = total;
+      this.restoring = new Semaphore(maxRestoring);
+    }
+
+    void acquireRestorePermit() {
+      try {
+        restoring.acquire();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new KsqlException("Interrupted while starting persistent queries", e);
+      }
+    }
+
+    void releaseRestorePermit() {
+      restoring.release();
+    }
+  }
+}
@@ -64,6 +64,7 @@ public class StatementExecutor implements KsqlConfigurable {
   private final KsqlEngine ksqlEngine;
   private final StatementParser statementParser;
   private final Map<CommandId, CommandStatus> statusStore;
+  private final Map<Map<String, String>, KsqlConfig> mergedConfigs;
   private KsqlConfig ksqlConfig;
 
   private enum Mode {
@@ -88,6 +89,7 @@ public class StatementExecutor implements KsqlConfigurable {
     this.ksqlEngine = ksqlEngine;
     this.statementParser = statementParser;
     this.statusStore = new ConcurrentHashMap<>();
+    this.mergedConfigs = new ConcurrentHashMap<>();
   }
 
   @Override
@@ -97,6 +99,7 @@ public class StatementExecutor implements KsqlConfigurable {
     }
 
     ksqlConfig = config;
+    mergedConfigs.clear();
   }
 
   KsqlEngine getKsqlEngine() {
@@ -288,6 +291,12 @@ public class StatementExecutor implements KsqlConfigurable {
           ksqlEngine, mergedConfig, command.getStatement());
     }
 
+    if (QueryCapacityUtil.exceedsPersistentStreamThreadCapacity(ksqlEngine, mergedConfig, 0)) {
+      queries.forEach(QueryMetadata::close);
+      QueryCapacityUtil.throwTooManyPersistentStreamThreadsException(
+          ksqlEngine, mergedConfig, command.getStatement());
+    }
+
     if (mode == Mode.EXECUTE) {
       for (final QueryMetadata queryMetadata : queries) {
         if (queryMetadata instanceof PersistentQueryMetadata) {
@@ -313,6 +322,12 @@ public class StatementExecutor implements KsqlConfigurable {
 
     final ConfiguredStatement<?> configured = ConfiguredStatement.of(
         statement, command.getOverwriteProperties(), mergedConfig);
+
+    if (QueryCapacityUtil.exceedsPersistentStreamThreadCapacity(
+        ksqlEngine, mergedConfig, QueryCapacityUtil.getStreamThreads(configured))) {
+      QueryCapacityUtil.throwTooManyPersistentStreamThreadsException(
+          ksqlEngine, mergedConfig, statement.getStatementText());
+    }
     final QueryMetadata queryMetadata = ksqlEngine.execute(configured)
         .getQuery()
         .orElseThrow(() -> new IllegalStateException("Statement did not return a query"));
@@ -333,7 +348,13 @@ public class StatementExecutor implements KsqlConfigurable {
   }
 
   private KsqlConfig buildMergedConfig(final Command command) {
-    return ksqlConfig.overrideBreakingConfigsWithOriginalValues(command.getOriginalProperties());
+    // Consecutive commands nearly always share the same original values, so the merged config
+    // is cached rather than re-parsed for each command. Commands written by older versions hold
+    // the full config, so the cache is keyed on just the values the merge reads:
+    return mergedConfigs.computeIfAbsent(
+        KsqlConfig.getCompatibilityBreakingProps(command.getOriginalProperties()),
+        ksqlConfig::overrideBreakingConfigsWithOriginalValues
+    );
   }
 
   private void terminateQuery(final PreparedStatement<TerminateQuery> terminateQuery) {
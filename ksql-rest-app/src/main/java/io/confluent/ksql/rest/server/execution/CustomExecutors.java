@@ -37,9 +37,11 @@ import io.confluent.ksql.parser.tree.ShowColumns;
 import io.confluent.ksql.parser.tree.Statement;
 import io.confluent.ksql.parser.tree.UnsetProperty;
 import io.confluent.ksql.rest.entity.KsqlEntity;
+import io.confluent.ksql.services.ClusterMetadataService;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.statement.ConfiguredStatement;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -83,6 +85,35 @@ public enum CustomExecutors {
                   CustomExecutors::getExecutor))
       );
 
+  /**
+   * Get the executors, with those that read the metadata of the Kafka cluster served by the
+   * supplied {@code metadataService} rather than by the clients of each request.
+   *
+   * @param metadataService the service to serve cluster metadata.
+   * @return the executors, keyed by the statement class they handle.
+   */
+  public static Map<Class<? extends Statement>, StatementExecutor<?>> withMetadataService(
+      final ClusterMetadataService metadataService
+  ) {
+    final Map<Class<? extends Statement>, StatementExecutor<?>> executors =
+        new HashMap<>(EXECUTOR_MAP);
+
+    executors.put(ListTopics.class, (StatementExecutor<ListTopics>)
+        (statement, executionContext, serviceContext) ->
+            ListTopicsExecutor.listTopics(statement, metadataService));
+    executors.put(ListStreams.class, (StatementExecutor<ListStreams>)
+        (statement, executionContext, serviceContext) ->
+            ListSourceExecutor.listStreams(statement, executionContext, metadataService));
+    executors.put(ListTables.class, (StatementExecutor<ListTables>)
+        (statement, executionContext, serviceContext) ->
+            ListSourceExecutor.listTables(statement, executionContext, metadataService));
+    executors.put(ShowColumns.class, (StatementExecutor<ShowColumns>)
+        (statement, executionContext, serviceContext) ->
+            ListSourceExecutor.showColumns(statement, executionContext, metadataService));
+
+    return ImmutableMap.copyOf(executors);
+  }
+
   private final Class<? extends Statement> statementClass;
   private final StatementExecutor executor;
 
@@ -35,6 +35,7 @@ import io.confluent.ksql.rest.entity.SourceInfo;
 import io.confluent.ksql.rest.entity.StreamsList;
 import io.confluent.ksql.rest.entity.TablesList;
 import io.confluent.ksql.rest.server.KsqlRestApplication;
+import io.confluent.ksql.services.ClusterMetadataService;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.statement.ConfiguredStatement;
 import io.confluent.ksql.util.KsqlStatementException;
@@ -55,14 +56,14 @@ public final class ListSourceExecutor {
   private static Optional<KsqlEntity> sourceDescriptionList(
       final ConfiguredStatement<?> statement,
       final KsqlExecutionContext executionContext,
-      final ServiceContext serviceContext,
+      final ClusterMetadataService metadataService,
       final List<? extends DataSource<?>> sources
   ) {
     final List<SourceDescriptionWithWarnings> descriptions = sources.stream()
         .map(
             s -> describeSource(
                 executionContext,
-                serviceContext,
+                metadataService,
                 s.getName(),
                 true,
                 statement.getStatementText())
@@ -81,6 +82,18 @@ public final class ListSourceExecutor {
       final ConfiguredStatement<ListStreams> statement,
       final KsqlExecutionContext executionContext,
       final ServiceContext serviceContext
+  ) {
+    return listStreams(
+        statement,
+        executionContext,
+        ClusterMetadataService.uncached(serviceContext)
+    );
+  }
+
+  static Optional<KsqlEntity> listStreams(
+      final ConfiguredStatement<ListStreams> statement,
+      final KsqlExecutionContext executionContext,
+      final ClusterMetadataService metadataService
   ) {
     final List<KsqlStream<?>> ksqlStreams = getSpecificStreams(executionContext);
 
@@ -89,7 +102,7 @@ public final class ListSourceExecutor {
       return sourceDescriptionList(
           statement,
           executionContext,
-          serviceContext,
+          metadataService,
           ksqlStreams
       );
     }
@@ -105,6 +118,18 @@ public final class ListSourceExecutor {
       final ConfiguredStatement<ListTables> statement,
       final KsqlExecutionContext executionContext,
       final ServiceContext serviceContext
+  ) {
+    return listTables(
+        statement,
+        executionContext,
+        ClusterMetadataService.uncached(serviceContext)
+    );
+  }
+
+  static Optional<KsqlEntity> listTables(
+      final ConfiguredStatement<ListTables> statement,
+      final KsqlExecutionContext executionContext,
+      final ClusterMetadataService metadataService
   ) {
     final List<KsqlTable<?>> ksqlTables = getSpecificTables(executionContext);
 
@@ -113,7 +138,7 @@ public final class ListSourceExecutor {
       return sourceDescriptionList(
           statement,
           executionContext,
-          serviceContext,
+          metadataService,
           ksqlTables
       );
     }
@@ -128,11 +153,23 @@ public final class ListSourceExecutor {
       final ConfiguredStatement<ShowColumns> statement,
       final KsqlExecutionContext executionContext,
       final ServiceContext serviceContext
+  ) {
+    return showColumns(
+        statement,
+        executionContext,
+        ClusterMetadataService.uncached(serviceContext)
+    );
+  }
+
+  static Optional<KsqlEntity> showColumns(
+      final ConfiguredStatement<ShowColumns> statement,
+      final KsqlExecutionContext executionContext,
+      final ClusterMetadataService metadataService
   ) {
     final ShowColumns showColumns = statement.getStatement();
     final SourceDescriptionWithWarnings descriptionWithWarnings = describeSource(
         executionContext,
-        serviceContext,
+        metadataService,
         showColumns.getTable().getSuffix(),
         showColumns.isExtended(),
         statement.getStatementText()
@@ -170,7 +207,7 @@ public final class ListSourceExecutor {
 
   private static SourceDescriptionWithWarnings describeSource(
       final KsqlExecutionContext ksqlEngine,
-      final ServiceContext serviceContext,
+      final ClusterMetadataService metadataService,
       final String name,
       final boolean extended,
       final String statementText) {
@@ -187,7 +224,7 @@ public final class ListSourceExecutor {
     if (extended) {
       try {
         topicDescription = Optional.of(
-            serviceContext.getTopicClient().describeTopic(dataSource.getKafkaTopicName())
+            metadataService.describeTopic(dataSource.getKafkaTopicName())
         );
       } catch (final KafkaException | KafkaResponseGetFailedException e) {
         warnings.add(new KsqlWarning("Error from Kafka: " + e.getMessage()));
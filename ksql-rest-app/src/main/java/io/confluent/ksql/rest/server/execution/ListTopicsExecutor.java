@@ -22,12 +22,11 @@ import io.confluent.ksql.rest.entity.KafkaTopicInfoExtended;
 import io.confluent.ksql.rest.entity.KafkaTopicsList;
 import io.confluent.ksql.rest.entity.KafkaTopicsListExtended;
 import io.confluent.ksql.rest.entity.KsqlEntity;
-import io.confluent.ksql.services.KafkaTopicClient;
+import io.confluent.ksql.services.ClusterMetadataService;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.statement.ConfiguredStatement;
-import io.confluent.ksql.util.KafkaConsumerGroupClient;
+import io.confluent.ksql.util.KafkaConsumerGroupClient.ConsumerGroupSummary;
 import io.confluent.ksql.util.KafkaConsumerGroupClient.ConsumerSummary;
-import io.confluent.ksql.util.KafkaConsumerGroupClientImpl;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlConstants;
 import java.util.ArrayList;
@@ -56,19 +55,19 @@ public final class ListTopicsExecutor {
       final KsqlExecutionContext executionContext,
       final ServiceContext serviceContext
   ) {
-    final KafkaTopicClient client = serviceContext.getTopicClient();
-
-    final Map<String, TopicDescription> kafkaTopicDescriptions
-        = client.describeTopics(client.listNonInternalTopicNames());
+    return listTopics(statement, ClusterMetadataService.uncached(serviceContext));
+  }
 
+  static Optional<KsqlEntity> listTopics(
+      final ConfiguredStatement<ListTopics> statement,
+      final ClusterMetadataService metadataService
+  ) {
     final Map<String, TopicDescription> filteredDescriptions = new TreeMap<>(
-        filterKsqlInternalTopics(kafkaTopicDescriptions, statement.getConfig()));
+        filterKsqlInternalTopics(metadataService.describeTopics(), statement.getConfig()));
 
     if (statement.getStatement().getShowExtended()) {
-      final KafkaConsumerGroupClient consumerGroupClient
-          = new KafkaConsumerGroupClientImpl(serviceContext.getAdminClient());
       final Map<String, List<Integer>> topicConsumersAndGroupCount
-          = getTopicConsumerAndGroupCounts(consumerGroupClient);
+          = getTopicConsumerAndGroupCounts(metadataService.describeConsumerGroups());
 
       final List<KafkaTopicInfoExtended> topicInfoExtendedList = filteredDescriptions.values()
           .stream().map(desc ->
@@ -134,26 +133,23 @@ public final class ListTopicsExecutor {
    * @return all topics with their associated consumerCount and consumerGroupCount
    */
   private static Map<String, List<Integer>> getTopicConsumerAndGroupCounts(
-      final KafkaConsumerGroupClient consumerGroupClient
+      final Map<String, ConsumerGroupSummary> consumerGroups
   ) {
 
-    final List<String> consumerGroups = consumerGroupClient.listGroups();
-
     final Map<String, AtomicInteger> topicConsumerCount = new HashMap<>();
     final Map<String, Set<String>> topicConsumerGroupCount = new HashMap<>();
 
-    for (final String group : consumerGroups) {
-      final Collection<ConsumerSummary> consumerSummaryList =
-          consumerGroupClient.describeConsumerGroup(group).consumers();
+    for (final Map.Entry<String, ConsumerGroupSummary> group : consumerGroups.entrySet()) {
+      final Collection<ConsumerSummary> consumerSummaryList = group.getValue().consumers();
 
-      for (final KafkaConsumerGroupClientImpl.ConsumerSummary summary : consumerSummaryList) {
+      for (final ConsumerSummary summary : consumerSummaryList) {
 
         for (final TopicPartition topicPartition : summary.partitions()) {
           topicConsumerCount
               .computeIfAbsent(topicPartition.topic(), k -> new AtomicInteger())
               .incrementAndGet();
           topicConsumerGroupCount
-              .computeIfAbsent(topicPartition.topic(), k -> new HashSet<>()).add(group);
+              .computeIfAbsent(topicPartition.topic(), k -> new HashSet<>()).add(group.getKey());
         }
       }
     }
@@ -0,0 +1,463 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.execution;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Range;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.KsqlExecutionContext;
+import io.confluent.ksql.execution.expression.tree.ComparisonExpression;
+import io.confluent.ksql.execution.expression.tree.DereferenceExpression;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.IntegerLiteral;
+import io.confluent.ksql.execution.expression.tree.Literal;
+import io.confluent.ksql.execution.expression.tree.LogicalBinaryExpression;
+import io.confluent.ksql.execution.expression.tree.LongLiteral;
+import io.confluent.ksql.execution.expression.tree.QualifiedNameReference;
+import io.confluent.ksql.materialization.Materialization;
+import io.confluent.ksql.materialization.MaterializedRow;
+import io.confluent.ksql.metastore.model.DataSource;
+import io.confluent.ksql.metastore.model.DataSource.DataSourceType;
+import io.confluent.ksql.parser.tree.AliasedRelation;
+import io.confluent.ksql.parser.tree.AllColumns;
+import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.parser.tree.Relation;
+import io.confluent.ksql.parser.tree.Table;
+import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.rest.client.KsqlRestClient;
+import io.confluent.ksql.rest.client.KsqlRestClient.QueryStream;
+import io.confluent.ksql.rest.client.RestResponse;
+import io.confluent.ksql.rest.entity.StreamedRow;
+import io.confluent.ksql.statement.ConfiguredStatement;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.KsqlStatementException;
+import io.confluent.ksql.util.PersistentQueryMetadata;
+import io.confluent.ksql.util.SchemaUtil;
+import java.io.Closeable;
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.state.HostInfo;
+
+/**
+ * Executes pull queries, i.e. key lookups against tables materialized by persistent queries.
+ *
+ * <p>Pull queries are queries of the form:
+ *
+ * <pre>
+ *   SELECT * FROM table WHERE ROWKEY = 'key';
+ *   SELECT * FROM windowed_table WHERE ROWKEY = 'key' AND WINDOWSTART >= 1000;
+ * </pre>
+ *
+ * <p>They are answered directly from the state store of the persistent query that builds the
+ * table. Where the key is hosted by another server, the query is forwarded to that server, using
+ * a single client shared by all forwarded queries and the credentials of the original request.
+ */
+public final class PullQueryExecutor implements Closeable {
+
+  private static final String WINDOW_START = "WINDOWSTART";
+
+  private final KsqlRestClient forwardingClient;
+
+  /**
+   * @param forwardingClient the client used to forward queries to other servers.
+   */
+  public PullQueryExecutor(final KsqlRestClient forwardingClient) {
+    this.forwardingClient = Objects.requireNonNull(forwardingClient, "forwardingClient");
+  }
+
+  /**
+   * Determine if a query is a pull query, i.e. if pull queries are enabled and the query is a
+   * {@code SELECT *} lookup of a single {@code ROWKEY} in a materialized table. Any other query,
+   * including one that projects columns, is a push query.
+   *
+   * @param statement the query statement.
+   * @param executionContext the context the query would be executed in.
+   * @return {@code true} if the statement should be executed as a pull query.
+   */
+  public static boolean isPullQuery(
+      final ConfiguredStatement<Query> statement,
+      final KsqlExecutionContext executionContext
+  ) {
+    final boolean enabled = statement.getConfig()
+        .cloneWithPropertyOverwrite(statement.getOverrides())
+        .getBoolean(KsqlConfig.KSQL_PULL_QUERIES_ENABLE_CONFIG);
+
+    final Query query = statement.getStatement();
+    if (!enabled
+        || query.getWindow().isPresent()
+        || query.getGroupBy().isPresent()
+        || query.getHaving().isPresent()
+        || !isSelectStar(query)) {
+      return false;
+    }
+
+    final boolean isKeyLookup = query.getWhere()
+        .map(PullQueryExecutor::splitConjuncts)
+        .map(conjuncts -> conjuncts.stream().anyMatch(PullQueryExecutor::isRowKeyEquality))
+        .orElse(false);
+
+    return isKeyLookup && findTableName(query.getFrom())
+        .filter(name -> isTable(name, executionContext))
+        .flatMap(name -> findMaterialization(name, executionContext))
+        .isPresent();
+  }
+
+  /**
+   * @param statement the pull query statement.
+   * @param executionContext the context to execute the query in.
+   * @param authHeader the {@code Authorization} header of the request, if any, which is passed
+   *                   on if the query is forwarded to another server.
+   * @return the rows of the result.
+   */
+  public List<StreamedRow> execute(
+      final ConfiguredStatement<Query> statement,
+      final KsqlExecutionContext executionContext,
+      final Optional<String> authHeader
+  ) {
+    try {
+      final Query query = statement.getStatement();
+      final KeyLookup lookup = analyze(query, executionContext);
+
+      final Optional<HostInfo> owner = lookup.materialization.locate(lookup.rowKey);
+      if (owner.isPresent() && !skipForwarding(statement)) {
+        return forward(owner.get(), statement, authHeader);
+      }
+
+      final List<StreamedRow> rows = lookup.execute();
+      return query.getLimit().isPresent() && rows.size() > query.getLimit().getAsInt()
+          ? rows.subList(0, query.getLimit().getAsInt())
+          : rows;
+    } catch (final KsqlException e) {
+      throw new KsqlStatementException(e.getMessage(), statement.getStatementText(), e);
+    }
+  }
+
+  private static KeyLookup analyze(
+      final Query query,
+      final KsqlExecutionContext executionContext
+  ) {
+    if (query.getWindow().isPresent()
+        || query.getGroupBy().isPresent()
+        || query.getHaving().isPresent()) {
+      throw new KsqlException(
+          "Pull queries do not support WINDOW, GROUP BY or HAVING clauses.");
+    }
+
+    if (!isSelectStar(query)) {
+      throw new KsqlException("Pull queries only support 'SELECT *'.");
+    }
+
+    final String sourceName = findTableName(query.getFrom())
+        .orElseThrow(() -> new KsqlException("Pull queries do not support joins."));
+    if (!isTable(sourceName, executionContext)) {
+      throw new KsqlException("Pull queries are only supported on tables. "
+          + "'" + sourceName + "' is not a table.");
+    }
+
+    final Materialization materialization = getMaterialization(sourceName, executionContext);
+
+    final Expression where = query.getWhere()
+        .orElseThrow(() -> new KsqlException(
+            "Pull queries require a WHERE clause that restricts ROWKEY to a single value."));
+
+    final KeyLookup lookup = new KeyLookup(materialization);
+    splitConjuncts(where).forEach(lookup::addPredicate);
+
+    if (lookup.rowKey == null) {
+      throw new KsqlException(
+          "Pull queries require a WHERE clause that restricts ROWKEY to a single value.");
+    }
+
+    if (!materialization.getWindowInfo().isPresent() && lookup.windowStart != null) {
+      throw new KsqlException(
+          "'" + sourceName + "' is not windowed: " + WINDOW_START + " bounds are not supported.");
+    }
+
+    return lookup;
+  }
+
+  private static boolean isSelectStar(final Query query) {
+    return query.getSelect().getSelectItems().size() == 1
+        && query.getSelect().getSelectItems().get(0) instanceof AllColumns;
+  }
+
+  private static Optional<String> findTableName(final Relation from) {
+    final Relation relation = from instanceof AliasedRelation
+        ? ((AliasedRelation) from).getRelation()
+        : from;
+
+    if (!(relation instanceof Table)) {
+      return Optional.empty();
+    }
+
+    return Optional.of(((Table) relation).getName().getSuffix());
+  }
+
+  private static boolean isTable(
+      final String sourceName,
+      final KsqlExecutionContext executionContext
+  ) {
+    final DataSource<?> source = executionContext.getMetaStore().getSource(sourceName);
+    return source != null && source.getDataSourceType() == DataSourceType.KTABLE;
+  }
+
+  private static Materialization getMaterialization(
+      final String sourceName,
+      final KsqlExecutionContext executionContext
+  ) {
+    return findMaterialization(sourceName, executionContext)
+        .orElseThrow(() -> notMaterialized(sourceName));
+  }
+
+  private static Optional<Materialization> findMaterialization(
+      final String sourceName,
+      final KsqlExecutionContext executionContext
+  ) {
+    final Set<String> queryIds = executionContext.getMetaStore().getQueriesWithSink(sourceName);
+    if (queryIds.size() != 1) {
+      return Optional.empty();
+    }
+
+    return executionContext
+        .getPersistentQuery(new QueryId(queryIds.iterator().next()))
+        .flatMap(PersistentQueryMetadata::getMaterialization);
+  }
+
+  private static KsqlException notMaterialized(final String sourceName) {
+    return new KsqlException("Table '" + sourceName + "' is not materialized. "
+        + "Pull queries are only supported on tables built by a single "
+        + "CREATE TABLE AS SELECT ... GROUP BY statement, without EMIT FINAL.");
+  }
+
+  private static List<Expression> splitConjuncts(final Expression expression) {
+    if (expression instanceof LogicalBinaryExpression
+        && ((LogicalBinaryExpression) expression).getType() == LogicalBinaryExpression.Type.AND) {
+      final LogicalBinaryExpression and = (LogicalBinaryExpression) expression;
+      final List<Expression> conjuncts = new ArrayList<>(splitConjuncts(and.getLeft()));
+      conjuncts.addAll(splitConjuncts(and.getRight()));
+      return conjuncts;
+    }
+
+    return ImmutableList.of(expression);
+  }
+
+  private static boolean isRowKeyEquality(final Expression expression) {
+    if (!(expression instanceof ComparisonExpression)) {
+      return false;
+    }
+
+    final ComparisonExpression comparison = (ComparisonExpression) expression;
+    if (comparison.getType() != ComparisonExpression.Type.EQUAL) {
+      return false;
+    }
+
+    final Expression column = comparison.getLeft() instanceof Literal
+        ? comparison.getRight()
+        : comparison.getLeft();
+    final Expression other = column == comparison.getLeft()
+        ? comparison.getRight()
+        : comparison.getLeft();
+
+    return other instanceof Literal
+        && KeyLookup.getColumnName(column)
+            .map(SchemaUtil.ROWKEY_NAME::equalsIgnoreCase)
+            .orElse(false);
+  }
+
+  private static boolean skipForwarding(final ConfiguredStatement<Query> statement) {
+    return statement.getConfig()
+        .cloneWithPropertyOverwrite(statement.getOverrides())
+        .getBoolean(KsqlConfig.KSQL_PULL_QUERIES_SKIP_FORWARDING_CONFIG);
+  }
+
+  private List<StreamedRow> forward(
+      final HostInfo owner,
+      final ConfiguredStatement<Query> statement,
+      final Optional<String> authHeader
+  ) {
+    final Map<String, Object> properties = new HashMap<>(statement.getOverrides());
+    properties.put(KsqlConfig.KSQL_PULL_QUERIES_ENABLE_CONFIG, true);
+    properties.put(KsqlConfig.KSQL_PULL_QUERIES_SKIP_FORWARDING_CONFIG, true);
+
+    final URI ownerAddress = buildAddress(owner, statement.getConfig());
+
+    final RestResponse<QueryStream> response = forwardingClient.makeQueryRequest(
+        ownerAddress, statement.getStatementText(), properties, authHeader);
+
+    if (response.isErroneous()) {
+      throw new KsqlException("Error forwarding pull query to " + ownerAddress + ": "
+          + response.getErrorMessage().getMessage());
+    }
+
+    final List<StreamedRow> rows = new ArrayList<>();
+    try (QueryStream stream = response.getResponse()) {
+      stream.forEachRemaining(rows::add);
+    }
+    return rows;
+  }
+
+  @Override
+  public void close() {
+    forwardingClient.close();
+  }
+
+  private static URI buildAddress(final HostInfo host, final KsqlConfig config) {
+    final Object localServer = config.getKsqlStreamConfigProps()
+        .get(StreamsConfig.APPLICATION_SERVER_CONFIG);
+
+    final String scheme = localServer == null
+        ? null
+        : URI.create(localServer.toString()).getScheme();
+
+    return URI.create(
+        (scheme == null ? "http" : scheme) + "://" + host.host() + ":" + host.port());
+  }
+
+  private static final class KeyLookup {
+
+    private final Materialization materialization;
+    private String rowKey;
+    private Range<Instant> windowStart;
+
+    KeyLookup(final Materialization materialization) {
+      this.materialization = materialization;
+    }
+
+    void addPredicate(final Expression expression) {
+      if (!(expression instanceof ComparisonExpression)) {
+        throw unsupported(expression);
+      }
+
+      final ComparisonExpression comparison = (ComparisonExpression) expression;
+
+      final boolean columnOnLeft = !(comparison.getLeft() instanceof Literal);
+      final Expression column = columnOnLeft ? comparison.getLeft() : comparison.getRight();
+      final Expression other = columnOnLeft ? comparison.getRight() : comparison.getLeft();
+      final ComparisonExpression.Type type = columnOnLeft
+          ? comparison.getType()
+          : comparison.getType().flip();
+
+      if (!(other instanceof Literal)) {
+        throw unsupported(expression);
+      }
+
+      final String columnName = getColumnName(column)
+          .orElseThrow(() -> unsupported(expression));
+
+      if (columnName.equalsIgnoreCase(SchemaUtil.ROWKEY_NAME)) {
+        if (type != ComparisonExpression.Type.EQUAL || rowKey != null) {
+          throw unsupported(expression);
+        }
+        rowKey = String.valueOf(((Literal) other).getValue());
+        return;
+      }
+
+      if (columnName.equalsIgnoreCase(WINDOW_START)) {
+        final Range<Instant> bound = toRange(type, toInstant((Literal) other, expression));
+        if (windowStart != null && !windowStart.isConnected(bound)) {
+          throw new KsqlException("Conflicting " + WINDOW_START + " bounds: " + expression);
+        }
+        windowStart = windowStart == null ? bound : windowStart.intersection(bound);
+        return;
+      }
+
+      throw unsupported(expression);
+    }
+
+    List<StreamedRow> execute() {
+      if (!materialization.getWindowInfo().isPresent()) {
+        return materialization.get(rowKey)
+            .map(KeyLookup::toStreamedRow)
+            .map(Collections::singletonList)
+            .orElse(Collections.emptyList());
+      }
+
+      final Range<Instant> bounds = windowStart == null ? Range.all() : windowStart;
+      final List<StreamedRow> rows = new ArrayList<>();
+      materialization.get(rowKey, bounds).forEach(row -> rows.add(toStreamedRow(row)));
+      return rows;
+    }
+
+    private static StreamedRow toStreamedRow(final MaterializedRow row) {
+      final String rowKey = row.getWindow()
+          .map(window -> row.getRowKey() + " : " + window)
+          .orElse(row.getRowKey());
+
+      final List<Object> columns = new ArrayList<>(row.getValue().getColumns().size() + 2);
+      columns.add(row.getRowTime());
+      columns.add(rowKey);
+      columns.addAll(row.getValue().getColumns());
+      return StreamedRow.row(new GenericRow(columns));
+    }
+
+    private static Optional<String> getColumnName(final Expression expression) {
+      if (expression instanceof QualifiedNameReference) {
+        return Optional.of(((QualifiedNameReference) expression).getName().getSuffix());
+      }
+
+      if (expression instanceof DereferenceExpression) {
+        return Optional.of(((DereferenceExpression) expression).getFieldName());
+      }
+
+      return Optional.empty();
+    }
+
+    private static Instant toInstant(final Literal literal, final Expression expression) {
+      if (literal instanceof IntegerLiteral || literal instanceof LongLiteral) {
+        return Instant.ofEpochMilli(((Number) literal.getValue()).longValue());
+      }
+
+      throw new KsqlException(WINDOW_START + " bounds must be epoch milliseconds, got: "
+          + expression);
+    }
+
+    private static Range<Instant> toRange(
+        final ComparisonExpression.Type type,
+        final Instant value
+    ) {
+      switch (type) {
+        case EQUAL:
+          return Range.singleton(value);
+        case GREATER_THAN:
+          return Range.greaterThan(value);
+        case GREATER_THAN_OR_EQUAL:
+          return Range.atLeast(value);
+        case LESS_THAN:
+          return Range.lessThan(value);
+        case LESS_THAN_OR_EQUAL:
+          return Range.atMost(value);
+        default:
+          throw new KsqlException("Unsupported " + WINDOW_START + " comparison: " + type);
+      }
+    }
+
+    private static KsqlException unsupported(final Expression expression) {
+      return new KsqlException("Unsupported pull query WHERE clause predicate: " + expression
+          + ". Only 'ROWKEY = <literal>' and, for windowed tables, "
+          + "'" + WINDOW_START + " <comparison> <epoch millis>' are supported.");
+    }
+  }
+}
@@ -15,15 +15,20 @@
 
 package io.confluent.ksql.rest.server.execution;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import io.confluent.ksql.KsqlExecutionContext;
 import io.confluent.ksql.engine.KsqlEngine;
 import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.parser.tree.RunScript;
+import io.confluent.ksql.parser.tree.SetProperty;
 import io.confluent.ksql.parser.tree.Statement;
+import io.confluent.ksql.parser.tree.UnsetProperty;
 import io.confluent.ksql.rest.entity.KsqlEntity;
 import io.confluent.ksql.rest.entity.KsqlEntityList;
 import io.confluent.ksql.rest.server.computation.DistributingExecutor;
+import io.confluent.ksql.rest.server.computation.DistributingExecutor.Batch;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.statement.ConfiguredStatement;
 import io.confluent.ksql.util.KsqlConfig;
@@ -34,6 +39,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Handles prepared statements, resolving side-effects and delegates to any
@@ -41,6 +47,15 @@ import java.util.Optional;
  */
 public class RequestHandler {
 
+  /**
+   * Statements that do not depend on the result of earlier statements, and so do not require a
+   * batch of distributed statements to be flushed before they are executed.
+   */
+  private static final Set<Class<? extends Statement>> BATCH_INDEPENDENT = ImmutableSet.of(
+      SetProperty.class,
+      UnsetProperty.class
+  );
+
   private final Map<Class<? extends Statement>, StatementExecutor<?>> customExecutors;
   private final KsqlEngine ksqlEngine;
   private final KsqlConfig ksqlConfig;
@@ -75,11 +90,45 @@ public class RequestHandler {
       final List<ParsedStatement> statements,
       final Map<String, Object> propertyOverrides
   ) {
-    final Map<String, Object> scopedPropertyOverrides = new HashMap<>(propertyOverrides);
+    final Optional<Batch> batch = isBatchEnabled(propertyOverrides)
+        ? Optional.of(distributor.newBatch(ksqlEngine, serviceContext))
+        : Optional.empty();
+
     final KsqlEntityList entities = new KsqlEntityList();
+    try {
+      execute(serviceContext, statements, propertyOverrides, batch, entities);
+    } catch (final RuntimeException e) {
+      // As when not batching, statements before the failed statement are still executed:
+      try {
+        batch.ifPresent(Batch::flush);
+      } catch (final RuntimeException flushError) {
+        e.addSuppressed(flushError);
+      }
+      throw e;
+    }
+
+    batch.ifPresent(b -> entities.addAll(b.flush()));
+    return entities;
+  }
+
+  private void execute(
+      final ServiceContext serviceContext,
+      final List<ParsedStatement> statements,
+      final Map<String, Object> propertyOverrides,
+      final Optional<Batch> batch,
+      final KsqlEntityList entities
+  ) {
+    // Statements are prepared against any batch's sandbox, which includes earlier statements
+    // in the batch that have not yet been executed:
+    final KsqlExecutionContext context = batch
+        .map(Batch::getSandbox)
+        .orElse(ksqlEngine);
+
+    final Map<String, Object> scopedPropertyOverrides = new HashMap<>(propertyOverrides);
     for (ParsedStatement parsed : statements) {
-      final PreparedStatement<?> prepared = ksqlEngine.prepare(parsed);
+      final PreparedStatement<?> prepared = context.prepare(parsed);
       if (prepared.getStatement() instanceof RunScript) {
+        batch.ifPresent(b -> entities.addAll(b.flush()));
         final KsqlEntityList result = executeRunScript(serviceContext, prepared, propertyOverrides);
         if (!result.isEmpty()) {
           // This is to maintain backwards compatibility until we deprecate
@@ -90,10 +139,40 @@ public class RequestHandler {
       } else {
         final ConfiguredStatement<?> configured = ConfiguredStatement.of(
             prepared, scopedPropertyOverrides, ksqlConfig);
-        executeStatement(serviceContext, configured, entities).ifPresent(entities::add);
+        if (batch.isPresent()) {
+          executeBatched(serviceContext, configured, batch.get(), entities);
+        } else {
+          executeStatement(serviceContext, configured, entities).ifPresent(entities::add);
+        }
       }
     }
-    return entities;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void executeBatched(
+      final ServiceContext serviceContext,
+      final ConfiguredStatement<?> configured,
+      final Batch batch,
+      final KsqlEntityList entities
+  ) {
+    final Class<? extends Statement> statementClass = configured.getStatement().getClass();
+    if (!customExecutors.containsKey(statementClass)) {
+      entities.addAll(batch.add((ConfiguredStatement<Statement>) configured));
+      return;
+    }
+
+    if (!BATCH_INDEPENDENT.contains(statementClass)) {
+      entities.addAll(batch.flush());
+    }
+
+    executeStatement(serviceContext, configured, entities).ifPresent(entities::add);
+  }
+
+  private boolean isBatchEnabled(final Map<String, Object> propertyOverrides) {
+    final Object override = propertyOverrides.get(KsqlConfig.KSQL_COMMAND_BATCH_ENABLE_CONFIG);
+    return override == null
+        ? ksqlConfig.getBoolean(KsqlConfig.KSQL_COMMAND_BATCH_ENABLE_CONFIG)
+        : Boolean.parseBoolean(override.toString());
   }
 
   @SuppressWarnings("unchecked")
@@ -19,10 +19,22 @@ import static java.util.regex.Pattern.compile;
 
 import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.KsqlExecutionContext;
+import io.confluent.ksql.engine.InsertValuesExecutor;
 import io.confluent.ksql.engine.KsqlEngine;
+import io.confluent.ksql.execution.expression.tree.BooleanLiteral;
+import io.confluent.ksql.execution.expression.tree.DecimalLiteral;
+import io.confluent.ksql.execution.expression.tree.DoubleLiteral;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.IntegerLiteral;
+import io.confluent.ksql.execution.expression.tree.Literal;
+import io.confluent.ksql.execution.expression.tree.LongLiteral;
+import io.confluent.ksql.execution.expression.tree.NullLiteral;
+import io.confluent.ksql.execution.expression.tree.StringLiteral;
 import io.confluent.ksql.parser.DefaultKsqlParser;
 import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
+import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.parser.tree.DescribeFunction;
+import io.confluent.ksql.parser.tree.InsertValues;
 import io.confluent.ksql.parser.tree.ListFunctions;
 import io.confluent.ksql.parser.tree.ListProperties;
 import io.confluent.ksql.parser.tree.ListTopics;
@@ -44,20 +56,25 @@ import io.confluent.ksql.rest.util.CommandStoreUtil;
 import io.confluent.ksql.rest.util.ErrorResponseUtil;
 import io.confluent.ksql.rest.util.TerminateCluster;
 import io.confluent.ksql.security.KsqlAuthorizationValidator;
+import io.confluent.ksql.services.ClusterMetadataService;
 import io.confluent.ksql.services.SandboxedServiceContext;
 import io.confluent.ksql.services.ServiceContext;
+import io.confluent.ksql.statement.ConfiguredStatement;
 import io.confluent.ksql.statement.Injector;
 import io.confluent.ksql.statement.Injectors;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.KsqlStatementException;
 import io.confluent.ksql.version.metrics.ActivenessRegistrar;
+import java.math.BigDecimal;
 import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
@@ -93,6 +110,9 @@ public class KsqlResource implements KsqlConfigurable {
   private final ActivenessRegistrar activenessRegistrar;
   private final BiFunction<KsqlExecutionContext, ServiceContext, Injector> injectorFactory;
   private final KsqlAuthorizationValidator authorizationValidator;
+  private final Optional<ClusterMetadataService> metadataService;
+  private KsqlConfig ksqlConfig;
+  private ParsedStatementCache parsedStatementCache;
   private RequestValidator validator;
   private RequestHandler handler;
 
@@ -102,7 +122,8 @@ public class KsqlResource implements KsqlConfigurable {
       final CommandQueue commandQueue,
       final Duration distributedCmdResponseTimeout,
       final ActivenessRegistrar activenessRegistrar,
-      final KsqlAuthorizationValidator authorizationValidator
+      final KsqlAuthorizationValidator authorizationValidator,
+      final Optional<ClusterMetadataService> metadataService
   ) {
     this(
         ksqlEngine,
@@ -110,7 +131,8 @@ public class KsqlResource implements KsqlConfigurable {
         distributedCmdResponseTimeout,
         activenessRegistrar,
         Injectors.DEFAULT,
-        authorizationValidator
+        authorizationValidator,
+        metadataService
     );
   }
 
@@ -120,7 +142,8 @@ public class KsqlResource implements KsqlConfigurable {
       final Duration distributedCmdResponseTimeout,
       final ActivenessRegistrar activenessRegistrar,
       final BiFunction<KsqlExecutionContext, ServiceContext, Injector> injectorFactory,
-      final KsqlAuthorizationValidator authorizationValidator
+      final KsqlAuthorizationValidator authorizationValidator,
+      final Optional<ClusterMetadataService> metadataService
   ) {
     this.ksqlEngine = Objects.requireNonNull(ksqlEngine, "ksqlEngine");
     this.commandQueue = Objects.requireNonNull(commandQueue, "commandQueue");
@@ -131,6 +154,7 @@ public class KsqlResource implements KsqlConfigurable {
     this.injectorFactory = Objects.requireNonNull(injectorFactory, "injectorFactory");
     this.authorizationValidator = Objects
         .requireNonNull(authorizationValidator, "authorizationValidator");
+    this.metadataService = Objects.requireNonNull(metadataService, "metadataService");
   }
 
   @Override
@@ -139,6 +163,13 @@ public class KsqlResource implements KsqlConfigurable {
       throw new IllegalArgumentException("Need KS application server set");
     }
 
+    this.ksqlConfig = config;
+
+    this.parsedStatementCache = new ParsedStatementCache(
+        ksqlEngine::parse,
+        config.getInt(KsqlConfig.KSQL_PARSED_STATEMENT_CACHE_SIZE_CONFIG)
+    );
+
     this.validator = new RequestValidator(
         CustomValidators.VALIDATOR_MAP,
         injectorFactory,
@@ -147,7 +178,9 @@ public class KsqlResource implements KsqlConfigurable {
     );
 
     this.handler = new RequestHandler(
-        CustomExecutors.EXECUTOR_MAP,
+        metadataService
+            .map(CustomExecutors::withMetadataService)
+            .orElse(CustomExecutors.EXECUTOR_MAP),
         new DistributingExecutor(
             commandQueue,
             distributedCmdResponseTimeout,
@@ -198,7 +231,11 @@ public class KsqlResource implements KsqlConfigurable {
           request,
           distributedCmdResponseTimeout);
 
-      final List<ParsedStatement> statements = ksqlEngine.parse(request.getKsql());
+      final List<ParsedStatement> statements = parsedStatementCache.parse(request.getKsql());
+      if (!request.getParameters().isEmpty()) {
+        return Response.ok(insertWithParameters(serviceContext, statements, request)).build();
+      }
+
       validator.validate(
           SandboxedServiceContext.create(serviceContext),
           statements,
@@ -225,6 +262,74 @@ public class KsqlResource implements KsqlConfigurable {
     }
   }
 
+  /**
+   * Execute a parameterized {@code INSERT INTO ... VALUES} statement, binding the request's
+   * parameters to its {@code ?}s.
+   *
+   * <p>The statement's text is the same however many times it is sent with different values,
+   * so it is parsed only once. The bound statement is executed directly: inserting values does
+   * not change the metastore, so there is nothing to gain from first validating it against a
+   * sandbox.
+   */
+  private KsqlEntityList insertWithParameters(
+      final ServiceContext serviceContext,
+      final List<ParsedStatement> statements,
+      final KsqlRequest request
+  ) {
+    final PreparedStatement<?> prepared = statements.size() == 1
+        ? ksqlEngine.prepare(statements.get(0))
+        : null;
+
+    if (prepared == null || !(prepared.getStatement() instanceof InsertValues)) {
+      throw new KsqlException(
+          "Parameters can only be supplied with a single INSERT INTO ... VALUES statement.");
+    }
+
+    final List<Expression> values = request.getParameters().stream()
+        .map(KsqlResource::toLiteral)
+        .collect(Collectors.toList());
+
+    final InsertValues bound = ((InsertValues) prepared.getStatement()).bind(values);
+
+    new InsertValuesExecutor().execute(
+        ConfiguredStatement.of(
+            PreparedStatement.of(prepared.getStatementText(), bound),
+            request.getStreamsProperties(),
+            ksqlConfig
+        ),
+        ksqlEngine,
+        serviceContext
+    );
+
+    return new KsqlEntityList();
+  }
+
+  private static Literal toLiteral(final Object value) {
+    if (value == null) {
+      return new NullLiteral();
+    }
+    if (value instanceof String) {
+      return new StringLiteral((String) value);
+    }
+    if (value instanceof Boolean) {
+      return new BooleanLiteral(value.toString());
+    }
+    if (value instanceof Integer) {
+      return new IntegerLiteral((Integer) value);
+    }
+    if (value instanceof Long) {
+      return new LongLiteral((Long) value);
+    }
+    if (value instanceof Double || value instanceof Float) {
+      return new DoubleLiteral(((Number) value).doubleValue());
+    }
+    if (value instanceof BigDecimal) {
+      return new DecimalLiteral(((BigDecimal) value).toPlainString());
+    }
+    throw new KsqlException("Unsupported parameter value: " + value
+        + ". Parameter values must be strings, numbers, booleans or null.");
+  }
+
   private void throwIfNotConfigured() {
     if (validator == null || handler == null) {
       throw new KsqlRestException(Errors.notReady());
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.resources;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A bounded cache of the statements parsed from request texts.
+ *
+ * <p>Parsing depends only on the text: the parsed statements are not resolved against the
+ * metastore or the request's properties until they are prepared, which is not cached. Hence,
+ * entries are keyed by the text alone and never need invalidating.
+ *
+ * <p>Texts that fail to parse are not cached.
+ */
+final class ParsedStatementCache {
+
+  private final Function<String, List<ParsedStatement>> parser;
+  private final Cache<String, List<ParsedStatement>> cache;
+
+  /**
+   * @param parser the parser to use on a cache miss.
+   * @param maxSize the maximum number of texts to cache, or zero to disable the cache.
+   */
+  ParsedStatementCache(
+      final Function<String, List<ParsedStatement>> parser,
+      final int maxSize
+  ) {
+    if (maxSize < 0) {
+      throw new IllegalArgumentException("maxSize can not be negative");
+    }
+
+    this.parser = Objects.requireNonNull(parser, "parser");
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .build();
+  }
+
+  List<ParsedStatement> parse(final String text) {
+    final List<ParsedStatement> cached = cache.getIfPresent(text);
+    if (cached != null) {
+      return cached;
+    }
+
+    final List<ParsedStatement> parsed = ImmutableList.copyOf(parser.apply(text));
+    cache.put(text, parsed);
+    return parsed;
+  }
+}
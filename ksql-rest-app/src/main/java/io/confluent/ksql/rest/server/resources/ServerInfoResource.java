@@ -16,11 +16,14 @@
 package io.confluent.ksql.rest.server.resources;
 
 import com.google.common.base.Suppliers;
+import io.confluent.ksql.engine.KsqlEngine;
 import io.confluent.ksql.rest.entity.ServerInfo;
 import io.confluent.ksql.rest.entity.Versions;
+import io.confluent.ksql.rest.util.QueryCapacityUtil;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.Version;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import javax.ws.rs.GET;
@@ -35,8 +38,16 @@ public class ServerInfoResource {
   private static final long DESCRIBE_CLUSTER_TIMEOUT_SECONDS = 30;
 
   private final Supplier<ServerInfo> serverInfo;
+  private final KsqlEngine ksqlEngine;
+  private final KsqlConfig ksqlConfig;
 
-  public ServerInfoResource(final ServiceContext serviceContext, final KsqlConfig ksqlConfig) {
+  public ServerInfoResource(
+      final ServiceContext serviceContext,
+      final KsqlEngine ksqlEngine,
+      final KsqlConfig ksqlConfig
+  ) {
+    this.ksqlEngine = Objects.requireNonNull(ksqlEngine, "ksqlEngine");
+    this.ksqlConfig = Objects.requireNonNull(ksqlConfig, "ksqlConfig");
     this.serverInfo = Suppliers.memoize(
         () -> new ServerInfo(
             Version.getVersion(),
@@ -59,6 +70,13 @@ public class ServerInfoResource {
 
   @GET
   public Response get() {
-    return Response.ok(serverInfo.get()).build();
+    // The static parts of the info are only looked up once, but usage changes over time:
+    final ServerInfo info = serverInfo.get();
+    return Response.ok(new ServerInfo(
+        info.getVersion(),
+        info.getKafkaClusterId(),
+        info.getKsqlServiceId(),
+        QueryCapacityUtil.getQueryCapacity(ksqlEngine, ksqlConfig)
+    )).build();
   }
 }
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.resources.streaming;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.confluent.ksql.rest.entity.StreamedRow;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.util.KsqlException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.glassfish.jersey.server.ChunkedOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the items of a {@link Flow.Publisher} to a chunked HTTP response.
+ *
+ * <p>No thread is held for the life of the response: items are written as they become available.
+ * While no items are written, an empty line is written periodically, so that a client that has
+ * gone away is detected and the publisher cancelled.
+ *
+ * <p>Writing to a {@link ChunkedOutput} blocks until the client has read enough of the response,
+ * so chunks are written, in order, by the {@code writeExec} rather than the publisher's shared
+ * executor. A slow client therefore only holds a writer thread, and no more items are requested
+ * until its pending chunks are written.
+ */
+class ChunkedOutputSubscriber<T> implements Flow.Subscriber<Collection<T>> {
+
+  private static final Logger log = LoggerFactory.getLogger(ChunkedOutputSubscriber.class);
+
+  // Number of batches requested up front, allowing the next batch to be polled while the current
+  // one is being written:
+  static final int PREFETCH = 2;
+
+  private static final String NEW_LINE = "\n";
+
+  private final ChunkedOutput<String> output;
+  private final ScheduledExecutorService exec;
+  private final Executor writer;
+  private final AtomicInteger pendingWrites = new AtomicInteger();
+  private final Duration disconnectCheckInterval;
+  private final ChunkFormatter<T> formatter;
+
+  private Flow.Subscription subscription;
+  private ScheduledFuture<?> disconnectCheck;
+  private volatile boolean written = false;
+  private volatile boolean closed = false;
+
+  /**
+   * Formats the items, and the end of the stream, as chunks of the response.
+   */
+  interface ChunkFormatter<T> {
+
+    String item(T item);
+
+    String error(Throwable e);
+
+    String complete();
+  }
+
+  @SuppressWarnings("UnstableApiUsage")
+  ChunkedOutputSubscriber(
+      final ChunkedOutput<String> output,
+      final ScheduledExecutorService exec,
+      final Executor writeExec,
+      final Duration disconnectCheckInterval,
+      final ChunkFormatter<T> formatter
+  ) {
+    this.output = Objects.requireNonNull(output, "output");
+    this.exec = Objects.requireNonNull(exec, "exec");
+    this.writer = MoreExecutors.newSequentialExecutor(
+        Objects.requireNonNull(writeExec, "writeExec"));
+    this.disconnectCheckInterval =
+        Objects.requireNonNull(disconnectCheckInterval, "disconnectCheckInterval");
+    this.formatter = Objects.requireNonNull(formatter, "formatter");
+  }
+
+  /**
+   * @return a formatter that writes each row as a line of JSON, matching the format of
+   *         responses to queries streamed over HTTP.
+   */
+  static ChunkFormatter<StreamedRow> queryFormatter(final ObjectMapper objectMapper) {
+    return new ChunkFormatter<StreamedRow>() {
+      @Override
+      public String item(final StreamedRow row) {
+        return toJson(objectMapper, row) + NEW_LINE;
+      }
+
+      @Override
+      public String error(final Throwable e) {
+        final Throwable cause = e.getCause() instanceof KsqlException ? e.getCause() : e;
+        return NEW_LINE + toJson(objectMapper, StreamedRow.error(cause)) + NEW_LINE;
+      }
+
+      @Override
+      public String complete() {
+        // Queries only complete once their limit is reached:
+        return toJson(objectMapper, StreamedRow.finalMessage("Limit Reached")) + NEW_LINE;
+      }
+    };
+  }
+
+  /**
+   * @return a formatter that writes the already formatted records of a {@code PRINT}.
+   */
+  static ChunkFormatter<String> printFormatter() {
+    return new ChunkFormatter<String>() {
+      @Override
+      public String item(final String record) {
+        return record;
+      }
+
+      @Override
+      public String error(final Throwable e) {
+        return e.getMessage() + NEW_LINE;
+      }
+
+      @Override
+      public String complete() {
+        return "";
+      }
+    };
+  }
+
+  @Override
+  public void onSubscribe(final Flow.Subscription subscription) {
+    this.subscription = subscription;
+
+    final long intervalMs = disconnectCheckInterval.toMillis();
+    disconnectCheck = exec.scheduleWithFixedDelay(
+        this::checkDisconnected, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+
+    subscription.request(PREFETCH);
+  }
+
+  @Override
+  public void onNext(final Collection<T> items) {
+    if (closed) {
+      return;
+    }
+
+    final StringBuilder chunk = new StringBuilder();
+    try {
+      for (final T item : items) {
+        chunk.append(formatter.item(item));
+      }
+    } catch (final RuntimeException e) {
+      onError(e);
+      return;
+    }
+
+    final String formatted = chunk.toString();
+    submit(() -> {
+      if (write(formatted)) {
+        subscription.request(1);
+      }
+    });
+  }
+
+  @Override
+  public void onError(final Throwable e) {
+    log.error("Error streaming results", e);
+    final String formatted = formatter.error(e);
+    submit(() -> {
+      write(formatted);
+      close();
+    });
+  }
+
+  @Override
+  public void onComplete() {
+    final String formatted = formatter.complete();
+    submit(() -> {
+      write(formatted);
+      close();
+    });
+  }
+
+  @Override
+  public void onSchema(final LogicalSchema schema) {
+    // The schema is not part of HTTP streamed responses.
+  }
+
+  private void checkDisconnected() {
+    if (!written && pendingWrites.get() == 0) {
+      // If nothing has been written, the client may have gone away without us knowing.
+      // Check by trying to write a single newline:
+      submit(() -> write(NEW_LINE));
+    }
+    written = false;
+  }
+
+  private void submit(final Runnable task) {
+    pendingWrites.incrementAndGet();
+    writer.execute(() -> {
+      try {
+        task.run();
+      } finally {
+        pendingWrites.decrementAndGet();
+      }
+    });
+  }
+
+  private boolean write(final String chunk) {
+    if (closed) {
+      return false;
+    }
+
+    if (chunk.isEmpty()) {
+      return true;
+    }
+
+    try {
+      output.write(chunk);
+      written = true;
+      return true;
+    } catch (final IOException e) {
+      // The client has gone away; we can stop writing:
+      log.info("Client disconnected while streaming results: " + e.getMessage());
+      close();
+      return false;
+    }
+  }
+
+  private synchronized void close() {
+    if (closed) {
+      return;
+    }
+
+    closed = true;
+
+    if (disconnectCheck != null) {
+      disconnectCheck.cancel(false);
+    }
+
+    if (subscription != null) {
+      subscription.cancel();
+    }
+
+    try {
+      output.close();
+    } catch (final IOException e) {
+      log.debug("Error closing response", e);
+    }
+  }
+
+  private static String toJson(final ObjectMapper objectMapper, final Object value) {
+    try {
+      return objectMapper.writeValueAsString(value);
+    } catch (final JsonProcessingException e) {
+      throw new KsqlException("Failed to serialize streamed row", e);
+    }
+  }
+}
@@ -18,10 +18,28 @@ package io.confluent.ksql.rest.server.resources.streaming;
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningScheduledExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Base subscription that delivers items polled from some source to a subscriber.
+ *
+ * <p>Subscribers may request any number of items. Outstanding demand is satisfied in batches,
+ * i.e. a single task on the executor delivers as many items as are available, up to the demand.
+ *
+ * <p>When the source has no data, sources that can signal new data, (see
+ * {@link #notifyDataAvailable()}), go idle until signalled. Other sources are re-polled after a
+ * back off.
+ *
+ * <p>Completion and errors are signalled whatever the outstanding demand: an error as soon as it
+ * is set, and completion once the source has nothing left to deliver.
+ */
 public abstract class PollingSubscription<T> implements Flow.Subscription {
 
   private static final int BACKOFF_DELAY_MS = 100;
@@ -29,34 +47,52 @@ public abstract class PollingSubscription<T> implements Flow.Subscription {
   private final Flow.Subscriber<T> subscriber;
   private final ListeningScheduledExecutorService exec;
   private final LogicalSchema schema;
+  private final boolean notifiesDataAvailable;
+  private final AtomicLong demand = new AtomicLong();
+  private final AtomicInteger pending = new AtomicInteger();
+  private final Set<ListenableFuture<?>> futures = ConcurrentHashMap.newKeySet();
 
   private boolean needsSchema = true;
   private volatile boolean done = false;
+  private volatile boolean cancelled = false;
   private Throwable exception = null;
-  private boolean draining = false;
-  private volatile ListenableFuture<?> future;
+  private T polled = null;
 
   public PollingSubscription(
       final ListeningScheduledExecutorService exec,
       final Flow.Subscriber<T> subscriber,
       final LogicalSchema schema
+  ) {
+    this(exec, subscriber, schema, false);
+  }
+
+  /**
+   * @param notifiesDataAvailable {@code true} if the subclass calls
+   *                              {@link #notifyDataAvailable()} when new data is available, in
+   *                              which case the source is not re-polled while it is empty.
+   */
+  public PollingSubscription(
+      final ListeningScheduledExecutorService exec,
+      final Flow.Subscriber<T> subscriber,
+      final LogicalSchema schema,
+      final boolean notifiesDataAvailable
   ) {
     this.exec = Objects.requireNonNull(exec, "exec");
     this.subscriber = Objects.requireNonNull(subscriber, "subscriber");
     this.schema = schema;
+    this.notifiesDataAvailable = notifiesDataAvailable;
   }
 
   @Override
   public void cancel() {
-    if (future != null) {
-      future.cancel(false);
-    }
+    cancelled = true;
+    futures.forEach(future -> future.cancel(false));
     exec.submit(this::close);
   }
 
   @Override
   public void request(final long n) {
-    Preconditions.checkArgument(n == 1, "number of requested items must be 1");
+    Preconditions.checkArgument(n > 0, "number of requested items must be positive");
 
     if (needsSchema) {
       if (schema != null) {
@@ -64,46 +100,121 @@ public abstract class PollingSubscription<T> implements Flow.Subscription {
       }
       needsSchema = false;
     }
-    // check status since request() can be reentrant through subscriber.onNext()
-    // this is to prevent another thread from calling onNext again
-    // while the first one is draining and closing the subscription after having called onNext
-    // with the last element polled from the queue after being marked done.
-    if (!draining) {
-      future = exec.submit(() -> {
-
-        if (done) {
-          draining = true;
-        }
-        final T item = poll();
-        if (item == null) {
-          if (!draining) {
-            future = exec.schedule(() -> request(1), BACKOFF_DELAY_MS, TimeUnit.MILLISECONDS);
-          }
-        } else {
-          subscriber.onNext(item);
-        }
-        if (draining) {
-          close();
-          if (exception != null) {
-            subscriber.onError(exception);
-          } else {
-            subscriber.onComplete();
-          }
-        }
-      });
-    }
+
+    demand.accumulateAndGet(n, (current, added) -> {
+      final long total = current + added;
+      return total < 0 ? Long.MAX_VALUE : total;
+    });
+
+    scheduleDrain();
+  }
+
+  /**
+   * Called by subclasses to signal that new data may be available to poll.
+   */
+  protected void notifyDataAvailable() {
+    scheduleDrain();
   }
 
   protected void setError(final Throwable e) {
     exception = e;
     done = true;
+    notifyDataAvailable();
   }
 
   protected void setDone() {
     done = true;
+    notifyDataAvailable();
   }
 
   abstract T poll();
 
   abstract void close();
+
+  private void scheduleDrain() {
+    // Only the caller that moves pending off zero submits a task. Callers that arrive while a
+    // drain is in progress, (including re-entrant calls from subscriber.onNext()), just bump
+    // pending, causing the running drain to loop again:
+    if (pending.getAndIncrement() == 0) {
+      track(exec.submit(this::drain));
+    }
+  }
+
+  private void track(final ListenableFuture<?> future) {
+    futures.add(future);
+    future.addListener(() -> futures.remove(future), MoreExecutors.directExecutor());
+    if (cancelled) {
+      // Cancelled while being scheduled:
+      future.cancel(false);
+    }
+  }
+
+  private void drain() {
+    int missed = 1;
+    do {
+      while (!cancelled) {
+        // Once done, poll one last time to pick up anything queued before completion:
+        final boolean draining = done;
+
+        if (demand.get() == 0) {
+          // Terminal signals need no demand, but anything still queued is held until requested:
+          if (draining && (exception != null || peek() == null)) {
+            complete();
+            return;
+          }
+          break;
+        }
+
+        final T item = next();
+        if (item != null) {
+          demand.decrementAndGet();
+          subscriber.onNext(item);
+        }
+
+        if (draining) {
+          complete();
+          // Leave pending non-zero so no further drains are scheduled:
+          return;
+        }
+
+        if (item == null) {
+          break;
+        }
+      }
+
+      missed = pending.addAndGet(-missed);
+    } while (missed != 0);
+
+    if (cancelled || demand.get() == 0) {
+      return;
+    }
+
+    if (done) {
+      scheduleDrain();
+    } else if (!notifiesDataAvailable) {
+      track(exec.schedule(this::scheduleDrain, BACKOFF_DELAY_MS, TimeUnit.MILLISECONDS));
+    }
+  }
+
+  private T peek() {
+    if (polled == null) {
+      polled = poll();
+    }
+    return polled;
+  }
+
+  private T next() {
+    final T item = peek();
+    polled = null;
+    return item;
+  }
+
+  private void complete() {
+    close();
+    if (exception != null) {
+      subscriber.onError(exception);
+    } else {
+      subscriber.onComplete();
+    }
+  }
 }
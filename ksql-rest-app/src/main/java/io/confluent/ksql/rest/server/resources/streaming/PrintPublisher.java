@@ -16,6 +16,7 @@
 package io.confluent.ksql.rest.server.resources.streaming;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
 import com.google.common.math.IntMath;
@@ -47,16 +48,31 @@ public class PrintPublisher implements Flow.Publisher<Collection<String>> {
   private final ServiceContext serviceContext;
   private final Map<String, Object> consumerProperties;
   private final PrintTopic printTopic;
+  private final boolean includeFormat;
 
   public PrintPublisher(
       final ListeningScheduledExecutorService exec,
       final ServiceContext serviceContext,
       final Map<String, Object> consumerProperties,
       final PrintTopic printTopic) {
+    this(exec, serviceContext, consumerProperties, printTopic, false);
+  }
+
+  /**
+   * @param includeFormat {@code true} if the first records published should be preceded by a
+   *                      line naming the format of the topic's records.
+   */
+  public PrintPublisher(
+      final ListeningScheduledExecutorService exec,
+      final ServiceContext serviceContext,
+      final Map<String, Object> consumerProperties,
+      final PrintTopic printTopic,
+      final boolean includeFormat) {
     this.exec = exec;
     this.serviceContext = Objects.requireNonNull(serviceContext, "serviceContext");
     this.consumerProperties = Objects.requireNonNull(consumerProperties, "consumerProperties");
     this.printTopic = Objects.requireNonNull(printTopic, "printTopic");
+    this.includeFormat = includeFormat;
   }
 
   @Override
@@ -73,7 +89,8 @@ public class PrintPublisher implements Flow.Publisher<Collection<String>> {
             new RecordFormatter(
                 serviceContext.getSchemaRegistryClient(),
                 printTopic.getTopic().toString()
-            )
+            ),
+            includeFormat
         )
     );
   }
@@ -83,6 +100,7 @@ public class PrintPublisher implements Flow.Publisher<Collection<String>> {
     private final PrintTopic printTopic;
     private final KafkaConsumer<String, Bytes> topicConsumer;
     private final RecordFormatter formatter;
+    private boolean formatPending;
     private boolean closed = false;
 
     private int numPolled = 0;
@@ -94,11 +112,23 @@ public class PrintPublisher implements Flow.Publisher<Collection<String>> {
         final Subscriber<Collection<String>> subscriber,
         final KafkaConsumer<String, Bytes> topicConsumer,
         final RecordFormatter formatter
+    ) {
+      this(exec, printTopic, subscriber, topicConsumer, formatter, false);
+    }
+
+    PrintSubscription(
+        final ListeningScheduledExecutorService exec,
+        final PrintTopic printTopic,
+        final Subscriber<Collection<String>> subscriber,
+        final KafkaConsumer<String, Bytes> topicConsumer,
+        final RecordFormatter formatter,
+        final boolean includeFormat
     ) {
       super(exec, subscriber, null);
       this.printTopic = Objects.requireNonNull(printTopic, "printTopic");
       this.topicConsumer = Objects.requireNonNull(topicConsumer, "topicConsumer");
       this.formatter = Objects.requireNonNull(formatter, "formatter");
+      this.formatPending = includeFormat;
     }
 
     @Override
@@ -125,6 +155,14 @@ public class PrintPublisher implements Flow.Publisher<Collection<String>> {
           setDone();
         }
 
+        if (formatPending) {
+          formatPending = false;
+          return ImmutableList.<String>builder()
+              .add("Format:" + formatter.getFormat().name() + "\n")
+              .addAll(limited)
+              .build();
+        }
+
         return limited;
       } catch (final Exception e) {
         setError(e);
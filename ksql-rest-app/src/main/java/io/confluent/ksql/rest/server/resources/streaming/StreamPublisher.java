@@ -22,8 +22,10 @@ import io.confluent.ksql.engine.KsqlEngine;
 import io.confluent.ksql.parser.tree.Query;
 import io.confluent.ksql.rest.entity.StreamedRow;
 import io.confluent.ksql.rest.server.resources.streaming.Flow.Subscriber;
+import io.confluent.ksql.rest.util.QueryCapacityUtil;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.statement.ConfiguredStatement;
+import io.confluent.ksql.util.TransientQueryKey;
 import io.confluent.ksql.util.TransientQueryMetadata;
 import java.util.Collection;
 import java.util.List;
@@ -57,6 +59,11 @@ class StreamPublisher implements Flow.Publisher<Collection<StreamedRow>> {
   @SuppressWarnings("ConstantConditions")
   @Override
   public synchronized void subscribe(final Flow.Subscriber<Collection<StreamedRow>> subscriber) {
+    if (QueryCapacityUtil.exceedsTransientQueryCapacity(ksqlEngine, query.getConfig())) {
+      QueryCapacityUtil.throwTooManyActiveTransientQueriesException(
+          ksqlEngine, query.getConfig(), query.getStatementText());
+    }
+
     final TransientQueryMetadata queryMetadata =
         (TransientQueryMetadata) ksqlEngine.execute(serviceContext, query)
             .getQuery()
@@ -79,9 +86,10 @@ class StreamPublisher implements Flow.Publisher<Collection<StreamedRow>> {
         final Subscriber<Collection<StreamedRow>> subscriber,
         final TransientQueryMetadata queryMetadata
     ) {
-      super(exec, subscriber, queryMetadata.getLogicalSchema());
+      super(exec, subscriber, queryMetadata.getLogicalSchema(), true);
       this.queryMetadata = queryMetadata;
 
+      queryMetadata.setQueuedHandler(this::notifyDataAvailable);
       queryMetadata.setLimitHandler(this::setDone);
       queryMetadata.setUncaughtExceptionHandler(
           (thread, e) -> setError(e)
@@ -90,7 +98,7 @@ class StreamPublisher implements Flow.Publisher<Collection<StreamedRow>> {
 
     @Override
     public Collection<StreamedRow> poll() {
-      final List<KeyValue<String, GenericRow>> rows = Lists.newLinkedList();
+      final List<KeyValue<TransientQueryKey, GenericRow>> rows = Lists.newLinkedList();
       queryMetadata.getRowQueue().drainTo(rows);
       if (rows.isEmpty()) {
         return null;
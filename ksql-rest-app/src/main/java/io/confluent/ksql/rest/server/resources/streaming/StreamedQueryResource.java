@@ -17,15 +17,18 @@ package io.confluent.ksql.rest.server.resources.streaming;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ListeningScheduledExecutorService;
 import io.confluent.ksql.engine.KsqlEngine;
 import io.confluent.ksql.json.JsonMapper;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.parser.tree.PrintTopic;
 import io.confluent.ksql.parser.tree.Query;
 import io.confluent.ksql.rest.entity.KsqlRequest;
+import io.confluent.ksql.rest.entity.StreamedRow;
 import io.confluent.ksql.rest.entity.Versions;
 import io.confluent.ksql.rest.server.StatementParser;
 import io.confluent.ksql.rest.server.computation.CommandQueue;
+import io.confluent.ksql.rest.server.execution.PullQueryExecutor;
 import io.confluent.ksql.rest.server.resources.Errors;
 import io.confluent.ksql.rest.server.resources.KsqlConfigurable;
 import io.confluent.ksql.rest.server.resources.KsqlRestException;
@@ -36,22 +39,29 @@ import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.statement.ConfiguredStatement;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
-import io.confluent.ksql.util.QueryMetadata;
-import io.confluent.ksql.util.TransientQueryMetadata;
 import io.confluent.ksql.version.metrics.ActivenessRegistrar;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import org.apache.kafka.common.errors.TopicAuthorizationException;
 import org.apache.kafka.streams.StreamsConfig;
+import org.glassfish.jersey.server.ChunkedOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -70,15 +80,31 @@ public class StreamedQueryResource implements KsqlConfigurable {
   private final ObjectMapper objectMapper;
   private final ActivenessRegistrar activenessRegistrar;
   private final KsqlAuthorizationValidator authorizationValidator;
+  private final ListeningScheduledExecutorService exec;
+  private final Executor writeExec;
+  private final PullQueryExecutor pullQueryExecutor;
+  private final Supplier<ChunkedOutput<String>> outputFactory;
   private KsqlConfig ksqlConfig;
 
+  /**
+   * @param exec the executor that streams results to clients. Results are written as they are
+   *             produced, so its threads are not held for the life of each stream.
+   * @param writeExec the executor that writes results to the response, which blocks while a
+   *                  client is slow to read them.
+   * @param pullQueryExecutor the executor of pull queries, closed by {@link #close()}.
+   */
+  // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
   public StreamedQueryResource(
+      // CHECKSTYLE_RULES.ON: ParameterNumberCheck
       final KsqlEngine ksqlEngine,
       final CommandQueue commandQueue,
       final Duration disconnectCheckInterval,
       final Duration commandQueueCatchupTimeout,
       final ActivenessRegistrar activenessRegistrar,
-      final KsqlAuthorizationValidator authorizationValidator
+      final KsqlAuthorizationValidator authorizationValidator,
+      final ListeningScheduledExecutorService exec,
+      final Executor writeExec,
+      final PullQueryExecutor pullQueryExecutor
   ) {
     this(
         ksqlEngine,
@@ -87,19 +113,29 @@ public class StreamedQueryResource implements KsqlConfigurable {
         disconnectCheckInterval,
         commandQueueCatchupTimeout,
         activenessRegistrar,
-        authorizationValidator
+        authorizationValidator,
+        exec,
+        writeExec,
+        pullQueryExecutor,
+        () -> new ChunkedOutput<>(String.class)
     );
   }
 
   @VisibleForTesting
+  // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
   StreamedQueryResource(
+      // CHECKSTYLE_RULES.ON: ParameterNumberCheck
       final KsqlEngine ksqlEngine,
       final StatementParser statementParser,
       final CommandQueue commandQueue,
       final Duration disconnectCheckInterval,
       final Duration commandQueueCatchupTimeout,
       final ActivenessRegistrar activenessRegistrar,
-      final KsqlAuthorizationValidator authorizationValidator
+      final KsqlAuthorizationValidator authorizationValidator,
+      final ListeningScheduledExecutorService exec,
+      final Executor writeExec,
+      final PullQueryExecutor pullQueryExecutor,
+      final Supplier<ChunkedOutput<String>> outputFactory
   ) {
     this.ksqlEngine = Objects.requireNonNull(ksqlEngine, "ksqlEngine");
     this.statementParser = Objects.requireNonNull(statementParser, "statementParser");
@@ -112,6 +148,10 @@ public class StreamedQueryResource implements KsqlConfigurable {
     this.activenessRegistrar =
         Objects.requireNonNull(activenessRegistrar, "activenessRegistrar");
     this.authorizationValidator = authorizationValidator;
+    this.exec = Objects.requireNonNull(exec, "exec");
+    this.writeExec = Objects.requireNonNull(writeExec, "writeExec");
+    this.pullQueryExecutor = Objects.requireNonNull(pullQueryExecutor, "pullQueryExecutor");
+    this.outputFactory = Objects.requireNonNull(outputFactory, "outputFactory");
   }
 
   @Override
@@ -123,9 +163,14 @@ public class StreamedQueryResource implements KsqlConfigurable {
     ksqlConfig = config;
   }
 
+  public void close() {
+    pullQueryExecutor.close();
+  }
+
   @POST
   public Response streamQuery(
       @Context final ServiceContext serviceContext,
+      @HeaderParam(HttpHeaders.AUTHORIZATION) final String authHeader,
       final KsqlRequest request
   ) {
     throwIfNotConfigured();
@@ -137,7 +182,7 @@ public class StreamedQueryResource implements KsqlConfigurable {
     CommandStoreUtil.httpWaitForCommandSequenceNumber(
         commandQueue, request, commandQueueCatchupTimeout);
 
-    return handleStatement(serviceContext, request, statement);
+    return handleStatement(serviceContext, Optional.ofNullable(authHeader), request, statement);
   }
 
   private void throwIfNotConfigured() {
@@ -162,6 +207,7 @@ public class StreamedQueryResource implements KsqlConfigurable {
   @SuppressWarnings("unchecked")
   private Response handleStatement(
       final ServiceContext serviceContext,
+      final Optional<String> authHeader,
       final KsqlRequest request,
       final PreparedStatement<?> statement
   )  {
@@ -175,6 +221,7 @@ public class StreamedQueryResource implements KsqlConfigurable {
       if (statement.getStatement() instanceof Query) {
         return handleQuery(
             serviceContext,
+            authHeader,
             (PreparedStatement<Query>) statement,
             request.getStreamsProperties()
         );
@@ -200,30 +247,39 @@ public class StreamedQueryResource implements KsqlConfigurable {
 
   private Response handleQuery(
       final ServiceContext serviceContext,
+      final Optional<String> authHeader,
       final PreparedStatement<Query> statement,
       final Map<String, Object> streamsProperties
   ) {
     final ConfiguredStatement<Query> configured =
         ConfiguredStatement.of(statement, streamsProperties, ksqlConfig);
 
-    final QueryMetadata query = ksqlEngine.execute(serviceContext, configured)
-        .getQuery()
-        .get();
+    if (PullQueryExecutor.isPullQuery(configured, ksqlEngine)) {
+      final List<StreamedRow> rows = pullQueryExecutor.execute(configured, ksqlEngine, authHeader);
 
-    if (!(query instanceof TransientQueryMetadata)) {
-      throw new IllegalStateException(String.format(
-          "Unexpected metadata type: expected TransientQueryMetadata, found %s instead",
-          query.getClass()
-      ));
+      log.info("Pull query '{}' returned {} rows", statement.getStatementText(), rows.size());
+      return Response.ok().entity((StreamingOutput) out -> {
+        for (final StreamedRow row : rows) {
+          objectMapper.writeValue(out, row);
+          out.write("\n".getBytes(StandardCharsets.UTF_8));
+        }
+        out.flush();
+      }).build();
     }
 
-    final QueryStreamWriter queryStreamWriter = new QueryStreamWriter(
-        (TransientQueryMetadata) query,
-        disconnectCheckInterval.toMillis(),
-        objectMapper);
+    final ChunkedOutput<String> output = outputFactory.get();
+
+    new StreamPublisher(ksqlEngine, serviceContext, exec, configured).subscribe(
+        new ChunkedOutputSubscriber<>(
+            output,
+            exec,
+            writeExec,
+            disconnectCheckInterval,
+            ChunkedOutputSubscriber.queryFormatter(objectMapper)
+        ));
 
     log.info("Streaming query '{}'", statement.getStatementText());
-    return Response.ok().entity(queryStreamWriter).build();
+    return Response.ok().entity(output).build();
   }
 
   private Response handlePrintTopic(
@@ -250,14 +306,18 @@ public class StreamedQueryResource implements KsqlConfigurable {
         new HashMap<>(ksqlConfig.getKsqlStreamConfigProps());
     propertiesWithOverrides.putAll(streamProperties);
 
-    final TopicStreamWriter topicStreamWriter = TopicStreamWriter.create(
-        serviceContext,
-        propertiesWithOverrides,
-        printTopic,
-        disconnectCheckInterval
-    );
+    final ChunkedOutput<String> output = outputFactory.get();
+
+    new PrintPublisher(exec, serviceContext, propertiesWithOverrides, printTopic, true).subscribe(
+        new ChunkedOutputSubscriber<>(
+            output,
+            exec,
+            writeExec,
+            disconnectCheckInterval,
+            ChunkedOutputSubscriber.printFormatter()
+        ));
 
     log.info("Printing topic '{}'", topicName);
-    return Response.ok().entity(topicStreamWriter).build();
+    return Response.ok().entity(output).build();
   }
 }
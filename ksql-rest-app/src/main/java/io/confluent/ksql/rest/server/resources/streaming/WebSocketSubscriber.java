@@ -29,6 +29,11 @@ import org.slf4j.LoggerFactory;
 class WebSocketSubscriber<T> implements Flow.Subscriber<Collection<T>>, AutoCloseable {
 
   private static final Logger log = LoggerFactory.getLogger(WebSocketSubscriber.class);
+
+  // Number of batches requested up front, allowing the next batch to be polled while the current
+  // one is being sent:
+  static final int PREFETCH = 2;
+
   private final Session session;
   private final ObjectMapper mapper;
 
@@ -42,7 +47,7 @@ class WebSocketSubscriber<T> implements Flow.Subscriber<Collection<T>>, AutoClos
 
   public void onSubscribe(final Flow.Subscription subscription) {
     this.subscription = subscription;
-    subscription.request(1);
+    subscription.request(PREFETCH);
   }
 
   @Override
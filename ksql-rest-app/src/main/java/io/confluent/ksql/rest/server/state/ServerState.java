@@ -78,6 +78,19 @@ public class ServerState {
     this.state.set(new StateWithErrorMessage(State.INITIALIZING, error));
   }
 
+  /**
+   * Update the reason the server is still in the INITIALIZING state, e.g. to report progress.
+   * Unlike {@link #setInitializingReason}, this has no effect once the server has left the
+   * INITIALIZING state.
+   *
+   * @param error KsqlErrorMessage object containing the error code and the error string.
+   */
+  public void updateInitializingReason(final KsqlErrorMessage error) {
+    this.state.updateAndGet(current -> current.state == State.INITIALIZING
+        ? new StateWithErrorMessage(State.INITIALIZING, error)
+        : current);
+  }
+
   /**
    * Sets the server state to READY.
    */
@@ -86,8 +86,8 @@ public class RequestValidator {
    * @return the number of new persistent queries that would be created by {@code statements}
    * @throws KsqlException if any of the statements cannot be validated, or the number
    *                       of requested statements would cause the execution context
-   *                       to exceed the number of persistent queries that it was configured
-   *                       to support
+   *                       to exceed the number of persistent queries, or persistent query
+   *                       stream threads, that it was configured to support
    */
   public int validate(
       final ServiceContext serviceContext,
@@ -101,20 +101,32 @@ public class RequestValidator {
     final Injector injector = injectorFactory.apply(ctx, serviceContext);
 
     int numPersistentQueries = 0;
+    int numStreamThreads = 0;
     for (ParsedStatement parsed : statements) {
       final PreparedStatement<?> prepared = ctx.prepare(parsed);
       final ConfiguredStatement<?> configured = ConfiguredStatement.of(
           prepared, propertyOverrides, ksqlConfig);
 
-      numPersistentQueries += (prepared.getStatement() instanceof RunScript)
-          ? validateRunScript(serviceContext, configured, ctx)
-          : validate(serviceContext, configured, ctx, injector);
+      if (prepared.getStatement() instanceof RunScript) {
+        numPersistentQueries += validateRunScript(serviceContext, configured, ctx);
+      } else {
+        final int numQueries = validate(serviceContext, configured, ctx, injector);
+        numPersistentQueries += numQueries;
+        if (numQueries > 0) {
+          numStreamThreads += numQueries * QueryCapacityUtil.getStreamThreads(configured);
+        }
+      }
     }
 
     if (QueryCapacityUtil.exceedsPersistentQueryCapacity(ctx, ksqlConfig, numPersistentQueries)) {
       QueryCapacityUtil.throwTooManyActivePersistentQueriesException(ctx, ksqlConfig, sql);
     }
 
+    if (QueryCapacityUtil
+        .exceedsPersistentStreamThreadCapacity(ctx, ksqlConfig, numStreamThreads)) {
+      QueryCapacityUtil.throwTooManyPersistentStreamThreadsException(ctx, ksqlConfig, sql);
+    }
+
     return numPersistentQueries;
   }
 
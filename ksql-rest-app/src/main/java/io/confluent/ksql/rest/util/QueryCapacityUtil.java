@@ -16,8 +16,14 @@
 package io.confluent.ksql.rest.util;
 
 import io.confluent.ksql.KsqlExecutionContext;
+import io.confluent.ksql.engine.KsqlEngine;
+import io.confluent.ksql.rest.entity.QueryCapacity;
+import io.confluent.ksql.statement.ConfiguredStatement;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.QueryMetadata;
+import java.util.Map;
+import org.apache.kafka.streams.StreamsConfig;
 
 public final class QueryCapacityUtil {
   private QueryCapacityUtil() {
@@ -52,7 +58,112 @@ public final class QueryCapacityUtil {
     );
   }
 
+  public static boolean exceedsPersistentStreamThreadCapacity(
+      final KsqlExecutionContext executionContext,
+      final KsqlConfig ksqlConfig,
+      final long additionalThreads
+  ) {
+    final long newTotal = getPersistentStreamThreads(executionContext) + additionalThreads;
+    return newTotal > getStreamThreadLimit(ksqlConfig);
+  }
+
+  public static void throwTooManyPersistentStreamThreadsException(
+      final KsqlExecutionContext executionContext,
+      final KsqlConfig ksqlConfig,
+      final String statementStr
+  ) {
+    throw new KsqlException(
+        String.format(
+            "Not executing statement(s) '%s' as it would cause the number "
+                + "of stream threads used by active, persistent queries to exceed the configured "
+                + "limit. Use the TERMINATE command to terminate existing queries, reduce the "
+                + "'%s' of the new queries, "
+                + "or increase the '%s' setting via the 'ksql-server.properties' file. "
+                + "Current persistent stream thread count: %d. Configured limit: %d.",
+            statementStr,
+            StreamsConfig.NUM_STREAM_THREADS_CONFIG,
+            KsqlConfig.KSQL_ACTIVE_PERSISTENT_STREAM_THREAD_LIMIT_CONFIG,
+            getPersistentStreamThreads(executionContext),
+            getStreamThreadLimit(ksqlConfig)
+        )
+    );
+  }
+
+  public static boolean exceedsTransientQueryCapacity(
+      final KsqlEngine ksqlEngine,
+      final KsqlConfig ksqlConfig
+  ) {
+    return ksqlEngine.numberOfTransientQueries() + 1 > getTransientQueryLimit(ksqlConfig);
+  }
+
+  public static void throwTooManyActiveTransientQueriesException(
+      final KsqlEngine ksqlEngine,
+      final KsqlConfig ksqlConfig,
+      final String statementStr
+  ) {
+    throw new KsqlException(
+        String.format(
+            "Not executing query '%s' as it would cause the number "
+                + "of active, transient queries to exceed the configured limit. "
+                + "Close existing queries, or try again later. "
+                + "Current transient query count: %d. Configured limit: %d.",
+            statementStr,
+            ksqlEngine.numberOfTransientQueries(),
+            getTransientQueryLimit(ksqlConfig)
+        )
+    );
+  }
+
+  /**
+   * @return the number of stream threads the statement's query will use when run.
+   */
+  public static int getStreamThreads(final ConfiguredStatement<?> statement) {
+    final Map<String, Object> overrides = statement.getOverrides();
+    final Object threads = overrides.getOrDefault(
+        StreamsConfig.NUM_STREAM_THREADS_CONFIG,
+        overrides.get(KsqlConfig.KSQL_STREAMS_PREFIX + StreamsConfig.NUM_STREAM_THREADS_CONFIG)
+    );
+
+    return threads == null
+        ? getStreamThreads(statement.getConfig().getKsqlStreamConfigProps())
+        : Integer.parseInt(threads.toString());
+  }
+
+  public static QueryCapacity getQueryCapacity(
+      final KsqlEngine ksqlEngine,
+      final KsqlConfig ksqlConfig
+  ) {
+    return new QueryCapacity(
+        ksqlEngine.getPersistentQueries().size(),
+        getQueryLimit(ksqlConfig),
+        getPersistentStreamThreads(ksqlEngine),
+        getStreamThreadLimit(ksqlConfig),
+        ksqlEngine.numberOfTransientQueries(),
+        getTransientQueryLimit(ksqlConfig)
+    );
+  }
+
+  private static int getPersistentStreamThreads(final KsqlExecutionContext executionContext) {
+    return executionContext.getPersistentQueries().stream()
+        .map(QueryMetadata::getStreamsProperties)
+        .mapToInt(QueryCapacityUtil::getStreamThreads)
+        .sum();
+  }
+
+  private static int getStreamThreads(final Map<String, Object> streamsProperties) {
+    final Object threads = streamsProperties.get(StreamsConfig.NUM_STREAM_THREADS_CONFIG);
+    return threads == null ? 1 : Integer.parseInt(threads.toString());
+  }
+
   private static int getQueryLimit(final KsqlConfig ksqlConfig) {
     return ksqlConfig.getInt(KsqlConfig.KSQL_ACTIVE_PERSISTENT_QUERY_LIMIT_CONFIG);
   }
+
+  private static int getStreamThreadLimit(final KsqlConfig ksqlConfig) {
+    return ksqlConfig.getInt(KsqlConfig.KSQL_ACTIVE_PERSISTENT_STREAM_THREAD_LIMIT_CONFIG);
+  }
+
+  private static int getTransientQueryLimit(final KsqlConfig ksqlConfig) {
+    return ksqlConfig.getInt(KsqlConfig.KSQL_ACTIVE_TRANSIENT_QUERY_LIMIT_CONFIG);
+  }
 }
@@ -16,12 +16,15 @@
 package io.confluent.ksql.rest.entity;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.testing.EqualsTester;
 import io.confluent.ksql.json.JsonMapper;
@@ -139,6 +142,39 @@ public class KsqlRequestTest {
     assertThat(jsonRequest, is(A_JSON_REQUEST_WITH_COMMAND_NUMBER));
   }
 
+  @Test
+  public void shouldHandleNullParameters() {
+    assertThat(new KsqlRequest("sql", SOME_PROPS, null, null).getParameters(), is(empty()));
+  }
+
+  @Test
+  public void shouldDeserializeFromJsonWithParameters() {
+    // Given:
+    final String jsonRequest = "{"
+        + "\"ksql\":\"sql\","
+        + "\"parameters\":[1,\"a\",null,true]"
+        + "}";
+
+    // When:
+    final KsqlRequest request = deserialize(jsonRequest);
+
+    // Then:
+    assertThat(request.getParameters(), contains(1, "a", null, true));
+  }
+
+  @Test
+  public void shouldSerializeToJsonWithParameters() {
+    // Given:
+    final KsqlRequest request =
+        new KsqlRequest("sql", ImmutableMap.of(), null, ImmutableList.of(1, "a"));
+
+    // When:
+    final String jsonRequest = serialize(request);
+
+    // Then:
+    assertThat(jsonRequest, containsString("\"parameters\":[1,\"a\"]"));
+  }
+
   @Test
   public void shouldImplementHashCodeAndEqualsCorrectly() {
     new EqualsTester()
@@ -147,6 +183,7 @@ public class KsqlRequestTest {
         .addEqualityGroup(new KsqlRequest("different-sql", SOME_PROPS, SOME_COMMAND_NUMBER))
         .addEqualityGroup(new KsqlRequest("sql", ImmutableMap.of(), SOME_COMMAND_NUMBER))
         .addEqualityGroup(new KsqlRequest("sql", SOME_PROPS, null))
+        .addEqualityGroup(new KsqlRequest("sql", SOME_PROPS, null, ImmutableList.of(1, "a")))
         .testEquals();
   }
 
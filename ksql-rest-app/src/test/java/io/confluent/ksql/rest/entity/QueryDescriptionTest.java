@@ -94,6 +94,7 @@ public class QueryDescriptionTest {
         SOME_SCHEMA,
         SOURCE_NAMES,
         limitHandler,
+        queuedHandler -> {},
         "execution plan",
         new LinkedBlockingQueue<>(),
         DataSourceType.KSTREAM,
@@ -197,6 +198,7 @@ public class QueryDescriptionTest {
         schema,
         SOURCE_NAMES,
         limitHandler,
+        queuedHandler -> {},
         "execution plan",
         new LinkedBlockingQueue<>(),
         DataSourceType.KSTREAM,
@@ -232,6 +234,7 @@ public class QueryDescriptionTest {
         schema,
         SOURCE_NAMES,
         limitHandler,
+        queuedHandler -> {},
         "execution plan",
         new LinkedBlockingQueue<>(),
         DataSourceType.KSTREAM,
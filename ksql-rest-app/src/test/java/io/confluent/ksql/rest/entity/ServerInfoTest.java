@@ -37,4 +37,14 @@ public class ServerInfoTest {
     final ServerInfo deserializedServerInfo = mapper.readValue(bytes, ServerInfo.class);
     Assert.assertThat(serverInfo, equalTo(deserializedServerInfo));
   }
+
+  @Test
+  public void testSerializeDeserializeWithQueryCapacity() throws IOException {
+    final ServerInfo serverInfo = new ServerInfo(
+        VERSION, KAFKA_CLUSTER_ID, KSQL_SERVICE_ID, new QueryCapacity(1, 2, 3, 4, 5, 6));
+    final ObjectMapper mapper = JsonMapper.INSTANCE.mapper;
+    final byte[] bytes = mapper.writeValueAsBytes(serverInfo);
+    final ServerInfo deserializedServerInfo = mapper.readValue(bytes, ServerInfo.class);
+    Assert.assertThat(serverInfo, equalTo(deserializedServerInfo));
+  }
 }
@@ -20,6 +20,8 @@ import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -28,6 +30,7 @@ import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.rest.server.computation.Command;
 import io.confluent.ksql.rest.server.computation.CommandId;
 import io.confluent.ksql.rest.server.computation.QueuedCommand;
+import io.confluent.ksql.util.Pair;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
@@ -50,6 +53,7 @@ import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -154,6 +158,53 @@ public class CommandTopicTest {
     commandTopic.send(commandId1, command1);
   }
 
+  @Test
+  public void shouldSendBatchOfCommandsInOrder() throws Exception {
+    // When
+    commandTopic.send(ImmutableList.of(
+        Pair.of(commandId1, command1),
+        Pair.of(commandId2, command2)
+    ));
+
+    // Then
+    final InOrder inOrder = inOrder(commandProducer, future);
+    inOrder.verify(commandProducer)
+        .send(new ProducerRecord<>(COMMAND_TOPIC_NAME, 0, commandId1, command1));
+    inOrder.verify(commandProducer)
+        .send(new ProducerRecord<>(COMMAND_TOPIC_NAME, 0, commandId2, command2));
+    inOrder.verify(commandProducer).flush();
+    inOrder.verify(future, times(2)).get();
+  }
+
+  @Test
+  public void shouldReturnMetadataOfEachCommandInBatch() throws Exception {
+    // Given:
+    final RecordMetadata metadata1 = new RecordMetadata(TOPIC_PARTITION, 0, 1, 0, 0L, 0, 0);
+    final RecordMetadata metadata2 = new RecordMetadata(TOPIC_PARTITION, 0, 2, 0, 0L, 0, 0);
+    when(future.get()).thenReturn(metadata1, metadata2);
+
+    // When
+    final List<RecordMetadata> metadata = commandTopic.send(ImmutableList.of(
+        Pair.of(commandId1, command1),
+        Pair.of(commandId2, command2)
+    ));
+
+    // Then
+    assertThat(metadata, equalTo(ImmutableList.of(metadata1, metadata2)));
+  }
+
+  @Test
+  public void shouldThrowExceptionIfBatchSendIsNotSuccessful() throws Exception {
+    // Given:
+    when(future.get())
+        .thenThrow(new ExecutionException(new RuntimeException("Send was unsuccessful!")));
+    expectedException.expect(RuntimeException.class);
+    expectedException.expectMessage("Send was unsuccessful!");
+
+    // When
+    commandTopic.send(ImmutableList.of(Pair.of(commandId1, command1)));
+  }
+
   @Test
   public void shouldGetNewCommandsIteratorCorrectly() {
     // Given:
@@ -28,10 +28,12 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.hamcrest.MockitoHamcrest.argThat;
 
+import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.engine.KsqlEngine;
 import io.confluent.ksql.rest.server.state.ServerState;
 import io.confluent.ksql.rest.util.ClusterTerminator;
 import io.confluent.ksql.rest.util.TerminateCluster;
+import io.confluent.ksql.util.PersistentQueryMetadata;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.concurrent.ExecutorService;
@@ -68,6 +70,10 @@ public class CommandRunnerTest {
   private QueuedCommand queuedCommand3;
   @Mock
   private ExecutorService executor;
+  @Mock
+  private PersistentQueryStarter queryStarter;
+  @Mock
+  private PersistentQueryMetadata query;
   private CommandRunner commandRunner;
 
   @Before
@@ -90,7 +96,8 @@ public class CommandRunnerTest {
         1,
         clusterTerminator,
         executor,
-        serverState);
+        serverState,
+        queryStarter);
   }
 
   @Test
@@ -108,6 +115,22 @@ public class CommandRunnerTest {
     inOrder.verify(statementExecutor).handleRestore(eq(queuedCommand3));
   }
 
+  @Test
+  public void shouldStartQueriesAfterRunningPriorCommands() {
+    // Given:
+    givenQueuedCommands(queuedCommand1, queuedCommand2);
+    when(ksqlEngine.getPersistentQueries()).thenReturn(ImmutableList.of(query));
+
+    // When:
+    commandRunner.processPriorCommands();
+
+    // Then:
+    final InOrder inOrder = inOrder(statementExecutor, queryStarter);
+    inOrder.verify(statementExecutor).handleRestore(eq(queuedCommand1));
+    inOrder.verify(statementExecutor).handleRestore(eq(queuedCommand2));
+    inOrder.verify(queryStarter).start(ImmutableList.of(query));
+  }
+
   @Test
   public void shouldRunThePriorCommandsWithTerminateCorrectly() {
     // Given:
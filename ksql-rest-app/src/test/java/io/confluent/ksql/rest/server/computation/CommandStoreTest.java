@@ -24,12 +24,15 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.parser.tree.Statement;
 import io.confluent.ksql.rest.entity.CommandStatus;
@@ -216,6 +219,16 @@ public class CommandStoreTest {
     verify(commandTopic).send(same(commandId), any());
   }
 
+  @Test
+  public void shouldDistributeOnlyCompatibilityBreakingConfigs() {
+    // When:
+    commandStore.enqueueCommand(configured);
+
+    // Then:
+    verify(commandTopic).send(any(), argThat(cmd -> cmd.getOriginalProperties().equals(
+        KSQL_CONFIG.getCompatibilityBreakingConfigPropsWithSecretsObfuscated())));
+  }
+
   @Test
   public void shouldIncludeCommandSequenceNumberInSuccessfulQueuedCommandStatus() {
     // When:
@@ -226,6 +239,67 @@ public class CommandStoreTest {
     assertThat(commandStatus.getCommandSequenceNumber(), equalTo(recordMetadata.offset()));
   }
 
+  @Test
+  public void shouldDistributeCommandsInOneSend() {
+    // Given:
+    when(commandTopic.send(any())).thenReturn(ImmutableList.of(recordMetadata, recordMetadata));
+
+    // When:
+    commandStore.enqueueCommands(ImmutableList.of(configured, configured));
+
+    // Then:
+    verify(commandTopic).send(argThat(commands -> commands.size() == 2));
+    verify(commandTopic, never()).send(any(), any());
+  }
+
+  @Test
+  public void shouldIncludeCommandSequenceNumbersInQueuedCommandStatuses() {
+    // Given:
+    final RecordMetadata otherMetadata = new RecordMetadata(
+        COMMAND_TOPIC_PARTITION, 0, 1, RecordBatch.NO_TIMESTAMP, 0L, 0, 0);
+    when(commandTopic.send(any())).thenReturn(ImmutableList.of(recordMetadata, otherMetadata));
+
+    // When:
+    final List<QueuedCommandStatus> statuses =
+        commandStore.enqueueCommands(ImmutableList.of(configured, configured));
+
+    // Then:
+    assertThat(statuses, hasSize(2));
+    assertThat(statuses.get(0).getCommandSequenceNumber(), equalTo(0L));
+    assertThat(statuses.get(1).getCommandSequenceNumber(), equalTo(1L));
+  }
+
+  @Test
+  public void shouldCleanupCommandStatusesOnBatchProduceError() {
+    // Given:
+    when(commandIdAssigner.getCommandId(any())).thenReturn(commandId);
+    when(commandTopic.send(any())).thenThrow(new RuntimeException("oops"));
+    try {
+      commandStore.enqueueCommands(ImmutableList.of(configured));
+    } catch (final KsqlException e) {
+      // expected
+    }
+
+    // When:
+    commandStore.enqueueCommand(configured);
+
+    // Then: did not throw
+  }
+
+  @Test
+  public void shouldThrowOnBatchProduceError() {
+    // Given:
+    when(commandTopic.send(any())).thenThrow(new RuntimeException("oops"));
+
+    // Expect:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage(
+        "Could not write the statements 'test-statement' into the command topic.");
+
+    // When:
+    commandStore.enqueueCommands(ImmutableList.of(configured));
+  }
+
   @Test
   public void shouldWaitOnSequenceNumberFuture() throws Exception {
     // When:
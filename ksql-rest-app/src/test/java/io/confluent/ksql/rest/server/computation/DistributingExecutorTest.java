@@ -15,31 +15,41 @@
 package io.confluent.ksql.rest.server.computation;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.KsqlExecutionContext;
 import io.confluent.ksql.exception.KsqlTopicAuthorizationException;
 import io.confluent.ksql.metastore.MetaStore;
+import io.confluent.ksql.parser.DropType;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.parser.tree.ListProperties;
 import io.confluent.ksql.parser.tree.Statement;
 import io.confluent.ksql.rest.entity.CommandStatus;
 import io.confluent.ksql.rest.entity.CommandStatus.Status;
 import io.confluent.ksql.rest.entity.CommandStatusEntity;
+import io.confluent.ksql.rest.entity.KsqlEntity;
 import io.confluent.ksql.rest.server.computation.CommandId.Action;
 import io.confluent.ksql.rest.server.computation.CommandId.Type;
+import io.confluent.ksql.rest.server.computation.DistributingExecutor.Batch;
 import io.confluent.ksql.security.KsqlAuthorizationValidator;
 import io.confluent.ksql.services.ServiceContext;
+import io.confluent.ksql.services.TestServiceContext;
 import io.confluent.ksql.statement.ConfiguredStatement;
 import io.confluent.ksql.statement.Injector;
 import io.confluent.ksql.statement.InjectorChain;
@@ -48,13 +58,17 @@ import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.KsqlServerException;
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicLong;
+import org.apache.kafka.common.metrics.Metrics;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -83,7 +97,11 @@ public class DistributingExecutorTest {
   @Mock KsqlAuthorizationValidator authorizationValidator;
   @Mock KsqlExecutionContext executionContext;
   @Mock MetaStore metaStore;
+  @Mock KsqlExecutionContext sandbox;
+  @Mock MetaStore sandboxMetaStore;
+  @Mock QueuedCommandStatus otherStatus;
 
+  private final Metrics metrics = new Metrics();
   private DistributingExecutor distributor;
   private AtomicLong scnCounter;
 
@@ -103,7 +121,8 @@ public class DistributingExecutorTest {
         queue,
         DURATION_10_MS,
         (ec, sc) -> InjectorChain.of(schemaInjector, topicInjector),
-        authorizationValidator
+        authorizationValidator,
+        metrics
     );
   }
 
@@ -220,4 +239,192 @@ public class DistributingExecutorTest {
     // When:
     distributor.execute(configured, executionContext, userServiceContext);
   }
+
+  @Test
+  public void shouldApplyBatchedStatementsToSandbox() {
+    // Given:
+    final Batch batch = givenBatch();
+    final ConfiguredStatement<Statement> statement = givenStatement("x");
+
+    // When:
+    batch.add(statement);
+
+    // Then:
+    verify(sandbox).execute(any(), eq(statement));
+    verify(queue, never()).enqueueCommands(any());
+  }
+
+  @Test
+  public void shouldAuthorizeBatchedStatementsAgainstSandbox() {
+    // Given:
+    final Batch batch = givenBatch();
+    final ConfiguredStatement<Statement> statement = givenStatement("x");
+
+    // When:
+    batch.add(statement);
+
+    // Then:
+    verify(authorizationValidator)
+        .checkAuthorization(any(), eq(sandboxMetaStore), eq(statement.getStatement()));
+  }
+
+  @Test
+  public void shouldEnqueueBatchedStatementsTogetherOnFlush() throws Exception {
+    // Given:
+    final Batch batch = givenBatch();
+    final ConfiguredStatement<Statement> first = givenStatement("first");
+    final ConfiguredStatement<Statement> second = givenStatement("second");
+    batch.add(first);
+    batch.add(second);
+
+    // When:
+    batch.flush();
+
+    // Then:
+    verify(queue).enqueueCommands(ImmutableList.of(first, second));
+    verify(queue, never()).enqueueCommand(any());
+  }
+
+  @Test
+  public void shouldWaitOnceForLastBatchedStatement() throws Exception {
+    // Given:
+    final Batch batch = givenBatch();
+    batch.add(givenStatement("first"));
+    batch.add(givenStatement("second"));
+
+    // When:
+    batch.flush();
+
+    // Then:
+    verify(queue, times(1)).ensureConsumedPast(eq(2L), any());
+  }
+
+  @Test
+  public void shouldReturnStatusOfEachBatchedStatement() {
+    // Given:
+    final Batch batch = givenBatch();
+    batch.add(givenStatement("first"));
+    batch.add(givenStatement("second"));
+
+    // When:
+    final List<KsqlEntity> entities = batch.flush();
+
+    // Then:
+    assertThat(entities, contains(
+        new CommandStatusEntity("first", CS_COMMAND, SUCCESS_STATUS, 1L),
+        new CommandStatusEntity("second", CS_COMMAND, SUCCESS_STATUS, 2L)
+    ));
+  }
+
+  @Test
+  public void shouldReturnCurrentStatusOfEachBatchedStatementOnTimeout() throws Exception {
+    // Given:
+    final Batch batch = givenBatch();
+    batch.add(givenStatement("first"));
+    doThrow(new TimeoutException()).when(queue).ensureConsumedPast(anyLong(), any());
+
+    final CommandStatus queued = new CommandStatus(Status.QUEUED, "");
+    when(status.tryWaitForFinalStatus(Duration.ZERO)).thenReturn(queued);
+
+    // When:
+    final List<KsqlEntity> entities = batch.flush();
+
+    // Then:
+    assertThat(entities, contains(
+        new CommandStatusEntity("first", CS_COMMAND, queued, 1L)));
+  }
+
+  @Test
+  public void shouldCountBatchTimeouts() throws Exception {
+    // Given:
+    final Batch batch = givenBatch();
+    batch.add(givenStatement("first"));
+    doThrow(new TimeoutException()).when(queue).ensureConsumedPast(anyLong(), any());
+
+    // When:
+    batch.flush();
+
+    // Then:
+    assertThat(metrics.metric(metrics.metricName(
+        DistributingExecutor.BATCH_TIMEOUTS_TOTAL,
+        DistributingExecutor.METRIC_GROUP
+    )).metricValue(), is(1.0));
+  }
+
+  @Test
+  public void shouldNotEnqueueEmptyBatch() {
+    // Given:
+    final Batch batch = givenBatch();
+
+    // When:
+    final List<KsqlEntity> entities = batch.flush();
+
+    // Then:
+    assertThat(entities, is(empty()));
+    verify(queue, never()).enqueueCommands(any());
+  }
+
+  @Test
+  public void shouldFlushBatchBeforeAddingStatementWithSameCommandId() {
+    // Given:
+    final Batch batch = givenBatch();
+    final ConfiguredStatement<Statement> same = givenStatement("same");
+    batch.add(same);
+
+    // When:
+    final List<KsqlEntity> flushed = batch.add(same);
+
+    // Then:
+    assertThat(flushed, contains(
+        new CommandStatusEntity("same", CS_COMMAND, SUCCESS_STATUS, 1L)));
+
+    final InOrder inOrder = inOrder(queue, sandbox);
+    inOrder.verify(queue).enqueueCommands(ImmutableList.of(same));
+    inOrder.verify(sandbox).execute(any(), eq(same));
+  }
+
+  @Test
+  public void shouldThrowExceptionOnFailureToEnqueueBatch() {
+    // Given:
+    final KsqlException cause = new KsqlException("fail");
+    final Batch batch = givenBatch();
+    when(queue.enqueueCommands(any())).thenThrow(cause);
+    batch.add(givenStatement("x"));
+    batch.add(givenStatement("y"));
+
+    // Expect:
+    expectedException.expect(KsqlServerException.class);
+    expectedException.expectMessage(
+        "Could not write the statements 'x" + System.lineSeparator() + "y' "
+            + "into the command topic: fail");
+    expectedException.expectCause(is(cause));
+
+    // When:
+    batch.flush();
+  }
+
+  private Batch givenBatch() {
+    when(executionContext.createSandbox(any())).thenReturn(sandbox);
+    when(sandbox.getMetaStore()).thenReturn(sandboxMetaStore);
+    when(queue.enqueueCommands(any())).thenAnswer(inv -> {
+      final List<?> statements = inv.getArgument(0);
+      return statements.size() == 1
+          ? ImmutableList.of(status)
+          : ImmutableList.of(status, otherStatus);
+    });
+    when(otherStatus.tryWaitForFinalStatus(any())).thenReturn(SUCCESS_STATUS);
+    when(otherStatus.getCommandId()).thenReturn(CS_COMMAND);
+    when(otherStatus.getCommandSequenceNumber()).thenReturn(2L);
+    when(status.getCommandSequenceNumber()).thenReturn(1L);
+
+    return distributor.newBatch(executionContext, TestServiceContext.create());
+  }
+
+  private static ConfiguredStatement<Statement> givenStatement(final String text) {
+    return ConfiguredStatement.of(
+        PreparedStatement.of(text, new DropType(Optional.empty(), text)),
+        ImmutableMap.of(),
+        KSQL_CONFIG
+    );
+  }
 }
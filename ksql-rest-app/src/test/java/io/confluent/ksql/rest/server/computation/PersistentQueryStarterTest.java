@@ -0,0 +1,270 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.rest.entity.KsqlErrorMessage;
+import io.confluent.ksql.rest.server.state.ServerState;
+import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.PersistentQueryMetadata;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.kafka.streams.KafkaStreams.State;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PersistentQueryStarterTest {
+
+  private static final Duration POLL_INTERVAL = Duration.ofMillis(1);
+  private static final Duration MAX_RESTORE_WAIT = Duration.ofSeconds(30);
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  @Mock
+  private ServerState serverState;
+  @Mock
+  private PersistentQueryMetadata query1;
+  @Mock
+  private PersistentQueryMetadata query2;
+  @Mock
+  private PersistentQueryMetadata query3;
+
+  @Test
+  public void shouldStartQueriesInOrderWithOneThread() {
+    // Given:
+    final PersistentQueryStarter starter = PersistentQueryStarter.sequential(serverState);
+
+    // When:
+    starter.start(ImmutableList.of(query1, query2, query3));
+
+    // Then:
+    final InOrder inOrder = inOrder(query1, query2, query3);
+    inOrder.verify(query1).start();
+    inOrder.verify(query2).start();
+    inOrder.verify(query3).start();
+  }
+
+  @Test
+  public void shouldStartQueriesConcurrently() throws Exception {
+    // Given:
+    final CountDownLatch allStarting = new CountDownLatch(2);
+    doAnswer(inv -> awaitLatch(allStarting)).when(query1).start();
+    doAnswer(inv -> awaitLatch(allStarting)).when(query2).start();
+
+    final PersistentQueryStarter starter =
+        new PersistentQueryStarter(2, 0, MAX_RESTORE_WAIT, serverState, POLL_INTERVAL);
+
+    // When:
+    starter.start(ImmutableList.of(query1, query2));
+
+    // Then: would not have completed if started sequentially
+    verify(query1).start();
+    verify(query2).start();
+  }
+
+  @Test
+  public void shouldReportProgress() {
+    // Given:
+    final PersistentQueryStarter starter = PersistentQueryStarter.sequential(serverState);
+
+    // When:
+    starter.start(ImmutableList.of(query1, query2));
+
+    // Then:
+    final ArgumentCaptor<KsqlErrorMessage> captor =
+        ArgumentCaptor.forClass(KsqlErrorMessage.class);
+    verify(serverState, times(2)).updateInitializingReason(captor.capture());
+    assertThat(captor.getAllValues().get(1).getMessage(),
+        is("KSQL is not yet ready to serve requests. Started 2 of 2 persistent queries."));
+  }
+
+  @Test
+  public void shouldNotWaitForRestoreIfUnlimited() {
+    // Given:
+    final PersistentQueryStarter starter = PersistentQueryStarter.sequential(serverState);
+
+    // When:
+    starter.start(ImmutableList.of(query1));
+
+    // Then:
+    verify(query1, never()).getState();
+  }
+
+  @Test
+  public void shouldNotStartMoreQueriesThanRestoreLimit() {
+    // Given:
+    final AtomicInteger restoring = new AtomicInteger();
+    final AtomicInteger maxRestoring = new AtomicInteger();
+    givenRestoresAfterPolls(query1, 3, restoring, maxRestoring);
+    givenRestoresAfterPolls(query2, 3, restoring, maxRestoring);
+    givenRestoresAfterPolls(query3, 3, restoring, maxRestoring);
+
+    final PersistentQueryStarter starter =
+        new PersistentQueryStarter(3, 1, MAX_RESTORE_WAIT, serverState, POLL_INTERVAL);
+
+    // When:
+    starter.start(ImmutableList.of(query1, query2, query3));
+
+    // Then:
+    assertThat(maxRestoring.get(), is(1));
+  }
+
+  @Test
+  public void shouldNotWaitForQueryWhoseAppHasNotStarted() {
+    // Given:
+    when(query1.getState()).thenReturn(State.CREATED.toString());
+
+    final PersistentQueryStarter starter =
+        new PersistentQueryStarter(1, 1, MAX_RESTORE_WAIT, serverState, POLL_INTERVAL);
+
+    // When:
+    starter.start(ImmutableList.of(query1, query2));
+
+    // Then:
+    verify(query2).start();
+  }
+
+  @Test
+  public void shouldThrowIfQueryFailsToStart() {
+    // Given:
+    doThrow(new KsqlException("boom")).when(query1).start();
+
+    final PersistentQueryStarter starter =
+        new PersistentQueryStarter(2, 0, MAX_RESTORE_WAIT, serverState, POLL_INTERVAL);
+
+    // Expect:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("boom");
+
+    // When:
+    starter.start(ImmutableList.of(query1));
+  }
+
+  @Test
+  public void shouldNotStartFurtherQueriesAfterFailureWithOneThread() {
+    // Given:
+    doThrow(new KsqlException("boom")).when(query1).start();
+
+    final PersistentQueryStarter starter = PersistentQueryStarter.sequential(serverState);
+
+    // When:
+    try {
+      starter.start(ImmutableList.of(query1, query2));
+    } catch (final KsqlException e) {
+      // expected
+    }
+
+    // Then:
+    verify(query2, never()).start();
+  }
+
+  @Test
+  public void shouldNotStartFurtherQueriesAfterFailureConcurrently() {
+    // Given:
+    final CountDownLatch failed = new CountDownLatch(1);
+    doAnswer(inv -> failed.await(30, TimeUnit.SECONDS)).when(query1).start();
+    doAnswer(inv -> {
+      failed.countDown();
+      throw new KsqlException("boom");
+    }).when(query2).start();
+
+    final PersistentQueryStarter starter =
+        new PersistentQueryStarter(2, 0, MAX_RESTORE_WAIT, serverState, POLL_INTERVAL);
+
+    // When:
+    try {
+      starter.start(ImmutableList.of(query1, query2, query3));
+    } catch (final KsqlException e) {
+      // expected
+    }
+
+    // Then:
+    verify(query3, never()).start();
+  }
+
+  @Test
+  public void shouldStartFurtherQueriesOnceMaxRestoreWaitPassed() {
+    // Given:
+    when(query1.getState()).thenReturn(State.REBALANCING.toString());
+    when(query2.getState()).thenReturn(State.RUNNING.toString());
+
+    final PersistentQueryStarter starter =
+        new PersistentQueryStarter(1, 1, Duration.ofMillis(10), serverState, POLL_INTERVAL);
+
+    // When:
+    starter.start(ImmutableList.of(query1, query2));
+
+    // Then:
+    verify(query2).start();
+
+    final ArgumentCaptor<KsqlErrorMessage> captor =
+        ArgumentCaptor.forClass(KsqlErrorMessage.class);
+    verify(serverState, times(2)).updateInitializingReason(captor.capture());
+    assertThat(captor.getAllValues().get(1).getMessage(),
+        is("KSQL is not yet ready to serve requests. Started 2 of 2 persistent queries. "
+            + "1 have not finished restoring."));
+  }
+
+  private static Object awaitLatch(final CountDownLatch latch) throws InterruptedException {
+    latch.countDown();
+    if (!latch.await(30, TimeUnit.SECONDS)) {
+      throw new AssertionError("Queries were not started concurrently");
+    }
+    return null;
+  }
+
+  private static void givenRestoresAfterPolls(
+      final PersistentQueryMetadata query,
+      final int polls,
+      final AtomicInteger restoring,
+      final AtomicInteger maxRestoring
+  ) {
+    final AtomicInteger remaining = new AtomicInteger(polls);
+
+    doAnswer(inv -> {
+      maxRestoring.accumulateAndGet(restoring.incrementAndGet(), Math::max);
+      return null;
+    }).when(query).start();
+
+    when(query.getState()).thenAnswer(inv -> {
+      if (remaining.decrementAndGet() > 0) {
+        return State.REBALANCING.toString();
+      }
+      restoring.decrementAndGet();
+      return State.RUNNING.toString();
+    });
+  }
+}
@@ -174,7 +174,8 @@ public class RecoveryTest {
           Duration.ofMillis(0),
           ()->{},
           (sc, metastore, statement) -> {
-          }
+          },
+          Optional.empty()
       );
 
       this.statementExecutor = new StatementExecutor(ksqlEngine);
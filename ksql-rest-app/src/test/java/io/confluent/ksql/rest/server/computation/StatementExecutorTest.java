@@ -242,7 +242,7 @@ public class StatementExecutorTest extends EasyMockSupport {
         ConfiguredStatement.of(csasStatement, emptyMap(), expectedConfig);
 
     expect(mockParser.parseSingleStatement(statementText)).andReturn(csasStatement);
-    expect(mockEngine.getPersistentQueries()).andReturn(ImmutableList.of());
+    expect(mockEngine.getPersistentQueries()).andReturn(ImmutableList.of()).times(2);
     expect(mockEngine.execute(eq(configuredCsas)))
         .andReturn(ExecuteResult.of(mockQueryMetadata));
     mockQueryMetadata.start();
@@ -443,7 +443,7 @@ public class StatementExecutorTest extends EasyMockSupport {
     expect(mockParser.parseSingleStatement(statement))
         .andReturn(csas);
     expect(mockMetaStore.getSource(name)).andStubReturn(null);
-    expect(mockEngine.getPersistentQueries()).andReturn(ImmutableList.of());
+    expect(mockEngine.getPersistentQueries()).andReturn(ImmutableList.of()).times(2);
     expect(mockEngine.execute(eqConfigured(csas)))
         .andReturn(ExecuteResult.of(mockQuery));
     return mockQuery;
@@ -469,7 +469,7 @@ public class StatementExecutorTest extends EasyMockSupport {
         .andReturn((PreparedStatement)preparedStatement);
     expect(mockEngine.execute(eqConfigured(preparedStatement)))
         .andReturn(ExecuteResult.of(mockQuery));
-    expect(mockEngine.getPersistentQueries()).andReturn(ImmutableList.of());
+    expect(mockEngine.getPersistentQueries()).andReturn(ImmutableList.of()).times(2);
     return mockQuery;
   }
 
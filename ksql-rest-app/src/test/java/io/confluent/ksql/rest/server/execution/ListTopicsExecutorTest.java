@@ -16,22 +16,34 @@
 package io.confluent.ksql.rest.server.execution;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.parser.tree.ListTopics;
 import io.confluent.ksql.rest.entity.KafkaTopicInfo;
 import io.confluent.ksql.rest.entity.KafkaTopicInfoExtended;
 import io.confluent.ksql.rest.entity.KafkaTopicsList;
 import io.confluent.ksql.rest.entity.KafkaTopicsListExtended;
 import io.confluent.ksql.rest.server.TemporaryEngine;
+import io.confluent.ksql.services.ClusterMetadataService;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.services.TestServiceContext;
+import io.confluent.ksql.statement.ConfiguredStatement;
+import io.confluent.ksql.util.KafkaConsumerGroupClient.ConsumerGroupSummary;
+import io.confluent.ksql.util.KafkaConsumerGroupClient.ConsumerSummary;
 import java.util.Collection;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.admin.ConsumerGroupListing;
 import org.apache.kafka.clients.admin.ListConsumerGroupsResult;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
 import org.apache.kafka.common.internals.KafkaFutureImpl;
 import org.junit.Rule;
 import org.junit.Test;
@@ -111,4 +123,37 @@ public class ListTopicsExecutorTest {
     ));
   }
 
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldListKafkaTopicsExtendedFromMetadataService() {
+    // Given:
+    final Node node = new Node(0, "localhost", 9092);
+    final ConsumerSummary consumer = new ConsumerSummary("consumer1");
+    consumer.addPartition(new TopicPartition("topic1", 0));
+
+    final ClusterMetadataService metadataService = mock(ClusterMetadataService.class);
+    when(metadataService.describeTopics()).thenReturn(ImmutableMap.of(
+        "topic1",
+        new TopicDescription("topic1", false, ImmutableList.of(
+            new TopicPartitionInfo(0, node, ImmutableList.of(node), ImmutableList.of(node))))
+    ));
+    when(metadataService.describeConsumerGroups()).thenReturn(ImmutableMap.of(
+        "group1", new ConsumerGroupSummary(ImmutableSet.of(consumer))
+    ));
+
+    final StatementExecutor<ListTopics> executor = (StatementExecutor<ListTopics>)
+        CustomExecutors.withMetadataService(metadataService).get(ListTopics.class);
+
+    // When:
+    final KafkaTopicsListExtended topicsList = (KafkaTopicsListExtended) executor.execute(
+        (ConfiguredStatement<ListTopics>) engine.configure("LIST TOPICS EXTENDED;"),
+        engine.getEngine(),
+        engine.getServiceContext()
+    ).orElseThrow(IllegalStateException::new);
+
+    // Then:
+    assertThat(topicsList.getTopics(), contains(
+        new KafkaTopicInfoExtended("topic1", ImmutableList.of(1), 1, 1)
+    ));
+  }
 }
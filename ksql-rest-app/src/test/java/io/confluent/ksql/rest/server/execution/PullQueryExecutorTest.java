@@ -0,0 +1,503 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.execution;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Range;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.KsqlExecutionContext;
+import io.confluent.ksql.execution.expression.tree.ComparisonExpression;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.LogicalBinaryExpression;
+import io.confluent.ksql.execution.expression.tree.LongLiteral;
+import io.confluent.ksql.execution.expression.tree.QualifiedName;
+import io.confluent.ksql.execution.expression.tree.QualifiedNameReference;
+import io.confluent.ksql.execution.expression.tree.StringLiteral;
+import io.confluent.ksql.materialization.Materialization;
+import io.confluent.ksql.materialization.MaterializedRow;
+import io.confluent.ksql.metastore.MetaStore;
+import io.confluent.ksql.metastore.model.DataSource;
+import io.confluent.ksql.metastore.model.DataSource.DataSourceType;
+import io.confluent.ksql.model.WindowType;
+import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
+import io.confluent.ksql.parser.tree.AliasedRelation;
+import io.confluent.ksql.parser.tree.AllColumns;
+import io.confluent.ksql.parser.tree.GroupBy;
+import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.parser.tree.Select;
+import io.confluent.ksql.parser.tree.SelectItem;
+import io.confluent.ksql.parser.tree.SimpleGroupBy;
+import io.confluent.ksql.parser.tree.SingleColumn;
+import io.confluent.ksql.parser.tree.Table;
+import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.rest.client.KsqlRestClient;
+import io.confluent.ksql.rest.client.KsqlRestClient.QueryStream;
+import io.confluent.ksql.rest.client.RestResponse;
+import io.confluent.ksql.rest.entity.StreamedRow;
+import io.confluent.ksql.serde.WindowInfo;
+import io.confluent.ksql.statement.ConfiguredStatement;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlStatementException;
+import io.confluent.ksql.util.PersistentQueryMetadata;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import org.apache.kafka.streams.kstream.internals.TimeWindow;
+import org.apache.kafka.streams.state.HostInfo;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PullQueryExecutorTest {
+
+  private static final KsqlConfig KSQL_CONFIG = new KsqlConfig(ImmutableMap.of(
+      KsqlConfig.KSQL_PULL_QUERIES_ENABLE_CONFIG, true
+  ));
+
+  private static final Expression ROWKEY_EQUALS_K = new ComparisonExpression(
+      ComparisonExpression.Type.EQUAL,
+      new QualifiedNameReference(QualifiedName.of("ROWKEY")),
+      new StringLiteral("k")
+  );
+
+  private static final GenericRow VALUE = new GenericRow(ImmutableList.of(1L));
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  @Mock
+  private KsqlExecutionContext executionContext;
+  @Mock
+  private MetaStore metaStore;
+  @Mock
+  private DataSource<?> table;
+  @Mock
+  private PersistentQueryMetadata persistentQuery;
+  @Mock
+  private Materialization materialization;
+  @Mock
+  private KsqlRestClient forwardingClient;
+  @Mock
+  private QueryStream forwardedRows;
+
+  private PullQueryExecutor executor;
+
+  @Before
+  public void setUp() {
+    executor = new PullQueryExecutor(forwardingClient);
+  }
+
+  @Test
+  public void shouldOnlyBePullQueryIfEnabled() {
+    // Given:
+    givenMaterializedTable();
+
+    // Then:
+    assertThat(PullQueryExecutor.isPullQuery(query(ROWKEY_EQUALS_K), executionContext), is(true));
+    assertThat(PullQueryExecutor.isPullQuery(
+        query(ROWKEY_EQUALS_K, ImmutableMap.of(), new KsqlConfig(ImmutableMap.of())),
+        executionContext
+    ), is(false));
+  }
+
+  @Test
+  public void shouldBePullQueryIfEnabledByOverride() {
+    // Given:
+    givenMaterializedTable();
+
+    // Then:
+    assertThat(PullQueryExecutor.isPullQuery(query(
+        ROWKEY_EQUALS_K,
+        ImmutableMap.of(KsqlConfig.KSQL_PULL_QUERIES_ENABLE_CONFIG, true),
+        new KsqlConfig(ImmutableMap.of())
+    ), executionContext), is(true));
+  }
+
+  @Test
+  public void shouldBePullQueryIfRowKeyOnRight() {
+    // Given:
+    givenMaterializedTable();
+
+    // Then:
+    assertThat(PullQueryExecutor.isPullQuery(query(new ComparisonExpression(
+        ComparisonExpression.Type.EQUAL,
+        new StringLiteral("k"),
+        new QualifiedNameReference(QualifiedName.of("ROWKEY"))
+    )), executionContext), is(true));
+  }
+
+  @Test
+  public void shouldNotBePullQueryIfNoRowKeyLookup() {
+    assertThat(PullQueryExecutor.isPullQuery(
+        query(windowStart(ComparisonExpression.Type.GREATER_THAN, 10)),
+        executionContext
+    ), is(false));
+  }
+
+  @Test
+  public void shouldNotBePullQueryIfNoWhereClause() {
+    assertThat(PullQueryExecutor.isPullQuery(
+        query(Optional.empty(), Optional.empty()),
+        executionContext
+    ), is(false));
+  }
+
+  @Test
+  public void shouldNotBePullQueryIfGroupBy() {
+    assertThat(PullQueryExecutor.isPullQuery(
+        query(Optional.of(ROWKEY_EQUALS_K), Optional.of(new GroupBy(ImmutableList.of(
+            new SimpleGroupBy(ImmutableList.of(
+                new QualifiedNameReference(QualifiedName.of("ROWKEY")))))))),
+        executionContext
+    ), is(false));
+  }
+
+  @Test
+  public void shouldNotBePullQueryIfProjection() {
+    // Given:
+    givenMaterializedTable();
+
+    final Query projection = new Query(
+        Optional.empty(),
+        new Select(ImmutableList.<SelectItem>of(new SingleColumn(
+            new QualifiedNameReference(QualifiedName.of("ROWKEY")), "ROWKEY"))),
+        new AliasedRelation(new Table(QualifiedName.of("T")), "T"),
+        Optional.empty(),
+        Optional.of(ROWKEY_EQUALS_K),
+        Optional.empty(),
+        Optional.empty(),
+        OptionalInt.empty()
+    );
+
+    // Then:
+    assertThat(PullQueryExecutor.isPullQuery(ConfiguredStatement.of(
+        PreparedStatement.of("SELECT ROWKEY FROM T WHERE ...;", projection),
+        ImmutableMap.of(),
+        KSQL_CONFIG
+    ), executionContext), is(false));
+  }
+
+  @Test
+  public void shouldNotBePullQueryOnStream() {
+    // Given:
+    when(executionContext.getMetaStore()).thenReturn(metaStore);
+    when(metaStore.getSource("T")).thenReturn((DataSource) table);
+    when(table.getDataSourceType()).thenReturn(DataSourceType.KSTREAM);
+
+    // Then:
+    assertThat(PullQueryExecutor.isPullQuery(query(ROWKEY_EQUALS_K), executionContext), is(false));
+  }
+
+  @Test
+  public void shouldNotBePullQueryOnTableThatIsNotMaterialized() {
+    // Given:
+    givenTable();
+    when(persistentQuery.getMaterialization()).thenReturn(Optional.empty());
+
+    // Then:
+    assertThat(PullQueryExecutor.isPullQuery(query(ROWKEY_EQUALS_K), executionContext), is(false));
+  }
+
+  @Test
+  public void shouldLookUpKeyInLocalStore() {
+    // Given:
+    givenMaterializedTable();
+    when(materialization.locate("k")).thenReturn(Optional.empty());
+    when(materialization.getWindowInfo()).thenReturn(Optional.empty());
+    when(materialization.get("k"))
+        .thenReturn(Optional.of(MaterializedRow.of("k", Optional.empty(), 10L, VALUE)));
+
+    // When:
+    final List<StreamedRow> rows = executor.execute(
+        query(ROWKEY_EQUALS_K),
+        executionContext,
+        Optional.empty()
+    );
+
+    // Then:
+    assertThat(rows, contains(StreamedRow.row(new GenericRow(ImmutableList.of(10L, "k", 1L)))));
+  }
+
+  @Test
+  public void shouldReturnNoRowsIfKeyNotFound() {
+    // Given:
+    givenMaterializedTable();
+    when(materialization.locate("k")).thenReturn(Optional.empty());
+    when(materialization.getWindowInfo()).thenReturn(Optional.empty());
+    when(materialization.get("k")).thenReturn(Optional.empty());
+
+    // When:
+    final List<StreamedRow> rows = executor.execute(
+        query(ROWKEY_EQUALS_K),
+        executionContext,
+        Optional.empty()
+    );
+
+    // Then:
+    assertThat(rows, is(empty()));
+  }
+
+  @Test
+  public void shouldLookUpWindowedKeyWithinWindowStartBounds() {
+    // Given:
+    givenMaterializedTable();
+    final TimeWindow window = new TimeWindow(1000, 2000);
+    when(materialization.locate("k")).thenReturn(Optional.empty());
+    when(materialization.getWindowInfo()).thenReturn(Optional.of(
+        WindowInfo.of(WindowType.TUMBLING, Optional.of(Duration.ofSeconds(1)))));
+    when(materialization.get("k", Range.closedOpen(
+        Instant.ofEpochMilli(1000), Instant.ofEpochMilli(5000))))
+        .thenReturn(ImmutableList.of(MaterializedRow.of("k", Optional.of(window), 10L, VALUE)));
+
+    final Expression where = LogicalBinaryExpression.and(
+        ROWKEY_EQUALS_K,
+        LogicalBinaryExpression.and(
+            windowStart(ComparisonExpression.Type.GREATER_THAN_OR_EQUAL, 1000),
+            windowStart(ComparisonExpression.Type.LESS_THAN, 5000)
+        )
+    );
+
+    // When:
+    final List<StreamedRow> rows =
+        executor.execute(query(where), executionContext, Optional.empty());
+
+    // Then:
+    assertThat(rows, contains(StreamedRow.row(
+        new GenericRow(ImmutableList.of(10L, "k : " + window, 1L)))));
+  }
+
+  @Test
+  public void shouldThrowIfNoRowKeyPredicate() {
+    // Given:
+    givenMaterializedTable();
+    expectedException.expect(KsqlStatementException.class);
+    expectedException.expectMessage(
+        "Pull queries require a WHERE clause that restricts ROWKEY to a single value.");
+
+    // When:
+    executor.execute(
+        query(windowStart(ComparisonExpression.Type.GREATER_THAN, 10)),
+        executionContext,
+        Optional.empty()
+    );
+  }
+
+  @Test
+  public void shouldThrowOnUnsupportedPredicate() {
+    // Given:
+    givenMaterializedTable();
+    expectedException.expect(KsqlStatementException.class);
+    expectedException.expectMessage("Unsupported pull query WHERE clause predicate");
+
+    // When:
+    executor.execute(
+        query(new ComparisonExpression(
+            ComparisonExpression.Type.EQUAL,
+            new QualifiedNameReference(QualifiedName.of("OTHER")),
+            new StringLiteral("x")
+        )),
+        executionContext,
+        Optional.empty()
+    );
+  }
+
+  @Test
+  public void shouldThrowIfWindowBoundsOnNonWindowedTable() {
+    // Given:
+    givenMaterializedTable();
+    when(materialization.getWindowInfo()).thenReturn(Optional.empty());
+
+    expectedException.expect(KsqlStatementException.class);
+    expectedException.expectMessage("'T' is not windowed");
+
+    // When:
+    executor.execute(
+        query(LogicalBinaryExpression.and(
+            ROWKEY_EQUALS_K,
+            windowStart(ComparisonExpression.Type.GREATER_THAN, 10)
+        )),
+        executionContext,
+        Optional.empty()
+    );
+  }
+
+  @Test
+  public void shouldThrowIfTableNotMaterialized() {
+    // Given:
+    givenTable();
+    when(persistentQuery.getMaterialization()).thenReturn(Optional.empty());
+
+    expectedException.expect(KsqlStatementException.class);
+    expectedException.expectMessage(containsString("Table 'T' is not materialized."));
+
+    // When:
+    executor.execute(query(ROWKEY_EQUALS_K), executionContext, Optional.empty());
+  }
+
+  @Test
+  public void shouldNotForwardIfSkipForwardingSet() {
+    // Given:
+    givenMaterializedTable();
+    when(materialization.locate("k")).thenReturn(Optional.of(
+        new HostInfo("other", 8088)));
+    when(materialization.getWindowInfo()).thenReturn(Optional.empty());
+    when(materialization.get("k")).thenReturn(Optional.empty());
+
+    final ConfiguredStatement<Query> statement = query(
+        ROWKEY_EQUALS_K,
+        ImmutableMap.of(KsqlConfig.KSQL_PULL_QUERIES_SKIP_FORWARDING_CONFIG, true),
+        KSQL_CONFIG
+    );
+
+    // When:
+    final List<StreamedRow> rows =
+        executor.execute(statement, executionContext, Optional.empty());
+
+    // Then:
+    assertThat(rows, is(empty()));
+    verify(materialization, never()).get(any(), any());
+  }
+
+  @Test
+  public void shouldForwardWithSharedClientAndCallersCredentials() {
+    // Given:
+    givenMaterializedTable();
+    when(materialization.locate("k")).thenReturn(Optional.of(new HostInfo("other", 8088)));
+    when(forwardingClient.makeQueryRequest(any(), any(), any(), any()))
+        .thenReturn(RestResponse.successful(forwardedRows));
+    final StreamedRow row = StreamedRow.row(new GenericRow(ImmutableList.of(10L, "k", 1L)));
+    when(forwardedRows.hasNext()).thenReturn(true, false);
+    when(forwardedRows.next()).thenReturn(row);
+
+    // When:
+    final List<StreamedRow> rows = executor.execute(
+        query(ROWKEY_EQUALS_K),
+        executionContext,
+        Optional.of("Basic creds")
+    );
+    executor.execute(query(ROWKEY_EQUALS_K), executionContext, Optional.of("Basic creds"));
+
+    // Then:
+    assertThat(rows, contains(row));
+    verify(forwardingClient, times(2)).makeQueryRequest(
+        eq(URI.create("http://other:8088")),
+        eq("SELECT * FROM T WHERE ...;"),
+        eq(ImmutableMap.of(
+            KsqlConfig.KSQL_PULL_QUERIES_ENABLE_CONFIG, true,
+            KsqlConfig.KSQL_PULL_QUERIES_SKIP_FORWARDING_CONFIG, true
+        )),
+        eq(Optional.of("Basic creds"))
+    );
+    verify(materialization, never()).get(any());
+  }
+
+  @Test
+  public void shouldCloseForwardingClient() {
+    // When:
+    executor.close();
+
+    // Then:
+    verify(forwardingClient).close();
+  }
+
+  private void givenTable() {
+    when(executionContext.getMetaStore()).thenReturn(metaStore);
+    when(metaStore.getSource("T")).thenReturn((DataSource) table);
+    when(table.getDataSourceType()).thenReturn(DataSourceType.KTABLE);
+    when(metaStore.getQueriesWithSink("T")).thenReturn(ImmutableSet.of("CTAS_T_0"));
+    when(executionContext.getPersistentQuery(new QueryId("CTAS_T_0")))
+        .thenReturn(Optional.of(persistentQuery));
+  }
+
+  private void givenMaterializedTable() {
+    givenTable();
+    when(persistentQuery.getMaterialization()).thenReturn(Optional.of(materialization));
+  }
+
+  private static Expression windowStart(final ComparisonExpression.Type type, final long value) {
+    return new ComparisonExpression(
+        type,
+        new QualifiedNameReference(QualifiedName.of("WINDOWSTART")),
+        new LongLiteral(value)
+    );
+  }
+
+  private static ConfiguredStatement<Query> query(final Expression where) {
+    return query(where, ImmutableMap.of(), KSQL_CONFIG);
+  }
+
+  private static ConfiguredStatement<Query> query(
+      final Expression where,
+      final Map<String, Object> overrides,
+      final KsqlConfig config
+  ) {
+    return query(Optional.of(where), Optional.empty(), overrides, config);
+  }
+
+  private static ConfiguredStatement<Query> query(
+      final Optional<Expression> where,
+      final Optional<GroupBy> groupBy
+  ) {
+    return query(where, groupBy, ImmutableMap.of(), KSQL_CONFIG);
+  }
+
+  private static ConfiguredStatement<Query> query(
+      final Optional<Expression> where,
+      final Optional<GroupBy> groupBy,
+      final Map<String, Object> overrides,
+      final KsqlConfig config
+  ) {
+    final Query query = new Query(
+        Optional.empty(),
+        new Select(ImmutableList.<SelectItem>of(new AllColumns(Optional.empty()))),
+        new AliasedRelation(new Table(QualifiedName.of("T")), "T"),
+        Optional.empty(),
+        where,
+        groupBy,
+        Optional.empty(),
+        OptionalInt.empty()
+    );
+
+    return ConfiguredStatement.of(
+        PreparedStatement.of("SELECT * FROM T WHERE ...;", query),
+        overrides,
+        config
+    );
+  }
+}
@@ -25,12 +25,15 @@ import static org.hamcrest.core.IsInstanceOf.instanceOf;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.hamcrest.MockitoHamcrest.argThat;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.engine.KsqlEngine;
 import io.confluent.ksql.function.InternalFunctionRegistry;
@@ -39,13 +42,17 @@ import io.confluent.ksql.metastore.MetaStoreImpl;
 import io.confluent.ksql.parser.DefaultKsqlParser;
 import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
 import io.confluent.ksql.parser.tree.CreateStream;
+import io.confluent.ksql.parser.tree.ListProperties;
+import io.confluent.ksql.parser.tree.SetProperty;
 import io.confluent.ksql.parser.tree.Statement;
 import io.confluent.ksql.rest.entity.KsqlEntity;
 import io.confluent.ksql.rest.entity.KsqlEntityList;
 import io.confluent.ksql.rest.server.computation.DistributingExecutor;
+import io.confluent.ksql.rest.server.computation.DistributingExecutor.Batch;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlConstants;
+import io.confluent.ksql.util.KsqlException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -57,6 +64,7 @@ import org.hamcrest.TypeSafeMatcher;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -64,6 +72,8 @@ import org.mockito.junit.MockitoJUnitRunner;
 public class RequestHandlerTest {
 
   private static final String SOME_STREAM_SQL = "CREATE STREAM x WITH (value_format='json', kafka_topic='x');";
+  private static final Map<String, Object> BATCH_ENABLED =
+      ImmutableMap.of(KsqlConfig.KSQL_COMMAND_BATCH_ENABLE_CONFIG, true);
 
   @Mock KsqlEngine ksqlEngine;
   @Mock KsqlConfig ksqlConfig;
@@ -71,6 +81,7 @@ public class RequestHandlerTest {
   @Mock DistributingExecutor distributor;
   @Mock KsqlEntity entity;
   @Mock CommandQueueSync sync;
+  @Mock Batch batch;
 
   private MetaStore metaStore;
   private RequestHandler handler;
@@ -241,6 +252,106 @@ public class RequestHandlerTest {
     assertThat(result, contains(entity2));
   }
 
+  @Test
+  public void shouldAddDistributedStatementsToBatchIfEnabled() {
+    // Given
+    givenRequestHandler(ImmutableMap.of());
+    givenBatch();
+
+    final List<ParsedStatement> statements =
+        new DefaultKsqlParser().parse(
+            "CREATE STREAM x WITH (value_format='json', kafka_topic='x');"
+                + "CREATE STREAM y WITH (value_format='json', kafka_topic='y');"
+        );
+
+    // When
+    final KsqlEntityList entities = handler.execute(serviceContext, statements, BATCH_ENABLED);
+
+    // Then
+    assertThat(entities, contains(entity));
+    verify(distributor).newBatch(ksqlEngine, serviceContext);
+    verify(batch, times(2)).add(any());
+    verify(batch).flush();
+    verify(distributor, never()).execute(any(), any(), any());
+  }
+
+  @Test
+  public void shouldFlushBatchBeforeCustomExecutor() {
+    // Given
+    final KsqlEntity customEntity = mock(KsqlEntity.class);
+    final StatementExecutor<ListProperties> customExecutor =
+        givenReturningExecutor(ListProperties.class, customEntity);
+    givenRequestHandler(ImmutableMap.of(ListProperties.class, customExecutor));
+    givenBatch();
+
+    final List<ParsedStatement> statements =
+        new DefaultKsqlParser().parse(SOME_STREAM_SQL + "LIST PROPERTIES;");
+
+    // When
+    final KsqlEntityList entities = handler.execute(serviceContext, statements, BATCH_ENABLED);
+
+    // Then
+    assertThat(entities, contains(entity, customEntity));
+
+    final InOrder inOrder = inOrder(batch, customExecutor);
+    inOrder.verify(batch).add(any());
+    inOrder.verify(batch).flush();
+    inOrder.verify(customExecutor).execute(any(), any(), any());
+  }
+
+  @Test
+  public void shouldNotFlushBatchBeforeSetProperty() {
+    // Given
+    final StatementExecutor<SetProperty> customExecutor =
+        givenReturningExecutor(SetProperty.class, (KsqlEntity) null);
+    givenRequestHandler(ImmutableMap.of(SetProperty.class, customExecutor));
+    givenBatch();
+
+    final List<ParsedStatement> statements = new DefaultKsqlParser().parse(
+        SOME_STREAM_SQL + "SET 'auto.offset.reset'='earliest';");
+
+    // When
+    handler.execute(serviceContext, statements, BATCH_ENABLED);
+
+    // Then
+    final InOrder inOrder = inOrder(batch, customExecutor);
+    inOrder.verify(batch).add(any());
+    inOrder.verify(customExecutor).execute(any(), any(), any());
+    inOrder.verify(batch).flush();
+  }
+
+  @Test
+  public void shouldFlushBatchIfLaterStatementFails() {
+    // Given
+    givenRequestHandler(ImmutableMap.of());
+    givenBatch();
+    when(batch.add(any()))
+        .thenReturn(ImmutableList.of())
+        .thenThrow(new KsqlException("fail"));
+
+    final List<ParsedStatement> statements =
+        new DefaultKsqlParser().parse(
+            "CREATE STREAM x WITH (value_format='json', kafka_topic='x');"
+                + "CREATE STREAM y WITH (value_format='json', kafka_topic='y');"
+        );
+
+    // When
+    try {
+      handler.execute(serviceContext, statements, BATCH_ENABLED);
+    } catch (final KsqlException e) {
+      // expected
+    }
+
+    // Then
+    verify(batch).flush();
+  }
+
+  private void givenBatch() {
+    when(distributor.newBatch(any(), any())).thenReturn(batch);
+    when(batch.getSandbox()).thenReturn(ksqlEngine);
+    when(batch.flush()).thenReturn(ImmutableList.of(entity), ImmutableList.of());
+  }
+
   private void givenRequestHandler(
       final Map<Class<? extends Statement>, StatementExecutor<?>> executors) {
     handler = new RequestHandler(
@@ -352,7 +352,8 @@ public class KsqlResourceTest {
             schemaInjectorFactory.apply(sc),
             topicInjectorFactory.apply(ec),
             new TopicDeleteInjector(ec, sc)),
-        authorizationValidator
+        authorizationValidator,
+        Optional.empty()
     );
 
     // Then:
@@ -380,7 +381,8 @@ public class KsqlResourceTest {
             schemaInjectorFactory.apply(sc),
             topicInjectorFactory.apply(ec),
             new TopicDeleteInjector(ec, sc)),
-        authorizationValidator
+        authorizationValidator,
+        Optional.empty()
     );
 
     // Then:
@@ -611,6 +613,42 @@ public class KsqlResourceTest {
         is("incompatible data source type is table, but statement was drop stream"));
   }
 
+  @Test
+  public void shouldFailIfParametersSuppliedWithNonInsertValuesStatement() {
+    // When:
+    final KsqlErrorMessage result = makeFailingRequest(
+        new KsqlRequest("LIST STREAMS;", emptyMap(), null, ImmutableList.of(1)),
+        Code.BAD_REQUEST);
+
+    // Then:
+    assertThat(result.getMessage(),
+        is("Parameters can only be supplied with a single INSERT INTO ... VALUES statement."));
+  }
+
+  @Test
+  public void shouldFailIfWrongNumberOfParametersSupplied() {
+    // When:
+    final KsqlErrorMessage result = makeFailingRequest(
+        new KsqlRequest("INSERT INTO test_stream VALUES (?, ?);", emptyMap(), null,
+            ImmutableList.of(1)),
+        Code.BAD_REQUEST);
+
+    // Then:
+    assertThat(result.getMessage(), is("Expected 2 parameter values, but 1 were supplied."));
+  }
+
+  @Test
+  public void shouldFailIfParameterValueIsUnsupported() {
+    // When:
+    final KsqlErrorMessage result = makeFailingRequest(
+        new KsqlRequest("INSERT INTO test_stream VALUES (?);", emptyMap(), null,
+            ImmutableList.of(ImmutableList.of(1))),
+        Code.BAD_REQUEST);
+
+    // Then:
+    assertThat(result.getMessage(), containsString("Unsupported parameter value: [1]."));
+  }
+
   @Test
   public void shouldFailCreateTableWithInferenceWithUnknownKey() {
     // When:
@@ -1988,7 +2026,8 @@ public class KsqlResourceTest {
             schemaInjectorFactory.apply(sc),
             topicInjectorFactory.apply(ec),
             new TopicDeleteInjector(ec, sc)),
-        authorizationValidator
+        authorizationValidator,
+        Optional.empty()
     );
 
     ksqlResource.configure(ksqlConfig);
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.resources;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.confluent.ksql.parser.DefaultKsqlParser;
+import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
+import io.confluent.ksql.util.KsqlException;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ParsedStatementCacheTest {
+
+  private static final String SQL = "LIST STREAMS;";
+  private static final String OTHER_SQL = "LIST TABLES;";
+  private static final List<ParsedStatement> PARSED = new DefaultKsqlParser().parse(SQL);
+  private static final List<ParsedStatement> OTHER_PARSED = new DefaultKsqlParser().parse(OTHER_SQL);
+
+  @Mock
+  private Function<String, List<ParsedStatement>> parser;
+
+  @Test
+  public void shouldParseOnFirstRequest() {
+    // Given:
+    when(parser.apply(SQL)).thenReturn(PARSED);
+    final ParsedStatementCache cache = new ParsedStatementCache(parser, 10);
+
+    // When:
+    final List<ParsedStatement> result = cache.parse(SQL);
+
+    // Then:
+    assertThat(result, is(PARSED));
+  }
+
+  @Test
+  public void shouldNotParseSameTextAgain() {
+    // Given:
+    when(parser.apply(SQL)).thenReturn(PARSED);
+    final ParsedStatementCache cache = new ParsedStatementCache(parser, 10);
+    cache.parse(SQL);
+
+    // When:
+    final List<ParsedStatement> result = cache.parse(SQL);
+
+    // Then:
+    assertThat(result, is(PARSED));
+    verify(parser, times(1)).apply(SQL);
+  }
+
+  @Test
+  public void shouldParseDifferentText() {
+    // Given:
+    when(parser.apply(SQL)).thenReturn(PARSED);
+    when(parser.apply(OTHER_SQL)).thenReturn(OTHER_PARSED);
+    final ParsedStatementCache cache = new ParsedStatementCache(parser, 10);
+    cache.parse(SQL);
+
+    // When:
+    final List<ParsedStatement> result = cache.parse(OTHER_SQL);
+
+    // Then:
+    assertThat(result, is(OTHER_PARSED));
+  }
+
+  @Test
+  public void shouldParseEveryTimeIfDisabled() {
+    // Given:
+    when(parser.apply(SQL)).thenReturn(PARSED);
+    final ParsedStatementCache cache = new ParsedStatementCache(parser, 0);
+    cache.parse(SQL);
+
+    // When:
+    cache.parse(SQL);
+
+    // Then:
+    verify(parser, times(2)).apply(SQL);
+  }
+
+  @Test
+  public void shouldNotCacheParseFailures() {
+    // Given:
+    when(parser.apply(OTHER_SQL))
+        .thenThrow(new KsqlException("boom"))
+        .thenReturn(OTHER_PARSED);
+
+    final ParsedStatementCache cache = new ParsedStatementCache(parser, 10);
+    try {
+      cache.parse(OTHER_SQL);
+    } catch (final KsqlException e) {
+      // expected
+    }
+
+    // When:
+    final List<ParsedStatement> result = cache.parse(OTHER_SQL);
+
+    // Then:
+    assertThat(result, is(OTHER_PARSED));
+  }
+}
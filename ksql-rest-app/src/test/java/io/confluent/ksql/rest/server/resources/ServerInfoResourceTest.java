@@ -10,6 +10,8 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.engine.KsqlEngine;
+import io.confluent.ksql.rest.entity.QueryCapacity;
 import io.confluent.ksql.rest.entity.ServerInfo;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.util.KsqlConfig;
@@ -35,6 +37,8 @@ public class ServerInfoResourceTest {
   @Mock
   private ServiceContext serviceContext;
   @Mock
+  private KsqlEngine ksqlEngine;
+  @Mock
   private AdminClient adminClient;
   @Mock
   private DescribeClusterResult describeClusterResult;
@@ -59,7 +63,7 @@ public class ServerInfoResourceTest {
     when(describeClusterResult.clusterId()).thenReturn(future);
     when(future.get(anyLong(), any())).thenReturn(KAFKA_CLUSTER_ID);
 
-    serverInfoResource = new ServerInfoResource(serviceContext, ksqlConfig);
+    serverInfoResource = new ServerInfoResource(serviceContext, ksqlEngine, ksqlConfig);
   }
 
   @Test
@@ -73,10 +77,29 @@ public class ServerInfoResourceTest {
     final ServerInfo serverInfo = (ServerInfo)response.getEntity();
     assertThat(
         serverInfo,
-        equalTo(new ServerInfo(Version.getVersion(), KAFKA_CLUSTER_ID, KSQL_SERVICE_ID))
+        equalTo(new ServerInfo(
+            Version.getVersion(),
+            KAFKA_CLUSTER_ID,
+            KSQL_SERVICE_ID,
+            new QueryCapacity(
+                0, Integer.MAX_VALUE, 0, Integer.MAX_VALUE, 0, Integer.MAX_VALUE)))
     );
   }
 
+  @Test
+  public void shouldReturnCurrentQueryCapacity() {
+    // Given:
+    serverInfoResource.get();
+    when(ksqlEngine.numberOfTransientQueries()).thenReturn(3);
+
+    // When:
+    final Response response = serverInfoResource.get();
+
+    // Then:
+    final ServerInfo serverInfo = (ServerInfo)response.getEntity();
+    assertThat(serverInfo.getQueryCapacity().getTransientQueries(), equalTo(3));
+  }
+
   @Test
   public void shouldGetKafkaClusterIdWithTimeout()
       throws InterruptedException, ExecutionException, TimeoutException{
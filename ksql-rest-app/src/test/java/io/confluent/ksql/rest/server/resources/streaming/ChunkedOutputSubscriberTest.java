@@ -0,0 +1,272 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.resources.streaming;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.json.JsonMapper;
+import io.confluent.ksql.rest.entity.StreamedRow;
+import io.confluent.ksql.rest.server.resources.streaming.Flow.Subscription;
+import io.confluent.ksql.rest.server.resources.streaming.StreamingTestUtils.TestChunkedOutput;
+import io.confluent.ksql.util.KsqlException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ChunkedOutputSubscriberTest {
+
+  private static final ObjectMapper OBJECT_MAPPER = JsonMapper.INSTANCE.mapper;
+  private static final Duration DISCONNECT_CHECK_INTERVAL = Duration.ofMillis(1000);
+  private static final StreamedRow ROW_1 =
+      StreamedRow.row(new GenericRow(Collections.singletonList(1)));
+  private static final StreamedRow ROW_2 =
+      StreamedRow.row(new GenericRow(Collections.singletonList(2)));
+
+  @Mock
+  private ScheduledExecutorService exec;
+  @Mock
+  private ScheduledFuture<?> disconnectCheck;
+  @Mock
+  private Subscription subscription;
+
+  private TestChunkedOutput output;
+  private ChunkedOutputSubscriber<StreamedRow> subscriber;
+  private Runnable checkDisconnected;
+
+  @Before
+  public void setUp() {
+    output = new TestChunkedOutput();
+    subscriber = new ChunkedOutputSubscriber<>(
+        output,
+        exec,
+        Runnable::run,
+        DISCONNECT_CHECK_INTERVAL,
+        ChunkedOutputSubscriber.queryFormatter(OBJECT_MAPPER)
+    );
+
+    when(exec.scheduleWithFixedDelay(any(), anyLong(), anyLong(), any()))
+        .thenAnswer(inv -> {
+          checkDisconnected = inv.getArgument(0);
+          return disconnectCheck;
+        });
+
+    subscriber.onSubscribe(subscription);
+  }
+
+  @Test
+  public void shouldRequestOnSubscribe() {
+    // Then:
+    verify(subscription).request(ChunkedOutputSubscriber.PREFETCH);
+    verify(exec).scheduleWithFixedDelay(
+        any(), eq(1000L), eq(1000L), eq(TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void shouldWriteRowsAsOneChunkOfJsonLines() throws Exception {
+    // When:
+    subscriber.onNext(ImmutableList.of(ROW_1, ROW_2));
+
+    // Then:
+    assertThat(output.chunks, contains(
+        OBJECT_MAPPER.writeValueAsString(ROW_1) + "\n"
+            + OBJECT_MAPPER.writeValueAsString(ROW_2) + "\n"
+    ));
+  }
+
+  @Test
+  public void shouldRequestMoreOnceWritten() {
+    // When:
+    subscriber.onNext(ImmutableList.of(ROW_1));
+
+    // Then:
+    verify(subscription).request(1);
+  }
+
+  @Test
+  public void shouldWriteOnWriteExecutorAndOnlyRequestMoreOnceWritten() {
+    // Given:
+    final List<Runnable> writes = new ArrayList<>();
+    final ChunkedOutputSubscriber<StreamedRow> queued = new ChunkedOutputSubscriber<>(
+        output,
+        exec,
+        writes::add,
+        DISCONNECT_CHECK_INTERVAL,
+        ChunkedOutputSubscriber.queryFormatter(OBJECT_MAPPER)
+    );
+    queued.onSubscribe(subscription);
+
+    // When:
+    queued.onNext(ImmutableList.of(ROW_1));
+
+    // Then:
+    assertThat(output.chunks, is(empty()));
+    verify(subscription, never()).request(1);
+
+    writes.remove(0).run();
+    assertThat(output.chunks, hasSize(1));
+    verify(subscription).request(1);
+  }
+
+  @Test
+  public void shouldNotCheckForDisconnectWhileWritePending() throws Exception {
+    // Given:
+    final List<Runnable> writes = new ArrayList<>();
+    final ChunkedOutputSubscriber<StreamedRow> queued = new ChunkedOutputSubscriber<>(
+        output,
+        exec,
+        writes::add,
+        DISCONNECT_CHECK_INTERVAL,
+        ChunkedOutputSubscriber.queryFormatter(OBJECT_MAPPER)
+    );
+    queued.onSubscribe(subscription);
+    queued.onNext(ImmutableList.of(ROW_1));
+
+    // When:
+    checkDisconnected.run();
+
+    // Then:
+    writes.remove(0).run();
+    assertThat(output.chunks, contains(OBJECT_MAPPER.writeValueAsString(ROW_1) + "\n"));
+  }
+
+  @Test
+  public void shouldCancelIfClientDisconnected() {
+    // Given:
+    output.closed = true;
+
+    // When:
+    subscriber.onNext(ImmutableList.of(ROW_1));
+
+    // Then:
+    verify(subscription).cancel();
+    verify(disconnectCheck).cancel(false);
+    verify(subscription, never()).request(1);
+  }
+
+  @Test
+  public void shouldNotWriteAfterClientDisconnected() {
+    // Given:
+    output.closed = true;
+    subscriber.onNext(ImmutableList.of(ROW_1));
+    output.closed = false;
+
+    // When:
+    subscriber.onNext(ImmutableList.of(ROW_2));
+
+    // Then:
+    assertThat(output.chunks, is(empty()));
+  }
+
+  @Test
+  public void shouldWriteNewLineIfNothingWrittenSinceLastCheck() {
+    // When:
+    checkDisconnected.run();
+
+    // Then:
+    assertThat(output.chunks, contains("\n"));
+  }
+
+  @Test
+  public void shouldNotWriteNewLineIfRowsWrittenSinceLastCheck() throws Exception {
+    // Given:
+    subscriber.onNext(ImmutableList.of(ROW_1));
+
+    // When:
+    checkDisconnected.run();
+
+    // Then:
+    assertThat(output.chunks, contains(OBJECT_MAPPER.writeValueAsString(ROW_1) + "\n"));
+  }
+
+  @Test
+  public void shouldDetectDisconnectWhileIdle() {
+    // Given:
+    output.closed = true;
+
+    // When:
+    checkDisconnected.run();
+
+    // Then:
+    verify(subscription).cancel();
+  }
+
+  @Test
+  public void shouldWriteLimitReachedAndCloseOnComplete() {
+    // When:
+    subscriber.onComplete();
+
+    // Then:
+    assertThat(output.chunks, contains(containsString("Limit Reached")));
+    assertThat(output.closed, is(true));
+    verify(disconnectCheck).cancel(false);
+  }
+
+  @Test
+  public void shouldWriteCauseIfKsqlExceptionAndCloseOnError() {
+    // When:
+    subscriber.onError(new RuntimeException("outer", new KsqlException("inner")));
+
+    // Then:
+    assertThat(output.chunks, contains(containsString("inner")));
+    assertThat(output.closed, is(true));
+  }
+
+  @Test
+  public void shouldWritePrintedRecordsAsIs() {
+    // Given:
+    final TestChunkedOutput printOutput = new TestChunkedOutput();
+    final ChunkedOutputSubscriber<String> printSubscriber = new ChunkedOutputSubscriber<>(
+        printOutput,
+        exec,
+        Runnable::run,
+        DISCONNECT_CHECK_INTERVAL,
+        ChunkedOutputSubscriber.printFormatter()
+    );
+    printSubscriber.onSubscribe(subscription);
+
+    // When:
+    printSubscriber.onNext(ImmutableList.of("Format:STRING\n", "key0 , value0\n"));
+    printSubscriber.onComplete();
+
+    // Then:
+    assertThat(printOutput.chunks, contains("Format:STRING\nkey0 , value0\n"));
+    assertThat(printOutput.closed, is(true));
+  }
+}
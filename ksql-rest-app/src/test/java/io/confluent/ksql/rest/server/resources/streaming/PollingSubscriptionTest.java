@@ -29,9 +29,12 @@ import io.confluent.ksql.rest.server.resources.streaming.Flow.Subscription;
 import io.confluent.ksql.rest.server.resources.streaming.StreamingTestUtils.TestSubscriber;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
 import org.junit.Test;
@@ -64,6 +67,14 @@ public class PollingSubscriptionTest {
     TestPollingSubscription(
         final Subscriber<String> subscriber,
         final ScheduledExecutorService exec
+    ) {
+      this(subscriber, exec, false);
+    }
+
+    TestPollingSubscription(
+        final Subscriber<String> subscriber,
+        final ScheduledExecutorService exec,
+        final boolean notifiesDataAvailable
     ) {
       super(
           MoreExecutors.listeningDecorator(exec),
@@ -71,7 +82,8 @@ public class PollingSubscriptionTest {
           LogicalSchema.of(SchemaBuilder
               .struct()
               .field("f0", Schema.OPTIONAL_STRING_SCHEMA)
-              .build())
+              .build()),
+          notifiesDataAvailable
       );
     }
 
@@ -229,15 +241,188 @@ public class PollingSubscriptionTest {
     assertEquals(ImmutableList.of(), testSubscriber.elements);
   }
 
+  @Test
+  public void testBatchedDemand() throws Exception {
+    final TestSubscriber<String> testSubscriber = new TestSubscriber<String>() {
+      @Override
+      public void onSubscribe(final Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(ELEMENTS.size() + 1);
+      }
+
+      @Override
+      public void onNext(final String item) {
+        elements.add(item);
+      }
+    };
+    final TestPublisher testPublisher = new TestPublisher();
+    testPublisher.subscribe(testSubscriber);
+
+    assertTrue(testSubscriber.done.await(1000, TimeUnit.MILLISECONDS));
+    assertTrue(exec.shutdownNow().isEmpty());
+
+    assertTrue(testPublisher.subscription.closed);
+    assertNull(testSubscriber.error);
+    assertEquals(ELEMENTS, testSubscriber.elements);
+  }
+
+  @Test
+  public void testDeliversOnDataAvailableNotification() throws Exception {
+    final Queue<String> source = new ConcurrentLinkedQueue<>();
+    final TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+    final AtomicReference<TestPollingSubscription> subscription = new AtomicReference<>();
+    final TestPublisher testPublisher = new TestPublisher() {
+      @Override
+      TestPollingSubscription createSubscription(
+          final Subscriber<String> subscriber
+      ) {
+        subscription.set(new TestPollingSubscription(subscriber, exec, true) {
+          @Override
+          String poll() {
+            return source.poll();
+          }
+        });
+        return subscription.get();
+      }
+    };
+    testPublisher.subscribe(testSubscriber);
+
+    // When:
+    for (final String element : ELEMENTS) {
+      source.add(element);
+      subscription.get().notifyDataAvailable();
+    }
+    subscription.get().setDone();
+
+    // Then:
+    assertTrue(testSubscriber.done.await(1000, TimeUnit.MILLISECONDS));
+    assertTrue(exec.shutdownNow().isEmpty());
+
+    assertTrue(testPublisher.subscription.closed);
+    assertNull(testSubscriber.error);
+    assertEquals(ELEMENTS, testSubscriber.elements);
+  }
+
+  @Test
+  public void testCompletesWithoutOutstandingDemand() throws Exception {
+    // Given:
+    final Queue<String> source = new ConcurrentLinkedQueue<>(ELEMENTS);
+    final TestSubscriber<String> testSubscriber = new ExactDemandSubscriber(ELEMENTS.size());
+    final TestPollingSubscription subscription = subscribeTo(source, testSubscriber);
+
+    subscription.notifyDataAvailable();
+    exec.submit(() -> null).get();
+
+    // When:
+    subscription.setDone();
+
+    // Then:
+    assertTrue(testSubscriber.done.await(1000, TimeUnit.MILLISECONDS));
+    assertTrue(exec.shutdownNow().isEmpty());
+
+    assertTrue(subscription.closed);
+    assertNull(testSubscriber.error);
+    assertEquals(ELEMENTS, testSubscriber.elements);
+  }
+
+  @Test
+  public void testSignalsErrorWithoutOutstandingDemand() throws Exception {
+    // Given:
+    final Queue<String> source = new ConcurrentLinkedQueue<>(ELEMENTS);
+    final TestSubscriber<String> testSubscriber = new ExactDemandSubscriber(1);
+    final TestPollingSubscription subscription = subscribeTo(source, testSubscriber);
+
+    // When:
+    subscription.notifyDataAvailable();
+    subscription.setError(new RuntimeException("something bad"));
+
+    // Then:
+    assertTrue(testSubscriber.done.await(1000, TimeUnit.MILLISECONDS));
+    assertTrue(exec.shutdownNow().isEmpty());
+
+    assertTrue(subscription.closed);
+    assertNotNull(testSubscriber.error);
+    assertEquals(ImmutableList.of("a"), testSubscriber.elements);
+  }
+
+  @Test
+  public void testCancelCancelsAllScheduledTasks() throws Exception {
+    // Given:
+    final ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(1);
+    pool.setRemoveOnCancelPolicy(true);
+    final TestSubscriber<String> testSubscriber = new ExactDemandSubscriber(1);
+    final TestPollingSubscription subscription =
+        new TestPollingSubscription(testSubscriber, pool) {
+          @Override
+          String poll() {
+            return null;
+          }
+        };
+    testSubscriber.onSubscribe(subscription);
+
+    // Each drain that finds no data schedules a back off:
+    for (int i = 0; i != 5; ++i) {
+      subscription.request(1);
+      pool.submit(() -> null).get();
+    }
+
+    // When:
+    subscription.cancel();
+
+    // Then:
+    pool.submit(() -> null).get();
+    assertTrue(subscription.closed);
+    assertTrue(pool.getQueue().isEmpty());
+    pool.shutdownNow();
+  }
+
   @Test(expected = IllegalArgumentException.class)
-  public void testExpectsNEqualsOne() {
+  public void testExpectsPositiveRequest() {
     final TestSubscriber<String> testSubscriber = new TestSubscriber<String>() {
       @Override
       public void onSubscribe(final Subscription subscription) {
-        subscription.request(2);
+        subscription.request(0);
       }
     };
     final TestPublisher testPublisher = new TestPublisher();
     testPublisher.subscribe(testSubscriber);
   }
+
+  private TestPollingSubscription subscribeTo(
+      final Queue<String> source,
+      final TestSubscriber<String> testSubscriber
+  ) {
+    final TestPollingSubscription subscription =
+        new TestPollingSubscription(testSubscriber, exec, true) {
+          @Override
+          String poll() {
+            return source.poll();
+          }
+        };
+    testSubscriber.onSubscribe(subscription);
+    return subscription;
+  }
+
+  /**
+   * Requests a fixed number of elements up front, and never any more.
+   */
+  private static class ExactDemandSubscriber extends TestSubscriber<String> {
+
+    private final int demand;
+
+    ExactDemandSubscriber(final int demand) {
+      this.demand = demand;
+    }
+
+    @Override
+    public void onSubscribe(final Subscription subscription) {
+      this.subscription = subscription;
+      subscription.request(demand);
+    }
+
+    @Override
+    public void onNext(final String item) {
+      elements.add(item);
+    }
+  }
 }
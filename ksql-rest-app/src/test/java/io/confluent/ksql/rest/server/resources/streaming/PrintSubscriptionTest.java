@@ -3,6 +3,7 @@ package io.confluent.ksql.rest.server.resources.streaming;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
 import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
@@ -70,6 +71,37 @@ public class PrintSubscriptionTest {
     ));
   }
 
+  @Test
+  public void testPrintPublisherIncludeFormat() {
+    // Given:
+    TestSubscriber<Collection<String>> subscriber = new TestSubscriber<>();
+    PrintSubscription subscription = new PrintSubscription(
+        MoreExecutors.listeningDecorator(Executors.newScheduledThreadPool(1)),
+        StreamingTestUtils.printTopic("topic", true, null, null),
+        subscriber,
+        kafkaConsumer,
+        new RecordFormatter(schemaRegistry, "topic"),
+        true
+    );
+
+    // When:
+    Collection<String> results = subscription.poll();
+    Collection<String> results2 = subscription.poll();
+
+    // Then:
+    assertThat(results, contains(Lists.newArrayList(
+        is("Format:STRING\n"),
+        containsString("key0 , value0"),
+        containsString("key1 , value1"),
+        containsString("key2 , value2"))
+    ));
+    assertThat(results2, contains(Lists.newArrayList(
+        containsString("key3 , value3"),
+        containsString("key4 , value4"),
+        containsString("key5 , value5"))
+    ));
+  }
+
   @Test
   public void testPrintPublisherLimit() {
     // Given:
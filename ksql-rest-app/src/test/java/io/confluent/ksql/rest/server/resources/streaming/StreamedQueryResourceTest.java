@@ -27,16 +27,18 @@ import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.expectLastCall;
 import static org.easymock.EasyMock.mock;
-import static org.easymock.EasyMock.niceMock;
 import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.reset;
 import static org.easymock.EasyMock.verify;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.junit.Assert.assertEquals;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ListeningScheduledExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.KsqlExecutionContext.ExecuteResult;
 import io.confluent.ksql.engine.KsqlEngine;
@@ -46,15 +48,16 @@ import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.parser.tree.PrintTopic;
 import io.confluent.ksql.parser.tree.Query;
 import io.confluent.ksql.parser.tree.Statement;
-import io.confluent.ksql.planner.PlanSourceExtractorVisitor;
-import io.confluent.ksql.planner.plan.OutputNode;
+import io.confluent.ksql.rest.client.KsqlRestClient;
 import io.confluent.ksql.rest.entity.KsqlErrorMessage;
 import io.confluent.ksql.rest.entity.KsqlRequest;
 import io.confluent.ksql.rest.entity.StreamedRow;
 import io.confluent.ksql.rest.server.StatementParser;
 import io.confluent.ksql.rest.server.computation.CommandQueue;
+import io.confluent.ksql.rest.server.execution.PullQueryExecutor;
 import io.confluent.ksql.rest.server.resources.Errors;
 import io.confluent.ksql.rest.server.resources.KsqlRestException;
+import io.confluent.ksql.rest.server.resources.streaming.StreamingTestUtils.TestChunkedOutput;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.security.KsqlAuthorizationValidator;
 import io.confluent.ksql.services.KafkaTopicClient;
@@ -63,23 +66,23 @@ import io.confluent.ksql.statement.ConfiguredStatement;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.QueryMetadata;
+import io.confluent.ksql.util.TransientQueryKey;
 import io.confluent.ksql.util.TransientQueryMetadata;
 import io.confluent.ksql.version.metrics.ActivenessRegistrar;
-import java.io.EOFException;
-import java.io.IOException;
-import java.io.PipedInputStream;
-import java.io.PipedOutputStream;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
-import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import javax.ws.rs.core.Response;
-import javax.ws.rs.core.StreamingOutput;
 import org.apache.kafka.common.acl.AclOperation;
 import org.apache.kafka.connect.data.SchemaBuilder;
 import org.apache.kafka.streams.KafkaStreams;
@@ -92,6 +95,7 @@ import org.easymock.Mock;
 import org.easymock.MockType;
 import org.eclipse.jetty.http.HttpStatus.Code;
 import org.hamcrest.Matchers;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -131,7 +135,11 @@ public class StreamedQueryResourceTest {
   private Consumer<QueryMetadata> queryCloseCallback;
   @Mock(MockType.NICE)
   private KsqlAuthorizationValidator authorizationValidator;
+  @Mock(MockType.NICE)
+  private KsqlRestClient forwardingClient;
   private StreamedQueryResource testResource;
+  private ListeningScheduledExecutorService exec;
+  private TestChunkedOutput output;
 
   private final static String queryString = "SELECT * FROM test_stream;";
   private final static String printString = "Print TEST_TOPIC;";
@@ -147,6 +155,9 @@ public class StreamedQueryResourceTest {
         .andReturn(statement);
     replay(mockKsqlEngine, mockStatementParser);
 
+    exec = MoreExecutors.listeningDecorator(Executors.newScheduledThreadPool(1));
+    output = new TestChunkedOutput();
+
     testResource = new StreamedQueryResource(
         mockKsqlEngine,
         mockStatementParser,
@@ -154,12 +165,21 @@ public class StreamedQueryResourceTest {
         DISCONNECT_CHECK_INTERVAL,
         COMMAND_QUEUE_CATCHUP_TIMOEUT,
         activenessRegistrar,
-        authorizationValidator
+        authorizationValidator,
+        exec,
+        MoreExecutors.directExecutor(),
+        new PullQueryExecutor(forwardingClient),
+        () -> output
     );
 
     testResource.configure(VALID_CONFIG);
   }
 
+  @After
+  public void tearDown() {
+    exec.shutdownNow();
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void shouldThrowOnConfigureIfAppServerNotSet() {
     // Given:
@@ -179,7 +199,11 @@ public class StreamedQueryResourceTest {
         DISCONNECT_CHECK_INTERVAL,
         COMMAND_QUEUE_CATCHUP_TIMOEUT,
         activenessRegistrar,
-        authorizationValidator
+        authorizationValidator,
+        exec,
+        MoreExecutors.directExecutor(),
+        new PullQueryExecutor(forwardingClient),
+        () -> output
     );
 
     // Then:
@@ -191,6 +215,7 @@ public class StreamedQueryResourceTest {
     // When:
     testResource.streamQuery(
         serviceContext,
+        null,
         new KsqlRequest("query", Collections.emptyMap(), null)
     );
   }
@@ -214,6 +239,7 @@ public class StreamedQueryResourceTest {
     // When:
     testResource.streamQuery(
         serviceContext,
+        null,
         new KsqlRequest("query", Collections.emptyMap(), null)
     );
   }
@@ -226,6 +252,7 @@ public class StreamedQueryResourceTest {
     // When:
     testResource.streamQuery(
         serviceContext,
+        null,
         new KsqlRequest(queryString, Collections.emptyMap(), null)
     );
 
@@ -244,6 +271,7 @@ public class StreamedQueryResourceTest {
     // When:
     testResource.streamQuery(
         serviceContext,
+        null,
         new KsqlRequest(queryString, Collections.emptyMap(), 3L)
     );
 
@@ -271,54 +299,32 @@ public class StreamedQueryResourceTest {
     // When:
     testResource.streamQuery(
         serviceContext,
+        null,
         new KsqlRequest(queryString, Collections.emptyMap(), 3L)
     );
   }
 
-  @SuppressWarnings("unchecked")
   @Test
-  public void shouldStreamRowsCorrectly() throws Throwable {
+  public void shouldStreamRowsCorrectly() throws Exception {
     final int NUM_ROWS = 5;
-    final AtomicReference<Throwable> threadException = new AtomicReference<>(null);
-    final Thread.UncaughtExceptionHandler threadExceptionHandler =
-        (thread, exception) -> threadException.compareAndSet(null, exception);
 
-    final String queryString = "SELECT * FROM test_stream;";
-
-    final SynchronousQueue<KeyValue<String, GenericRow>> rowQueue = new SynchronousQueue<>();
-
-    final LinkedList<GenericRow> writtenRows = new LinkedList<>();
-
-    final Thread rowQueuePopulatorThread = new Thread(() -> {
-      try {
-        for (int i = 0; i != NUM_ROWS; i++) {
-          final String key = Integer.toString(i);
-          final GenericRow value = new GenericRow(Collections.singletonList(i));
-          synchronized (writtenRows) {
-            writtenRows.add(value);
-          }
-          rowQueue.put(new KeyValue<>(key, value));
-        }
-      } catch (final InterruptedException exception) {
-        // This should happen during the test, so it's fine
-      }
-    }, "Row Queue Populator");
-    rowQueuePopulatorThread.setUncaughtExceptionHandler(threadExceptionHandler);
-    rowQueuePopulatorThread.start();
+    final BlockingQueue<KeyValue<TransientQueryKey, GenericRow>> rowQueue =
+        new LinkedBlockingQueue<>();
+    final AtomicReference<Runnable> queuedHandler = new AtomicReference<>();
+    final CountDownLatch queryClosed = new CountDownLatch(1);
 
     final KafkaStreams mockKafkaStreams = mock(KafkaStreams.class);
     mockKafkaStreams.start();
     expectLastCall();
     mockKafkaStreams.setUncaughtExceptionHandler(anyObject(Thread.UncaughtExceptionHandler.class));
     expectLastCall();
-    mockKafkaStreams.cleanUp();
-    expectLastCall();
     mockKafkaStreams.close();
     expectLastCall();
-
-    final OutputNode mockOutputNode = niceMock(OutputNode.class);
-    expect(mockOutputNode.accept(anyObject(PlanSourceExtractorVisitor.class), anyObject()))
-        .andReturn(null);
+    mockKafkaStreams.cleanUp();
+    expectLastCall().andAnswer(() -> {
+      queryClosed.countDown();
+      return null;
+    });
 
     final Map<String, Object> requestStreamsProperties = Collections.emptyMap();
 
@@ -336,6 +342,7 @@ public class StreamedQueryResourceTest {
             SOME_SCHEMA,
             Collections.emptySet(),
             limitHandler -> {},
+            queuedHandler::set,
             "",
             rowQueue,
             DataSourceType.KSTREAM,
@@ -344,128 +351,56 @@ public class StreamedQueryResourceTest {
             Collections.emptyMap(),
             Collections.emptyMap(),
             queryCloseCallback);
-    reset(mockOutputNode);
     expect(mockKsqlEngine.execute(serviceContext,
         ConfiguredStatement.of(statement, requestStreamsProperties, VALID_CONFIG)))
         .andReturn(ExecuteResult.of(transientQueryMetadata));
 
-    replay(mockKsqlEngine, mockStatementParser, mockKafkaStreams, mockOutputNode);
+    replay(mockKsqlEngine, mockStatementParser, mockKafkaStreams);
 
+    // When:
     final Response response =
         testResource.streamQuery(
             serviceContext,
+            null,
             new KsqlRequest(queryString, requestStreamsProperties, null)
         );
-    final PipedOutputStream responseOutputStream = new EOFPipedOutputStream();
-    final PipedInputStream responseInputStream = new PipedInputStream(responseOutputStream, 1);
-    final StreamingOutput responseStream = (StreamingOutput) response.getEntity();
-
-    final Thread queryWriterThread = new Thread(() -> {
-      try {
-        responseStream.write(responseOutputStream);
-      } catch (final EOFException exception) {
-        // It's fine
-      } catch (final IOException exception) {
-        throw new RuntimeException(exception);
-      }
-    }, "Query Writer");
-    queryWriterThread.setUncaughtExceptionHandler(threadExceptionHandler);
-    queryWriterThread.start();
 
-    final Scanner responseScanner = new Scanner(responseInputStream, "UTF-8");
-    final ObjectMapper objectMapper = JsonMapper.INSTANCE.mapper;
+    final List<GenericRow> writtenRows = new ArrayList<>();
     for (int i = 0; i != NUM_ROWS; i++) {
-      if (!responseScanner.hasNextLine()) {
-        throw new Exception("Response input stream failed to have expected line available");
-      }
-      final String responseLine = responseScanner.nextLine();
-      if (responseLine.trim().isEmpty()) {
-        i--;
-      } else {
-        final GenericRow expectedRow;
-        synchronized (writtenRows) {
-          expectedRow = writtenRows.poll();
-        }
-        final GenericRow testRow = objectMapper.readValue(responseLine, StreamedRow.class).getRow();
-        assertEquals(expectedRow, testRow);
-      }
+      final GenericRow value = new GenericRow(Collections.singletonList(i));
+      writtenRows.add(value);
+      rowQueue.add(new KeyValue<>(TransientQueryKey.of(Integer.toString(i)), value));
+      queuedHandler.get().run();
     }
 
-    responseOutputStream.close();
-
-    queryWriterThread.join();
-    rowQueuePopulatorThread.interrupt();
-    rowQueuePopulatorThread.join();
-
-    // Definitely want to make sure that the Kafka Streams instance has been closed and cleaned up
-    verify(mockKafkaStreams);
-
-    // If one of the other threads has somehow managed to throw an exception without breaking things up until this
-    // point, we throw that exception now in the main thread and cause the test to fail
-    final Throwable exception = threadException.get();
-    if (exception != null) {
-      throw exception;
-    }
-  }
-
-  // Have to mimic the behavior of the OutputStream that's usually passed to the QueryStreamWriter class's write()
-  // method, which is to throw an EOFException if any write attempts are made after the connection has terminated
-  private static class EOFPipedOutputStream extends PipedOutputStream {
-
-    private boolean closed;
-
-    private EOFPipedOutputStream() {
-      super();
-      closed = false;
-    }
+    // Then:
+    assertThat(response.getEntity(), is(output));
 
-    private void throwIfClosed() throws IOException {
-      if (closed) {
-        throw new EOFException();
+    final ObjectMapper objectMapper = JsonMapper.INSTANCE.mapper;
+    final List<GenericRow> streamedRows = new ArrayList<>();
+    while (streamedRows.size() < NUM_ROWS) {
+      final String chunk = output.chunks.poll(30, TimeUnit.SECONDS);
+      if (chunk == null) {
+        throw new AssertionError("Expected rows were not streamed");
       }
-    }
-
-    @Override
-    public void close() throws IOException {
-      closed = true;
-      super.close();
-    }
-
-    @Override
-    public void flush() throws IOException {
-      throwIfClosed();
-      try {
-        super.flush();
-      } catch (final IOException exception) {
-        // Might have been closed during the call to super.flush();
-        throwIfClosed();
-        throw exception;
+      for (final String line : chunk.split("\n")) {
+        if (!line.trim().isEmpty()) {
+          streamedRows.add(objectMapper.readValue(line, StreamedRow.class).getRow());
+        }
       }
     }
+    assertThat(streamedRows, is(writtenRows));
 
-    @Override
-    public void write(final byte[] b, final int off, final int len) throws IOException {
-      throwIfClosed();
-      try {
-        super.write(b, off, len);
-      } catch (final IOException exception) {
-        // Might have been closed during the call to super.write();
-        throwIfClosed();
-        throw exception;
-      }
-    }
+    // When client disconnects:
+    output.closed = true;
+    rowQueue.add(new KeyValue<>(
+        TransientQueryKey.of("another"),
+        new GenericRow(Collections.singletonList(-1))));
+    queuedHandler.get().run();
 
-    @Override
-    public void write(final int b) throws IOException {
-      throwIfClosed();
-      try {
-        super.write(b);
-      } catch (final IOException exception) {
-        // Might have been closed during the call to super.write();
-        throwIfClosed();
-        throw exception;
-      }
-    }
+    // Then: the query is closed
+    assertThat(queryClosed.await(30, TimeUnit.SECONDS), is(true));
+    verify(mockKafkaStreams);
   }
 
   @Test
@@ -479,6 +414,7 @@ public class StreamedQueryResourceTest {
     // When:
     testResource.streamQuery(
         serviceContext,
+        null,
         new KsqlRequest(queryString, Collections.emptyMap(), null)
     );
 
@@ -486,6 +422,33 @@ public class StreamedQueryResourceTest {
     EasyMock.verify(activenessRegistrar);
   }
 
+  @Test
+  public void shouldReturn400IfTooManyTransientQueries() {
+    // Given:
+    reset(mockStatementParser);
+    statement = PreparedStatement.of("query", mock(Query.class));
+    expect(mockStatementParser.parseSingleStatement(queryString))
+        .andReturn(statement);
+    replay(mockStatementParser);
+
+    testResource.configure(new KsqlConfig(ImmutableMap.of(
+        StreamsConfig.APPLICATION_SERVER_CONFIG, "something:1",
+        KsqlConfig.KSQL_ACTIVE_TRANSIENT_QUERY_LIMIT_CONFIG, 0
+    )));
+
+    // When:
+    final Response response = testResource.streamQuery(
+        serviceContext,
+        null,
+        new KsqlRequest(queryString, Collections.emptyMap(), null)
+    );
+
+    // Then:
+    assertThat(response.getStatus(), is(Code.BAD_REQUEST.getCode()));
+    assertThat(((KsqlErrorMessage) response.getEntity()).getMessage(),
+        containsString("active, transient queries to exceed the configured limit"));
+  }
+
   @Test
   public void shouldReturnForbiddenKafkaAccessIfKsqlTopicAuthorizationException() {
     // Given:
@@ -503,6 +466,7 @@ public class StreamedQueryResourceTest {
     // When:
     final Response response = testResource.streamQuery(
         serviceContext,
+        null,
         new KsqlRequest(queryString, Collections.emptyMap(), null)
     );
 
@@ -535,6 +499,7 @@ public class StreamedQueryResourceTest {
     // When:
     final Response response = testResource.streamQuery(
         serviceContext,
+        null,
         new KsqlRequest(queryString, Collections.emptyMap(), null)
     );
 
@@ -566,6 +531,7 @@ public class StreamedQueryResourceTest {
     // When:
     final Response response = testResource.streamQuery(
         serviceContext,
+        null,
         new KsqlRequest(printString, Collections.emptyMap(), null)
     );
 
@@ -24,6 +24,7 @@ import io.confluent.ksql.execution.expression.tree.QualifiedName;
 import io.confluent.ksql.rest.server.resources.streaming.Flow.Subscriber;
 import io.confluent.ksql.rest.server.resources.streaming.Flow.Subscription;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -31,13 +32,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.function.Function;
 import java.util.stream.IntStream;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.utils.Bytes;
+import org.glassfish.jersey.server.ChunkedOutput;
 
 class StreamingTestUtils {
 
@@ -138,4 +142,35 @@ class StreamingTestUtils {
       subscription.request(1);
     }
   }
+
+  /**
+   * Captures the chunks written to it, rather than writing them to a response.
+   */
+  static class TestChunkedOutput extends ChunkedOutput<String> {
+
+    final BlockingQueue<String> chunks = new LinkedBlockingQueue<>();
+    volatile boolean closed = false;
+
+    TestChunkedOutput() {
+      super(String.class);
+    }
+
+    @Override
+    public void write(final String chunk) throws IOException {
+      if (closed) {
+        throw new IOException("closed");
+      }
+      chunks.add(chunk);
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+
+    @Override
+    public boolean isClosed() {
+      return closed;
+    }
+  }
 }
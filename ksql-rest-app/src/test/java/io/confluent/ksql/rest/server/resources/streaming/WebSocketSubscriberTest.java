@@ -49,7 +49,7 @@ public class WebSocketSubscriberTest {
       new WebSocketSubscriber<>(session, mapper);
 
   private void replayOnSubscribe() {
-    subscription.request(1);
+    subscription.request(WebSocketSubscriber.PREFETCH);
     EasyMock.expectLastCall().once();
 
     EasyMock.replay(subscription);
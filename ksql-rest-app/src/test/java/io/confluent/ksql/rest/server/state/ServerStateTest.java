@@ -60,4 +60,30 @@ public class ServerStateTest {
     assertThat(response.getStatus(), equalTo(expected.getStatus()));
     assertThat(response.getEntity(), equalTo(expected.getEntity()));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldUpdateReasonWhenInitializing() {
+    // Given:
+    final KsqlErrorMessage error = new KsqlErrorMessage(12345, "started 1 of 2");
+    serverState.updateInitializingReason(error);
+
+    // When:
+    final Optional<Response> result = serverState.checkReady();
+
+    // Then:
+    assertThat(result.isPresent(), is(true));
+    assertThat(result.get().getEntity(), equalTo(Errors.serverNotReady(error).getEntity()));
+  }
+
+  @Test
+  public void shouldNotUpdateReasonOnceReady() {
+    // Given:
+    serverState.setReady();
+
+    // When:
+    serverState.updateInitializingReason(new KsqlErrorMessage(12345, "started 1 of 2"));
+
+    // Then:
+    assertThat(serverState.checkReady(), is(Optional.empty()));
+  }
+}
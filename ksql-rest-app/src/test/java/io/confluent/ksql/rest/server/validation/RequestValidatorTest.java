@@ -52,6 +52,7 @@ import io.confluent.ksql.util.KsqlStatementException;
 import io.confluent.ksql.util.Sandbox;
 import java.util.List;
 import java.util.Map;
+import org.apache.kafka.streams.StreamsConfig;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -97,6 +98,8 @@ public class RequestValidatorTest {
     serviceContext = SandboxedServiceContext.create(TestServiceContext.create());
     when(ksqlConfig.getInt(KsqlConfig.KSQL_ACTIVE_PERSISTENT_QUERY_LIMIT_CONFIG))
         .thenReturn(Integer.MAX_VALUE);
+    when(ksqlConfig.getInt(KsqlConfig.KSQL_ACTIVE_PERSISTENT_STREAM_THREAD_LIMIT_CONFIG))
+        .thenReturn(Integer.MAX_VALUE);
     when(schemaInjector.inject(any())).thenAnswer(inv -> inv.getArgument(0));
     when(topicInjector.inject(any())).thenAnswer(inv -> inv.getArgument(0));
 
@@ -202,6 +205,32 @@ public class RequestValidatorTest {
     validator.validate(serviceContext, statements, ImmutableMap.of(), "sql");
   }
 
+  @Test
+  public void shouldThrowIfTooManyPersistentStreamThreads() {
+    // Given:
+    when(ksqlConfig.getInt(KsqlConfig.KSQL_ACTIVE_PERSISTENT_STREAM_THREAD_LIMIT_CONFIG))
+        .thenReturn(3);
+
+    final List<ParsedStatement> statements =
+        givenParsed(
+            "CREATE STREAM sink AS SELECT * FROM source;"
+                + "CREATE STREAM sink2 as SELECT * FROM sink;"
+        );
+
+    // Expect:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage(
+        "stream threads used by active, persistent queries to exceed the configured limit");
+
+    // When:
+    validator.validate(
+        serviceContext,
+        statements,
+        ImmutableMap.of(StreamsConfig.NUM_STREAM_THREADS_CONFIG, 2),
+        "sql"
+    );
+  }
+
   @Test
   public void shouldNotThrowIfManyNonPersistentQueries() {
     // Given:
@@ -20,11 +20,15 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.engine.KsqlEngine;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.PersistentQueryMetadata;
+import java.util.Collections;
 import java.util.List;
+import org.apache.kafka.streams.StreamsConfig;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -108,6 +112,119 @@ public class QueryCapacityUtilTest {
         ksqlEngine, ksqlConfig, statementStr);
   }
 
+  @Test
+  public void shouldReportStreamThreadCapacityExceededIfTooManyThreadsAdded() {
+    // Given:
+    givenPersistentQueriesWithStreamThreads(2, 3);
+    givenStreamThreadLimit(6);
+
+    // Then:
+    assertThat(QueryCapacityUtil.exceedsPersistentStreamThreadCapacity(
+        ksqlEngine, ksqlConfig, 2), equalTo(true));
+  }
+
+  @Test
+  public void shouldNotReportStreamThreadCapacityExceededIfReached() {
+    // Given:
+    givenPersistentQueriesWithStreamThreads(2, 3);
+    givenStreamThreadLimit(6);
+
+    // Then:
+    assertThat(QueryCapacityUtil.exceedsPersistentStreamThreadCapacity(
+        ksqlEngine, ksqlConfig, 1), equalTo(false));
+  }
+
+  @Test
+  public void shouldDefaultToOneStreamThreadPerQuery() {
+    // Given:
+    final PersistentQueryMetadata query = mock(PersistentQueryMetadata.class);
+    when(query.getStreamsProperties()).thenReturn(Collections.emptyMap());
+    when(ksqlEngine.getPersistentQueries()).thenReturn(ImmutableList.of(query, query));
+    givenStreamThreadLimit(2);
+
+    // Then:
+    assertThat(QueryCapacityUtil.exceedsPersistentStreamThreadCapacity(
+        ksqlEngine, ksqlConfig, 1), equalTo(true));
+  }
+
+  @Test
+  public void shouldThrowStreamThreadsExceededWhenAsked() {
+    // Given:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage(
+        "Current persistent stream thread count: 5. Configured limit: 4.");
+    expectedException.expectMessage(
+        "increase the 'ksql.query.persistent.stream.threads.limit' setting");
+
+    givenPersistentQueriesWithStreamThreads(2, 3);
+    givenStreamThreadLimit(4);
+
+    // When:
+    QueryCapacityUtil.throwTooManyPersistentStreamThreadsException(
+        ksqlEngine, ksqlConfig, "my statement");
+  }
+
+  @Test
+  public void shouldReportTransientCapacityExceededIfLimitReached() {
+    // Given:
+    when(ksqlEngine.numberOfTransientQueries()).thenReturn(2);
+    givenTransientQueryLimit(2);
+
+    // Then:
+    assertThat(QueryCapacityUtil.exceedsTransientQueryCapacity(ksqlEngine, ksqlConfig),
+        equalTo(true));
+  }
+
+  @Test
+  public void shouldNotReportTransientCapacityExceededIfLimitNotReached() {
+    // Given:
+    when(ksqlEngine.numberOfTransientQueries()).thenReturn(1);
+    givenTransientQueryLimit(2);
+
+    // Then:
+    assertThat(QueryCapacityUtil.exceedsTransientQueryCapacity(ksqlEngine, ksqlConfig),
+        equalTo(false));
+  }
+
+  @Test
+  public void shouldThrowTransientQueriesExceededWhenAsked() {
+    // Given:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage(
+        "Not executing query 'my query' as it would cause the number "
+            + "of active, transient queries to exceed the configured limit. "
+            + "Close existing queries, or try again later. "
+            + "Current transient query count: 2. Configured limit: 2.");
+
+    when(ksqlEngine.numberOfTransientQueries()).thenReturn(2);
+    givenTransientQueryLimit(2);
+
+    // When:
+    QueryCapacityUtil.throwTooManyActiveTransientQueriesException(
+        ksqlEngine, ksqlConfig, "my query");
+  }
+
+  private void givenPersistentQueriesWithStreamThreads(final int... numThreads) {
+    final ImmutableList.Builder<PersistentQueryMetadata> queries = ImmutableList.builder();
+    for (final int threads : numThreads) {
+      final PersistentQueryMetadata query = mock(PersistentQueryMetadata.class);
+      when(query.getStreamsProperties()).thenReturn(
+          ImmutableMap.<String, Object>of(StreamsConfig.NUM_STREAM_THREADS_CONFIG, threads));
+      queries.add(query);
+    }
+    when(ksqlEngine.getPersistentQueries()).thenReturn(queries.build());
+  }
+
+  private void givenStreamThreadLimit(final int threadLimit) {
+    when(ksqlConfig.getInt(KsqlConfig.KSQL_ACTIVE_PERSISTENT_STREAM_THREAD_LIMIT_CONFIG))
+        .thenReturn(threadLimit);
+  }
+
+  private void givenTransientQueryLimit(final int queryLimit) {
+    when(ksqlConfig.getInt(KsqlConfig.KSQL_ACTIVE_TRANSIENT_QUERY_LIMIT_CONFIG))
+        .thenReturn(queryLimit);
+  }
+
   @SuppressWarnings("unchecked")
   private void givenActivePersistentQueries(final int numQueries) {
     final List<PersistentQueryMetadata> queries = mock(List.class);
@@ -32,6 +32,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Supplier;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.serialization.Deserializer;
@@ -110,7 +111,13 @@ public final class GenericRowSerDe implements ValueSerdeFactory {
 
     final Serde<GenericRow> genericRowSerde = schema.isUnwrapped()
           ? unwrapped(serde)
-          : wrapped(serde, schema, targetType);
+          : wrapped(
+              serde,
+              schema,
+              targetType,
+              serdeFactories.createRowSerializer(format, schema, ksqlConfig),
+              serdeFactories.createRowDeserializer(format, schema, ksqlConfig)
+          );
 
     final Serde<GenericRow> result = Serdes.serdeFrom(
         genericRowSerde.serializer(),
@@ -139,7 +146,9 @@ public final class GenericRowSerDe implements ValueSerdeFactory {
   private static <T> Serde<GenericRow> wrapped(
       final Serde<T> innerSerde,
       final PersistenceSchema schema,
-      final Class<T> type
+      final Class<T> type,
+      final Optional<Serializer<GenericRow>> rowSerializer,
+      final Optional<Deserializer<GenericRow>> rowDeserializer
   ) {
     if (type != Struct.class) {
       throw new IllegalArgumentException("Unwrapped must be of type Struct");
@@ -147,11 +156,11 @@ public final class GenericRowSerDe implements ValueSerdeFactory {
 
     @SuppressWarnings("unchecked") final Serde<Struct> structSerde = (Serde<Struct>) innerSerde;
 
-    final Serializer<GenericRow> serializer =
-        new GenericRowSerializer(structSerde.serializer(), schema);
+    final Serializer<GenericRow> serializer = rowSerializer
+        .orElseGet(() -> new GenericRowSerializer(structSerde.serializer(), schema));
 
-    final Deserializer<GenericRow> deserializer =
-        new GenericRowDeserializer(structSerde.deserializer());
+    final Deserializer<GenericRow> deserializer = rowDeserializer
+        .orElseGet(() -> new GenericRowDeserializer(structSerde.deserializer()));
 
     return Serdes.serdeFrom(serializer, deserializer);
   }
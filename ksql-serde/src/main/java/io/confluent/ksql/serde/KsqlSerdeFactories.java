@@ -17,6 +17,7 @@ package io.confluent.ksql.serde;
 
 import com.google.common.annotations.VisibleForTesting;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.serde.avro.KsqlAvroSerdeFactory;
 import io.confluent.ksql.serde.delimited.KsqlDelimitedSerdeFactory;
@@ -26,9 +27,12 @@ import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlConstants;
 import io.confluent.ksql.util.KsqlException;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
 
 final class KsqlSerdeFactories implements SerdeFactories {
 
@@ -58,6 +62,24 @@ final class KsqlSerdeFactories implements SerdeFactories {
     return ksqlSerdeFactory.createSerde(schema, ksqlConfig, schemaRegistryClientFactory, type);
   }
 
+  @Override
+  public Optional<Serializer<GenericRow>> createRowSerializer(
+      final FormatInfo format,
+      final PersistenceSchema schema,
+      final KsqlConfig ksqlConfig
+  ) {
+    return factoryMethod.apply(format).createRowSerializer(schema, ksqlConfig);
+  }
+
+  @Override
+  public Optional<Deserializer<GenericRow>> createRowDeserializer(
+      final FormatInfo format,
+      final PersistenceSchema schema,
+      final KsqlConfig ksqlConfig
+  ) {
+    return factoryMethod.apply(format).createRowDeserializer(schema, ksqlConfig);
+  }
+
   @VisibleForTesting
   static KsqlSerdeFactory create(final FormatInfo format) {
     switch (format.getFormat()) {
@@ -71,7 +93,9 @@ final class KsqlSerdeFactories implements SerdeFactories {
         return new KsqlJsonSerdeFactory();
 
       case DELIMITED:
-        return new KsqlDelimitedSerdeFactory();
+        return new KsqlDelimitedSerdeFactory(
+            format.getDelimiter().orElse(Delimiter.defaultDelimiter()),
+            format.getQuote().orElse(Quote.defaultQuote()));
 
       case KAFKA:
         return new KafkaSerdeFactory();
@@ -17,11 +17,15 @@ package io.confluent.ksql.serde;
 
 import com.google.errorprone.annotations.Immutable;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.SchemaUtil;
+import java.util.Optional;
 import java.util.function.Supplier;
+import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
 
 @Immutable
 public interface KsqlSerdeFactory {
@@ -65,4 +69,40 @@ public interface KsqlSerdeFactory {
 
     return (Serde) createSerde(schema, ksqlConfig, schemaRegistryClientFactory);
   }
+
+  /**
+   * Create a serializer that writes the columns of a row directly, rather than first copying
+   * them into a {@link org.apache.kafka.connect.data.Struct} to pass to the serde.
+   *
+   * <p>Only used for wrapped values. Formats that do not support this return nothing, and rows
+   * are serialized via the serde.
+   *
+   * @param schema the persistence schema, i.e. the physical schema of the data on-disk.
+   * @param ksqlConfig the config to use.
+   * @return the row serializer, if the format supports one.
+   */
+  default Optional<Serializer<GenericRow>> createRowSerializer(
+      PersistenceSchema schema,
+      KsqlConfig ksqlConfig
+  ) {
+    return Optional.empty();
+  }
+
+  /**
+   * Create a deserializer that reads the columns of a row directly, rather than first reading
+   * them into a {@link org.apache.kafka.connect.data.Struct}.
+   *
+   * <p>Only used for wrapped values. Formats that do not support this return nothing, and rows
+   * are deserialized via the serde.
+   *
+   * @param schema the persistence schema, i.e. the physical schema of the data on-disk.
+   * @param ksqlConfig the config to use.
+   * @return the row deserializer, if the format supports one.
+   */
+  default Optional<Deserializer<GenericRow>> createRowDeserializer(
+      PersistenceSchema schema,
+      KsqlConfig ksqlConfig
+  ) {
+    return Optional.empty();
+  }
 }
@@ -16,10 +16,14 @@
 package io.confluent.ksql.serde;
 
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.util.KsqlConfig;
+import java.util.Optional;
 import java.util.function.Supplier;
+import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
 
 interface SerdeFactories {
 
@@ -40,4 +44,34 @@ interface SerdeFactories {
       Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
       Class<T> type
   );
+
+  /**
+   * Create a serializer that writes rows directly, for formats that support it.
+   *
+   * @param format required format.
+   * @param schema persitence schema
+   * @param ksqlConfig system config.
+   * @return the row serializer, if the format supports one.
+   * @see KsqlSerdeFactory#createRowSerializer
+   */
+  Optional<Serializer<GenericRow>> createRowSerializer(
+      FormatInfo format,
+      PersistenceSchema schema,
+      KsqlConfig ksqlConfig
+  );
+
+  /**
+   * Create a deserializer that reads rows directly, for formats that support it.
+   *
+   * @param format required format.
+   * @param schema persitence schema
+   * @param ksqlConfig system config.
+   * @return the row deserializer, if the format supports one.
+   * @see KsqlSerdeFactory#createRowDeserializer
+   */
+  Optional<Deserializer<GenericRow>> createRowDeserializer(
+      FormatInfo format,
+      PersistenceSchema schema,
+      KsqlConfig ksqlConfig
+  );
 }
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.delimited;
+
+import io.confluent.ksql.serde.Delimiter;
+import io.confluent.ksql.serde.Quote;
+import io.confluent.ksql.util.DecimalUtil;
+import io.confluent.ksql.util.KsqlException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.apache.kafka.connect.data.ConnectSchema;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Schema.Type;
+
+/**
+ * Parses a single delimited record straight from its UTF-8 bytes.
+ *
+ * <p>Follows the same rules as Commons-CSV's default format: fields may be enclosed in quotes,
+ * double quotes by default, within which delimiters and line breaks are literal and a doubled
+ * quote is an escaped quote. Empty lines before the record are skipped and anything after the
+ * first line break that ends the record is ignored. Empty fields, quoted or not, are null.
+ *
+ * <p>As the delimiter, quote and line break characters are all ASCII, they can never appear
+ * within a multi-byte UTF-8 character, so the bytes can be split without decoding them. Integer
+ * and boolean fields are then parsed directly from the bytes. Only strings, doubles and decimals
+ * are decoded.
+ *
+ * <p>Instances are stateless, and so thread safe.
+ */
+final class DelimitedParser {
+
+  private static final byte CR = '\r';
+  private static final byte LF = '\n';
+
+  private final FieldParser[] fieldParsers;
+  private final byte delimiter;
+  private final byte quote;
+
+  DelimitedParser(final ConnectSchema schema, final Delimiter delimiter, final Quote quote) {
+    Objects.requireNonNull(schema, "schema");
+    this.delimiter = (byte) Objects.requireNonNull(delimiter, "delimiter").getDelimiter();
+    this.quote = (byte) Objects.requireNonNull(quote, "quote").getQuote();
+
+    if (schema.type() != Type.STRUCT) {
+      throw new IllegalArgumentException("DELIMITED expects all top level schemas to be STRUCTs");
+    }
+
+    this.fieldParsers = schema.fields().stream()
+        .map(DelimitedParser::fieldParser)
+        .toArray(FieldParser[]::new);
+  }
+
+  /**
+   * Parse the first record in {@code bytes}.
+   *
+   * @param bytes the UTF-8 encoded record.
+   * @return the field values, coerced to the types of the schema's fields.
+   */
+  List<Object> parse(final byte[] bytes) {
+    final Cursor cursor = new Cursor(bytes);
+
+    // Skip empty lines, as CSVFormat.DEFAULT does:
+    while (cursor.pos < bytes.length && isLineBreak(bytes[cursor.pos])) {
+      cursor.pos++;
+    }
+
+    if (cursor.pos == bytes.length) {
+      throw new KsqlException("No fields in record");
+    }
+
+    final List<Object> values = new ArrayList<>(fieldParsers.length);
+
+    int fieldCount = 0;
+    boolean moreFields = true;
+    while (moreFields) {
+      if (fieldCount < fieldParsers.length) {
+        values.add(parseField(cursor, fieldParsers[fieldCount]));
+      } else {
+        parseField(cursor, null);
+      }
+
+      fieldCount++;
+
+      moreFields = cursor.pos < bytes.length && bytes[cursor.pos] == delimiter;
+      if (moreFields) {
+        cursor.pos++;
+      }
+    }
+
+    if (fieldCount != fieldParsers.length) {
+      throw new KsqlException(
+          String.format(
+              "Unexpected field count, csvFields:%d schemaFields:%d",
+              fieldCount,
+              fieldParsers.length
+          )
+      );
+    }
+
+    return values;
+  }
+
+  /**
+   * Parse the field at the cursor, leaving the cursor on the delimiter or line break that ends
+   * it, or at the end of the bytes.
+   *
+   * @param parser the parser to apply to the field, or {@code null} to skip it.
+   */
+  private Object parseField(final Cursor cursor, final FieldParser parser) {
+    final byte[] bytes = cursor.bytes;
+
+    if (cursor.pos < bytes.length && bytes[cursor.pos] == quote) {
+      return parseQuotedField(cursor, parser);
+    }
+
+    final int start = cursor.pos;
+    while (cursor.pos < bytes.length
+        && bytes[cursor.pos] != delimiter
+        && !isLineBreak(bytes[cursor.pos])) {
+      cursor.pos++;
+    }
+
+    if (parser == null || cursor.pos == start) {
+      return null;
+    }
+
+    return parser.parse(bytes, start, cursor.pos);
+  }
+
+  private Object parseQuotedField(final Cursor cursor, final FieldParser parser) {
+    final byte[] bytes = cursor.bytes;
+    final int start = ++cursor.pos;
+
+    boolean escaped = false;
+    while (true) {
+      if (cursor.pos == bytes.length) {
+        throw new KsqlException("EOF reached before encapsulated token finished");
+      }
+
+      if (bytes[cursor.pos] == quote) {
+        if (cursor.pos + 1 < bytes.length && bytes[cursor.pos + 1] == quote) {
+          escaped = true;
+          cursor.pos += 2;
+          continue;
+        }
+        break;
+      }
+
+      cursor.pos++;
+    }
+
+    final int end = cursor.pos++;
+
+    // Whitespace is allowed between the closing quote and the delimiter:
+    while (cursor.pos < bytes.length && isWhitespace(bytes[cursor.pos])) {
+      cursor.pos++;
+    }
+
+    if (cursor.pos < bytes.length
+        && bytes[cursor.pos] != delimiter
+        && !isLineBreak(bytes[cursor.pos])) {
+      throw new KsqlException("Invalid char between encapsulated token and delimiter");
+    }
+
+    if (parser == null || end == start) {
+      return null;
+    }
+
+    if (!escaped) {
+      return parser.parse(bytes, start, end);
+    }
+
+    final byte[] unescaped = unescape(bytes, start, end);
+    return parser.parse(unescaped, 0, unescaped.length);
+  }
+
+  private byte[] unescape(final byte[] bytes, final int start, final int end) {
+    final byte[] result = new byte[end - start];
+    int length = 0;
+    for (int i = start; i < end; i++) {
+      result[length++] = bytes[i];
+      if (bytes[i] == quote) {
+        // Skip the second quote of the pair:
+        i++;
+      }
+    }
+
+    final byte[] trimmed = new byte[length];
+    System.arraycopy(result, 0, trimmed, 0, length);
+    return trimmed;
+  }
+
+  private boolean isWhitespace(final byte b) {
+    return b != delimiter && (b == ' ' || b == '\t' || b == '\f' || b == 0x0B);
+  }
+
+  private static boolean isLineBreak(final byte b) {
+    return b == CR || b == LF;
+  }
+
+  private static FieldParser fieldParser(final Field field) {
+    final Schema schema = field.schema();
+    if (DecimalUtil.isDecimal(schema)) {
+      return (bytes, start, end) ->
+          DecimalUtil.ensureFit(new BigDecimal(asString(bytes, start, end)), schema);
+    }
+
+    switch (schema.type()) {
+      case BOOLEAN:
+        return DelimitedParser::parseBoolean;
+      case INT32:
+        return (bytes, start, end) ->
+            (int) parseLong(bytes, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE);
+      case INT64:
+        return (bytes, start, end) ->
+            parseLong(bytes, start, end, Long.MIN_VALUE, Long.MAX_VALUE);
+      case FLOAT64:
+        return (bytes, start, end) -> Double.parseDouble(asString(bytes, start, end));
+      case STRING:
+        return DelimitedParser::asString;
+      default:
+        throw new UnsupportedOperationException(
+            "DELIMITED does not support type: " + schema.type() + ", field: " + field.name());
+    }
+  }
+
+  private static String asString(final byte[] bytes, final int start, final int end) {
+    return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Same semantics as {@link Boolean#parseBoolean}: only a case-insensitive "true" is true.
+   */
+  private static Boolean parseBoolean(final byte[] bytes, final int start, final int end) {
+    return end - start == 4
+        && (bytes[start] | 0x20) == 't'
+        && (bytes[start + 1] | 0x20) == 'r'
+        && (bytes[start + 2] | 0x20) == 'u'
+        && (bytes[start + 3] | 0x20) == 'e';
+  }
+
+  /**
+   * Same semantics as {@link Long#parseLong}, for ASCII digits, but bounded by {@code min} and
+   * {@code max}. Accumulates negatively, so that {@code min} can be parsed without overflow.
+   */
+  private static long parseLong(
+      final byte[] bytes,
+      final int start,
+      final int end,
+      final long min,
+      final long max
+  ) {
+    int i = start;
+    final boolean negative = bytes[i] == '-';
+    if (negative || bytes[i] == '+') {
+      i++;
+      if (i == end) {
+        throw numberFormatException(bytes, start, end);
+      }
+    }
+
+    final long limit = negative ? min : -max;
+    final long multiplyLimit = limit / 10;
+
+    long result = 0;
+    for (; i < end; i++) {
+      final int digit = bytes[i] - '0';
+      if (digit < 0 || digit > 9 || result < multiplyLimit) {
+        throw numberFormatException(bytes, start, end);
+      }
+
+      result *= 10;
+      if (result < limit + digit) {
+        throw numberFormatException(bytes, start, end);
+      }
+      result -= digit;
+    }
+
+    return negative ? result : -result;
+  }
+
+  private static NumberFormatException numberFormatException(
+      final byte[] bytes,
+      final int start,
+      final int end
+  ) {
+    return new NumberFormatException(
+        "For input string: \"" + asString(bytes, start, end) + "\"");
+  }
+
+  private interface FieldParser {
+
+    Object parse(byte[] bytes, int start, int end);
+  }
+
+  private static final class Cursor {
+
+    private final byte[] bytes;
+    private int pos;
+
+    Cursor(final byte[] bytes) {
+      this.bytes = bytes;
+    }
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.delimited;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import io.confluent.ksql.serde.Delimiter;
+import io.confluent.ksql.serde.Quote;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Deserializes delimited values straight into the columns of a row, without first building a
+ * {@link org.apache.kafka.connect.data.Struct}.
+ */
+public class KsqlDelimitedRowDeserializer implements Deserializer<GenericRow> {
+
+  private final DelimitedParser parser;
+
+  KsqlDelimitedRowDeserializer(
+      final PersistenceSchema schema,
+      final Delimiter delimiter,
+      final Quote quote
+  ) {
+    this.parser = new DelimitedParser(
+        Objects.requireNonNull(schema, "schema").serializedSchema(),
+        delimiter,
+        quote
+    );
+  }
+
+  @Override
+  public void configure(final Map<String, ?> map, final boolean b) {
+  }
+
+  @Override
+  public GenericRow deserialize(final String topic, final byte[] bytes) {
+    if (bytes == null) {
+      return null;
+    }
+
+    try {
+      return new GenericRow(parser.parse(bytes));
+    } catch (final Exception e) {
+      throw new SerializationException("Error deserializing delimited row", e);
+    }
+  }
+
+  @Override
+  public void close() {
+  }
+}
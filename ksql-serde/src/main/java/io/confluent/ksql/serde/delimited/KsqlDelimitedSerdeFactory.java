@@ -17,14 +17,20 @@ package io.confluent.ksql.serde.delimited;
 
 import com.google.errorprone.annotations.Immutable;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.schema.connect.SchemaWalker;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import io.confluent.ksql.serde.Delimiter;
 import io.confluent.ksql.serde.Format;
 import io.confluent.ksql.serde.KsqlSerdeFactory;
+import io.confluent.ksql.serde.Quote;
 import io.confluent.ksql.util.DecimalUtil;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Supplier;
+import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.connect.data.ConnectSchema;
@@ -35,6 +41,18 @@ import org.apache.kafka.connect.data.Schema.Type;
 @Immutable
 public class KsqlDelimitedSerdeFactory implements KsqlSerdeFactory {
 
+  private final Delimiter delimiter;
+  private final Quote quote;
+
+  public KsqlDelimitedSerdeFactory() {
+    this(Delimiter.defaultDelimiter(), Quote.defaultQuote());
+  }
+
+  public KsqlDelimitedSerdeFactory(final Delimiter delimiter, final Quote quote) {
+    this.delimiter = Objects.requireNonNull(delimiter, "delimiter");
+    this.quote = Objects.requireNonNull(quote, "quote");
+  }
+
   @Override
   public void validate(final PersistenceSchema schema) {
     final ConnectSchema connectSchema = schema.serializedSchema();
@@ -54,11 +72,21 @@ public class KsqlDelimitedSerdeFactory implements KsqlSerdeFactory {
     validate(schema);
 
     return Serdes.serdeFrom(
-        new KsqlDelimitedSerializer(),
-        new KsqlDelimitedDeserializer(schema)
+        new KsqlDelimitedSerializer(delimiter, quote),
+        new KsqlDelimitedDeserializer(schema, delimiter, quote)
     );
   }
 
+  @Override
+  public Optional<Deserializer<GenericRow>> createRowDeserializer(
+      final PersistenceSchema schema,
+      final KsqlConfig ksqlConfig
+  ) {
+    validate(schema);
+
+    return Optional.of(new KsqlDelimitedRowDeserializer(schema, delimiter, quote));
+  }
+
   private static class SchemaValidator implements SchemaWalker.Visitor<Void, Void> {
 
     public Void visitPrimitive(final Schema schema) {
@@ -15,6 +15,8 @@
 
 package io.confluent.ksql.serde.delimited;
 
+import io.confluent.ksql.serde.Delimiter;
+import io.confluent.ksql.serde.Quote;
 import io.confluent.ksql.util.DecimalUtil;
 import io.confluent.ksql.util.KsqlException;
 import java.io.StringWriter;
@@ -34,6 +36,18 @@ import org.apache.kafka.connect.data.Struct;
 
 public class KsqlDelimitedSerializer implements Serializer<Object> {
 
+  private final CSVFormat csvFormat;
+
+  public KsqlDelimitedSerializer() {
+    this(Delimiter.defaultDelimiter(), Quote.defaultQuote());
+  }
+
+  public KsqlDelimitedSerializer(final Delimiter delimiter, final Quote quote) {
+    this.csvFormat = CSVFormat.DEFAULT
+        .withDelimiter(Objects.requireNonNull(delimiter, "delimiter").getDelimiter())
+        .withQuote(Objects.requireNonNull(quote, "quote").getQuote());
+  }
+
   @Override
   public void configure(final Map<String, ?> map, final boolean b) {
   }
@@ -50,7 +64,7 @@ public class KsqlDelimitedSerializer implements Serializer<Object> {
       }
 
       final StringWriter stringWriter = new StringWriter();
-      final CSVPrinter csvPrinter = new CSVPrinter(stringWriter, CSVFormat.DEFAULT);
+      final CSVPrinter csvPrinter = new CSVPrinter(stringWriter, csvFormat);
       csvPrinter.printRecord(() -> new FieldIterator((Struct)data));
       final String result = stringWriter.toString();
       return result.substring(0, result.length() - 2).getBytes(StandardCharsets.UTF_8);
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import io.confluent.ksql.util.DecimalUtil;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.connect.data.ConnectSchema;
+import org.apache.kafka.connect.data.Decimal;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.errors.DataException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serializes the columns of a row straight to JSON.
+ *
+ * <p>Produces the same output as {@link KsqlJsonSerializer}, but without first copying the row
+ * into a {@link Struct} and converting that into a tree of JSON nodes. Instead, the schema is
+ * compiled into a tree of writers on construction, with field names pre-encoded, and rows are
+ * written by a {@link JsonGenerator} into a buffer reused by each thread.
+ *
+ * <p>Values are validated as strictly as {@link Struct#put} would validate them.
+ */
+public class KsqlJsonRowSerializer implements Serializer<GenericRow> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(KsqlJsonRowSerializer.class);
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private static final ThreadLocal<ByteArrayBuilder> BUFFER =
+      ThreadLocal.withInitial(ByteArrayBuilder::new);
+
+  private final StructWriter rowWriter;
+
+  public KsqlJsonRowSerializer(final PersistenceSchema physicalSchema) {
+    final ConnectSchema schema = JsonSerdeUtils.validateSchema(physicalSchema).ksqlSchema();
+    this.rowWriter = new StructWriter(schema);
+  }
+
+  @Override
+  public byte[] serialize(final String topic, final GenericRow data) {
+    if (LOG.isTraceEnabled()) {
+      LOG.trace("Serializing row. topic:{}, row:{}", topic, data);
+    }
+
+    if (data == null) {
+      return null;
+    }
+
+    final List<Object> columns = data.getColumns();
+    if (columns.size() != rowWriter.fieldNames.length) {
+      throw new SerializationException("Field count mismatch."
+          + " expected: " + rowWriter.fieldNames.length
+          + ", got: " + columns.size()
+      );
+    }
+
+    final ByteArrayBuilder buffer = BUFFER.get();
+    try {
+      try (JsonGenerator generator = JSON_FACTORY.createGenerator(buffer)) {
+        rowWriter.writeFields(generator, columns::get);
+      }
+      return buffer.toByteArray();
+    } catch (final Exception e) {
+      throw new SerializationException("Error serializing JSON message for topic: " + topic, e);
+    } finally {
+      buffer.reset();
+    }
+  }
+
+  @Override
+  public void close() {
+  }
+
+  private static ValueWriter writerFor(final Schema schema) {
+    final ValueWriter writer = nonNullWriterFor(schema);
+
+    return (generator, value) -> {
+      if (value != null) {
+        writer.write(generator, value);
+        return;
+      }
+
+      if (!schema.isOptional()) {
+        throw new DataException("Invalid value: null used for required field, "
+            + "schema type: " + schema.type());
+      }
+
+      generator.writeNull();
+    };
+  }
+
+  private static ValueWriter nonNullWriterFor(final Schema schema) {
+    if (DecimalUtil.isDecimal(schema)) {
+      // JsonConverter writes decimals as the base64 encoded unscaled value:
+      return (generator, value) -> generator.writeBinary(
+          Decimal.fromLogical(schema, checkType(BigDecimal.class, schema, value)));
+    }
+
+    switch (schema.type()) {
+      case BOOLEAN:
+        return (generator, value) ->
+            generator.writeBoolean(checkType(Boolean.class, schema, value));
+      case INT8:
+        return (generator, value) ->
+            generator.writeNumber(checkType(Byte.class, schema, value));
+      case INT16:
+        return (generator, value) ->
+            generator.writeNumber(checkType(Short.class, schema, value));
+      case INT32:
+        return (generator, value) ->
+            generator.writeNumber(checkType(Integer.class, schema, value));
+      case INT64:
+        return (generator, value) ->
+            generator.writeNumber(checkType(Long.class, schema, value));
+      case FLOAT32:
+        return (generator, value) ->
+            generator.writeNumber(checkType(Float.class, schema, value));
+      case FLOAT64:
+        return (generator, value) ->
+            generator.writeNumber(checkType(Double.class, schema, value));
+      case STRING:
+        return (generator, value) ->
+            generator.writeString(checkType(String.class, schema, value));
+      case BYTES:
+        return (generator, value) -> {
+          if (value instanceof ByteBuffer) {
+            final ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+            final byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            generator.writeBinary(bytes);
+          } else {
+            generator.writeBinary(checkType(byte[].class, schema, value));
+          }
+        };
+      case ARRAY:
+        return arrayWriter(schema);
+      case MAP:
+        return mapWriter(schema);
+      case STRUCT:
+        return new StructWriter(schema);
+      default:
+        throw new IllegalArgumentException("Unsupported schema type: " + schema.type());
+    }
+  }
+
+  private static ValueWriter arrayWriter(final Schema schema) {
+    final ValueWriter elementWriter = writerFor(schema.valueSchema());
+
+    return (generator, value) -> {
+      final List<?> list = checkType(List.class, schema, value);
+      generator.writeStartArray(list.size());
+      for (final Object element : list) {
+        elementWriter.write(generator, element);
+      }
+      generator.writeEndArray();
+    };
+  }
+
+  private static ValueWriter mapWriter(final Schema schema) {
+    // Map keys are validated to be strings by JsonSerdeUtils.validateSchema:
+    final ValueWriter valueWriter = writerFor(schema.valueSchema());
+
+    return (generator, value) -> {
+      final Map<?, ?> map = checkType(Map.class, schema, value);
+      generator.writeStartObject();
+      for (final Map.Entry<?, ?> entry : map.entrySet()) {
+        generator.writeFieldName(checkType(String.class, schema.keySchema(), entry.getKey()));
+        valueWriter.write(generator, entry.getValue());
+      }
+      generator.writeEndObject();
+    };
+  }
+
+  private static <T> T checkType(final Class<T> type, final Schema schema, final Object value) {
+    if (!type.isInstance(value)) {
+      throw new DataException("Invalid type for " + schema.type() + ": " + value.getClass());
+    }
+    return type.cast(value);
+  }
+
+  private interface ValueWriter {
+
+    void write(JsonGenerator generator, Object value) throws IOException;
+  }
+
+  private interface FieldValues {
+
+    Object get(int index);
+  }
+
+  private static final class StructWriter implements ValueWriter {
+
+    private final Schema schema;
+    private final Field[] fields;
+    private final SerializedString[] fieldNames;
+    private final ValueWriter[] fieldWriters;
+
+    StructWriter(final Schema schema) {
+      this.schema = schema;
+      this.fields = schema.fields().toArray(new Field[0]);
+      this.fieldNames = new SerializedString[fields.length];
+      this.fieldWriters = new ValueWriter[fields.length];
+
+      for (int i = 0; i < fields.length; i++) {
+        fieldNames[i] = new SerializedString(fields[i].name());
+        fieldWriters[i] = writerFor(fields[i].schema());
+      }
+    }
+
+    @Override
+    public void write(final JsonGenerator generator, final Object value) throws IOException {
+      final Struct struct = checkType(Struct.class, schema, value);
+      if (struct.schema() != schema && !struct.schema().equals(schema)) {
+        throw new DataException("Struct schemas do not match.");
+      }
+
+      writeFields(generator, index -> struct.get(fields[index]));
+    }
+
+    void writeFields(
+        final JsonGenerator generator,
+        final FieldValues values
+    ) throws IOException {
+      generator.writeStartObject();
+      for (int i = 0; i < fields.length; i++) {
+        generator.writeFieldName(fieldNames[i]);
+        fieldWriters[i].write(generator, values.get(i));
+      }
+      generator.writeEndObject();
+    }
+  }
+}
@@ -17,12 +17,15 @@ package io.confluent.ksql.serde.json;
 
 import com.google.errorprone.annotations.Immutable;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.serde.KsqlSerdeFactory;
 import io.confluent.ksql.util.KsqlConfig;
+import java.util.Optional;
 import java.util.function.Supplier;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.Serializer;
 
 @Immutable
 public class KsqlJsonSerdeFactory implements KsqlSerdeFactory {
@@ -43,4 +46,12 @@ public class KsqlJsonSerdeFactory implements KsqlSerdeFactory {
         new KsqlJsonDeserializer(schema)
     );
   }
+
+  @Override
+  public Optional<Serializer<GenericRow>> createRowSerializer(
+      final PersistenceSchema schema,
+      final KsqlConfig ksqlConfig
+  ) {
+    return Optional.of(new KsqlJsonRowSerializer(schema));
+  }
 }
@@ -101,6 +101,10 @@ public class GenericRowSerDeTest {
   private Deserializer<Object> delegateDeserializer;
   @Mock
   private SerdeFactories serdesFactories;
+  @Mock
+  private Serializer<GenericRow> rowSerializer;
+  @Mock
+  private Deserializer<GenericRow> rowDeserializer;
 
   private ValueSerdeFactory valueSerde;
 
@@ -282,6 +286,45 @@ public class GenericRowSerDeTest {
     assertThat(bytes, is(SOME_BYTES));
   }
 
+  @Test
+  public void shouldSerializeWithRowSerializerIfFormatSupportsIt() {
+    // Given:
+    when(serdesFactories.createRowSerializer(any(), any(), any()))
+        .thenReturn(Optional.of(rowSerializer));
+    when(rowSerializer.serialize(any(), any())).thenReturn(SOME_BYTES);
+
+    final Serializer<GenericRow> serializer = givenSerdeForSchema(MUTLI_FIELD_SCHEMA)
+        .serializer();
+
+    final GenericRow row = new GenericRow("str", 10);
+
+    // When:
+    final byte[] bytes = serializer.serialize(SOME_TOPIC, row);
+
+    // Then:
+    verify(rowSerializer).serialize(SOME_TOPIC, row);
+    assertThat(bytes, is(SOME_BYTES));
+  }
+
+  @Test
+  public void shouldDeserializeWithRowDeserializerIfFormatSupportsIt() {
+    // Given:
+    final GenericRow row = new GenericRow("str", 10);
+    when(serdesFactories.createRowDeserializer(any(), any(), any()))
+        .thenReturn(Optional.of(rowDeserializer));
+    when(rowDeserializer.deserialize(any(), any())).thenReturn(row);
+
+    final Deserializer<GenericRow> deserializer = givenSerdeForSchema(MUTLI_FIELD_SCHEMA)
+        .deserializer();
+
+    // When:
+    final GenericRow result = deserializer.deserialize(SOME_TOPIC, SOME_BYTES);
+
+    // Then:
+    verify(rowDeserializer).deserialize(SOME_TOPIC, SOME_BYTES);
+    assertThat(result, is(row));
+  }
+
   @Test
   public void shouldSerializeNullMultiFieldGenericRow() {
     // Given:
@@ -16,12 +16,15 @@
 package io.confluent.ksql.serde.delimited;
 
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
 
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import io.confluent.ksql.serde.Delimiter;
+import io.confluent.ksql.serde.Quote;
 import io.confluent.ksql.util.DecimalUtil;
 import io.confluent.ksql.util.KsqlException;
 import java.math.BigDecimal;
@@ -224,6 +227,222 @@ public class KsqlDelimitedDeserializerTest {
     deserializer.deserialize("", bytes);
   }
 
+  @Test
+  public void shouldDeserializeQuotedFields() {
+    // Given:
+    final byte[] bytes = "1511897796092,\"1\",\"item, \"\"one\"\"\"  ,10.0,10.10"
+        .getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final Struct struct = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(struct.get("ORDERID"), is(1L));
+    assertThat(struct.get("ITEMID"), is("item, \"one\""));
+    assertThat(struct.get("ORDERUNITS"), is(10.0));
+  }
+
+  @Test
+  public void shouldDeserializeMultiByteCharacters() {
+    // Given:
+    final byte[] bytes = "1511897796092,1,\u00e9l\u00e8ve \u2603,10.0,10.10"
+        .getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final Struct struct = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(struct.get("ITEMID"), is("\u00e9l\u00e8ve \u2603"));
+  }
+
+  @Test
+  public void shouldIgnoreLeadingEmptyLinesAndTrailingRecords() {
+    // Given:
+    final byte[] bytes = "\r\n\n1511897796092,1,item_1,10.0,10.10\r\n2,2,item_2,20.0,20.20"
+        .getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final Struct struct = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(struct.get("ORDERTIME"), is(1511897796092L));
+    assertThat(struct.get("ITEMID"), is("item_1"));
+  }
+
+  @Test
+  public void shouldDeserializeWithCustomDelimiter() {
+    // Given:
+    final KsqlDelimitedDeserializer deserializer =
+        new KsqlDelimitedDeserializer(ORDER_SCHEMA, Delimiter.of('|'), Quote.defaultQuote());
+
+    final byte[] bytes = "1511897796092|1|item,1|10.0|10.10".getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final Struct struct = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(struct.get("ORDERTIME"), is(1511897796092L));
+    assertThat(struct.get("ORDERID"), is(1L));
+    assertThat(struct.get("ITEMID"), is("item,1"));
+    assertThat(struct.get("ORDERUNITS"), is(10.0));
+    assertThat(struct.get("COST"), is(new BigDecimal("10.10")));
+  }
+
+  @Test
+  public void shouldDeserializeWithTabDelimiter() {
+    // Given:
+    final KsqlDelimitedDeserializer deserializer =
+        new KsqlDelimitedDeserializer(ORDER_SCHEMA, Delimiter.parse("TAB"), Quote.defaultQuote());
+
+    final byte[] bytes = "1511897796092\t1\titem 1\t\t10.10".getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final Struct struct = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(struct.get("ITEMID"), is("item 1"));
+    assertThat(struct.get("ORDERUNITS"), is(nullValue()));
+  }
+
+  @Test
+  public void shouldDeserializeWithCustomQuote() {
+    // Given:
+    final KsqlDelimitedDeserializer deserializer = new KsqlDelimitedDeserializer(
+        ORDER_SCHEMA, Delimiter.defaultDelimiter(), Quote.of('\''));
+
+    final byte[] bytes = "1511897796092,1,'it''em,\"1\"',10.0,10.10"
+        .getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final Struct struct = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(struct.get("ITEMID"), is("it'em,\"1\""));
+    assertThat(struct.get("ORDERUNITS"), is(10.0));
+  }
+
+  @Test
+  public void shouldDeserializeIntegerBounds() {
+    // Given:
+    final PersistenceSchema schema = persistenceSchema(
+        SchemaBuilder.struct()
+            .field("min", Schema.OPTIONAL_INT32_SCHEMA)
+            .field("max", Schema.OPTIONAL_INT32_SCHEMA)
+            .field("minLong", Schema.OPTIONAL_INT64_SCHEMA)
+            .field("maxLong", Schema.OPTIONAL_INT64_SCHEMA)
+            .build()
+    );
+    final KsqlDelimitedDeserializer deserializer = new KsqlDelimitedDeserializer(schema);
+
+    final byte[] bytes = (Integer.MIN_VALUE + ",+" + Integer.MAX_VALUE + ","
+        + Long.MIN_VALUE + "," + Long.MAX_VALUE).getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final Struct result = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(result.get("min"), is(Integer.MIN_VALUE));
+    assertThat(result.get("max"), is(Integer.MAX_VALUE));
+    assertThat(result.get("minLong"), is(Long.MIN_VALUE));
+    assertThat(result.get("maxLong"), is(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void shouldThrowOnIntegerOverflow() {
+    // Given:
+    final PersistenceSchema schema = persistenceSchema(
+        SchemaBuilder.struct()
+            .field("id", Schema.OPTIONAL_INT32_SCHEMA)
+            .build()
+    );
+    final KsqlDelimitedDeserializer deserializer = new KsqlDelimitedDeserializer(schema);
+
+    final byte[] bytes = "2147483648".getBytes(StandardCharsets.UTF_8);
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectCause(instanceOf(NumberFormatException.class));
+    expectedException.expectCause(hasMessage(is("For input string: \"2147483648\"")));
+
+    // When:
+    deserializer.deserialize("", bytes);
+  }
+
+  @Test
+  public void shouldThrowOnInvalidInteger() {
+    // Given:
+    final byte[] bytes = "1511897796092,1x,item_1,10.0,10.10".getBytes(StandardCharsets.UTF_8);
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectCause(hasMessage(is("For input string: \"1x\"")));
+
+    // When:
+    deserializer.deserialize("", bytes);
+  }
+
+  @Test
+  public void shouldDeserializeBoolean() {
+    // Given:
+    final PersistenceSchema schema = persistenceSchema(
+        SchemaBuilder.struct()
+            .field("a", Schema.OPTIONAL_BOOLEAN_SCHEMA)
+            .field("b", Schema.OPTIONAL_BOOLEAN_SCHEMA)
+            .field("c", Schema.OPTIONAL_BOOLEAN_SCHEMA)
+            .build()
+    );
+    final KsqlDelimitedDeserializer deserializer = new KsqlDelimitedDeserializer(schema);
+
+    final byte[] bytes = "TrUe,false,yes".getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final Struct result = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(result.get("a"), is(true));
+    assertThat(result.get("b"), is(false));
+    assertThat(result.get("c"), is(false));
+  }
+
+  @Test
+  public void shouldThrowOnCharsAfterClosingQuote() {
+    // Given:
+    final byte[] bytes = "1511897796092,1,\"item\"_1,10.0,10.10".getBytes(StandardCharsets.UTF_8);
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectCause(hasMessage(containsString("Invalid char")));
+
+    // When:
+    deserializer.deserialize("", bytes);
+  }
+
+  @Test
+  public void shouldThrowOnUnterminatedQuote() {
+    // Given:
+    final byte[] bytes = "1511897796092,1,\"item_1,10.0,10.10".getBytes(StandardCharsets.UTF_8);
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectCause(hasMessage(containsString("EOF reached")));
+
+    // When:
+    deserializer.deserialize("", bytes);
+  }
+
+  @Test
+  public void shouldThrowOnEmptyRecord() {
+    // Given:
+    final byte[] bytes = "\r\n".getBytes(StandardCharsets.UTF_8);
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectCause(hasMessage(is("No fields in record")));
+
+    // When:
+    deserializer.deserialize("", bytes);
+  }
+
   @Test
   public void shouldThrowOnArrayTypes() {
     // Given:
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.delimited;
+
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import io.confluent.ksql.serde.Delimiter;
+import io.confluent.ksql.serde.Quote;
+import io.confluent.ksql.util.DecimalUtil;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.connect.data.ConnectSchema;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class KsqlDelimitedRowDeserializerTest {
+
+  private static final PersistenceSchema ORDER_SCHEMA = PersistenceSchema.from(
+      (ConnectSchema) SchemaBuilder.struct()
+          .field("ORDERTIME", Schema.OPTIONAL_INT64_SCHEMA)
+          .field("ORDERID", Schema.OPTIONAL_INT32_SCHEMA)
+          .field("ITEMID", Schema.OPTIONAL_STRING_SCHEMA)
+          .field("ORDERUNITS", Schema.OPTIONAL_FLOAT64_SCHEMA)
+          .field("AVAILABLE", Schema.OPTIONAL_BOOLEAN_SCHEMA)
+          .field("COST", DecimalUtil.builder(4, 2).build())
+          .build(),
+      false
+  );
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  private KsqlDelimitedRowDeserializer deserializer;
+
+  @Before
+  public void before() {
+    deserializer = new KsqlDelimitedRowDeserializer(
+        ORDER_SCHEMA, Delimiter.defaultDelimiter(), Quote.defaultQuote());
+  }
+
+  @Test
+  public void shouldDeserializeNull() {
+    // When:
+    final GenericRow row = deserializer.deserialize("", null);
+
+    // Then:
+    assertThat(row, is(nullValue()));
+  }
+
+  @Test
+  public void shouldDeserializeRow() {
+    // Given:
+    final byte[] bytes = "1511897796092,1,\"item,1\",10.0,true,10.10\r\n"
+        .getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final GenericRow row = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(row.getColumns(), contains(
+        1511897796092L, 1, "item,1", 10.0, true, new BigDecimal("10.10")));
+  }
+
+  @Test
+  public void shouldDeserializeEmptyFieldsAsNull() {
+    // Given:
+    final byte[] bytes = ",,\"\",,,".getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final GenericRow row = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(row.getColumns(), contains(null, null, null, null, null, null));
+  }
+
+  @Test
+  public void shouldDeserializeSameAsStructDeserializer() {
+    // Given:
+    final Delimiter delimiter = Delimiter.parse("SPACE");
+    final KsqlDelimitedRowDeserializer deserializer =
+        new KsqlDelimitedRowDeserializer(ORDER_SCHEMA, delimiter, Quote.defaultQuote());
+    final KsqlDelimitedDeserializer structDeserializer =
+        new KsqlDelimitedDeserializer(ORDER_SCHEMA, delimiter, Quote.defaultQuote());
+
+    final byte[] bytes = "-10 -2147483648 \"a \"\"b\"\"\" -1.5E3 FALSE -1.10"
+        .getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final GenericRow row = deserializer.deserialize("", bytes);
+
+    // Then:
+    final Struct struct = structDeserializer.deserialize("", bytes);
+    final ArrayList<Object> expected = new ArrayList<>();
+    for (final Field field : struct.schema().fields()) {
+      expected.add(struct.get(field));
+    }
+    assertThat(row.getColumns(), is(expected));
+  }
+
+  @Test
+  public void shouldThrowOnFieldCountMismatch() {
+    // Given:
+    final byte[] bytes = "1511897796092,1".getBytes(StandardCharsets.UTF_8);
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException
+        .expectCause(hasMessage(is("Unexpected field count, csvFields:2 schemaFields:6")));
+
+    // When:
+    deserializer.deserialize("", bytes);
+  }
+}
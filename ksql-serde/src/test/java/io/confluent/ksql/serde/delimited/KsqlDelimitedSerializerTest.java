@@ -20,6 +20,8 @@ import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
 
+import io.confluent.ksql.serde.Delimiter;
+import io.confluent.ksql.serde.Quote;
 import io.confluent.ksql.util.DecimalUtil;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
@@ -80,6 +82,46 @@ public class KsqlDelimitedSerializerTest {
     assertThat(delimitedString, equalTo("1511897796092,1,item_1,10.0"));
   }
 
+  @Test
+  public void shouldSerializeRowWithCustomDelimiter() {
+    // Given:
+    final Serializer<Object> serializer =
+        new KsqlDelimitedSerializer(Delimiter.of('|'), Quote.defaultQuote());
+
+    final Struct data = new Struct(SCHEMA)
+        .put("ORDERTIME", 1511897796092L)
+        .put("ORDERID", 1L)
+        .put("ITEMID", "item|1")
+        .put("ORDERUNITS", 10.0);
+
+    // When:
+    final byte[] bytes = serializer.serialize("t1", data);
+
+    // Then:
+    final String delimitedString = new String(bytes, StandardCharsets.UTF_8);
+    assertThat(delimitedString, equalTo("1511897796092|1|\"item|1\"|10.0"));
+  }
+
+  @Test
+  public void shouldSerializeRowWithCustomQuote() {
+    // Given:
+    final Serializer<Object> serializer =
+        new KsqlDelimitedSerializer(Delimiter.defaultDelimiter(), Quote.of('\''));
+
+    final Struct data = new Struct(SCHEMA)
+        .put("ORDERTIME", 1511897796092L)
+        .put("ORDERID", 1L)
+        .put("ITEMID", "it'em,1")
+        .put("ORDERUNITS", 10.0);
+
+    // When:
+    final byte[] bytes = serializer.serialize("t1", data);
+
+    // Then:
+    final String delimitedString = new String(bytes, StandardCharsets.UTF_8);
+    assertThat(delimitedString, equalTo("1511897796092,1,'it''em,1',10.0"));
+  }
+
   @Test
   public void shouldSerializeRowWithNull() {
     // Given:
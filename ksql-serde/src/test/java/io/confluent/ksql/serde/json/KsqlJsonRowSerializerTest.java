@@ -0,0 +1,242 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.json;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.connect.data.ConnectSchema;
+import org.apache.kafka.connect.data.Decimal;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class KsqlJsonRowSerializerTest {
+
+  private static final String SOME_TOPIC = "bob";
+
+  private static final Schema ADDRESS_SCHEMA = SchemaBuilder.struct()
+      .field("NUMBER", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("STREET", Schema.OPTIONAL_STRING_SCHEMA)
+      .optional()
+      .build();
+
+  private static final ConnectSchema ROW_SCHEMA = (ConnectSchema) SchemaBuilder.struct()
+      .field("ORDERTIME", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("ORDERID", Schema.OPTIONAL_INT32_SCHEMA)
+      .field("ITEMID", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("ORDERUNITS", Schema.OPTIONAL_FLOAT64_SCHEMA)
+      .field("AVAILABLE", Schema.OPTIONAL_BOOLEAN_SCHEMA)
+      .field("ARRAYCOL", SchemaBuilder
+          .array(Schema.OPTIONAL_FLOAT64_SCHEMA)
+          .optional()
+          .build())
+      .field("MAPCOL", SchemaBuilder
+          .map(Schema.OPTIONAL_STRING_SCHEMA, Schema.OPTIONAL_FLOAT64_SCHEMA)
+          .optional()
+          .build())
+      .field("ADDRESS", ADDRESS_SCHEMA)
+      .field("DECIMALCOL", Decimal.builder(5).optional().build())
+      .build();
+
+  private static final PersistenceSchema PERSISTENCE_SCHEMA =
+      PersistenceSchema.from(ROW_SCHEMA, false);
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  private KsqlJsonRowSerializer serializer;
+  private KsqlJsonSerializer structSerializer;
+
+  @Before
+  public void before() {
+    serializer = new KsqlJsonRowSerializer(PERSISTENCE_SCHEMA);
+    structSerializer = new KsqlJsonSerializer(PERSISTENCE_SCHEMA);
+  }
+
+  @Test
+  public void shouldSerializeNullValue() {
+    // When:
+    final byte[] bytes = serializer.serialize(SOME_TOPIC, null);
+
+    // Then:
+    assertThat(bytes, is(nullValue()));
+  }
+
+  @Test
+  public void shouldSerializeRowCorrectly() {
+    // Given:
+    final GenericRow row = buildRow();
+
+    // When:
+    final byte[] bytes = serializer.serialize(SOME_TOPIC, row);
+
+    // Then:
+    assertThat(asJsonString(bytes), is(
+        "{"
+            + "\"ORDERTIME\":1511897796092,"
+            + "\"ORDERID\":1,"
+            + "\"ITEMID\":\"item_1\","
+            + "\"ORDERUNITS\":10.0,"
+            + "\"AVAILABLE\":true,"
+            + "\"ARRAYCOL\":[100.0],"
+            + "\"MAPCOL\":{\"key1\":100.0},"
+            + "\"ADDRESS\":{\"NUMBER\":101,\"STREET\":\"University Ave.\"},"
+            + "\"DECIMALCOL\":\"AbbZ\""
+            + "}"));
+  }
+
+  @Test
+  public void shouldSerializeSameAsStructSerializer() {
+    // Given:
+    final GenericRow row = buildRow();
+
+    // When:
+    final byte[] bytes = serializer.serialize(SOME_TOPIC, row);
+
+    // Then:
+    assertThat(bytes, is(structSerializer.serialize(SOME_TOPIC, toStruct(row))));
+  }
+
+  @Test
+  public void shouldSerializeNullFieldsSameAsStructSerializer() {
+    // Given:
+    final GenericRow row = new GenericRow(
+        Arrays.asList(null, null, null, null, null, null, null, null, null));
+
+    // When:
+    final byte[] bytes = serializer.serialize(SOME_TOPIC, row);
+
+    // Then:
+    assertThat(bytes, is(structSerializer.serialize(SOME_TOPIC, toStruct(row))));
+  }
+
+  @Test
+  public void shouldReuseBufferBetweenRows() {
+    // Given:
+    final GenericRow row = buildRow();
+    final byte[] first = serializer.serialize(SOME_TOPIC, row);
+
+    // When:
+    final byte[] second = serializer.serialize(SOME_TOPIC, row);
+
+    // Then:
+    assertThat(second, is(first));
+  }
+
+  @Test
+  public void shouldThrowOnFieldCountMismatch() {
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectMessage("Field count mismatch. expected: 9, got: 1");
+
+    // When:
+    serializer.serialize(SOME_TOPIC, new GenericRow(10L));
+  }
+
+  @Test
+  public void shouldThrowOnInvalidType() {
+    // Given:
+    final GenericRow row = buildRow();
+    row.getColumns().set(1, 10L);
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectCause(hasMessage(containsString(
+        "Invalid type for INT32: class java.lang.Long")));
+
+    // When:
+    serializer.serialize(SOME_TOPIC, row);
+  }
+
+  @Test
+  public void shouldThrowOnMismatchedStructSchema() {
+    // Given:
+    final GenericRow row = buildRow();
+    row.getColumns().set(7, new Struct(SchemaBuilder.struct()
+        .field("OTHER", Schema.OPTIONAL_INT64_SCHEMA)
+        .optional()
+        .build()));
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectCause(hasMessage(containsString("Struct schemas do not match")));
+
+    // When:
+    serializer.serialize(SOME_TOPIC, row);
+  }
+
+  @Test
+  public void shouldStillSerializeAfterFailedRow() {
+    // Given:
+    final GenericRow bad = buildRow();
+    bad.getColumns().set(1, "not an int");
+    try {
+      serializer.serialize(SOME_TOPIC, bad);
+    } catch (final SerializationException e) {
+      // expected
+    }
+
+    // When:
+    final byte[] bytes = serializer.serialize(SOME_TOPIC, buildRow());
+
+    // Then:
+    assertThat(bytes, is(structSerializer.serialize(SOME_TOPIC, toStruct(buildRow()))));
+  }
+
+  private static GenericRow buildRow() {
+    return new GenericRow(Arrays.asList(
+        1511897796092L,
+        1,
+        "item_1",
+        10.0,
+        true,
+        ImmutableList.of(100.0),
+        ImmutableMap.of("key1", 100.0),
+        new Struct(ADDRESS_SCHEMA)
+            .put("NUMBER", 101L)
+            .put("STREET", "University Ave."),
+        new BigDecimal("1.12345")
+    ));
+  }
+
+  private static Struct toStruct(final GenericRow row) {
+    final Struct struct = new Struct(ROW_SCHEMA);
+    for (int i = 0; i < row.getColumns().size(); i++) {
+      struct.put(ROW_SCHEMA.fields().get(i), row.getColumns().get(i));
+    }
+    return struct;
+  }
+
+  private static String asJsonString(final byte[] bytes) {
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}